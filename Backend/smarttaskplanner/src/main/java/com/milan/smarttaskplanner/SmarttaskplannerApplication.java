@@ -3,6 +3,7 @@ package com.milan.smarttaskplanner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
@@ -11,6 +12,7 @@ import java.util.Arrays;
 import java.util.TimeZone;
 
 @SpringBootApplication
+@EnableScheduling
 public class SmarttaskplannerApplication {
 
     public static void main(String[] args) {
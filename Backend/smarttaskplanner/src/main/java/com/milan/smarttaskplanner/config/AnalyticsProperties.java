@@ -0,0 +1,19 @@
+package com.milan.smarttaskplanner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "analytics")
+@Data
+public class AnalyticsProperties {
+
+    // Rebuilds the rollups of recent weeks from the goal tables and refreshes overdue counts
+    private boolean reconcileEnabled = true;
+    private Long reconcileIntervalMs = 3_600_000L;
+
+    // Weeks covered by the analytics endpoints when the request does not say
+    private Integer defaultWeeks = 12;
+    private Integer maxWeeks = 260;
+}
@@ -0,0 +1,29 @@
+package com.milan.smarttaskplanner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "archive")
+@Data
+public class ArchiveProperties {
+
+    // Whether this node runs the archiver; archived goals are readable either way
+    private boolean enabled = true;
+
+    // COMPLETED and CANCELLED goals untouched for this many days move to the archive
+    private Integer retentionDays = 90;
+
+    // Goals moved per transaction
+    private Integer batchSize = 100;
+
+    // Cluster-wide cap on archive batches, so a large backlog drains without hogging the database
+    private Long batchesPerMinute = 30L;
+
+    private Long intervalMs = 600_000L;
+
+    // Hot-table size sampling; the last sizeHistory samples are kept for /api/archive/stats
+    private Long sizeSampleIntervalMs = 300_000L;
+    private Integer sizeHistory = 288;
+}
@@ -0,0 +1,39 @@
+package com.milan.smarttaskplanner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "calibration")
+@Data
+public class CalibrationProperties {
+
+    // Learn from completed tasks and adjust the durations of new plans
+    private boolean enabled = true;
+
+    // Each feature keeps a running mean of log(actual / estimated) until it has 1/alpha samples,
+    // then an exponential average with this weight, so it follows changes in how a team works
+    private Double alpha = 0.05;
+
+    // Features are trusted in proportion to their samples, up to maxFeatureWeight; priorWeight pulls
+    // sparse estimates towards "no correction"
+    private Double priorWeight = 5.0;
+    private Double maxFeatureWeight = 20.0;
+
+    // Bounds of the applied correction factor
+    private Double minFactor = 0.25;
+    private Double maxFactor = 4.0;
+
+    // Title keywords used as features per task
+    private Integer maxKeywords = 3;
+
+    // An IN_PROGRESS interval counts at most this many hours per calendar day it spans
+    private Double workHoursPerDay = 8.0;
+
+    // Completions faster than this are status clicks, not measurements
+    private Double minActualHours = 0.05;
+
+    // Other nodes' updates are picked up at this interval
+    private Long refreshIntervalMs = 300_000L;
+}
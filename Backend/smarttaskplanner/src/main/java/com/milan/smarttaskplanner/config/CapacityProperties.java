@@ -0,0 +1,31 @@
+package com.milan.smarttaskplanner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "capacity")
+@Data
+public class CapacityProperties {
+
+    // Re-level a tenant's schedule when a goal gets its plan or a task completes
+    private boolean enabled = true;
+
+    // Working time one tenant has for all goals together
+    private Double hoursPerDay = 8.0;
+    private Integer workdayStartHour = 9;
+    private List<DayOfWeek> workingDays = new ArrayList<>(List.of(
+            DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY, DayOfWeek.FRIDAY));
+
+    // Applies to goals created without maxTasksPerDay; 0 = no bound
+    private Integer defaultMaxTasksPerDay = 0;
+
+    // Planning executor threads leveling may take at once; queued tenants are leveled in turn
+    private Integer maxConcurrentRuns = 2;
+    private Long retryIntervalMs = 30_000L;
+}
@@ -0,0 +1,130 @@
+package com.milan.smarttaskplanner.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.milan.smarttaskplanner.controllers.ErrorResponse;
+import com.milan.smarttaskplanner.services.overload.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * Admits API requests under two adaptive concurrency limits, one for plan generation and one for
+ * everything else, and answers requests over the limit with an immediate 503 instead of letting
+ * them wait in the Tomcat queue. Interactive requests (reads, status updates, deletes) have
+ * priority: planning requests are also shed while the interactive limit is nearly used up
+ * (concurrency-limit.planning-yield-at), so slow LLM-backed calls cannot crowd out cheap ones.
+ *
+ * Bulk and admin calls (export/import, reconcile, archive run, leveling, template instantiation)
+ * run for minutes; they get a fixed limit of their own and never feed a latency gradient. Nor do
+ * requests that went async (streaming export), whose permit is released as the response starts.
+ * Limits, in-flight counts and rejections are published as planner.concurrency.* metrics.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Pattern PLANNING_PATH = Pattern.compile("/api/goals(/async|/\\d+/replan)?/?");
+    private static final Pattern BULK_PATH = Pattern.compile(
+            "/api/(transfer/(export|import)|analytics/reconcile|archive/run|capacity/level|goals/\\d+/instantiate)/?");
+
+    private final ConcurrencyLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final AdaptiveConcurrencyLimiter planning;
+    private final AdaptiveConcurrencyLimiter interactive;
+    private final AdaptiveConcurrencyLimiter bulk;
+    private final Counter planningRejected;
+    private final Counter interactiveRejected;
+    private final Counter bulkRejected;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.planning = limiter("planning", properties.getPlanning());
+        this.interactive = limiter("interactive", properties.getInteractive());
+        this.bulk = limiter("bulk", properties.getBulk());
+        this.planningRejected = register(meterRegistry, planning);
+        this.interactiveRejected = register(meterRegistry, interactive);
+        this.bulkRejected = register(meterRegistry, bulk);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI();
+        boolean planningRequest = "POST".equals(request.getMethod()) && PLANNING_PATH.matcher(path).matches();
+        boolean bulkRequest = !planningRequest && BULK_PATH.matcher(path).matches();
+        AdaptiveConcurrencyLimiter limiter = planningRequest ? planning : bulkRequest ? bulk : interactive;
+
+        if (planningRequest && interactive.getInFlight() >= interactive.getLimit() * properties.getPlanningYieldAt()) {
+            reject(response, planningRejected, "Server is busy with other requests, please retry shortly");
+            return;
+        }
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+        if (permit == null) {
+            reject(response, planningRequest ? planningRejected : bulkRequest ? bulkRejected : interactiveRejected,
+                    "Server is overloaded, please retry shortly");
+            return;
+        }
+
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            if (bulkRequest || request.isAsyncStarted()) {
+                permit.releaseUnsampled();
+            } else {
+                permit.release(failed);
+            }
+        }
+    }
+
+    private void reject(HttpServletResponse response, Counter rejected, String message) throws IOException {
+        rejected.increment();
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(properties.getRetryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), message, System.currentTimeMillis()));
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(String name, ConcurrencyLimitProperties.Partition partition) {
+        return new AdaptiveConcurrencyLimiter(name, partition.getInitialLimit(), partition.getMinLimit(),
+                partition.getMaxLimit(), properties.getSmoothing(), properties.getLongWindow(),
+                properties.getRttTolerance(), properties.getBackoffRatio());
+    }
+
+    private static Counter register(MeterRegistry registry, AdaptiveConcurrencyLimiter limiter) {
+        Gauge.builder("planner.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("class", limiter.getName())
+                .register(registry);
+        Gauge.builder("planner.concurrency.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("class", limiter.getName())
+                .register(registry);
+        return Counter.builder("planner.concurrency.rejected")
+                .tag("class", limiter.getName())
+                .register(registry);
+    }
+}
@@ -0,0 +1,55 @@
+package com.milan.smarttaskplanner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "concurrency-limit")
+@Data
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    // Plan generation (POST /api/goals, /api/goals/async, /api/goals/{id}/replan)
+    private Partition planning = new Partition(8, 2, 64);
+
+    // Everything else under /api: reads, status updates, deletes
+    private Partition interactive = new Partition(64, 8, 512);
+
+    // Bulk and admin calls (transfer export/import, analytics reconcile, archive run, capacity
+    // leveling, template instantiation); their latencies are not sampled, so the limit stays at initialLimit
+    private Partition bulk = new Partition(4, 1, 4);
+
+    // Planning requests are shed while interactive requests use this share of their limit
+    private Double planningYieldAt = 0.8;
+
+    // Weight of a new limit estimate, and number of samples in the long-term latency average
+    private Double smoothing = 0.2;
+    private Integer longWindow = 600;
+
+    // Latency may grow this much over the long-term average before the limit is lowered
+    private Double rttTolerance = 1.5;
+
+    // Factor applied to the limit when a request fails with a server error
+    private Double backoffRatio = 0.9;
+
+    // Sent with 503 responses of shed requests
+    private Integer retryAfterSeconds = 1;
+
+    @Data
+    public static class Partition {
+        private Integer initialLimit;
+        private Integer minLimit;
+        private Integer maxLimit;
+
+        public Partition() {
+        }
+
+        public Partition(int initialLimit, int minLimit, int maxLimit) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+        }
+    }
+}
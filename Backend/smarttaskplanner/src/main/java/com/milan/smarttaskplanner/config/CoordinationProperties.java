@@ -0,0 +1,31 @@
+package com.milan.smarttaskplanner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "coordination")
+@Data
+public class CoordinationProperties {
+
+    // "embedded" keeps all state in this JVM (single node); "redis" shares it through spring.data.redis
+    private String mode = "embedded";
+
+    // Prefix for every Redis key and channel, so several environments can share one Redis
+    private String keyPrefix = "stp:";
+
+    // Identifies this node in broadcasts; defaults to host name plus a random suffix
+    private String nodeId;
+
+    // Cluster-wide cap on LLM calls per minute (0 = unlimited); calls over it get the fallback plan
+    private Long llmCallsPerMinute = 0L;
+
+    // Identical concurrent plan requests share one LLM call across the cluster
+    private boolean coalescePlans = true;
+    private Long coalesceTimeoutMs = 90_000L;
+
+    // How long a coalesced result stays readable for followers that arrive just after the leader finished
+    private Long coalesceResultTtlMs = 10_000L;
+    private Long coalescePollMs = 100L;
+}
@@ -0,0 +1,38 @@
+package com.milan.smarttaskplanner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "datasource-routing")
+@Data
+public class DataSourceRoutingProperties {
+
+    private boolean enabled = false;
+    private List<Replica> replicas = new ArrayList<>();
+
+    // Replicas further behind than this are skipped until they catch up
+    private Long maxLagMs = 5000L;
+
+    // A tenant's reads stay on the primary for at least this long after it writes
+    private Long readYourWritesWindowMs = 2000L;
+
+    private Long healthCheckIntervalMs = 5000L;
+
+    // Returns replica lag in seconds; use "SELECT 0" for H2 or other non-PostgreSQL replicas. A replica
+    // that has replayed everything it received is not behind, however long ago the primary last wrote
+    private String lagQuery = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())), 0) END";
+
+    @Data
+    public static class Replica {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,45 @@
+package com.milan.smarttaskplanner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "deadline")
+@Data
+public class DeadlineProperties {
+
+    public enum OverdueAction {
+        // Only set tasks.overdue_at
+        FLAG,
+        // Also move the task to BLOCKED, so a partial re-plan picks it up
+        BLOCK
+    }
+
+    private boolean enabled = true;
+
+    // Timing wheel: tick-ms granularity, wheel-size buckets per level
+    private Long tickMs = 1000L;
+    private Integer wheelSize = 64;
+    private Integer levels = 4;
+
+    // Deadlines up to this far ahead are kept in memory; the window slides forward as time passes
+    private Integer horizonHours = 24;
+
+    // "Due soon" notifications go out this long before a task's end date or a goal's target date
+    private Integer reminderLeadMinutes = 60;
+
+    private OverdueAction overdueAction = OverdueAction.FLAG;
+
+    // Deadlines written or marked per transaction, and rows per page when loading
+    private Integer batchSize = 500;
+    private Integer loadPageSize = 10_000;
+
+    // log or webhook
+    private String sink = "log";
+    private String webhookUrl = "http://localhost:8080/api/deadlines/webhook-stub";
+    private Integer webhookTimeoutMs = 5000;
+
+    // Notifications the local webhook stub keeps for GET /api/deadlines/webhook-stub
+    private Integer stubCapacity = 200;
+}
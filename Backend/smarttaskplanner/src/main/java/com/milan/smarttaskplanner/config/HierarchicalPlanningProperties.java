@@ -0,0 +1,28 @@
+package com.milan.smarttaskplanner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "planning.hierarchical")
+@Data
+public class HierarchicalPlanningProperties {
+
+    private boolean enabled = true;
+
+    // A goal is planned in phases when its description or its time frame is at least this large
+    private Integer minDescriptionWords = 40;
+    private Integer minDaysAvailable = 60;
+
+    private Integer maxPhases = 6;
+
+    // Phase expansion calls in flight at once per node (threads of the phaseExpansionExecutor)
+    private Integer maxParallelCalls = 4;
+
+    private Integer outlineMaxTokens = 1500;
+    private Integer phaseMaxTokens = 4000;
+
+    // Time for all phase expansions together; a phase not expanded by then is kept as one task from the outline
+    private Long phaseTimeoutMs = 90_000L;
+}
@@ -0,0 +1,75 @@
+package com.milan.smarttaskplanner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "llm")
+@Data
+public class LlmProperties {
+
+    // When empty, a single Gemini provider is built from the gemini.api settings
+    private List<Provider> providers = new ArrayList<>();
+
+    // Weight of the newest sample in the latency and error-rate moving averages
+    private Double ewmaAlpha = 0.2;
+
+    // Providers above this error rate are only used as a last resort until the cooldown passes
+    private Double maxErrorRate = 0.5;
+    private Long cooldownMs = 30_000L;
+
+    // How many providers one request may fail over to
+    private Integer maxAttempts = 3;
+
+    // Only providers with qualityTier >= minQualityTier and costTier <= maxCostTier are used
+    private Integer minQualityTier = 1;
+    private Integer maxCostTier = 3;
+
+    // Opt-in capture of every provider call for offline replay (see LlmTrafficLog)
+    private Recording recording = new Recording();
+
+    @Data
+    public static class Provider {
+        private String name;
+        private ProviderType type = ProviderType.GEMINI;
+        private String baseUrl;
+        private String model;
+        private String apiKey;
+        private Integer qualityTier = 2;
+        private Integer costTier = 2;
+        private Long timeoutMs = 60_000L;
+        private boolean enabled = true;
+
+        // REPLAY only: recordings to serve (defaults to llm.recording.directory), multiplier for the
+        // recorded latency (0 = answer immediately) and how a recording is chosen for a prompt
+        private String replayDirectory;
+        private Double replayLatencyScale = 1.0;
+        private ReplayMatch replayMatch = ReplayMatch.PROMPT;
+    }
+
+    @Data
+    public static class Recording {
+        private boolean enabled = false;
+        private String directory = "llm-recordings";
+        // A new segment file is started beyond this size so every segment can be memory-mapped whole
+        private Long maxSegmentBytes = 256L * 1024 * 1024;
+    }
+
+    public enum ProviderType {
+        GEMINI,
+        OPENAI,
+        LLAMA_CPP,
+        REPLAY
+    }
+
+    public enum ReplayMatch {
+        // Recording of the same prompt (dates ignored); falls back to recorded order when none exists
+        PROMPT,
+        // Recordings in the order they were made, regardless of prompt
+        SEQUENTIAL
+    }
+}
@@ -0,0 +1,23 @@
+package com.milan.smarttaskplanner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "plan-reuse")
+@Data
+public class PlanReuseProperties {
+
+    private boolean enabled = true;
+
+    // Estimated Jaccard similarity above which a past plan is reused as-is (dates re-based)
+    private Double reuseThreshold = 0.8;
+
+    // Above this (but below reuseThreshold) the past plan is sent as a few-shot example
+    private Double fewShotThreshold = 0.5;
+
+    // MinHash signature length; must be divisible by bands
+    private Integer numHashes = 64;
+    private Integer bands = 16;
+}
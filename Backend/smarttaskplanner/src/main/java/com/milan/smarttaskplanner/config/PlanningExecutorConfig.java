@@ -0,0 +1,48 @@
+package com.milan.smarttaskplanner.config;
+
+import com.milan.smarttaskplanner.services.tenancy.TenantContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class PlanningExecutorConfig {
+
+    @Bean(name = "planningExecutor")
+    public ThreadPoolTaskExecutor planningExecutor(TieredPlanningProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getExecutorThreads());
+        executor.setMaxPoolSize(properties.getExecutorThreads());
+        executor.setQueueCapacity(properties.getExecutorQueueCapacity());
+        executor.setThreadNamePrefix("planning-");
+        // Background upgrades and warm-ups keep the tenant of the request that scheduled them
+        executor.setTaskDecorator(TenantContext::wrap);
+        executor.initialize();
+        return executor;
+    }
+
+    // Its thread count is the cap on concurrent phase expansions of hierarchical plans
+    @Bean(name = "phaseExpansionExecutor")
+    public ThreadPoolTaskExecutor phaseExpansionExecutor(HierarchicalPlanningProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getMaxParallelCalls());
+        executor.setMaxPoolSize(properties.getMaxParallelCalls());
+        executor.setQueueCapacity(properties.getMaxParallelCalls() * properties.getMaxPhases() * 4);
+        executor.setThreadNamePrefix("plan-phase-");
+        executor.setTaskDecorator(TenantContext::wrap);
+        executor.initialize();
+        return executor;
+    }
+
+    // Sized to planning.jobs.worker-threads; the worker never claims more jobs than it has threads
+    @Bean(name = "planningJobExecutor")
+    public ThreadPoolTaskExecutor planningJobExecutor(PlanningJobProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getWorkerThreads());
+        executor.setMaxPoolSize(properties.getWorkerThreads());
+        executor.setQueueCapacity(properties.getWorkerThreads());
+        executor.setThreadNamePrefix("planning-job-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,36 @@
+package com.milan.smarttaskplanner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "planning.jobs")
+@Data
+public class PlanningJobProperties {
+
+    // Whether this node claims and runs jobs; enqueueing works either way
+    private boolean workerEnabled = true;
+
+    // Concurrent jobs per node
+    private Integer workerThreads = 4;
+
+    private Long pollIntervalMs = 1000L;
+
+    // A claimed job is owned for this long; the worker renews it while the job runs. Once it
+    // expires (e.g. the node died) any node may claim the job again.
+    private Long leaseMs = 60_000L;
+    private Long heartbeatIntervalMs = 20_000L;
+
+    private Integer maxAttempts = 5;
+
+    // Retry delay doubles per attempt: retryBackoffMs, 2x, 4x, ... capped at maxRetryBackoffMs
+    private Long retryBackoffMs = 5_000L;
+    private Long maxRetryBackoffMs = 300_000L;
+
+    // A job whose tenant has no free planning slot goes back to the queue for this long
+    private Long tenantDeferMs = 2_000L;
+
+    // Identifies this node in lease_owner; defaults to host name plus a random suffix
+    private String nodeId;
+}
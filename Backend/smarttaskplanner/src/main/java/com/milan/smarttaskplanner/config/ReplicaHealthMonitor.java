@@ -0,0 +1,88 @@
+package com.milan.smarttaskplanner.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks replica health and replication lag, and picks a replica for read-only work.
+ * A replica is only used when it is up, within max-lag-ms, and the caller's tenant last wrote
+ * longer ago than both its lag and the read-your-writes window. Other tenants' writes do not
+ * keep a tenant's reads on the primary.
+ */
+@Slf4j
+public class ReplicaHealthMonitor {
+
+    private final List<ReplicaNode> replicas;
+    private final DataSourceRoutingProperties properties;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    private final Map<String, Long> lastWriteByTenant = new ConcurrentHashMap<>();
+
+    public ReplicaHealthMonitor(List<ReplicaNode> replicas, DataSourceRoutingProperties properties) {
+        this.replicas = List.copyOf(replicas);
+        this.properties = properties;
+    }
+
+    public List<ReplicaNode> getReplicas() {
+        return replicas;
+    }
+
+    public void recordWrite(String tenantId) {
+        lastWriteByTenant.put(tenantId, System.currentTimeMillis());
+    }
+
+    public Optional<ReplicaNode> selectReplica(String tenantId) {
+        if (replicas.isEmpty()) {
+            return Optional.empty();
+        }
+
+        long sinceLastWrite = System.currentTimeMillis() - lastWriteByTenant.getOrDefault(tenantId, 0L);
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+
+        for (int i = 0; i < replicas.size(); i++) {
+            ReplicaNode node = replicas.get((start + i) % replicas.size());
+            if (node.isHealthy()
+                    && node.getLagMs() <= properties.getMaxLagMs()
+                    && sinceLastWrite > Math.max(node.getLagMs(), properties.getReadYourWritesWindowMs())) {
+                return Optional.of(node);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Scheduled(fixedDelayString = "${datasource-routing.health-check-interval-ms:5000}")
+    public void checkReplicas() {
+        // Past both limits a write no longer keeps any replica from being used
+        long expired = System.currentTimeMillis() - Math.max(properties.getMaxLagMs(), properties.getReadYourWritesWindowMs());
+        lastWriteByTenant.values().removeIf(lastWrite -> lastWrite < expired);
+
+        for (ReplicaNode node : replicas) {
+            try (Connection connection = node.getDataSource().getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(2);
+                try (ResultSet rs = statement.executeQuery(properties.getLagQuery())) {
+                    double lagSeconds = rs.next() ? rs.getDouble(1) : 0;
+                    if (!node.isHealthy()) {
+                        log.info("Replica {} is up (lag {} ms)", node.getName(), (long) (lagSeconds * 1000));
+                    }
+                    node.markUp((long) (lagSeconds * 1000));
+                }
+            } catch (SQLException e) {
+                if (node.isHealthy()) {
+                    log.warn("Replica {} failed health check, routing reads to primary: {}", node.getName(), e.getMessage());
+                }
+                node.markDown();
+            }
+        }
+    }
+}
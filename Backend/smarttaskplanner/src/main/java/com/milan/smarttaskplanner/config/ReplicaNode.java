@@ -0,0 +1,26 @@
+package com.milan.smarttaskplanner.config;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import javax.sql.DataSource;
+
+@Getter
+@RequiredArgsConstructor
+public class ReplicaNode {
+
+    private final String name;
+    private final DataSource dataSource;
+
+    private volatile boolean healthy;
+    private volatile long lagMs;
+
+    void markUp(long lagMs) {
+        this.healthy = true;
+        this.lagMs = lagMs;
+    }
+
+    void markDown() {
+        this.healthy = false;
+    }
+}
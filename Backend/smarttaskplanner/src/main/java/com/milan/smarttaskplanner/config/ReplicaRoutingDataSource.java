@@ -0,0 +1,80 @@
+package com.milan.smarttaskplanner.config;
+
+import com.milan.smarttaskplanner.services.tenancy.TenantContext;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Sends read-only transactions to a replica chosen by {@link ReplicaHealthMonitor} and everything
+ * else to the primary. Must sit behind a LazyConnectionDataSourceProxy so the lookup happens after
+ * the transaction's read-only flag is set.
+ *
+ * A write transaction starts the read-your-writes window of its tenant when it commits, since
+ * replicas cannot have its changes before then; one that rolls back does not count as a write.
+ * A connection used outside a transaction autocommits whatever it writes, so handing it back
+ * counts as a write.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final ReplicaHealthMonitor monitor;
+
+    public ReplicaRoutingDataSource(ReplicaHealthMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String tenantId = TenantContext.getTenantId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()
+                    && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        monitor.recordWrite(tenantId);
+                    }
+                });
+            }
+            return PRIMARY;
+        }
+        return monitor.selectReplica(tenantId)
+                .map(ReplicaNode::getName)
+                .orElse(PRIMARY);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return recordingAutocommitWrites(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return recordingAutocommitWrites(super.getConnection(username, password));
+    }
+
+    private Connection recordingAutocommitWrites(Connection connection) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return connection;
+        }
+        String tenantId = TenantContext.getTenantId();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        monitor.recordWrite(tenantId);
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
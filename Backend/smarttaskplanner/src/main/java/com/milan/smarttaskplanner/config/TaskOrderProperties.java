@@ -0,0 +1,14 @@
+package com.milan.smarttaskplanner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "task-order")
+@Data
+public class TaskOrderProperties {
+
+    // A move that produces a longer rank key queues the goal for rebalancing in the background
+    private Integer maxKeyLength = 12;
+}
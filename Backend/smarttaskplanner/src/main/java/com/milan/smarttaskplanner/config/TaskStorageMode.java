@@ -0,0 +1,8 @@
+package com.milan.smarttaskplanner.config;
+
+public enum TaskStorageMode {
+    // One row per step in task_steps and per dependency in task_dependencies
+    ELEMENT_COLLECTION,
+    // Steps as a single JSONB column and dependencies as a bigint[] column on tasks
+    COMPACT
+}
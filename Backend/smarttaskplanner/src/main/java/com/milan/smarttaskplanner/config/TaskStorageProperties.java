@@ -0,0 +1,17 @@
+package com.milan.smarttaskplanner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "task-storage")
+@Data
+public class TaskStorageProperties {
+
+    private TaskStorageMode mode = TaskStorageMode.ELEMENT_COLLECTION;
+
+    // Move existing task_steps / task_dependencies rows into the compact columns on startup
+    private boolean migrateOnStartup = false;
+    private Integer migrationBatchSize = 500;
+}
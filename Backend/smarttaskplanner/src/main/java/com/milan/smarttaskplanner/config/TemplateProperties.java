@@ -0,0 +1,18 @@
+package com.milan.smarttaskplanner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "templates")
+@Data
+public class TemplateProperties {
+
+    // Recipients one instantiate call may name; all copies are written in one transaction
+    private Integer maxRecipients = 1000;
+
+    // Recipients other than the caller's own tenant need this value in the X-Admin-Token header;
+    // empty disables cross-tenant instantiation
+    private String adminToken = "";
+}
@@ -0,0 +1,48 @@
+package com.milan.smarttaskplanner.config;
+
+import com.milan.smarttaskplanner.services.tenancy.TenantContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * Binds each request to the tenant named in the tenancy.header-name header (default tenant when
+ * absent). Tenant ids end up in SQL and Redis keys, so they are restricted to a safe alphabet.
+ */
+@Component
+@RequiredArgsConstructor
+public class TenantFilter extends OncePerRequestFilter {
+
+    private static final Pattern VALID_TENANT = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final TenantProperties properties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String tenantId = request.getHeader(properties.getHeaderName());
+        if (tenantId != null && !isValidTenantId(tenantId)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Invalid " + properties.getHeaderName() + " header");
+            return;
+        }
+
+        TenantContext.setTenantId(tenantId != null ? tenantId : TenantContext.DEFAULT_TENANT);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    public static boolean isValidTenantId(String tenantId) {
+        return VALID_TENANT.matcher(tenantId).matches();
+    }
+}
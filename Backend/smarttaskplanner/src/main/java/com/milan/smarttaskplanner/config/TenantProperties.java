@@ -0,0 +1,39 @@
+package com.milan.smarttaskplanner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "tenancy")
+@Data
+public class TenantProperties {
+
+    // Requests without this header belong to the default tenant
+    private String headerName = "X-Tenant-Id";
+
+    // Limits for every tenant unless overridden below
+    private Quota defaults = new Quota();
+
+    // Per-tenant overrides, keyed by tenant id
+    private Map<String, Quota> tenants = new HashMap<>();
+
+    @Data
+    public static class Quota {
+        // Plan generations running at once for the tenant on one node
+        private Integer maxConcurrentPlans = 4;
+
+        // How long a request waits for a free plan slot before it is rejected with 429
+        private Long acquireTimeoutMs = 2000L;
+
+        // LLM calls per minute across the cluster (0 = unlimited); calls over it get the fallback plan
+        private Long aiCallsPerMinute = 30L;
+    }
+
+    public Quota quotaFor(String tenantId) {
+        return tenants.getOrDefault(tenantId, defaults);
+    }
+}
@@ -0,0 +1,33 @@
+package com.milan.smarttaskplanner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "planning.tiered")
+@Data
+public class TieredPlanningProperties {
+
+    private boolean enabled = true;
+
+    // Total time a create request waits before answering with the local plan
+    private Long responseBudgetMs = 200L;
+
+    // Tiers tried in order before the local planner; names match PlanningTier.getName()
+    private List<String> tiers = new ArrayList<>(List.of("cache", "llm"));
+
+    // Per-tier budget, capped by what is left of responseBudgetMs
+    private Map<String, Long> budgetsMs = new HashMap<>(Map.of("cache", 50L, "llm", 150L));
+
+    // How long a background tier may keep running to upgrade a plan that was answered locally
+    private Long upgradeTimeoutMs = 120_000L;
+
+    private Integer executorThreads = 8;
+    private Integer executorQueueCapacity = 200;
+}
@@ -0,0 +1,26 @@
+package com.milan.smarttaskplanner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "transfer")
+@Data
+public class TransferProperties {
+
+    // Rows the export cursor fetches per round trip
+    private Integer fetchSize = 1000;
+
+    // Goals per import transaction; the checkpoint advances once per batch
+    private Integer batchSize = 1000;
+
+    private ImportMode importMode = ImportMode.COPY;
+
+    public enum ImportMode {
+        // PostgreSQL COPY FROM STDIN with pre-allocated ids
+        COPY,
+        // GoalRepository.saveAll with cascading tasks; works on any database
+        REPOSITORY
+    }
+}
@@ -0,0 +1,37 @@
+package com.milan.smarttaskplanner.controllers;
+
+import com.milan.smarttaskplanner.dto.AgendaResponse;
+import com.milan.smarttaskplanner.services.AgendaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/agenda")
+@RequiredArgsConstructor
+@Tag(name = "Agenda", description = "Scheduled tasks across all goals for a time window")
+@CrossOrigin(origins = "*")
+public class AgendaController {
+
+    private final AgendaService agendaService;
+
+    @GetMapping
+    @Operation(summary = "Get agenda",
+            description = "Tasks of every goal whose start/end dates overlap the window, ordered by start date. " +
+                    "Window: from and to, or range=today|week (default today). " +
+                    "Optional comma-separated status and priority filters")
+    public ResponseEntity<AgendaResponse> getAgenda(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "range", required = false) String range,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "priority", required = false) String priority,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return ResponseEntity.ok(agendaService.getAgenda(from, to, range, status, priority, limit));
+    }
+}
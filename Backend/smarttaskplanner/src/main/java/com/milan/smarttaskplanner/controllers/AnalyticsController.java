@@ -0,0 +1,60 @@
+package com.milan.smarttaskplanner.controllers;
+
+import com.milan.smarttaskplanner.dto.AnalyticsOverviewResponse;
+import com.milan.smarttaskplanner.dto.GoalBurndownResponse;
+import com.milan.smarttaskplanner.dto.PriorityDistributionResponse;
+import com.milan.smarttaskplanner.dto.WeeklyThroughputResponse;
+import com.milan.smarttaskplanner.services.analytics.AnalyticsReconciler;
+import com.milan.smarttaskplanner.services.analytics.AnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+@Tag(name = "Analytics", description = "Completion, throughput and estimate accuracy from pre-aggregated rollups")
+@CrossOrigin(origins = "*")
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+    private final AnalyticsReconciler analyticsReconciler;
+
+    @GetMapping("/overview")
+    @Operation(summary = "Get analytics overview",
+            description = "Completion rate, estimated vs actual hours and overdue work over the last weeks")
+    public ResponseEntity<AnalyticsOverviewResponse> getOverview(@RequestParam(value = "weeks", required = false) Integer weeks) {
+        return ResponseEntity.ok(analyticsService.getOverview(weeks));
+    }
+
+    @GetMapping("/throughput")
+    @Operation(summary = "Get weekly throughput",
+            description = "Goals and tasks created and completed per week, with estimate accuracy")
+    public ResponseEntity<List<WeeklyThroughputResponse>> getThroughput(@RequestParam(value = "weeks", required = false) Integer weeks) {
+        return ResponseEntity.ok(analyticsService.getThroughput(weeks));
+    }
+
+    @GetMapping("/goals/{id}/burndown")
+    @Operation(summary = "Get goal burndown", description = "Remaining tasks and estimated hours of a goal per day")
+    public ResponseEntity<GoalBurndownResponse> getBurndown(@PathVariable Long id) {
+        return ResponseEntity.ok(analyticsService.getBurndown(id));
+    }
+
+    @GetMapping("/priorities")
+    @Operation(summary = "Get priority distribution", description = "Tasks per priority and status")
+    public ResponseEntity<List<PriorityDistributionResponse>> getPriorityDistribution() {
+        return ResponseEntity.ok(analyticsService.getPriorityDistribution());
+    }
+
+    @PostMapping("/reconcile")
+    @Operation(summary = "Reconcile rollups now",
+            description = "Rebuilds recent rollups from the goal tables and refreshes overdue counts")
+    public ResponseEntity<Void> reconcile() {
+        analyticsReconciler.reconcile();
+        return ResponseEntity.noContent().build();
+    }
+}
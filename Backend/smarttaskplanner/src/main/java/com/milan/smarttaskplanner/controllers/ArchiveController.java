@@ -0,0 +1,34 @@
+package com.milan.smarttaskplanner.controllers;
+
+import com.milan.smarttaskplanner.dto.ArchiveStatsResponse;
+import com.milan.smarttaskplanner.services.GoalArchiver;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/archive")
+@RequiredArgsConstructor
+@Tag(name = "Archive", description = "Cold storage of finished goals")
+@CrossOrigin(origins = "*")
+public class ArchiveController {
+
+    private final GoalArchiver goalArchiver;
+
+    @GetMapping("/stats")
+    @Operation(summary = "Get archive statistics",
+            description = "Archiver progress and the recent history of hot-table sizes")
+    public ResponseEntity<ArchiveStatsResponse> getStats() {
+        return ResponseEntity.ok(goalArchiver.getStats());
+    }
+
+    @PostMapping("/run")
+    @Operation(summary = "Run the archiver now",
+            description = "Moves goals finished before the retention period to the archive, within the batch rate limit")
+    public ResponseEntity<ArchiveStatsResponse> run() {
+        goalArchiver.run();
+        return ResponseEntity.ok(goalArchiver.getStats());
+    }
+}
@@ -0,0 +1,29 @@
+package com.milan.smarttaskplanner.controllers;
+
+import com.milan.smarttaskplanner.dto.CalibrationFactorResponse;
+import com.milan.smarttaskplanner.services.DurationCalibrationService;
+import com.milan.smarttaskplanner.services.tenancy.TenantContext;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/calibration")
+@RequiredArgsConstructor
+@Tag(name = "Duration Calibration", description = "Duration corrections learned from completed tasks")
+@CrossOrigin(origins = "*")
+public class CalibrationController {
+
+    private final DurationCalibrationService durationCalibrationService;
+
+    @GetMapping("/factors")
+    @Operation(summary = "Get calibration factors",
+            description = "Learned actual/estimated ratio per priority, goal category and title keyword of the current tenant")
+    public ResponseEntity<List<CalibrationFactorResponse>> getFactors() {
+        return ResponseEntity.ok(durationCalibrationService.getFactors(TenantContext.getTenantId()));
+    }
+}
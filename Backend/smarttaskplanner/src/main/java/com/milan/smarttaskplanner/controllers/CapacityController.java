@@ -0,0 +1,27 @@
+package com.milan.smarttaskplanner.controllers;
+
+import com.milan.smarttaskplanner.dto.CapacityLevelingResponse;
+import com.milan.smarttaskplanner.services.capacity.CapacityLevelingService;
+import com.milan.smarttaskplanner.services.tenancy.TenantContext;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/capacity")
+@RequiredArgsConstructor
+@Tag(name = "Capacity", description = "Scheduling of open tasks across goals within daily working hours")
+@CrossOrigin(origins = "*")
+public class CapacityController {
+
+    private final CapacityLevelingService capacityLevelingService;
+
+    @PostMapping("/level")
+    @Operation(summary = "Re-level task schedule",
+            description = "Reschedules the open tasks of all active goals of the current tenant onto the shared working calendar")
+    public ResponseEntity<CapacityLevelingResponse> level() {
+        return ResponseEntity.ok(capacityLevelingService.level(TenantContext.getTenantId()));
+    }
+}
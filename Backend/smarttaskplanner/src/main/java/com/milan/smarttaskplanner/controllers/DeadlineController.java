@@ -0,0 +1,46 @@
+package com.milan.smarttaskplanner.controllers;
+
+import com.milan.smarttaskplanner.dto.DeadlineStatsResponse;
+import com.milan.smarttaskplanner.services.deadline.DeadlineEngine;
+import com.milan.smarttaskplanner.services.deadline.DeadlineNotification;
+import com.milan.smarttaskplanner.services.deadline.WebhookStubInbox;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/deadlines")
+@RequiredArgsConstructor
+@Tag(name = "Deadlines", description = "Due-soon and overdue notifications for tasks and goals")
+@CrossOrigin(origins = "*")
+public class DeadlineController {
+
+    private final DeadlineEngine deadlineEngine;
+    private final WebhookStubInbox webhookStubInbox;
+
+    @GetMapping("/stats")
+    @Operation(summary = "Get deadline scheduler statistics",
+            description = "Deadlines held in memory, the loaded window and notifications fired since startup")
+    public ResponseEntity<DeadlineStatsResponse> getStats() {
+        return ResponseEntity.ok(deadlineEngine.getStats());
+    }
+
+    @PostMapping("/webhook-stub")
+    @Operation(summary = "Receive deadline notifications",
+            description = "Local stand-in for a webhook receiver, the default target of the webhook sink")
+    public ResponseEntity<Void> receive(@RequestBody List<DeadlineNotification> notifications) {
+        webhookStubInbox.add(notifications);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/webhook-stub")
+    @Operation(summary = "Get notifications received by the webhook stub",
+            description = "The most recent deadline.stub-capacity notifications, oldest first")
+    public ResponseEntity<List<DeadlineNotification>> getReceived() {
+        return ResponseEntity.ok(webhookStubInbox.recent());
+    }
+}
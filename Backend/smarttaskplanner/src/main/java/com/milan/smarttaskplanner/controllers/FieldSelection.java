@@ -0,0 +1,67 @@
+package com.milan.smarttaskplanner.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.*;
+
+/**
+ * Applies a ?fields= selection such as "id,description,tasks.title,tasks.status" to a response.
+ * Nested names select inside objects and arrays; naming a field without sub-fields keeps it whole.
+ */
+final class FieldSelection {
+
+    private FieldSelection() {
+    }
+
+    static Object apply(ObjectMapper objectMapper, Object body, String fields) {
+        if (fields == null || fields.isBlank()) {
+            return body;
+        }
+        Map<String, Object> tree = parse(fields);
+        JsonNode node = objectMapper.valueToTree(body);
+        return prune(node, tree);
+    }
+
+    // "a,b.c,b.d" -> {a: {}, b: {c: {}, d: {}}}; an empty map means "keep everything below"
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> parse(String fields) {
+        Map<String, Object> root = new LinkedHashMap<>();
+        for (String field : fields.split(",")) {
+            Map<String, Object> level = root;
+            String[] parts = field.trim().split("\\.");
+            for (String part : parts) {
+                if (part.isEmpty()) {
+                    break;
+                }
+                level = (Map<String, Object>) level.computeIfAbsent(part, k -> new LinkedHashMap<String, Object>());
+            }
+        }
+        return root;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JsonNode prune(JsonNode node, Map<String, Object> selection) {
+        if (selection.isEmpty()) {
+            return node;
+        }
+        if (node instanceof ArrayNode array) {
+            for (int i = 0; i < array.size(); i++) {
+                array.set(i, prune(array.get(i), selection));
+            }
+            return array;
+        }
+        if (node instanceof ObjectNode object) {
+            object.retain(selection.keySet());
+            for (Map.Entry<String, Object> entry : selection.entrySet()) {
+                JsonNode child = object.get(entry.getKey());
+                if (child != null) {
+                    object.set(entry.getKey(), prune(child, (Map<String, Object>) entry.getValue()));
+                }
+            }
+        }
+        return node;
+    }
+}
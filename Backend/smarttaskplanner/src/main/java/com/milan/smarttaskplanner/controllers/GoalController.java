@@ -1,11 +1,24 @@
 package com.milan.smarttaskplanner.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.milan.smarttaskplanner.dto.GoalRequest;
 import com.milan.smarttaskplanner.dto.GoalResponse;
+import com.milan.smarttaskplanner.dto.InstantiateTemplateRequest;
+import com.milan.smarttaskplanner.dto.InstantiateTemplateResponse;
+import com.milan.smarttaskplanner.dto.PlanningJobResponse;
+import com.milan.smarttaskplanner.dto.ReorderTaskRequest;
+import com.milan.smarttaskplanner.dto.ReorderTaskResponse;
+import com.milan.smarttaskplanner.dto.ReplanRequest;
+import com.milan.smarttaskplanner.dto.ReplanResponse;
+import com.milan.smarttaskplanner.dto.ResponseView;
 import com.milan.smarttaskplanner.dto.TaskPlanResponse;
 import com.milan.smarttaskplanner.dto.TaskResponse;
+import com.milan.smarttaskplanner.dto.TaskStatusChangeResponse;
 import com.milan.smarttaskplanner.dto.UpdateTaskStatusRequest;
 import com.milan.smarttaskplanner.services.GoalService;
+import com.milan.smarttaskplanner.services.PartialReplanService;
+import com.milan.smarttaskplanner.services.TemplateInstantiationService;
+import com.milan.smarttaskplanner.services.ordering.TaskOrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -26,6 +39,10 @@ import java.util.List;
 public class GoalController {
 
     private final GoalService goalService;
+    private final PartialReplanService partialReplanService;
+    private final TemplateInstantiationService templateInstantiationService;
+    private final TaskOrderService taskOrderService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @Operation(summary = "Create a new goal and generate task plan",
@@ -42,25 +59,40 @@ public class GoalController {
         }
     }
 
+    @PostMapping("/async")
+    @Operation(summary = "Create a new goal and queue its task plan",
+            description = "Stores the goal and a durable planning job; poll /api/planning-jobs/{jobId} or the goal for the result")
+    public ResponseEntity<PlanningJobResponse> createGoalAsync(@Valid @RequestBody GoalRequest request) {
+        log.info("Received request to queue goal: {}", request.getDescription());
+        PlanningJobResponse response = goalService.enqueueGoalPlanning(request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    // Read endpoints take ?view=summary|detail (default detail) and an optional ?fields= selection,
+    // e.g. fields=id,description,tasks.title,tasks.status
     @GetMapping("/{id}")
     @Operation(summary = "Get goal by ID", description = "Retrieves a specific goal with all its tasks")
-    public ResponseEntity<GoalResponse> getGoal(@PathVariable Long id) {
-        GoalResponse response = goalService.getGoal(id);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<?> getGoal(@PathVariable Long id,
+                                     @RequestParam(value = "view", required = false) String view,
+                                     @RequestParam(value = "fields", required = false) String fields) {
+        GoalResponse response = goalService.getGoal(id, ResponseView.from(view));
+        return ResponseEntity.ok(FieldSelection.apply(objectMapper, response, fields));
     }
 
     @GetMapping
     @Operation(summary = "Get all goals", description = "Retrieves all goals")
-    public ResponseEntity<List<GoalResponse>> getAllGoals() {
-        List<GoalResponse> goals = goalService.getAllGoals();
-        return ResponseEntity.ok(goals);
+    public ResponseEntity<?> getAllGoals(@RequestParam(value = "view", required = false) String view,
+                                         @RequestParam(value = "fields", required = false) String fields) {
+        List<GoalResponse> goals = goalService.getAllGoals(ResponseView.from(view));
+        return ResponseEntity.ok(FieldSelection.apply(objectMapper, goals, fields));
     }
 
     @GetMapping("/recent")
     @Operation(summary = "Get recent goals", description = "Retrieves the 10 most recent goals")
-    public ResponseEntity<List<GoalResponse>> getRecentGoals() {
-        List<GoalResponse> goals = goalService.getRecentGoals();
-        return ResponseEntity.ok(goals);
+    public ResponseEntity<?> getRecentGoals(@RequestParam(value = "view", required = false) String view,
+                                            @RequestParam(value = "fields", required = false) String fields) {
+        List<GoalResponse> goals = goalService.getRecentGoals(ResponseView.from(view));
+        return ResponseEntity.ok(FieldSelection.apply(objectMapper, goals, fields));
     }
 
     @PutMapping("/{goalId}/tasks/status")
@@ -73,6 +105,54 @@ public class GoalController {
         return ResponseEntity.ok(response);
     }
 
+    @PutMapping("/{goalId}/tasks/{taskId}/position")
+    @Operation(summary = "Move a task",
+            description = "Places the task right after afterTaskId (or first when it is absent) by writing one rank key; other tasks keep theirs")
+    public ResponseEntity<ReorderTaskResponse> moveTask(
+            @PathVariable Long goalId,
+            @PathVariable Long taskId,
+            @RequestBody(required = false) ReorderTaskRequest request) {
+        return ResponseEntity.ok(taskOrderService.move(goalId, taskId, request != null ? request.getAfterTaskId() : null));
+    }
+
+    @GetMapping("/{goalId}/tasks/{taskId}/history")
+    @Operation(summary = "Get task status history", description = "Every status transition of a task with its time")
+    public ResponseEntity<List<TaskStatusChangeResponse>> getTaskHistory(
+            @PathVariable Long goalId,
+            @PathVariable Long taskId) {
+        return ResponseEntity.ok(goalService.getTaskHistory(goalId, taskId));
+    }
+
+    @PostMapping("/{goalId}/replan")
+    @Operation(summary = "Re-plan part of a goal",
+            description = "Regenerates only the given tasks, or the BLOCKED ones and those past a new target date, and reports the cost against a full regeneration")
+    public ResponseEntity<ReplanResponse> replan(
+            @PathVariable Long goalId,
+            @RequestBody(required = false) ReplanRequest request) {
+        return ResponseEntity.ok(partialReplanService.replan(goalId, request != null ? request : new ReplanRequest()));
+    }
+
+    @PutMapping("/{id}/template")
+    @Operation(summary = "Mark goal as template",
+            description = "Templates are left out of capacity leveling and can be cloned for many recipients with /instantiate")
+    public ResponseEntity<GoalResponse> setTemplate(
+            @PathVariable Long id,
+            @RequestParam(value = "template", defaultValue = "true") boolean template) {
+        return ResponseEntity.ok(goalService.setTemplate(id, template));
+    }
+
+    @PostMapping("/{id}/instantiate")
+    @Operation(summary = "Instantiate a template",
+            description = "Clones a template goal with its tasks, steps and dependencies for each recipient tenant in one transaction, "
+                    + "re-basing the dates on each recipient's start date; no plan is generated. Recipients other than the "
+                    + "caller's tenant require the X-Admin-Token header")
+    public ResponseEntity<InstantiateTemplateResponse> instantiateTemplate(
+            @PathVariable Long id,
+            @Valid @RequestBody InstantiateTemplateRequest request,
+            @RequestHeader(value = "X-Admin-Token", required = false) String adminToken) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(templateInstantiationService.instantiate(id, request, adminToken));
+    }
+
     @PutMapping("/{id}/status")
     @Operation(summary = "Update goal status", description = "Updates the status of a goal (e.g., PLANNING, IN_PROGRESS, COMPLETED)")
     public ResponseEntity<GoalResponse> updateGoalStatus(
@@ -0,0 +1,28 @@
+package com.milan.smarttaskplanner.controllers;
+
+import com.milan.smarttaskplanner.dto.LlmProviderStatsResponse;
+import com.milan.smarttaskplanner.services.llm.LlmRouter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/llm")
+@RequiredArgsConstructor
+@Tag(name = "LLM Providers", description = "Provider routing state for plan generation")
+@CrossOrigin(origins = "*")
+public class LlmController {
+
+    private final LlmRouter llmRouter;
+
+    @GetMapping("/providers")
+    @Operation(summary = "Get LLM provider statistics",
+            description = "Latency and error-rate estimates the router uses to pick a provider")
+    public ResponseEntity<List<LlmProviderStatsResponse>> getProviders() {
+        return ResponseEntity.ok(llmRouter.getStats());
+    }
+}
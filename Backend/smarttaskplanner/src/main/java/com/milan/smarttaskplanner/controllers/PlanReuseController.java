@@ -0,0 +1,26 @@
+package com.milan.smarttaskplanner.controllers;
+
+import com.milan.smarttaskplanner.dto.PlanReuseStatsResponse;
+import com.milan.smarttaskplanner.services.PlanReuseAIService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/plan-reuse")
+@RequiredArgsConstructor
+@Tag(name = "Plan Reuse", description = "Reuse of previously generated plans for similar goals")
+@CrossOrigin(origins = "*")
+public class PlanReuseController {
+
+    private final PlanReuseAIService planReuseAIService;
+
+    @GetMapping("/stats")
+    @Operation(summary = "Get plan reuse statistics",
+            description = "Reuse rate, estimated latency saved and similarity index update cost")
+    public ResponseEntity<PlanReuseStatsResponse> getStats() {
+        return ResponseEntity.ok(planReuseAIService.getStats());
+    }
+}
@@ -0,0 +1,42 @@
+package com.milan.smarttaskplanner.controllers;
+
+import com.milan.smarttaskplanner.dto.PlanningJobResponse;
+import com.milan.smarttaskplanner.entities.PlanningJobStatus;
+import com.milan.smarttaskplanner.services.PlanningJobQueue;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/planning-jobs")
+@RequiredArgsConstructor
+@Tag(name = "Planning Jobs", description = "Durable queue of plan generation jobs")
+@CrossOrigin(origins = "*")
+public class PlanningJobController {
+
+    private final PlanningJobQueue planningJobQueue;
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get planning job", description = "Status, attempts and last error of a planning job")
+    public ResponseEntity<PlanningJobResponse> getJob(@PathVariable Long id) {
+        return ResponseEntity.ok(planningJobQueue.getJob(id));
+    }
+
+    @GetMapping
+    @Operation(summary = "List planning jobs by status",
+            description = "The 100 most recent jobs with the given status, e.g. DEAD for the dead-letter queue")
+    public ResponseEntity<List<PlanningJobResponse>> getJobs(
+            @RequestParam(value = "status", defaultValue = "DEAD") String status) {
+        return ResponseEntity.ok(planningJobQueue.getJobs(PlanningJobStatus.valueOf(status)));
+    }
+
+    @PostMapping("/{id}/retry")
+    @Operation(summary = "Retry a dead-lettered job", description = "Puts the job back in the queue with a fresh attempt budget")
+    public ResponseEntity<PlanningJobResponse> retryJob(@PathVariable Long id) {
+        return ResponseEntity.ok(planningJobQueue.retry(id));
+    }
+}
@@ -0,0 +1,27 @@
+package com.milan.smarttaskplanner.controllers;
+
+import com.milan.smarttaskplanner.dto.TenantQuotaResponse;
+import com.milan.smarttaskplanner.services.tenancy.TenantContext;
+import com.milan.smarttaskplanner.services.tenancy.TenantQuotaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/tenants")
+@RequiredArgsConstructor
+@Tag(name = "Tenants", description = "Quotas of the tenant named in the X-Tenant-Id header")
+@CrossOrigin(origins = "*")
+public class TenantController {
+
+    private final TenantQuotaService tenantQuotaService;
+
+    @GetMapping("/current/quota")
+    @Operation(summary = "Get current tenant quota",
+            description = "Plan concurrency and LLM call limits of the calling tenant, with the plans running on this node")
+    public ResponseEntity<TenantQuotaResponse> getQuota() {
+        return ResponseEntity.ok(tenantQuotaService.getQuota(TenantContext.getTenantId()));
+    }
+}
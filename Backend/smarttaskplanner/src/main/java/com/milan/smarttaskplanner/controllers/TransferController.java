@@ -0,0 +1,64 @@
+package com.milan.smarttaskplanner.controllers;
+
+import com.milan.smarttaskplanner.dto.TransferResultResponse;
+import com.milan.smarttaskplanner.entities.TransferCheckpoint;
+import com.milan.smarttaskplanner.services.GoalExportService;
+import com.milan.smarttaskplanner.services.GoalImportService;
+import com.milan.smarttaskplanner.services.tenancy.TenantContext;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/transfer")
+@RequiredArgsConstructor
+@Tag(name = "Export / Import", description = "Streaming NDJSON backup, migration and bulk load of goals")
+@CrossOrigin(origins = "*")
+public class TransferController {
+
+    private final GoalExportService goalExportService;
+    private final GoalImportService goalImportService;
+
+    @GetMapping("/export")
+    @Operation(summary = "Export goals",
+            description = "Gzip-compressed NDJSON, one goal with its tasks per line, ordered by id. "
+                    + "Pass afterId = the last exported goal id to resume an interrupted export.")
+    public ResponseEntity<StreamingResponseBody> exportGoals(
+            @RequestParam(value = "afterId", defaultValue = "0") long afterId) {
+        String tenantId = TenantContext.getTenantId();
+        StreamingResponseBody body = out -> {
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024)) {
+                goalExportService.export(gzip, afterId, tenantId);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"goals.ndjson.gz\"")
+                .body(body);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.ALL_VALUE)
+    @Operation(summary = "Import goals",
+            description = "Accepts an export (gzip or plain NDJSON) as the request body. Rerunning with the same "
+                    + "name continues after the last committed batch.")
+    public ResponseEntity<TransferResultResponse> importGoals(
+            @RequestParam("name") String name,
+            HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(goalImportService.importGoals(request.getInputStream(), name));
+    }
+
+    @GetMapping("/import/{name}")
+    @Operation(summary = "Get import checkpoint", description = "Last committed line and totals of a named import")
+    public ResponseEntity<TransferCheckpoint> getCheckpoint(@PathVariable String name) {
+        return ResponseEntity.ok(goalImportService.getCheckpoint(name));
+    }
+}
@@ -0,0 +1,24 @@
+package com.milan.smarttaskplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgendaItemResponse {
+    private Long taskId;
+    private Long goalId;
+    private String goalDescription;
+    private String title;
+    private String status;
+    private String priority;
+    private Integer estimatedDurationHours;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+}
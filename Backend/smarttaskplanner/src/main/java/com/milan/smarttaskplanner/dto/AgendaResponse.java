@@ -0,0 +1,25 @@
+package com.milan.smarttaskplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgendaResponse {
+    // The window [from, to) the tasks overlap
+    private LocalDateTime from;
+    private LocalDateTime to;
+    // True when more tasks overlap the window than the limit allowed
+    private Boolean hasMore;
+
+    @Builder.Default
+    private List<AgendaItemResponse> items = new ArrayList<>();
+}
@@ -0,0 +1,30 @@
+package com.milan.smarttaskplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsOverviewResponse {
+    private Integer weeks;
+    private Long goalsCreated;
+    private Long goalsCompleted;
+    private Long tasksCreated;
+    private Long tasksCompleted;
+    // Completed / created tasks over the period
+    private Double taskCompletionRate;
+    private Long tasksCompletedLate;
+    private Long estimatedHoursCompleted;
+    private Double actualHoursCompleted;
+    private Double actualToEstimatedRatio;
+    // As of overdueRefreshedAt (the last reconciliation)
+    private Long overdueTasks;
+    private Long overdueGoals;
+    private LocalDateTime overdueRefreshedAt;
+}
@@ -0,0 +1,21 @@
+package com.milan.smarttaskplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchiveStatsResponse {
+    private Integer retentionDays;
+    private Long archivedSinceStartup;
+    private LocalDateTime lastRunAt;
+    private Integer lastRunGoals;
+    private List<HotTableSizeResponse> samples;
+}
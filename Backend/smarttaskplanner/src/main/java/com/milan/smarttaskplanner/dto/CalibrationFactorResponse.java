@@ -0,0 +1,18 @@
+package com.milan.smarttaskplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalibrationFactorResponse {
+    // priority:HIGH, category:fitness, keyword:deploy
+    private String feature;
+    // Learned actual / estimated hours for tasks with this feature
+    private Double factor;
+    private Integer samples;
+}
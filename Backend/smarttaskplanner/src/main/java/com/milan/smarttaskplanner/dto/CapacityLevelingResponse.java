@@ -0,0 +1,23 @@
+package com.milan.smarttaskplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CapacityLevelingResponse {
+    private String tenantId;
+    private Integer activeGoals;
+    private Integer openTasks;
+    // Tasks whose start or end date changed
+    private Integer tasksMoved;
+    // When the last open task is scheduled to finish
+    private LocalDateTime scheduleEnd;
+    private Long durationMs;
+}
@@ -0,0 +1,33 @@
+package com.milan.smarttaskplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeadlineStatsResponse {
+    private Boolean enabled;
+    private String sink;
+
+    // Reminders and overdue deadlines held in the timing wheel, all before horizonEnd
+    private Integer scheduled;
+    private LocalDateTime horizonEnd;
+
+    // Goals written since the last tick whose deadlines are reloaded on the next one
+    private Integer pendingGoals;
+
+    // The last (startup or window) load
+    private Long lastLoadDeadlines;
+    private Long lastLoadMs;
+
+    // Since startup on this node; delivered excludes deadlines another node claimed first
+    private Long fired;
+    private Long delivered;
+    private Long tasksMarkedOverdue;
+}
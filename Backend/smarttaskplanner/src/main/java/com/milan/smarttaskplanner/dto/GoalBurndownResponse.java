@@ -0,0 +1,37 @@
+package com.milan.smarttaskplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GoalBurndownResponse {
+    private Long goalId;
+    private Long totalTasks;
+    private Long completedTasks;
+    private Long totalEstimatedHours;
+    private Long completedEstimatedHours;
+    private Double actualHours;
+
+    // Remaining work after each day on which tasks were completed
+    @Builder.Default
+    private List<BurndownPoint> points = new ArrayList<>();
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BurndownPoint {
+        private LocalDate day;
+        private Long remainingTasks;
+        private Long remainingEstimatedHours;
+    }
+}
@@ -1,5 +1,6 @@
 package com.milan.smarttaskplanner.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -8,6 +9,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.ArrayList;
 
+// Fields left out by the summary view are omitted rather than sent as null
+@JsonInclude(JsonInclude.Include.NON_NULL)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -24,4 +27,12 @@ public class GoalResponse {
     private String aiAnalysis;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // Only filled in by exports, so a re-import keeps the completions analytics counts
+    private LocalDateTime completedAt;
+
+    // Only set (true) for goals served from the archive, which are read-only
+    private Boolean archived;
+
+    // Only set (true) for templates, which are cloned through /api/goals/{id}/instantiate
+    private Boolean template;
 }
@@ -0,0 +1,23 @@
+package com.milan.smarttaskplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Row counts are planner estimates (pg_class.reltuples); sizes include indexes and TOAST
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotTableSizeResponse {
+    private LocalDateTime sampledAt;
+    private Long goalRows;
+    private Long taskRows;
+    private Long stepRows;
+    private Long hotBytes;
+    private Long archivedGoals;
+    private Long archiveBytes;
+}
@@ -0,0 +1,41 @@
+package com.milan.smarttaskplanner.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InstantiateTemplateRequest {
+
+    @NotEmpty(message = "At least one recipient is required")
+    private List<@Valid Recipient> recipients;
+
+    // Day the first task of every copy starts on, unless the recipient has its own; defaults to today
+    @JsonFormat(pattern = "yyyy-MM-dd", shape = JsonFormat.Shape.STRING)
+    private LocalDate startDate;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Recipient {
+
+        // Tenant that receives the copy
+        @NotBlank(message = "Recipient tenant id is required")
+        private String tenantId;
+
+        @JsonFormat(pattern = "yyyy-MM-dd", shape = JsonFormat.Shape.STRING)
+        private LocalDate startDate;
+    }
+}
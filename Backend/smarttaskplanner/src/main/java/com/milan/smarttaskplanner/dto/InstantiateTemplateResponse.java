@@ -0,0 +1,26 @@
+package com.milan.smarttaskplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InstantiateTemplateResponse {
+    private Long templateId;
+
+    // One new goal per recipient, in request order
+    @Builder.Default
+    private List<Long> goalIds = new ArrayList<>();
+
+    private Integer tasks;
+    private Integer steps;
+    private Integer dependencies;
+    private Long durationMs;
+}
@@ -0,0 +1,23 @@
+package com.milan.smarttaskplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LlmProviderStatsResponse {
+
+    private String name;
+    private Boolean configured;
+    private Integer qualityTier;
+    private Integer costTier;
+    private Long ewmaLatencyMs;
+    private Double errorRate;
+    private Long calls;
+    private Long failures;
+    private Boolean coolingDown;
+}
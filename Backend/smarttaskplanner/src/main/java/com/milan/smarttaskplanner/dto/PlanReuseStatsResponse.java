@@ -0,0 +1,24 @@
+package com.milan.smarttaskplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlanReuseStatsResponse {
+    private Long requests;
+    private Long reused;
+    private Long fewShot;
+    private Long generated;
+    private Double reuseRate;
+    private Long estimatedLatencySavedMs;
+    private Double averageFullGenerationMs;
+    private Double averageFewShotGenerationMs;
+    private Integer indexedPlans;
+    private Long indexUpdates;
+    private Double averageIndexUpdateMicros;
+}
@@ -0,0 +1,25 @@
+package com.milan.smarttaskplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlanningJobResponse {
+    private Long jobId;
+    private Long goalId;
+    private String status;
+    private Integer attempts;
+    private Integer maxAttempts;
+    private String leaseOwner;
+    private LocalDateTime availableAt;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+}
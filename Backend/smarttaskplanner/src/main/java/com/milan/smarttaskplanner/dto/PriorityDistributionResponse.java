@@ -0,0 +1,18 @@
+package com.milan.smarttaskplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriorityDistributionResponse {
+    private String priority;
+    private Long total;
+    private Map<String, Long> byStatus;
+}
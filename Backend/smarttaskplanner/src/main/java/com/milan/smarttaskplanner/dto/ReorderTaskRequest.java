@@ -0,0 +1,16 @@
+package com.milan.smarttaskplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReorderTaskRequest {
+
+    // Task the moved task goes right after; null moves it to the top
+    private Long afterTaskId;
+}
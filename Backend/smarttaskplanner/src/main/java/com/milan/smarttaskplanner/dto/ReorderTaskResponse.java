@@ -0,0 +1,22 @@
+package com.milan.smarttaskplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReorderTaskResponse {
+    private Long goalId;
+    private Long taskId;
+    private String rankKey;
+
+    // 1 for a plain move; the goal's task count when its keys were first assigned
+    private Integer rowsWritten;
+
+    // The key got long enough that the goal's keys are respaced in the background
+    private Boolean rebalanceQueued;
+}
@@ -0,0 +1,27 @@
+package com.milan.smarttaskplanner.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReplanRequest {
+
+    // Tasks to re-plan; when empty, the BLOCKED tasks and those no longer ending before the new target date
+    private List<Long> taskIds;
+
+    // New target date of the goal, if it moved
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss", shape = JsonFormat.Shape.STRING)
+    private LocalDateTime targetDate;
+
+    // Passed to the model, e.g. what is blocking the tasks
+    private String reason;
+}
@@ -0,0 +1,40 @@
+package com.milan.smarttaskplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplanResponse {
+    private Long goalId;
+    private String provider;
+
+    @Builder.Default
+    private List<Long> affectedTaskIds = new ArrayList<>();
+
+    // Dependency neighbours sent as context only
+    @Builder.Default
+    private List<Long> contextTaskIds = new ArrayList<>();
+
+    // The re-planned tasks that actually changed
+    @Builder.Default
+    private List<TaskResponse> tasks = new ArrayList<>();
+
+    // This re-plan next to what a full regeneration of the goal costs
+    private Integer promptChars;
+    private Integer fullPlanPromptChars;
+    private Integer maxOutputTokens;
+    private Integer fullPlanMaxOutputTokens;
+    private Long latencyMs;
+    // Recent average latency of the provider, which mostly serves full plans
+    private Long fullPlanLatencyMs;
+    private Integer rowsWritten;
+    private Integer fullPlanRowsWritten;
+}
@@ -0,0 +1,12 @@
+package com.milan.smarttaskplanner.dto;
+
+public enum ResponseView {
+    // Goal with task titles, status, priority and schedule; no detailed descriptions, steps or dependencies
+    SUMMARY,
+    // Everything, including each task's detailed description and steps
+    DETAIL;
+
+    public static ResponseView from(String value) {
+        return value == null ? DETAIL : ResponseView.valueOf(value.trim().toUpperCase());
+    }
+}
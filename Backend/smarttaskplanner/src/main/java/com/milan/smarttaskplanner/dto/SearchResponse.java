@@ -0,0 +1,23 @@
+package com.milan.smarttaskplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchResponse {
+    private String query;
+    private Integer page;
+    private Integer size;
+    private Boolean hasMore;
+
+    @Builder.Default
+    private List<SearchResultResponse> results = new ArrayList<>();
+}
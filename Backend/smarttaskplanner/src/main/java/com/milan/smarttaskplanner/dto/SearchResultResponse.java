@@ -0,0 +1,24 @@
+package com.milan.smarttaskplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResultResponse {
+    private String type;
+    private Long id;
+    private Long goalId;
+    private String title;
+    private String snippet;
+    private String status;
+    private String priority;
+    private Double rank;
+    private LocalDateTime createdAt;
+}
@@ -13,6 +13,11 @@ import java.util.ArrayList;
 @AllArgsConstructor
 @Builder
 public class TaskPlanResponse {
+    private Long goalId;
+    // Where the plan came from (LLM, FEW_SHOT, REUSED, LOCAL, FALLBACK)
+    private String planSource;
+    // True when this is a quick plan that will be replaced once the AI plan is ready
+    private Boolean upgradePending;
     private String goalAnalysis;
     private Integer totalTasks;
     private Integer estimatedTotalHours;
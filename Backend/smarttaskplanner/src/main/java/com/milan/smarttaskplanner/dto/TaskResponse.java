@@ -1,5 +1,6 @@
 package com.milan.smarttaskplanner.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -8,6 +9,8 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 import java.util.List;
 
+// Fields left out by the summary view are omitted rather than sent as null
+@JsonInclude(JsonInclude.Include.NON_NULL)
 @Data
 @Builder
 @NoArgsConstructor
@@ -22,9 +25,16 @@ public class TaskResponse {
     private String priority;
     private String status;
     private Integer orderIndex;
+    // Manual ordering key (see TaskOrderService); only filled in by exports, so a re-import keeps the order
+    private String rankKey;
     private List<Long> dependencies;
     private LocalDateTime startDate;
     private LocalDateTime endDate;
+    // Set while the task is flagged overdue by the deadline engine
+    private LocalDateTime overdueAt;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // Only filled in by exports, like rankKey: analytics derive throughput and actual hours from them
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
 }
@@ -0,0 +1,17 @@
+package com.milan.smarttaskplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TenantQuotaResponse {
+    private String tenantId;
+    private Integer maxConcurrentPlans;
+    private Integer runningPlans;
+    private Long aiCallsPerMinute;
+}
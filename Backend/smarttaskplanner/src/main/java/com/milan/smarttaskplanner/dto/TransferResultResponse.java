@@ -0,0 +1,23 @@
+package com.milan.smarttaskplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferResultResponse {
+    private String name;
+    private String mode;
+    private Long resumedAfterLine;
+    private Long lastLine;
+    private Long goals;
+    private Long tasks;
+    // goals + tasks + steps + dependencies
+    private Long rows;
+    private Long elapsedMs;
+    private Double rowsPerSecond;
+}
@@ -0,0 +1,25 @@
+package com.milan.smarttaskplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WeeklyThroughputResponse {
+    private LocalDate weekStart;
+    private Long goalsCreated;
+    private Long goalsCompleted;
+    private Long tasksCreated;
+    private Long tasksCompleted;
+    private Long tasksCompletedLate;
+    private Long estimatedHoursCompleted;
+    private Double actualHoursCompleted;
+    // Actual / estimated hours of the completed tasks; above 1 means work was underestimated
+    private Double actualToEstimatedRatio;
+}
@@ -0,0 +1,52 @@
+package com.milan.smarttaskplanner.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A finished goal moved out of the hot goals/tasks tables. The whole goal with its tasks, steps
+ * and dependencies is stored as one gzip-compressed JSON document (a GoalResponse), so an archived
+ * goal costs one row and no secondary index entries. See GoalArchiveService.
+ */
+@Entity
+@Table(name = "goal_archive", indexes = {
+        @Index(name = "idx_goal_archive_tenant_finished", columnList = "tenant_id, finished_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedGoal {
+
+    // Same id the goal had in the hot table
+    @Id
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false, length = 64)
+    private String tenantId;
+
+    @Column(nullable = false, length = 500)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private GoalStatus status;
+
+    @Column(name = "task_count", nullable = false)
+    private Integer taskCount;
+
+    // updated_at of the goal when it was archived
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    @Column(nullable = false)
+    private byte[] payload;
+}
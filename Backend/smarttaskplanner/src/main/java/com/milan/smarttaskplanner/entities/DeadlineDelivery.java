@@ -0,0 +1,46 @@
+package com.milan.smarttaskplanner.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One deadline notification that was sent. The deadline engine inserts these with ON CONFLICT DO
+ * NOTHING before delivering, so each (kind, subject, deadline) is notified once across restarts
+ * and nodes; a moved deadline is a new row.
+ */
+@Entity
+@Table(name = "deadline_notifications", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_deadline_notifications", columnNames = {"kind", "subject_id", "deadline"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeadlineDelivery {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // DeadlineKind name
+    @Column(nullable = false, length = 20)
+    private String kind;
+
+    // Task or goal id, depending on the kind
+    @Column(name = "subject_id", nullable = false)
+    private Long subjectId;
+
+    @Column(name = "tenant_id", nullable = false, length = 64)
+    private String tenantId;
+
+    @Column(nullable = false)
+    private LocalDateTime deadline;
+
+    @Column(name = "fired_at", nullable = false)
+    private LocalDateTime firedAt;
+}
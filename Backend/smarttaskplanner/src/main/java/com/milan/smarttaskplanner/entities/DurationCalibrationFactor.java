@@ -0,0 +1,47 @@
+package com.milan.smarttaskplanner.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Learned duration correction for one feature of a tenant's tasks: the running average of
+ * log(actual / estimated hours). One small row per feature; see DurationCalibrationService.
+ */
+@Entity
+@Table(name = "duration_calibration")
+@IdClass(DurationCalibrationFactor.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DurationCalibrationFactor {
+
+    @Id
+    @Column(name = "tenant_id", length = 64)
+    private String tenantId;
+
+    @Id
+    @Column(length = 80)
+    private String feature;
+
+    @Column(name = "log_ratio", nullable = false)
+    private Double logRatio;
+
+    @Column(nullable = false)
+    private Integer samples;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String tenantId;
+        private String feature;
+    }
+}
@@ -1,5 +1,6 @@
 package com.milan.smarttaskplanner.entities;
 
+import com.milan.smarttaskplanner.services.tenancy.TenantContext;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -10,7 +11,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "goals")
+@Table(name = "goals", indexes = {
+        @Index(name = "idx_goals_tenant_created", columnList = "tenant_id, created_at"),
+        @Index(name = "idx_goals_status_updated", columnList = "status, updated_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -22,22 +26,44 @@ public class Goal {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Owning tenant; every GoalRepository query is scoped by it (see db/tenant-partitioning.sql)
+    @Column(name = "tenant_id", nullable = false, columnDefinition = "varchar(64) NOT NULL DEFAULT 'default'")
+    private String tenantId;
+
     @Column(nullable = false, length = 500)
     private String description;
 
     @Column(name = "target_date")
     private LocalDateTime targetDate;
 
+    // Upper bound on how many of this goal's tasks the capacity leveler starts per day (null = no bound)
+    @Column(name = "max_tasks_per_day")
+    private Integer maxTasksPerDay;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 50)
     private GoalStatus status;
 
+    // Display order; tasks without a rank key (never reordered) follow their plan order
     @OneToMany(mappedBy = "goal", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("rankKey ASC, orderIndex ASC")
     private List<Task> tasks;
 
     @Column(name = "ai_analysis", columnDefinition = "TEXT")
     private String aiAnalysis;
 
+    // Where the current plan came from (LLM, REUSED, TEMPLATE, ...); null for goals planned before it was recorded
+    @Column(name = "plan_source", length = 20)
+    private String planSource;
+
+    // Templates are cloned for recipients by TemplateInstantiationService and are never scheduled themselves
+    @Column(name = "template", nullable = false, columnDefinition = "boolean NOT NULL DEFAULT false")
+    private boolean template;
+
+    // Set while the goal is COMPLETED
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -56,11 +82,19 @@ public class Goal {
         }
     }
 
+    @PrePersist
+    void assignTenant() {
+        if (tenantId == null) {
+            tenantId = TenantContext.getTenantId();
+        }
+    }
+
     // Helper methods
     public void addTask(Task task) {
         if (tasks == null) tasks = new ArrayList<>();
         tasks.add(task);
         task.setGoal(this);
+        task.setTenantId(tenantId);
     }
 
     public void removeTask(Task task) {
@@ -0,0 +1,41 @@
+package com.milan.smarttaskplanner.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+// Work of a goal completed on one day; the burndown is the goal total minus the running sum
+@Entity
+@Table(name = "analytics_goal_burndown")
+@IdClass(GoalBurndownDay.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GoalBurndownDay {
+
+    @Id
+    @Column(name = "goal_id")
+    private Long goalId;
+
+    @Id
+    @Column(name = "day")
+    private LocalDate day;
+
+    @Column(name = "completed_tasks", nullable = false)
+    private Long completedTasks;
+
+    @Column(name = "completed_estimated_hours", nullable = false)
+    private Long completedEstimatedHours;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long goalId;
+        private LocalDate day;
+    }
+}
@@ -0,0 +1,42 @@
+package com.milan.smarttaskplanner.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Task totals of one goal. Kept after the goal is archived so its burndown stays available;
+ * removed with the goal when it is deleted.
+ */
+@Entity
+@Table(name = "analytics_goal_rollups", indexes = {
+        @Index(name = "idx_goal_rollups_tenant", columnList = "tenant_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GoalRollup {
+
+    @Id
+    @Column(name = "goal_id")
+    private Long goalId;
+
+    @Column(name = "tenant_id", nullable = false, length = 64)
+    private String tenantId;
+
+    @Column(name = "total_tasks", nullable = false)
+    private Long totalTasks;
+
+    @Column(name = "completed_tasks", nullable = false)
+    private Long completedTasks;
+
+    @Column(name = "total_estimated_hours", nullable = false)
+    private Long totalEstimatedHours;
+
+    @Column(name = "completed_estimated_hours", nullable = false)
+    private Long completedEstimatedHours;
+
+    @Column(name = "actual_hours", nullable = false)
+    private Double actualHours;
+}
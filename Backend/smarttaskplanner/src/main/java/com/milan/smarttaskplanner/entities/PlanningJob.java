@@ -0,0 +1,76 @@
+package com.milan.smarttaskplanner.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A queued plan generation for a goal. Rows are written in the same transaction as the goal
+ * (outbox) and claimed by workers with FOR UPDATE SKIP LOCKED; see PlanningJobQueue.
+ */
+@Entity
+@Table(name = "planning_jobs", indexes = {
+        @Index(name = "idx_planning_jobs_claim", columnList = "status, available_at"),
+        @Index(name = "idx_planning_jobs_goal", columnList = "goal_id"),
+        @Index(name = "idx_planning_jobs_tenant", columnList = "tenant_id, status")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlanningJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "goal_id", nullable = false)
+    private Long goalId;
+
+    @Column(name = "tenant_id", nullable = false, length = 64,
+            columnDefinition = "varchar(64) NOT NULL DEFAULT 'default'")
+    private String tenantId;
+
+    // The GoalRequest as JSON
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PlanningJobStatus status;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(name = "max_attempts", nullable = false)
+    private Integer maxAttempts;
+
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
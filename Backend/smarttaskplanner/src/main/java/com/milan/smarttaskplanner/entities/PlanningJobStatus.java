@@ -0,0 +1,8 @@
+package com.milan.smarttaskplanner.entities;
+
+public enum PlanningJobStatus {
+    PENDING,
+    RUNNING,
+    SUCCEEDED,
+    DEAD
+}
@@ -0,0 +1,42 @@
+package com.milan.smarttaskplanner.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// Number of tasks in the hot tables per priority and status (archived goals are not counted)
+@Entity
+@Table(name = "analytics_priority_rollups")
+@IdClass(PriorityRollup.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriorityRollup {
+
+    @Id
+    @Column(name = "tenant_id", length = 64)
+    private String tenantId;
+
+    @Id
+    @Column(length = 20)
+    private String priority;
+
+    @Id
+    @Column(length = 20)
+    private String status;
+
+    @Column(name = "task_count", nullable = false)
+    private Long taskCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String tenantId;
+        private String priority;
+        private String status;
+    }
+}
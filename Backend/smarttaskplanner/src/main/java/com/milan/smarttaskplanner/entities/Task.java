@@ -1,18 +1,24 @@
 package com.milan.smarttaskplanner.entities;
 
+import com.milan.smarttaskplanner.services.tenancy.TenantContext;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_tenant_goal", columnList = "tenant_id, goal_id"),
+        @Index(name = "idx_tasks_goal_rank", columnList = "goal_id, rank_key, order_index")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -23,6 +29,10 @@ public class Task {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Always the tenant of the goal (set by Goal.addTask)
+    @Column(name = "tenant_id", nullable = false, columnDefinition = "varchar(64) NOT NULL DEFAULT 'default'")
+    private String tenantId;
+
     @Column(nullable = false)
     private String title;
 
@@ -32,8 +42,10 @@ public class Task {
     @Column(columnDefinition = "TEXT")
     private String detailedDescription;
 
+    // Position columns keep steps and dependencies in the order they were written
     @ElementCollection
     @CollectionTable(name = "task_steps", joinColumns = @JoinColumn(name = "task_id"))
+    @OrderColumn(name = "step_order")
     @Column(name = "step", columnDefinition = "TEXT")
     private List<String> steps;
 
@@ -47,16 +59,42 @@ public class Task {
     @Column(columnDefinition = "task_status")
     private TaskStatus status;
 
+    // Task number within the plan; dependencies refer to it, so reordering never changes it
     private Integer orderIndex;
 
+    // Display position among the goal's tasks (fractional key, see OrderKeys); null until the goal is first reordered
+    @Column(name = "rank_key", columnDefinition = "varchar(64) COLLATE \"C\"")
+    private String rankKey;
+
     @ElementCollection
     @CollectionTable(name = "task_dependencies", joinColumns = @JoinColumn(name = "task_id"))
+    @OrderColumn(name = "dependency_order")
     @Column(name = "dependency_id")
     private List<Long> dependencies;
 
+    // Compact storage (task-storage.mode = COMPACT): steps and dependencies live on the task row itself
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "steps_json", columnDefinition = "jsonb")
+    private List<String> stepsJson;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "dependency_ids", columnDefinition = "bigint[]")
+    private List<Long> dependencyIds;
+
     private LocalDateTime startDate;
     private LocalDateTime endDate;
 
+    // When work actually started (first IN_PROGRESS) and finished; set by GoalService.updateTaskStatus
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    // Set by the deadline engine once endDate passed while the task was open; cleared when endDate moves later
+    @Column(name = "overdue_at")
+    private LocalDateTime overdueAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "goal_id", nullable = false)
     private Goal goal;
@@ -67,4 +105,11 @@ public class Task {
 
     @UpdateTimestamp
     private LocalDateTime updatedAt;
+
+    @PrePersist
+    void assignTenant() {
+        if (tenantId == null) {
+            tenantId = goal != null && goal.getTenantId() != null ? goal.getTenantId() : TenantContext.getTenantId();
+        }
+    }
 }
@@ -0,0 +1,35 @@
+package com.milan.smarttaskplanner.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Figures that depend on the current time (overdue work) and so cannot be maintained by
+ * write-time deltas. Refreshed by each AnalyticsReconciler run.
+ */
+@Entity
+@Table(name = "analytics_tenant_snapshots")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TenantAnalyticsSnapshot {
+
+    @Id
+    @Column(name = "tenant_id", length = 64)
+    private String tenantId;
+
+    // Not completed and past their end date
+    @Column(name = "overdue_tasks", nullable = false)
+    private Long overdueTasks;
+
+    // Not completed or cancelled and past their target date
+    @Column(name = "overdue_goals", nullable = false)
+    private Long overdueGoals;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+}
@@ -0,0 +1,38 @@
+package com.milan.smarttaskplanner.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a named import. Updated in the same transaction as each imported batch, so a rerun
+ * with the same name skips exactly the lines that were committed.
+ */
+@Entity
+@Table(name = "transfer_checkpoints")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferCheckpoint {
+
+    @Id
+    @Column(length = 200)
+    private String name;
+
+    @Column(name = "last_line", nullable = false)
+    private Long lastLine;
+
+    @Column(nullable = false)
+    private Long goals;
+
+    @Column(nullable = false)
+    private Long tasks;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,61 @@
+package com.milan.smarttaskplanner.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Per-tenant activity of one ISO week (starting Monday). Maintained incrementally by
+ * AnalyticsRollupService and rebuilt for recent weeks by AnalyticsReconciler.
+ */
+@Entity
+@Table(name = "analytics_weekly_rollups")
+@IdClass(WeeklyRollup.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WeeklyRollup {
+
+    @Id
+    @Column(name = "tenant_id", length = 64)
+    private String tenantId;
+
+    @Id
+    @Column(name = "week_start")
+    private LocalDate weekStart;
+
+    @Column(name = "goals_created", nullable = false)
+    private Long goalsCreated;
+
+    @Column(name = "goals_completed", nullable = false)
+    private Long goalsCompleted;
+
+    @Column(name = "tasks_created", nullable = false)
+    private Long tasksCreated;
+
+    @Column(name = "tasks_completed", nullable = false)
+    private Long tasksCompleted;
+
+    // Completed after their planned end date
+    @Column(name = "tasks_completed_late", nullable = false)
+    private Long tasksCompletedLate;
+
+    // Estimated and actual (start to completion) hours of the tasks completed this week
+    @Column(name = "estimated_hours_completed", nullable = false)
+    private Long estimatedHoursCompleted;
+
+    @Column(name = "actual_hours_completed", nullable = false)
+    private Double actualHoursCompleted;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String tenantId;
+        private LocalDate weekStart;
+    }
+}
@@ -0,0 +1,8 @@
+package com.milan.smarttaskplanner.events;
+
+/**
+ * Published by GoalService once a goal and its tasks have been saved.
+ * planSource is the "source" entry of the AI plan (LLM, FALLBACK, REUSED, ...).
+ */
+public record GoalCreatedEvent(Long goalId, String tenantId, String description, String planSource) {
+}
@@ -0,0 +1,4 @@
+package com.milan.smarttaskplanner.events;
+
+public record GoalDeletedEvent(Long goalId) {
+}
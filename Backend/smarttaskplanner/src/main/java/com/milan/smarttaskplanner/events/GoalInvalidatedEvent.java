@@ -0,0 +1,5 @@
+package com.milan.smarttaskplanner.events;
+
+// Another node changed this goal; local copies of its state should be reloaded
+public record GoalInvalidatedEvent(Long goalId) {
+}
@@ -0,0 +1,5 @@
+package com.milan.smarttaskplanner.events;
+
+// Published when some tasks of a goal were re-planned in place; the goal and its other tasks stay as they were
+public record GoalReplannedEvent(Long goalId, String tenantId) {
+}
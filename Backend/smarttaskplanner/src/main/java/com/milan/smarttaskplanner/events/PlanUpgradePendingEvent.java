@@ -0,0 +1,10 @@
+package com.milan.smarttaskplanner.events;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Published when a goal was saved with a quick plan while a better plan is still being generated.
+ */
+public record PlanUpgradePendingEvent(Long goalId, CompletableFuture<Map<String, Object>> upgrade) {
+}
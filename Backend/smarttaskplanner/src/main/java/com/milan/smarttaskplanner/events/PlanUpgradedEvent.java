@@ -0,0 +1,4 @@
+package com.milan.smarttaskplanner.events;
+
+public record PlanUpgradedEvent(Long goalId, String tenantId, String description, String planSource) {
+}
@@ -0,0 +1,6 @@
+package com.milan.smarttaskplanner.events;
+
+// A task reached COMPLETED; activeHours is the working time spent IN_PROGRESS, from its status history
+public record TaskCompletedEvent(String tenantId, String goalDescription, String title, String priority,
+                                 Integer estimatedHours, double activeHours) {
+}
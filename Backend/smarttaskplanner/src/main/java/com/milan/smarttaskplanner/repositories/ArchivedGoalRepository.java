@@ -0,0 +1,13 @@
+package com.milan.smarttaskplanner.repositories;
+
+import com.milan.smarttaskplanner.entities.ArchivedGoal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ArchivedGoalRepository extends JpaRepository<ArchivedGoal, Long> {
+    Optional<ArchivedGoal> findByIdAndTenantId(Long id, String tenantId);
+    boolean existsByIdAndTenantId(Long id, String tenantId);
+}
@@ -0,0 +1,12 @@
+package com.milan.smarttaskplanner.repositories;
+
+import com.milan.smarttaskplanner.entities.GoalBurndownDay;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface GoalBurndownDayRepository extends JpaRepository<GoalBurndownDay, GoalBurndownDay.Key> {
+    List<GoalBurndownDay> findByGoalIdOrderByDayAsc(Long goalId);
+}
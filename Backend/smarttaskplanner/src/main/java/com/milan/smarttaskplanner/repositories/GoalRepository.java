@@ -6,10 +6,15 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
+// Lookups are scoped by tenant; plain findById is only for internal callers that already own the id
 @Repository
 public interface GoalRepository extends JpaRepository<Goal, Long> {
-    List<Goal> findByStatus(GoalStatus status);
-    List<Goal> findByStatusOrderByCreatedAtDesc(GoalStatus status);
-    List<Goal> findTop10ByOrderByCreatedAtDesc();
+    Optional<Goal> findByIdAndTenantId(Long id, String tenantId);
+    boolean existsByIdAndTenantId(Long id, String tenantId);
+    List<Goal> findByTenantId(String tenantId);
+    List<Goal> findByTenantIdAndStatus(String tenantId, GoalStatus status);
+    List<Goal> findByTenantIdAndStatusOrderByCreatedAtDesc(String tenantId, GoalStatus status);
+    List<Goal> findTop10ByTenantIdOrderByCreatedAtDesc(String tenantId);
 }
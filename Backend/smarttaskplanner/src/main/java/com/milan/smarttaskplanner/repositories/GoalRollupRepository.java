@@ -0,0 +1,12 @@
+package com.milan.smarttaskplanner.repositories;
+
+import com.milan.smarttaskplanner.entities.GoalRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface GoalRollupRepository extends JpaRepository<GoalRollup, Long> {
+    Optional<GoalRollup> findByGoalIdAndTenantId(Long goalId, String tenantId);
+}
@@ -0,0 +1,17 @@
+package com.milan.smarttaskplanner.repositories;
+
+import com.milan.smarttaskplanner.entities.PlanningJob;
+import com.milan.smarttaskplanner.entities.PlanningJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PlanningJobRepository extends JpaRepository<PlanningJob, Long> {
+    List<PlanningJob> findTop100ByTenantIdAndStatusOrderByCreatedAtDesc(String tenantId, PlanningJobStatus status);
+    Optional<PlanningJob> findByIdAndTenantId(Long id, String tenantId);
+    List<PlanningJob> findByGoalIdOrderByCreatedAtDesc(Long goalId);
+    long countByStatus(PlanningJobStatus status);
+}
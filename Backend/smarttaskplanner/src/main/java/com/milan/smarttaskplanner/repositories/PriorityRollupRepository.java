@@ -0,0 +1,12 @@
+package com.milan.smarttaskplanner.repositories;
+
+import com.milan.smarttaskplanner.entities.PriorityRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PriorityRollupRepository extends JpaRepository<PriorityRollup, PriorityRollup.Key> {
+    List<PriorityRollup> findByTenantId(String tenantId);
+}
@@ -6,10 +6,12 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
-    List<Task> findByGoalId(Long goalId);
-    List<Task> findByGoalIdAndStatus(Long goalId, TaskStatus status);
-    List<Task> findByGoalIdOrderByOrderIndexAsc(Long goalId);
+    Optional<Task> findByIdAndTenantId(Long id, String tenantId);
+    List<Task> findByGoalIdAndTenantId(Long goalId, String tenantId);
+    List<Task> findByGoalIdAndTenantIdAndStatus(Long goalId, String tenantId, TaskStatus status);
+    List<Task> findByGoalIdAndTenantIdOrderByOrderIndexAsc(Long goalId, String tenantId);
 }
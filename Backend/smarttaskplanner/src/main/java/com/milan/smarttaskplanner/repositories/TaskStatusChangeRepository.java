@@ -0,0 +1,18 @@
+package com.milan.smarttaskplanner.repositories;
+
+import com.milan.smarttaskplanner.entities.TaskStatusChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TaskStatusChangeRepository extends JpaRepository<TaskStatusChange, Long> {
+    List<TaskStatusChange> findByTaskIdOrderByChangedAtAsc(Long taskId);
+
+    @Modifying
+    @Query("DELETE FROM TaskStatusChange c WHERE c.goalId = :goalId")
+    void deleteByGoalId(Long goalId);
+}
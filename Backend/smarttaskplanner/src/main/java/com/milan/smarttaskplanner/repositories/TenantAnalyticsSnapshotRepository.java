@@ -0,0 +1,9 @@
+package com.milan.smarttaskplanner.repositories;
+
+import com.milan.smarttaskplanner.entities.TenantAnalyticsSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TenantAnalyticsSnapshotRepository extends JpaRepository<TenantAnalyticsSnapshot, String> {
+}
@@ -0,0 +1,9 @@
+package com.milan.smarttaskplanner.repositories;
+
+import com.milan.smarttaskplanner.entities.TransferCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TransferCheckpointRepository extends JpaRepository<TransferCheckpoint, String> {
+}
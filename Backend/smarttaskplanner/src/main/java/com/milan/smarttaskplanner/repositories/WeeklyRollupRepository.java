@@ -0,0 +1,13 @@
+package com.milan.smarttaskplanner.repositories;
+
+import com.milan.smarttaskplanner.entities.WeeklyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface WeeklyRollupRepository extends JpaRepository<WeeklyRollup, WeeklyRollup.Key> {
+    List<WeeklyRollup> findByTenantIdAndWeekStartGreaterThanEqualOrderByWeekStartAsc(String tenantId, LocalDate from);
+}
@@ -2,30 +2,67 @@ package com.milan.smarttaskplanner.services;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.milan.smarttaskplanner.config.CoordinationProperties;
+import com.milan.smarttaskplanner.config.HierarchicalPlanningProperties;
 import com.milan.smarttaskplanner.config.OpenAIProperties;
 import com.milan.smarttaskplanner.dto.GoalRequest;
 import com.milan.smarttaskplanner.dto.TaskResponse;
+import com.milan.smarttaskplanner.entities.TaskStatus;
+import com.milan.smarttaskplanner.services.coordination.CoordinationService;
+import com.milan.smarttaskplanner.services.llm.LlmResult;
+import com.milan.smarttaskplanner.services.llm.LlmRouter;
+import com.milan.smarttaskplanner.services.tenancy.TenantQuotaService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.*;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.HttpServerErrorException;
-import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 @Slf4j
 public class AIServiceImpl implements AIService {
 
+    // Plan "source" values, so callers can tell generated plans from the sample fallback
+    public static final String SOURCE_LLM = "LLM";
+    public static final String SOURCE_FALLBACK = "FALLBACK";
+    public static final String FALLBACK_ANALYSIS_PREFIX = "⚠️ This is a sample task plan.";
+
     private final OpenAIProperties openAIProperties;
+    private final LocalPlanGenerator localPlanGenerator;
+    private final LlmRouter llmRouter;
+    private final CoordinationService coordinationService;
+    private final CoordinationProperties coordinationProperties;
+    private final TenantQuotaService tenantQuotaService;
+    private final DurationCalibrationService durationCalibrationService;
+    private final PhasedPlanBuilder phasedPlanBuilder;
+    private final HierarchicalPlanningProperties hierarchicalPlanningProperties;
+    private final Executor phaseExpansionExecutor;
 
     @Autowired
-    public AIServiceImpl(OpenAIProperties openAIProperties) {
+    public AIServiceImpl(OpenAIProperties openAIProperties, LocalPlanGenerator localPlanGenerator, LlmRouter llmRouter,
+                         CoordinationService coordinationService, CoordinationProperties coordinationProperties,
+                         TenantQuotaService tenantQuotaService, DurationCalibrationService durationCalibrationService,
+                         PhasedPlanBuilder phasedPlanBuilder, HierarchicalPlanningProperties hierarchicalPlanningProperties,
+                         @Qualifier("phaseExpansionExecutor") Executor phaseExpansionExecutor) {
         this.openAIProperties = openAIProperties;
+        this.localPlanGenerator = localPlanGenerator;
+        this.llmRouter = llmRouter;
+        this.coordinationService = coordinationService;
+        this.coordinationProperties = coordinationProperties;
+        this.tenantQuotaService = tenantQuotaService;
+        this.durationCalibrationService = durationCalibrationService;
+        this.phasedPlanBuilder = phasedPlanBuilder;
+        this.hierarchicalPlanningProperties = hierarchicalPlanningProperties;
+        this.phaseExpansionExecutor = phaseExpansionExecutor;
         log.info("=== AIServiceImpl Initialized ===");
         log.info("API Key present: {}", openAIProperties.getKey() != null && !openAIProperties.getKey().isEmpty());
         log.info("API Key length: {}", openAIProperties.getKey() != null ? openAIProperties.getKey().length() : 0);
@@ -42,77 +79,256 @@ public class AIServiceImpl implements AIService {
         log.info("Target Date: {}", request.getTargetDate());
         log.info("========================================");
 
+        if (phasedPlanBuilder.isLargeGoal(request)) {
+            Map<String, Object> plan = requestHierarchicalPlan(request);
+            if (plan != null) {
+                return plan;
+            }
+            log.warn("Hierarchical planning failed, falling back to a single plan call");
+        }
+        return requestPlan(request, buildPrompt(request));
+    }
+
+    /**
+     * Hierarchical mode for large goals, whose single-call plans tend to be slow and cut off at the
+     * output limit: one short call outlines the phases, then every phase is expanded by its own
+     * call on the phaseExpansionExecutor (whose thread count caps the calls in flight) and
+     * PhasedPlanBuilder merges the results. Wall-clock time is the outline plus about the slowest
+     * phase. A phase that fails or times out is kept as one task from the outline. Returns null when
+     * no outline (or no phase at all) could be produced, so the caller falls back to a single call.
+     */
+    private Map<String, Object> requestHierarchicalPlan(GoalRequest request) {
+        long started = System.currentTimeMillis();
+        JsonNode outline;
+        List<PhasedPlanBuilder.Phase> phases;
+        String provider;
         try {
-            // Validate API key
-            if (openAIProperties.getKey() == null || openAIProperties.getKey().trim().isEmpty()) {
-                log.error("CRITICAL: Gemini API Key is not configured!");
-                return generateFallbackPlan(request);
+            if (!acquireLlmCall()) {
+                return null;
+            }
+            LlmResult response = llmRouter.complete(phasedPlanBuilder.buildOutlinePrompt(request),
+                    hierarchicalPlanningProperties.getOutlineMaxTokens(), openAIProperties.getTemperature());
+            outline = new ObjectMapper().readTree(stripCodeFences(response.text()));
+            phases = phasedPlanBuilder.parsePhases(outline);
+            provider = response.provider();
+        } catch (Exception e) {
+            log.warn("Could not outline the phases of the goal: {}", e.getMessage());
+            return null;
+        }
+        if (phases.size() < 2) {
+            log.info("Outline has {} phases, planning the goal in a single call", phases.size());
+            return null;
+        }
+        long outlineMs = System.currentTimeMillis() - started;
+
+        long deadline = System.currentTimeMillis() + hierarchicalPlanningProperties.getPhaseTimeoutMs();
+        List<CompletableFuture<PhaseExpansion>> expansions = new ArrayList<>();
+        for (PhasedPlanBuilder.Phase phase : phases) {
+            expansions.add(expandPhaseAsync(request, phases, phase, deadline));
+        }
+
+        List<List<TaskResponse>> phaseTasks = new ArrayList<>();
+        long slowestPhaseMs = 0;
+        long summedPhaseMs = 0;
+        int failed = 0;
+        for (int i = 0; i < phases.size(); i++) {
+            List<TaskResponse> tasks = null;
+            try {
+                PhaseExpansion expansion = expansions.get(i)
+                        .get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                tasks = expansion.tasks();
+                slowestPhaseMs = Math.max(slowestPhaseMs, expansion.latencyMs());
+                summedPhaseMs += expansion.latencyMs();
+            } catch (TimeoutException e) {
+                expansions.get(i).cancel(true);
+                log.warn("Phase {} was not expanded in time", i + 1);
+            } catch (Exception e) {
+                log.warn("Phase {} could not be expanded: {}", i + 1, e.getMessage());
+            }
+            if (tasks == null || tasks.isEmpty()) {
+                failed++;
+                tasks = new ArrayList<>(List.of(phasedPlanBuilder.outlineTask(phases.get(i))));
+            }
+            phaseTasks.add(tasks);
+        }
+        if (failed == phases.size()) {
+            return null;
+        }
+
+        LocalDateTime startDate = LocalDateTime.now();
+        List<TaskResponse> tasks = phasedPlanBuilder.merge(phases, phaseTasks, startDate);
+        int totalHours = tasks.stream().mapToInt(TaskResponse::getEstimatedDurationHours).sum();
+
+        Map<String, Object> plan = new HashMap<>();
+        plan.put("source", SOURCE_LLM);
+        plan.put("provider", provider);
+        plan.put("analysis", outline.path("analysis").asText("No analysis provided"));
+        plan.put("tasks", tasks);
+        plan.put("totalTasks", tasks.size());
+        plan.put("estimatedTotalHours", totalHours);
+        plan.put("suggestedStartDate", startDate);
+        // Phases run in parallel, so the last task in order is not necessarily the last to finish
+        plan.put("suggestedEndDate", tasks.stream().map(TaskResponse::getEndDate).filter(Objects::nonNull)
+                .max(LocalDateTime::compareTo).orElse(startDate));
+        plan.put("recommendations", parseList(outline.path("recommendations")));
+        plan.put("risks", parseList(outline.path("risks")));
+        plan.put("phases", phases.size());
+
+        durationCalibrationService.calibrate(plan, request.getDescription());
+
+        log.info("✅ Hierarchical plan with {} tasks in {} phases ({} kept from the outline) in {} ms: outline {} ms, "
+                        + "slowest phase {} ms, phases summed {} ms",
+                tasks.size(), phases.size(), failed, System.currentTimeMillis() - started, outlineMs,
+                slowestPhaseMs, summedPhaseMs);
+        return plan;
+    }
+
+    private record PhaseExpansion(List<TaskResponse> tasks, long latencyMs) {
+    }
+
+    private CompletableFuture<PhaseExpansion> expandPhaseAsync(GoalRequest request, List<PhasedPlanBuilder.Phase> phases,
+                                                               PhasedPlanBuilder.Phase phase, long deadline) {
+        try {
+            return CompletableFuture.supplyAsync(() -> expandPhase(request, phases, phase, deadline),
+                    phaseExpansionExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private PhaseExpansion expandPhase(GoalRequest request, List<PhasedPlanBuilder.Phase> phases,
+                                       PhasedPlanBuilder.Phase phase, long deadline) {
+        // cancel() does not stop a phase still queued on the executor; once the plan has given up
+        // on it, it must not take an LLM permit or quota for a result nobody reads
+        if (System.currentTimeMillis() >= deadline) {
+            throw new IllegalStateException("phase deadline passed while queued");
+        }
+        if (!acquireLlmCall()) {
+            throw new IllegalStateException("no LLM call available");
+        }
+        LlmResult response = llmRouter.complete(phasedPlanBuilder.buildPhasePrompt(request, phases, phase),
+                hierarchicalPlanningProperties.getPhaseMaxTokens(), openAIProperties.getTemperature());
+        JsonNode tasksNode;
+        try {
+            tasksNode = new ObjectMapper().readTree(stripCodeFences(response.text())).path("tasks");
+        } catch (Exception e) {
+            throw new IllegalStateException("unparseable phase response: " + e.getMessage(), e);
+        }
+
+        List<TaskResponse> tasks = new ArrayList<>();
+        for (int i = 0; i < tasksNode.size(); i++) {
+            tasks.add(parseTask(tasksNode.get(i), i));
+        }
+        log.info("Phase {} ({}) expanded into {} tasks via {} in {} ms",
+                phase.number(), phase.title(), tasks.size(), response.provider(), response.latencyMs());
+        return new PhaseExpansion(tasks, response.latencyMs());
+    }
+
+    /**
+     * Few-shot variant: instead of the full instruction set, the model gets a plan that worked for
+     * a similar goal and is asked to adapt it. The prompt is much shorter and the output more stable.
+     */
+    public Map<String, Object> generateTaskPlanFromExample(GoalRequest request, String exampleGoal,
+                                                           List<TaskResponse> exampleTasks) {
+        log.info("Starting few-shot task plan generation");
+        log.info("Goal: {}", request.getDescription());
+        log.info("Example goal: {} ({} tasks)", exampleGoal, exampleTasks.size());
+
+        try {
+            return requestPlan(request, buildFewShotPrompt(request, exampleGoal, exampleTasks));
+        } catch (Exception e) {
+            log.error("❌ Could not build few-shot prompt: {}", e.getMessage());
+            return generateTaskPlan(request);
+        }
+    }
+
+    /**
+     * Partial re-plan: the model sees the affected tasks in full and their dependency neighbours in
+     * outline only, and returns one replacement per affected task with the same orderIndex. Returns
+     * the replacements under "tasks" with the prompt size, output budget, provider and latency, or
+     * null when no model may be called or its answer is unusable (there is no sample fallback for
+     * part of a plan).
+     */
+    public Map<String, Object> generateReplacementTasks(String goalDescription, LocalDateTime targetDate, String reason,
+                                                        List<TaskResponse> affected, List<TaskResponse> context) {
+        try {
+            if (!acquireLlmCall()) {
+                return null;
             }
 
-            RestTemplate restTemplate = new RestTemplate();
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("x-goog-api-key", openAIProperties.getKey());
-            headers.setContentType(MediaType.APPLICATION_JSON);
+            String prompt = buildReplanPrompt(goalDescription, targetDate, reason, affected, context);
+            // Roughly what one detailed task takes, instead of the budget of a whole plan
+            int maxOutputTokens = Math.min(fullPlanOutputTokens(), 1000 + 900 * affected.size());
+            log.info("Re-plan prompt built for {} tasks ({} context). Length: {} characters",
+                    affected.size(), context.size(), prompt.length());
+
+            LlmResult response = llmRouter.complete(prompt, maxOutputTokens, openAIProperties.getTemperature());
+            log.info("✅ Re-plan call successful via {} in {} ms", response.provider(), response.latencyMs());
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("tasks", parseReplacements(response.text(), affected));
+            result.put("provider", response.provider());
+            result.put("latencyMs", response.latencyMs());
+            result.put("promptChars", prompt.length());
+            result.put("maxOutputTokens", maxOutputTokens);
+            return result;
+        } catch (Exception e) {
+            log.error("❌ Re-plan failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // Size of the prompt a full regeneration of this goal would send; used to report re-plan savings
+    public int fullPlanPromptLength(GoalRequest request) {
+        return buildPrompt(request).length();
+    }
+
+    public int fullPlanOutputTokens() {
+        // Increase tokens for detailed descriptions
+        return Math.max(openAIProperties.getMaxTokens(), 8000);
+    }
 
-            log.info("Headers configured with API key");
+    private boolean acquireLlmCall() {
+        // Validate that at least one provider (e.g. Gemini with an API key) can be called
+        if (!llmRouter.hasConfiguredProvider()) {
+            log.error("CRITICAL: No LLM provider is configured (is the Gemini API key set?)");
+            return false;
+        }
+
+        // Each tenant gets its own share first, so one busy tenant cannot drain the global quota
+        if (!tenantQuotaService.tryAcquireAiCall()) {
+            return false;
+        }
+
+        // The provider quota is shared by every replica, so the limit is counted cluster-wide
+        long callsPerMinute = coordinationProperties.getLlmCallsPerMinute();
+        if (callsPerMinute > 0 && !coordinationService.tryAcquire("llm-calls", callsPerMinute, Duration.ofMinutes(1))) {
+            log.warn("LLM rate limit of {} calls per minute reached", callsPerMinute);
+            return false;
+        }
+        return true;
+    }
+
+    private Map<String, Object> requestPlan(GoalRequest request, String prompt) {
+        try {
+            if (!acquireLlmCall()) {
+                return generateFallbackPlan(request);
+            }
 
-            String prompt = buildPrompt(request);
             log.info("Prompt built. Length: {} characters", prompt.length());
             log.debug("Prompt content:\n{}", prompt);
 
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("contents", List.of(
-                    Map.of("parts", List.of(
-                            Map.of("text", prompt)
-                    ))
-            ));
-
-            // Gemini generation config - increase tokens for detailed descriptions
-            Map<String, Object> generationConfig = new HashMap<>();
-            generationConfig.put("temperature", openAIProperties.getTemperature());
-            generationConfig.put("maxOutputTokens", Math.max(openAIProperties.getMaxTokens(), 8000));
-            requestBody.put("generationConfig", generationConfig);
-
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-
-            String geminiUrl = String.format(
-                    "https://generativelanguage.googleapis.com/v1beta/models/%s:generateContent",
-                    openAIProperties.getModel()
-            );
-
-            log.info("Calling Gemini API");
-            log.info("URL: {}", geminiUrl);
-            log.info("Model: {}", openAIProperties.getModel());
-
-            ResponseEntity<String> response = restTemplate.postForEntity(
-                    geminiUrl,
-                    entity,
-                    String.class
-            );
-
-            log.info("✅ Gemini API call successful!");
-            log.info("Status Code: {}", response.getStatusCode());
-            log.info("Response Body Length: {}", response.getBody() != null ? response.getBody().length() : 0);
-            log.debug("Full Response: {}", response.getBody());
-
-            Map<String, Object> result = parseGeminiResponse(response.getBody(), request);
-            log.info("✅ Successfully generated plan with {} tasks", result.get("totalTasks"));
+            LlmResult response = llmRouter.complete(prompt, fullPlanOutputTokens(), openAIProperties.getTemperature());
 
-            return result;
+            log.info("✅ LLM call successful via {} in {} ms (attempt {})",
+                    response.provider(), response.latencyMs(), response.attempt());
+            log.info("Response Length: {}", response.text().length());
 
-        } catch (HttpClientErrorException e) {
-            log.error("❌ HTTP Client Error (4xx)");
-            log.error("Status Code: {}", e.getStatusCode());
-            log.error("Response Body: {}", e.getResponseBodyAsString());
-            log.error("Error Message: {}", e.getMessage());
-            return generateFallbackPlan(request);
+            Map<String, Object> result = parsePlanContent(response.text(), request);
+            result.putIfAbsent("provider", response.provider());
+            log.info("✅ Successfully generated plan with {} tasks", result.get("totalTasks"));
 
-        } catch (HttpServerErrorException e) {
-            log.error("❌ HTTP Server Error (5xx)");
-            log.error("Status Code: {}", e.getStatusCode());
-            log.error("Response Body: {}", e.getResponseBodyAsString());
-            log.error("Error Message: {}", e.getMessage());
-            return generateFallbackPlan(request);
+            return result;
 
         } catch (Exception e) {
             log.error("❌ Unexpected Error");
@@ -216,42 +432,171 @@ public class AIServiceImpl implements AIService {
         return prompt.toString();
     }
 
-    private Map<String, Object> parseGeminiResponse(String aiRawResponse, GoalRequest request) {
-        log.info("Starting to parse Gemini response");
+    private String buildFewShotPrompt(GoalRequest request, String exampleGoal, List<TaskResponse> exampleTasks)
+            throws Exception {
+        // Only the structural parts of the example; detailed descriptions would dominate the prompt
+        List<Map<String, Object>> example = new ArrayList<>();
+        for (TaskResponse task : exampleTasks) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("title", task.getTitle());
+            item.put("description", task.getDescription());
+            item.put("steps", task.getSteps());
+            item.put("estimatedDurationHours", task.getEstimatedDurationHours());
+            item.put("priority", task.getPriority());
+            item.put("orderIndex", task.getOrderIndex());
+            item.put("dependencies", task.getDependencies());
+            example.add(item);
+        }
+
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("You are an expert project manager. Below is a task plan that worked well for a similar goal. ");
+        prompt.append("Adapt it to the new goal: keep what applies, change what differs, add or remove tasks as needed.\n\n");
+        prompt.append("Similar goal: ").append(exampleGoal).append("\n");
+        prompt.append("Its plan: ").append(new ObjectMapper().writeValueAsString(example)).append("\n\n");
+        prompt.append("New goal: ").append(request.getDescription()).append("\n");
+
+        LocalDateTime currentDate = LocalDateTime.now();
+        if (request.getTargetDate() != null) {
+            prompt.append("Target Completion Date: ")
+                    .append(request.getTargetDate().format(DateTimeFormatter.ISO_LOCAL_DATE))
+                    .append("\n");
+        }
+        if (request.getConstraints() != null && !request.getConstraints().isEmpty()) {
+            prompt.append("Constraints: ").append(String.join(", ", request.getConstraints())).append("\n");
+        }
+
+        prompt.append("\nReturn ONLY a JSON object (no markdown) with: analysis, totalTasks, estimatedTotalHours, ");
+        prompt.append("suggestedStartDate (").append(currentDate.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)).append("), ");
+        prompt.append("suggestedEndDate, tasks, recommendations, risks. ");
+        prompt.append("Each task has the fields shown above plus detailedDescription (2-3 paragraphs) and status PENDING. ");
+        prompt.append("Priority is one of LOW, MEDIUM, HIGH, CRITICAL; dependencies are orderIndex values.\n");
+
+        return prompt.toString();
+    }
+
+    private String buildReplanPrompt(String goalDescription, LocalDateTime targetDate, String reason,
+                                     List<TaskResponse> affected, List<TaskResponse> context) throws Exception {
+        List<Map<String, Object>> outline = new ArrayList<>();
+        for (TaskResponse task : context) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("orderIndex", task.getOrderIndex());
+            item.put("title", task.getTitle());
+            item.put("status", task.getStatus());
+            item.put("estimatedDurationHours", task.getEstimatedDurationHours());
+            item.put("dependencies", task.getDependencies());
+            outline.add(item);
+        }
+        // Detailed descriptions are left out, they are what gets rewritten
+        List<Map<String, Object>> current = new ArrayList<>();
+        for (TaskResponse task : affected) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("orderIndex", task.getOrderIndex());
+            item.put("title", task.getTitle());
+            item.put("description", task.getDescription());
+            item.put("steps", task.getSteps());
+            item.put("estimatedDurationHours", task.getEstimatedDurationHours());
+            item.put("priority", task.getPriority());
+            item.put("status", task.getStatus());
+            item.put("dependencies", task.getDependencies());
+            current.add(item);
+        }
+
         ObjectMapper mapper = new ObjectMapper();
-        Map<String, Object> plan = new HashMap<>();
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("You are an expert project manager revising part of an existing task plan.\n\n");
+        prompt.append("Goal: ").append(goalDescription).append("\n");
+        if (targetDate != null) {
+            prompt.append("Target Completion Date: ").append(targetDate.format(DateTimeFormatter.ISO_LOCAL_DATE)).append("\n");
+        }
+        if (reason != null && !reason.isBlank()) {
+            prompt.append("Why these tasks need a new plan: ").append(reason).append("\n");
+        }
+        if (!outline.isEmpty()) {
+            prompt.append("Neighbouring tasks (unchanged, for context): ").append(mapper.writeValueAsString(outline)).append("\n");
+        }
+        prompt.append("Tasks to re-plan: ").append(mapper.writeValueAsString(current)).append("\n\n");
 
-        try {
-            JsonNode root = mapper.readTree(aiRawResponse);
-            log.info("Parsed JSON root successfully");
+        prompt.append("Return ONLY a JSON object (no markdown) of the form {\"tasks\": [...]} with exactly one task ");
+        prompt.append("per task to re-plan, keeping its orderIndex. Each task has title, description, ");
+        prompt.append("detailedDescription (2-3 paragraphs), steps (3-8 specific actions), estimatedDurationHours, ");
+        prompt.append("priority (LOW, MEDIUM, HIGH, CRITICAL) and dependencies (orderIndex values of earlier tasks). ");
+        prompt.append("Give BLOCKED tasks a way forward and keep the work within the target date.\n");
 
-            // Extract content from Gemini response structure
-            String content = root.at("/candidates/0/content/parts/0/text").asText();
+        return prompt.toString();
+    }
+
+    // Replacements by orderIndex; entries for other tasks, or without a title, are ignored
+    private List<TaskResponse> parseReplacements(String content, List<TaskResponse> affected) throws Exception {
+        if (content == null || content.isBlank()) {
+            throw new RuntimeException("Empty response from LLM");
+        }
+        Set<Integer> wanted = new HashSet<>();
+        affected.forEach(task -> wanted.add(task.getOrderIndex()));
+
+        JsonNode tasksNode = new ObjectMapper().readTree(stripCodeFences(content)).path("tasks");
+        Map<Integer, TaskResponse> replacements = new LinkedHashMap<>();
+        if (tasksNode.isArray()) {
+            for (JsonNode taskNode : tasksNode) {
+                int orderIndex = taskNode.path("orderIndex").asInt(-1);
+                String title = taskNode.path("title").asText("");
+                if (!wanted.contains(orderIndex) || title.isBlank()) {
+                    continue;
+                }
+                List<String> steps = new ArrayList<>();
+                taskNode.path("steps").forEach(step -> steps.add(step.asText()));
+                replacements.put(orderIndex, TaskResponse.builder()
+                        .title(title)
+                        .description(taskNode.path("description").asText("No description"))
+                        .detailedDescription(taskNode.path("detailedDescription").asText(
+                                taskNode.path("description").asText("No detailed description available")))
+                        .steps(steps)
+                        .estimatedDurationHours(Math.max(1, taskNode.path("estimatedDurationHours").asInt(4)))
+                        .priority(taskNode.path("priority").asText("MEDIUM"))
+                        .status(TaskStatus.PENDING.name())
+                        .orderIndex(orderIndex)
+                        .dependencies(parseDependencies(taskNode.path("dependencies")))
+                        .build());
+            }
+        }
+        if (replacements.isEmpty()) {
+            throw new RuntimeException("LLM response contained no usable replacement tasks");
+        }
+        return new ArrayList<>(replacements.values());
+    }
+
+    private String stripCodeFences(String content) {
+        // Clean up Markdown code blocks
+        content = content.trim();
+        if (content.startsWith("```json")) {
+            content = content.substring(7).trim();
+            log.info("Removed ```json marker");
+        } else if (content.startsWith("```")) {
+            content = content.substring(3).trim();
+            log.info("Removed ``` marker");
+        }
+        if (content.endsWith("```")) {
+            content = content.substring(0, content.length() - 3).trim();
+            log.info("Removed closing ``` marker");
+        }
+        return content;
+    }
+
+    // Parses the text generated by the model (provider adapters already unwrap their response envelope)
+    private Map<String, Object> parsePlanContent(String content, GoalRequest request) {
+        log.info("Starting to parse LLM response");
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, Object> plan = new HashMap<>();
 
+        try {
             if (content == null || content.isEmpty()) {
-                log.error("❌ No content in Gemini response");
-                log.error("Response structure: {}", root.toPrettyString());
-                throw new RuntimeException("Empty response from Gemini");
+                log.error("❌ No content in LLM response");
+                throw new RuntimeException("Empty response from LLM");
             }
 
-            log.info("✅ Extracted content from Gemini response");
             log.info("Content length: {} characters", content.length());
             log.debug("Raw content: {}", content);
 
-            // Clean up Markdown code blocks
-            content = content.trim();
-            if (content.startsWith("```json")) {
-                content = content.substring(7).trim();
-                log.info("Removed ```json marker");
-            } else if (content.startsWith("```")) {
-                content = content.substring(3).trim();
-                log.info("Removed ``` marker");
-            }
-            if (content.endsWith("```")) {
-                content = content.substring(0, content.length() - 3).trim();
-                log.info("Removed closing ``` marker");
-            }
-
+            content = stripCodeFences(content);
             log.debug("Cleaned content: {}", content);
             JsonNode planJson = mapper.readTree(content);
             log.info("✅ Parsed plan JSON successfully");
@@ -275,43 +620,23 @@ public class AIServiceImpl implements AIService {
 
             if (tasksNode.isArray()) {
                 for (int i = 0; i < tasksNode.size(); i++) {
-                    JsonNode taskNode = tasksNode.get(i);
+                    TaskResponse task = parseTask(tasksNode.get(i), i);
 
                     // Use AI-generated duration
-                    int estimatedHours = taskNode.path("estimatedDurationHours").asInt(4);
+                    int estimatedHours = task.getEstimatedDurationHours();
                     totalHours += estimatedHours;
 
                     // Calculate dates based on sequential scheduling (tasks run one after another)
                     LocalDateTime taskStart = currentStartDate;
                     LocalDateTime taskEnd = taskStart.plusHours(estimatedHours);
-
-                    // Parse steps array
-                    List<String> steps = new ArrayList<>();
-                    JsonNode stepsNode = taskNode.path("steps");
-                    if (stepsNode.isArray()) {
-                        stepsNode.forEach(step -> steps.add(step.asText()));
-                    }
-
-                    TaskResponse task = TaskResponse.builder()
-                            .title(taskNode.path("title").asText("Untitled Task"))
-                            .description(taskNode.path("description").asText("No description"))
-                            .detailedDescription(taskNode.path("detailedDescription").asText(
-                                    taskNode.path("description").asText("No detailed description available")))
-                            .steps(steps)
-                            .estimatedDurationHours(estimatedHours)
-                            .priority(taskNode.path("priority").asText("MEDIUM"))
-                            .status(taskNode.path("status").asText("PENDING"))
-                            .orderIndex(taskNode.path("orderIndex").asInt(i + 1))
-                            .dependencies(parseDependencies(taskNode.path("dependencies")))
-                            .startDate(taskStart)
-                            .endDate(taskEnd)
-                            .build();
+                    task.setStartDate(taskStart);
+                    task.setEndDate(taskEnd);
 
                     tasks.add(task);
                     currentStartDate = taskEnd; // Next task starts when this one ends
 
                     log.info("Parsed task {}: {} ({} hours, priority: {}, {} steps)",
-                            i + 1, task.getTitle(), estimatedHours, task.getPriority(), steps.size());
+                            i + 1, task.getTitle(), estimatedHours, task.getPriority(), task.getSteps().size());
                 }
             }
 
@@ -320,6 +645,7 @@ public class AIServiceImpl implements AIService {
                 suggestedEndDate = currentStartDate;
             }
 
+            plan.put("source", SOURCE_LLM);
             plan.put("analysis", planJson.path("analysis").asText("No analysis provided"));
             plan.put("tasks", tasks);
             plan.put("totalTasks", tasks.size());
@@ -329,18 +655,44 @@ public class AIServiceImpl implements AIService {
             plan.put("recommendations", parseList(planJson.path("recommendations")));
             plan.put("risks", parseList(planJson.path("risks")));
 
-            log.info("✅ Successfully parsed {} tasks from Gemini response", tasks.size());
-            log.info("Total estimated hours: {}", totalHours);
-            log.info("Suggested timeline: {} to {}", suggestedStartDate, suggestedEndDate);
+            // Correct the model's durations with what this tenant's completed tasks actually took
+            durationCalibrationService.calibrate(plan, request.getDescription());
+
+            log.info("✅ Successfully parsed {} tasks from LLM response", tasks.size());
+            log.info("Total estimated hours: {}", plan.get("estimatedTotalHours"));
+            log.info("Suggested timeline: {} to {}", suggestedStartDate, plan.get("suggestedEndDate"));
 
         } catch (Exception e) {
-            log.error("❌ Error parsing Gemini response: {}", e.getMessage(), e);
+            log.error("❌ Error parsing LLM response: {}", e.getMessage(), e);
             return generateFallbackPlan(request);
         }
 
         return plan;
     }
 
+    // One task of a plan or of a plan phase, without dates
+    private TaskResponse parseTask(JsonNode taskNode, int index) {
+        // Parse steps array
+        List<String> steps = new ArrayList<>();
+        JsonNode stepsNode = taskNode.path("steps");
+        if (stepsNode.isArray()) {
+            stepsNode.forEach(step -> steps.add(step.asText()));
+        }
+
+        return TaskResponse.builder()
+                .title(taskNode.path("title").asText("Untitled Task"))
+                .description(taskNode.path("description").asText("No description"))
+                .detailedDescription(taskNode.path("detailedDescription").asText(
+                        taskNode.path("description").asText("No detailed description available")))
+                .steps(steps)
+                .estimatedDurationHours(taskNode.path("estimatedDurationHours").asInt(4))
+                .priority(taskNode.path("priority").asText("MEDIUM"))
+                .status(taskNode.path("status").asText("PENDING"))
+                .orderIndex(taskNode.path("orderIndex").asInt(index + 1))
+                .dependencies(parseDependencies(taskNode.path("dependencies")))
+                .build();
+    }
+
     private LocalDateTime parseDateTime(String dateTimeStr) {
         if (dateTimeStr == null || dateTimeStr.isEmpty()) {
             return null;
@@ -373,124 +725,27 @@ public class AIServiceImpl implements AIService {
     private Map<String, Object> generateFallbackPlan(GoalRequest request) {
         log.warn("⚠️ Generating fallback plan");
 
-        Map<String, Object> result = new HashMap<>();
-        result.put("analysis", "⚠️ This is a sample task plan. The AI service is not configured or encountered an error. " +
+        GoalRequest goalRequest = request != null ? request : GoalRequest.builder().description("Sample Goal").build();
+        Map<String, Object> result = durationCalibrationService.calibrate(localPlanGenerator.generate(goalRequest),
+                goalRequest.getDescription());
+
+        result.put("source", SOURCE_FALLBACK);
+        result.put("analysis", FALLBACK_ANALYSIS_PREFIX + " The AI service is not configured or encountered an error, " +
+                "so this plan was built from the local \"" + result.get("category") + "\" template. " +
                 "Please configure your Gemini API key to get AI-generated plans.");
 
-        List<TaskResponse> tasks = new ArrayList<>();
-        LocalDateTime currentDate = LocalDateTime.now();
-        LocalDateTime currentStartDate = currentDate;
-
-        String goalDesc = request != null ? request.getDescription() : "Sample Goal";
-
-        String[] taskTitles = {
-                "Research and Planning for: " + goalDesc,
-                "Setup and Preparation",
-                "Core Implementation",
-                "Testing and Quality Assurance",
-                "Final Review and Deployment"
-        };
-
-        String[] taskDescriptions = {
-                "Conduct thorough research and create a detailed project plan",
-                "Set up necessary tools, environments, and resources",
-                "Execute the main tasks and deliverables",
-                "Test all components and ensure quality standards",
-                "Perform final checks and deploy/deliver the results"
-        };
-
-        String[] detailedDescriptions = {
-                "This initial phase focuses on comprehensive research and strategic planning. Begin by gathering all relevant information about the project requirements, constraints, and success criteria. Analyze similar projects or case studies to understand best practices and potential pitfalls. Create a detailed project plan that outlines milestones, deliverables, and timelines. Document your findings and share them with stakeholders for feedback. This foundation will guide all subsequent work.",
-                "In this phase, you'll prepare your working environment and gather necessary resources. Install and configure all required tools, software, and frameworks. Set up version control, development environments, and any collaboration platforms. Create initial project structure and documentation templates. Verify that all team members have access to necessary resources. This preparation ensures smooth execution of the main implementation phase.",
-                "This is the main execution phase where you'll implement the core functionality. Break down the work into manageable chunks and tackle them systematically. Follow coding best practices and maintain clean, documented code. Regular commits and progress reviews help maintain momentum. Stay focused on the primary objectives while remaining flexible to adjust as needed. This phase typically consumes the most time and effort.",
-                "Quality assurance is critical for project success. Develop comprehensive test cases covering all functionality. Perform unit tests, integration tests, and end-to-end testing. Document any bugs or issues discovered and track their resolution. Involve stakeholders in user acceptance testing when appropriate. This thorough testing ensures the final product meets all requirements and quality standards.",
-                "The final phase involves careful review and deployment preparation. Conduct a comprehensive review of all deliverables against initial requirements. Address any remaining issues or improvements. Prepare deployment documentation and rollback procedures. Execute the deployment following established protocols. Monitor the initial deployment closely and be prepared to address any issues. Celebrate the successful completion of the project."
-        };
-
-        String[][] taskSteps = {
-                {
-                        "Gather and analyze project requirements and constraints",
-                        "Research similar projects and industry best practices",
-                        "Identify potential risks and mitigation strategies",
-                        "Create detailed project timeline with milestones",
-                        "Document findings and get stakeholder approval"
-                },
-                {
-                        "Install required development tools and frameworks",
-                        "Configure development and testing environments",
-                        "Set up version control and collaboration platforms",
-                        "Create initial project structure and templates",
-                        "Verify team access to all necessary resources"
-                },
-                {
-                        "Break down work into manageable tasks",
-                        "Implement core features following best practices",
-                        "Write clean, documented code with regular commits",
-                        "Conduct code reviews and address feedback",
-                        "Track progress and adjust timeline as needed"
-                },
-                {
-                        "Develop comprehensive test cases and scenarios",
-                        "Execute unit, integration, and end-to-end tests",
-                        "Document and prioritize any issues found",
-                        "Fix bugs and retest affected functionality",
-                        "Conduct user acceptance testing with stakeholders"
-                },
-                {
-                        "Review all deliverables against requirements",
-                        "Address final improvements and polish",
-                        "Prepare deployment documentation and procedures",
-                        "Execute deployment following protocols",
-                        "Monitor deployment and address any issues"
-                }
-        };
-
-        String[] priorities = {"HIGH", "MEDIUM", "HIGH", "MEDIUM", "CRITICAL"};
-        int[] hours = {8, 6, 16, 8, 4};
-        int totalHours = 0;
-
-        for (int i = 0; i < 5; i++) {
-            LocalDateTime taskStart = currentStartDate;
-            LocalDateTime taskEnd = taskStart.plusHours(hours[i]);
-
-            TaskResponse task = TaskResponse.builder()
-                    .title(taskTitles[i])
-                    .description(taskDescriptions[i])
-                    .detailedDescription(detailedDescriptions[i])
-                    .steps(Arrays.asList(taskSteps[i]))
-                    .estimatedDurationHours(hours[i])
-                    .priority(priorities[i])
-                    .status("PENDING")
-                    .orderIndex(i + 1)
-                    .dependencies(i > 0 ? List.of((long) i) : List.of())
-                    .startDate(taskStart)
-                    .endDate(taskEnd)
-                    .build();
-
-            tasks.add(task);
-            totalHours += hours[i];
-            currentStartDate = taskEnd;
-        }
-
-        result.put("tasks", tasks);
-        result.put("totalTasks", 5);
-        result.put("estimatedTotalHours", totalHours);
-        result.put("suggestedStartDate", currentDate);
-        result.put("suggestedEndDate", currentStartDate);
-        result.put("recommendations", List.of(
+        List<String> recommendations = new ArrayList<>(List.of(
                 "✅ Configure your Gemini API key in application.yml",
                 "✅ Set GEMINI_API_KEY environment variable",
-                "✅ Get API key from: https://aistudio.google.com/app/apikey",
-                "Break down large tasks into smaller chunks",
-                "Set clear milestones and deadlines",
-                "Regular progress reviews help maintain momentum"
-        ));
-        result.put("risks", List.of(
-                "❌ Gemini API not configured - using sample data",
-                "Scope creep without proper planning",
-                "Resource constraints may impact timeline",
-                "Inadequate testing may lead to quality issues"
+                "✅ Get API key from: https://aistudio.google.com/app/apikey"
         ));
+        recommendations.addAll((List<String>) result.get("recommendations"));
+        result.put("recommendations", recommendations);
+
+        List<String> risks = new ArrayList<>();
+        risks.add("❌ Gemini API not configured - using a template plan");
+        risks.addAll((List<String>) result.get("risks"));
+        result.put("risks", risks);
 
         return result;
     }
@@ -0,0 +1,180 @@
+package com.milan.smarttaskplanner.services;
+
+import com.milan.smarttaskplanner.dto.AgendaItemResponse;
+import com.milan.smarttaskplanner.dto.AgendaResponse;
+import com.milan.smarttaskplanner.entities.TaskPriority;
+import com.milan.smarttaskplanner.entities.TaskStatus;
+import com.milan.smarttaskplanner.services.tenancy.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Agenda across all goals of the tenant: tasks whose [startDate, endDate] overlaps a time window.
+ * Tasks of templates are not work to be done and are left out.
+ *
+ * The overlap test runs on a GiST index over (tenant_id, tsrange(start_date, end_date)), so cost
+ * depends on the number of tasks in the window rather than on the size of the tasks table. The
+ * index is an expression index and PostgreSQL keeps it current on every task write.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AgendaService {
+
+    public static final int DEFAULT_LIMIT = 200;
+    public static final int MAX_LIMIT = 1000;
+    private static final Duration MAX_WINDOW = Duration.ofDays(366);
+
+    // Queries must use exactly this expression for the index to apply. greatest() keeps a task whose
+    // end was recorded before its start from breaking the range constructor.
+    static final String TASK_PERIOD = "tsrange(start_date, greatest(end_date, start_date), '[]')";
+    private static final String DATED = "start_date IS NOT NULL AND end_date IS NOT NULL";
+
+    private static final String AGENDA_SQL = """
+            WITH agenda AS (
+                SELECT t.id, t.goal_id, t.title, CAST(t.status AS text) AS status, CAST(t.priority AS text) AS priority,
+                       t.estimated_duration_hours, t.start_date, t.end_date, g.description AS goal_description
+                  FROM tasks t
+                  JOIN goals g ON g.id = t.goal_id AND g.tenant_id = t.tenant_id
+                 WHERE t.tenant_id = :tenant AND %s
+                   AND %s && tsrange(:from, :to, '[)')
+                   AND NOT g.template%s
+                 ORDER BY t.start_date, t.id
+                 LIMIT :limit
+            )
+            SELECT * FROM agenda ORDER BY start_date, id
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndex() {
+        try {
+            // btree_gist lets the tenant equality share the GiST index with the range
+            jdbcTemplate.getJdbcTemplate().execute("CREATE EXTENSION IF NOT EXISTS btree_gist");
+            jdbcTemplate.getJdbcTemplate().execute("CREATE INDEX IF NOT EXISTS idx_tasks_agenda ON tasks USING GIST "
+                    + "(tenant_id, (" + TASK_PERIOD + ")) WHERE " + DATED);
+        } catch (Exception e) {
+            log.warn("Could not create tenant agenda index ({}), indexing the period alone", e.getMessage());
+            try {
+                jdbcTemplate.getJdbcTemplate().execute("CREATE INDEX IF NOT EXISTS idx_tasks_agenda_period ON tasks "
+                        + "USING GIST ((" + TASK_PERIOD + ")) WHERE " + DATED);
+            } catch (Exception fallback) {
+                log.warn("Could not create agenda index, agenda queries will scan tasks: {}", fallback.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Either an explicit window (from and to) or a named range: today (default) or week (Monday to
+     * Monday). Status and priority are comma-separated lists.
+     */
+    @Transactional(readOnly = true)
+    public AgendaResponse getAgenda(LocalDateTime from, LocalDateTime to, String range,
+                                    String statuses, String priorities, Integer limit) {
+        LocalDateTime[] window = window(from, to, range);
+        int pageSize = Math.min(Math.max(limit != null ? limit : DEFAULT_LIMIT, 1), MAX_LIMIT);
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("tenant", TenantContext.getTenantId())
+                .addValue("from", Timestamp.valueOf(window[0]))
+                .addValue("to", Timestamp.valueOf(window[1]))
+                .addValue("limit", pageSize + 1);
+
+        StringBuilder filters = new StringBuilder();
+        List<String> statusList = parse(statuses, TaskStatus.class);
+        if (!statusList.isEmpty()) {
+            filters.append(" AND CAST(t.status AS text) IN (:statuses)");
+            params.addValue("statuses", statusList);
+        }
+        List<String> priorityList = parse(priorities, TaskPriority.class);
+        if (!priorityList.isEmpty()) {
+            filters.append(" AND CAST(t.priority AS text) IN (:priorities)");
+            params.addValue("priorities", priorityList);
+        }
+
+        long started = System.nanoTime();
+        List<AgendaItemResponse> items = jdbcTemplate.query(AGENDA_SQL.formatted(DATED, TASK_PERIOD, filters), params,
+                (rs, rowNum) -> AgendaItemResponse.builder()
+                        .taskId(rs.getLong("id"))
+                        .goalId(rs.getLong("goal_id"))
+                        .goalDescription(rs.getString("goal_description"))
+                        .title(rs.getString("title"))
+                        .status(rs.getString("status"))
+                        .priority(rs.getString("priority"))
+                        .estimatedDurationHours((Integer) rs.getObject("estimated_duration_hours"))
+                        .startDate(rs.getTimestamp("start_date").toLocalDateTime())
+                        .endDate(rs.getTimestamp("end_date").toLocalDateTime())
+                        .build());
+        log.debug("Agenda {} to {} returned {} tasks in {} us", window[0], window[1], items.size(),
+                (System.nanoTime() - started) / 1000);
+
+        boolean hasMore = items.size() > pageSize;
+        return AgendaResponse.builder()
+                .from(window[0])
+                .to(window[1])
+                .hasMore(hasMore)
+                .items(hasMore ? items.subList(0, pageSize) : items)
+                .build();
+    }
+
+    private LocalDateTime[] window(LocalDateTime from, LocalDateTime to, String range) {
+        if (from != null || to != null) {
+            if (from == null || to == null) {
+                throw new RuntimeException("Both from and to are required for an agenda window");
+            }
+            if (!to.isAfter(from)) {
+                throw new RuntimeException("Agenda window must end after it starts");
+            }
+            if (Duration.between(from, to).compareTo(MAX_WINDOW) > 0) {
+                throw new RuntimeException("Agenda window can span at most " + MAX_WINDOW.toDays() + " days");
+            }
+            return new LocalDateTime[]{from, to};
+        }
+
+        LocalDate today = LocalDate.now();
+        String name = range == null ? "today" : range.trim().toLowerCase(Locale.ROOT);
+        return switch (name) {
+            case "today" -> new LocalDateTime[]{today.atStartOfDay(), today.plusDays(1).atStartOfDay()};
+            case "week" -> {
+                LocalDate monday = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                yield new LocalDateTime[]{monday.atStartOfDay(), monday.plusWeeks(1).atStartOfDay()};
+            }
+            default -> throw new RuntimeException("Unknown agenda range: " + range + " (use today or week)");
+        };
+    }
+
+    private static <E extends Enum<E>> List<String> parse(String values, Class<E> type) {
+        if (values == null || values.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(values.split(","))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .map(value -> {
+                    try {
+                        return Enum.valueOf(type, value.toUpperCase(Locale.ROOT)).name();
+                    } catch (IllegalArgumentException e) {
+                        throw new RuntimeException("Unknown " + type.getSimpleName() + ": " + value);
+                    }
+                })
+                .distinct()
+                .toList();
+    }
+}
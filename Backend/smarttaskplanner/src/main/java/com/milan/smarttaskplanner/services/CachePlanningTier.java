@@ -0,0 +1,24 @@
+package com.milan.smarttaskplanner.services;
+
+import com.milan.smarttaskplanner.dto.GoalRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+public class CachePlanningTier implements PlanningTier {
+
+    private final PlanReuseAIService planReuseAIService;
+
+    @Override
+    public String getName() {
+        return "cache";
+    }
+
+    @Override
+    public Map<String, Object> plan(GoalRequest request) {
+        return planReuseAIService.findReusablePlan(request).orElse(null);
+    }
+}
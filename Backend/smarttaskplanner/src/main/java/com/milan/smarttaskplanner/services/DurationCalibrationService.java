@@ -0,0 +1,289 @@
+package com.milan.smarttaskplanner.services;
+
+import com.milan.smarttaskplanner.config.CalibrationProperties;
+import com.milan.smarttaskplanner.dto.CalibrationFactorResponse;
+import com.milan.smarttaskplanner.dto.TaskResponse;
+import com.milan.smarttaskplanner.entities.TaskStatus;
+import com.milan.smarttaskplanner.entities.TaskStatusChange;
+import com.milan.smarttaskplanner.events.TaskCompletedEvent;
+import com.milan.smarttaskplanner.services.tenancy.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Online model of how long tasks really take compared to their estimates, per tenant.
+ *
+ * Each completed task is one sample of log(actual / estimated hours) for a few features: its
+ * priority, the category of its goal (the LocalPlanGenerator template it classifies into) and up
+ * to maxKeywords title keywords. Learning updates that fixed number of rows with a single upsert,
+ * so it is O(1) per completion and the model is a handful of numbers per feature. New plans get
+ * their durations multiplied by the combined factor of each task's features and are rescheduled,
+ * without another LLM call.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DurationCalibrationService {
+
+    private static final String UPSERT_PREFIX = """
+            INSERT INTO duration_calibration AS c (tenant_id, feature, log_ratio, samples, updated_at) VALUES
+            """;
+
+    private static final String UPSERT_SUFFIX = """
+            ON CONFLICT (tenant_id, feature) DO UPDATE
+               SET log_ratio = c.log_ratio + greatest(1.0 / (c.samples + 1), ?) * (EXCLUDED.log_ratio - c.log_ratio),
+                   samples = c.samples + 1, updated_at = LOCALTIMESTAMP
+            RETURNING feature, log_ratio, samples
+            """;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "and", "for", "from", "into", "that", "the", "this", "with", "your", "task", "phase", "step");
+
+    private static final int MAX_FEATURE_LENGTH = 80;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CalibrationProperties properties;
+    private final LocalPlanGenerator localPlanGenerator;
+
+    // tenant -> feature -> state
+    private final Map<String, Map<String, Feature>> model = new ConcurrentHashMap<>();
+
+    private record Feature(double logRatio, int samples) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (properties.isEnabled()) {
+            refresh();
+        }
+    }
+
+    // Picks up what other nodes have learned
+    @Scheduled(initialDelayString = "${calibration.refresh-interval-ms:300000}",
+            fixedDelayString = "${calibration.refresh-interval-ms:300000}")
+    public void refresh() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Map<String, Map<String, Feature>> loaded = new ConcurrentHashMap<>();
+        try {
+            jdbcTemplate.query("SELECT tenant_id, feature, log_ratio, samples FROM duration_calibration",
+                    (RowCallbackHandler) rs -> loaded.computeIfAbsent(rs.getString("tenant_id"), t -> new ConcurrentHashMap<>())
+                            .put(rs.getString("feature"), new Feature(rs.getDouble("log_ratio"), rs.getInt("samples"))));
+        } catch (Exception e) {
+            log.warn("Could not load duration calibration: {}", e.getMessage());
+            return;
+        }
+        model.keySet().retainAll(loaded.keySet());
+        model.putAll(loaded);
+    }
+
+    @TransactionalEventListener
+    public void onTaskCompleted(TaskCompletedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            learn(event);
+        } catch (Exception e) {
+            log.warn("Could not update duration calibration: {}", e.getMessage());
+        }
+    }
+
+    void learn(TaskCompletedEvent event) {
+        if (event.estimatedHours() == null || event.estimatedHours() <= 0 || event.activeHours() < properties.getMinActualHours()) {
+            return;
+        }
+        double logRatio = clampLog(Math.log(event.activeHours() / event.estimatedHours()));
+        List<String> features = features(localPlanGenerator.classify(event.goalDescription()).getCategory(),
+                event.title(), event.priority());
+
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(UPSERT_PREFIX);
+        for (int i = 0; i < features.size(); i++) {
+            sql.append(i > 0 ? ", " : "").append("(?, ?, ?, 1, LOCALTIMESTAMP)");
+            args.add(event.tenantId());
+            args.add(features.get(i));
+            args.add(logRatio);
+        }
+        sql.append('\n').append(UPSERT_SUFFIX);
+        args.add(properties.getAlpha());
+
+        Map<String, Feature> tenantModel = model.computeIfAbsent(event.tenantId(), t -> new ConcurrentHashMap<>());
+        jdbcTemplate.query(sql.toString(), (RowCallbackHandler) rs -> tenantModel.put(rs.getString("feature"),
+                new Feature(rs.getDouble("log_ratio"), rs.getInt("samples"))), args.toArray());
+        log.debug("Calibration sample for tenant {}: {}h estimated, {}h actual, features {}",
+                event.tenantId(), event.estimatedHours(), String.format("%.2f", event.activeHours()), features);
+    }
+
+    /**
+     * Hours a task spent IN_PROGRESS according to its history, counting at most workHoursPerDay
+     * for every calendar day an interval spans.
+     */
+    public double activeHours(List<TaskStatusChange> history) {
+        double hours = 0;
+        LocalDateTime startedAt = null;
+        for (TaskStatusChange change : history) {
+            if (startedAt != null) {
+                hours += workingHours(startedAt, change.getChangedAt());
+                startedAt = null;
+            }
+            if (change.getToStatus() == TaskStatus.IN_PROGRESS) {
+                startedAt = change.getChangedAt();
+            }
+        }
+        return hours;
+    }
+
+    /**
+     * Multiplies the durations of a freshly generated plan by the learned factors of the current
+     * tenant and reschedules it. Tasks keep their relative order: a task still starts after every
+     * task that ended before it in the original schedule.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> calibrate(Map<String, Object> plan, String goalDescription) {
+        Map<String, Feature> tenantModel = model.get(TenantContext.getTenantId());
+        Object tasksValue = plan.get("tasks");
+        if (!properties.isEnabled() || tenantModel == null || tenantModel.isEmpty() || !(tasksValue instanceof List<?>)) {
+            return plan;
+        }
+        List<TaskResponse> tasks = new ArrayList<>((List<TaskResponse>) tasksValue);
+        if (tasks.isEmpty() || tasks.stream().anyMatch(t -> t.getStartDate() == null || t.getEndDate() == null)) {
+            return plan;
+        }
+
+        String category = localPlanGenerator.classify(goalDescription).getCategory();
+        tasks.sort(Comparator.comparing(TaskResponse::getStartDate));
+        int n = tasks.size();
+        LocalDateTime[] originalStart = new LocalDateTime[n];
+        LocalDateTime[] originalEnd = new LocalDateTime[n];
+        LocalDateTime originalLastEnd = null;
+        for (int i = 0; i < n; i++) {
+            originalStart[i] = tasks.get(i).getStartDate();
+            originalEnd[i] = tasks.get(i).getEndDate();
+            originalLastEnd = originalLastEnd == null || originalEnd[i].isAfter(originalLastEnd) ? originalEnd[i] : originalLastEnd;
+        }
+
+        int totalHours = 0;
+        LocalDateTime lastEnd = null;
+        for (int i = 0; i < n; i++) {
+            TaskResponse task = tasks.get(i);
+            int estimated = task.getEstimatedDurationHours() != null ? task.getEstimatedDurationHours() : 0;
+            int hours = Math.max(1, (int) Math.round(estimated * factor(tenantModel, features(category, task.getTitle(), task.getPriority()))));
+
+            LocalDateTime start = originalStart[i];
+            LocalDateTime afterPredecessors = null;
+            for (int j = 0; j < i; j++) {
+                if (!originalEnd[j].isAfter(originalStart[i])
+                        && (afterPredecessors == null || tasks.get(j).getEndDate().isAfter(afterPredecessors))) {
+                    afterPredecessors = tasks.get(j).getEndDate();
+                }
+            }
+            if (afterPredecessors != null) {
+                start = afterPredecessors;
+            }
+
+            task.setEstimatedDurationHours(hours);
+            task.setStartDate(start);
+            task.setEndDate(start.plusHours(hours));
+            totalHours += hours;
+            lastEnd = lastEnd == null || task.getEndDate().isAfter(lastEnd) ? task.getEndDate() : lastEnd;
+        }
+
+        // A suggested end date beyond the plan (e.g. the target date) stays; one derived from the tasks moves
+        Object suggestedEnd = plan.get("suggestedEndDate");
+        plan.put("suggestedEndDate", suggestedEnd instanceof LocalDateTime end && end.isAfter(originalLastEnd) && end.isAfter(lastEnd)
+                ? end : lastEnd);
+        plan.put("estimatedTotalHours", totalHours);
+        log.debug("Calibrated plan for category '{}': {} tasks, {} hours", category, n, totalHours);
+        return plan;
+    }
+
+    public List<CalibrationFactorResponse> getFactors(String tenantId) {
+        return model.getOrDefault(tenantId, Map.of()).entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> CalibrationFactorResponse.builder()
+                        .feature(entry.getKey())
+                        .factor(Math.exp(entry.getValue().logRatio()))
+                        .samples(entry.getValue().samples())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    List<String> features(String category, String title, String priority) {
+        Set<String> features = new LinkedHashSet<>();
+        if (priority != null) {
+            features.add("priority:" + priority.toUpperCase(Locale.ROOT));
+        }
+        if (category != null) {
+            features.add(truncate("category:" + category));
+        }
+        if (title != null) {
+            int keywords = 0;
+            for (String word : title.toLowerCase(Locale.ROOT).split("[^a-z0-9]+")) {
+                if (keywords >= properties.getMaxKeywords()) {
+                    break;
+                }
+                if (word.length() >= 4 && !STOP_WORDS.contains(word) && features.add(truncate("keyword:" + word))) {
+                    keywords++;
+                }
+            }
+        }
+        return new ArrayList<>(features);
+    }
+
+    // Confidence-weighted mean of the features' log ratios, shrunk towards no correction
+    private double factor(Map<String, Feature> tenantModel, List<String> features) {
+        double weighted = 0;
+        double weights = properties.getPriorWeight();
+        for (String name : features) {
+            Feature feature = tenantModel.get(name);
+            if (feature != null) {
+                double weight = Math.min(feature.samples(), properties.getMaxFeatureWeight());
+                weighted += weight * feature.logRatio();
+                weights += weight;
+            }
+        }
+        double factor = Math.exp(weighted / weights);
+        return Math.min(Math.max(factor, properties.getMinFactor()), properties.getMaxFactor());
+    }
+
+    private double workingHours(LocalDateTime from, LocalDateTime to) {
+        if (to.isBefore(from)) {
+            return 0;
+        }
+        double elapsed = Duration.between(from, to).toMinutes() / 60.0;
+        long days = ChronoUnit.DAYS.between(from.toLocalDate(), to.toLocalDate()) + 1;
+        return Math.min(elapsed, days * properties.getWorkHoursPerDay());
+    }
+
+    // A single extreme sample must not swing a young feature past the applied bounds
+    private double clampLog(double logRatio) {
+        double bound = Math.log(properties.getMaxFactor() / properties.getMinFactor());
+        return Math.max(-bound, Math.min(bound, logRatio));
+    }
+
+    private static String truncate(String feature) {
+        return feature.length() > MAX_FEATURE_LENGTH ? feature.substring(0, MAX_FEATURE_LENGTH) : feature;
+    }
+}
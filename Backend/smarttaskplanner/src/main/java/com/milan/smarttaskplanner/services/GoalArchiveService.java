@@ -0,0 +1,147 @@
+package com.milan.smarttaskplanner.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.milan.smarttaskplanner.dto.GoalResponse;
+import com.milan.smarttaskplanner.dto.HotTableSizeResponse;
+import com.milan.smarttaskplanner.entities.ArchivedGoal;
+import com.milan.smarttaskplanner.entities.Goal;
+import com.milan.smarttaskplanner.repositories.ArchivedGoalRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cold storage for finished goals: compressed documents in goal_archive. GoalService moves goals
+ * here (GoalArchiver schedules it) and reads them back when a goal is no longer in the hot tables.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GoalArchiveService {
+
+    // SKIP LOCKED lets archivers on several nodes work through the backlog side by side
+    private static final String CANDIDATES_SQL = """
+            SELECT id FROM goals
+             WHERE status IN ('COMPLETED', 'CANCELLED') AND updated_at < ?
+             ORDER BY updated_at
+             LIMIT ?
+             FOR UPDATE SKIP LOCKED
+            """;
+
+    // Child rows first; the element-collection tables are empty for compact tasks
+    private static final List<String> DELETE_HOT_SQL = List.of(
+            "DELETE FROM task_steps WHERE task_id IN (SELECT id FROM tasks WHERE goal_id = ANY(?))",
+            "DELETE FROM task_dependencies WHERE task_id IN (SELECT id FROM tasks WHERE goal_id = ANY(?))",
+            "DELETE FROM task_status_changes WHERE goal_id = ANY(?)",
+            "DELETE FROM tasks WHERE goal_id = ANY(?)",
+            "DELETE FROM goals WHERE id = ANY(?)");
+
+    // pg_partition_tree also covers the partitioned layout of db/tenant-partitioning.sql
+    private static final String SIZE_SQL = """
+            SELECT (SELECT coalesce(sum(greatest(c.reltuples, 0)), 0)::bigint
+                      FROM pg_partition_tree('goals') p JOIN pg_class c ON c.oid = p.relid) AS goal_rows,
+                   (SELECT coalesce(sum(greatest(c.reltuples, 0)), 0)::bigint
+                      FROM pg_partition_tree('tasks') p JOIN pg_class c ON c.oid = p.relid) AS task_rows,
+                   (SELECT greatest(reltuples, 0)::bigint FROM pg_class WHERE oid = 'task_steps'::regclass) AS step_rows,
+                   (SELECT coalesce(sum(pg_total_relation_size(relid)), 0) FROM pg_partition_tree('goals'))
+                 + (SELECT coalesce(sum(pg_total_relation_size(relid)), 0) FROM pg_partition_tree('tasks'))
+                 + pg_total_relation_size('task_steps') + pg_total_relation_size('task_dependencies') AS hot_bytes,
+                   (SELECT count(*) FROM goal_archive) AS archived_goals,
+                   pg_total_relation_size('goal_archive') AS archive_bytes
+            """;
+
+    private final ArchivedGoalRepository archivedGoalRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Long> lockArchivableGoalIds(LocalDateTime finishedBefore, int limit) {
+        return jdbcTemplate.queryForList(CANDIDATES_SQL, Long.class, Timestamp.valueOf(finishedBefore), limit);
+    }
+
+    /**
+     * Writes the archive row for a goal. Must run in the transaction that removes the goal from
+     * the hot tables, so the goal is always in exactly one of the two places.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void store(Goal goal, GoalResponse document) {
+        archivedGoalRepository.save(ArchivedGoal.builder()
+                .id(goal.getId())
+                .tenantId(goal.getTenantId())
+                .description(goal.getDescription())
+                .status(goal.getStatus())
+                .taskCount(document.getTasks().size())
+                .finishedAt(goal.getUpdatedAt())
+                .archivedAt(LocalDateTime.now())
+                .payload(compress(document))
+                .build());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleteHotRows(List<Long> goalIds) {
+        Long[] ids = goalIds.toArray(new Long[0]);
+        DELETE_HOT_SQL.forEach(sql -> jdbcTemplate.update(sql, (Object) ids));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<GoalResponse> find(Long goalId, String tenantId) {
+        return archivedGoalRepository.findByIdAndTenantId(goalId, tenantId)
+                .map(archived -> decompress(archived.getPayload()));
+    }
+
+    @Transactional
+    public boolean delete(Long goalId, String tenantId) {
+        if (!archivedGoalRepository.existsByIdAndTenantId(goalId, tenantId)) {
+            return false;
+        }
+        archivedGoalRepository.deleteById(goalId);
+        return true;
+    }
+
+    public HotTableSizeResponse sampleSizes() {
+        return jdbcTemplate.queryForObject(SIZE_SQL, (rs, rowNum) -> HotTableSizeResponse.builder()
+                .sampledAt(LocalDateTime.now())
+                .goalRows(rs.getLong("goal_rows"))
+                .taskRows(rs.getLong("task_rows"))
+                .stepRows(rs.getLong("step_rows"))
+                .hotBytes(rs.getLong("hot_bytes"))
+                .archivedGoals(rs.getLong("archived_goals"))
+                .archiveBytes(rs.getLong("archive_bytes"))
+                .build());
+    }
+
+    private byte[] compress(GoalResponse document) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, document);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not archive goal " + document.getId() + ": " + e.getMessage(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private GoalResponse decompress(byte[] payload) {
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            GoalResponse document = objectMapper.readValue(gzip, GoalResponse.class);
+            document.setArchived(true);
+            return document;
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read archived goal: " + e.getMessage(), e);
+        }
+    }
+}
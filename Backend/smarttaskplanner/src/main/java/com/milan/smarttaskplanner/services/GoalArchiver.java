@@ -0,0 +1,138 @@
+package com.milan.smarttaskplanner.services;
+
+import com.milan.smarttaskplanner.config.ArchiveProperties;
+import com.milan.smarttaskplanner.dto.ArchiveStatsResponse;
+import com.milan.smarttaskplanner.dto.HotTableSizeResponse;
+import com.milan.smarttaskplanner.services.coordination.CoordinationService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * Periodically moves finished goals to the archive in batches, within a cluster-wide batch rate,
+ * and samples the size of the hot tables so the effect is visible over time (as Micrometer gauges
+ * and as the recent history in /api/archive/stats).
+ */
+@Component
+@Slf4j
+public class GoalArchiver {
+
+    private final GoalService goalService;
+    private final GoalArchiveService goalArchiveService;
+    private final CoordinationService coordinationService;
+    private final ArchiveProperties properties;
+    private final Deque<HotTableSizeResponse> samples = new ArrayDeque<>();
+    private final AtomicLong archivedSinceStartup = new AtomicLong();
+    private volatile LocalDateTime lastRunAt;
+    private volatile int lastRunGoals;
+
+    public GoalArchiver(GoalService goalService,
+                        GoalArchiveService goalArchiveService,
+                        CoordinationService coordinationService,
+                        ArchiveProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.goalService = goalService;
+        this.goalArchiveService = goalArchiveService;
+        this.coordinationService = coordinationService;
+        this.properties = properties;
+
+        gauge(meterRegistry, "planner.hot.goals.rows", HotTableSizeResponse::getGoalRows);
+        gauge(meterRegistry, "planner.hot.tasks.rows", HotTableSizeResponse::getTaskRows);
+        gauge(meterRegistry, "planner.hot.task_steps.rows", HotTableSizeResponse::getStepRows);
+        gauge(meterRegistry, "planner.hot.bytes", HotTableSizeResponse::getHotBytes);
+        gauge(meterRegistry, "planner.archive.goals", HotTableSizeResponse::getArchivedGoals);
+        gauge(meterRegistry, "planner.archive.bytes", HotTableSizeResponse::getArchiveBytes);
+        Gauge.builder("planner.archive.moved", archivedSinceStartup, AtomicLong::get)
+                .description("Goals archived by this node since startup")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${archive.interval-ms:600000}", fixedDelayString = "${archive.interval-ms:600000}")
+    public void scheduledRun() {
+        if (properties.isEnabled()) {
+            run();
+        }
+    }
+
+    /**
+     * Archives batches until the backlog is empty or the batch rate is used up; the rest is picked
+     * up by the next run. Returns the number of goals moved.
+     */
+    public int run() {
+        LocalDateTime finishedBefore = LocalDateTime.now().minusDays(properties.getRetentionDays());
+        int moved = 0;
+        try {
+            while (coordinationService.tryAcquire("archive-batches", properties.getBatchesPerMinute(), Duration.ofMinutes(1))) {
+                int batch = goalService.archiveFinishedGoals(finishedBefore, properties.getBatchSize());
+                moved += batch;
+                if (batch < properties.getBatchSize()) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Archiving failed after {} goals: {}", moved, e.getMessage());
+        }
+
+        archivedSinceStartup.addAndGet(moved);
+        lastRunAt = LocalDateTime.now();
+        lastRunGoals = moved;
+        if (moved > 0) {
+            log.info("Archived {} goals finished before {}", moved, finishedBefore);
+            sampleSizes();
+        }
+        return moved;
+    }
+
+    @Scheduled(fixedDelayString = "${archive.size-sample-interval-ms:300000}")
+    public void sampleSizes() {
+        HotTableSizeResponse sample;
+        try {
+            sample = goalArchiveService.sampleSizes();
+        } catch (Exception e) {
+            log.warn("Could not sample table sizes: {}", e.getMessage());
+            return;
+        }
+        synchronized (samples) {
+            samples.addLast(sample);
+            while (samples.size() > properties.getSizeHistory()) {
+                samples.removeFirst();
+            }
+        }
+    }
+
+    public ArchiveStatsResponse getStats() {
+        synchronized (samples) {
+            return ArchiveStatsResponse.builder()
+                    .retentionDays(properties.getRetentionDays())
+                    .archivedSinceStartup(archivedSinceStartup.get())
+                    .lastRunAt(lastRunAt)
+                    .lastRunGoals(lastRunGoals)
+                    .samples(new ArrayList<>(samples))
+                    .build();
+        }
+    }
+
+    private void gauge(MeterRegistry registry, String name, ToLongFunction<HotTableSizeResponse> value) {
+        Gauge.builder(name, this, archiver -> {
+                    HotTableSizeResponse latest = archiver.latestSample();
+                    return latest != null ? value.applyAsLong(latest) : Double.NaN;
+                })
+                .register(registry);
+    }
+
+    private HotTableSizeResponse latestSample() {
+        synchronized (samples) {
+            return samples.peekLast();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.milan.smarttaskplanner.services;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.milan.smarttaskplanner.config.TransferProperties;
+import com.milan.smarttaskplanner.dto.GoalResponse;
+import com.milan.smarttaskplanner.dto.TaskResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes goals with their tasks, steps and dependencies as NDJSON, one goal per line, ordered by
+ * goal id. Rows are read through a forward-only cursor (fetch size transfer.fetch-size inside a
+ * read-only transaction), so memory use is bounded by one goal regardless of table size.
+ * Exports can be resumed with afterId = the id of the last goal written.
+ */
+@Service
+@Slf4j
+public class GoalExportService {
+
+    // Steps and dependencies come from the compact columns or the element-collection tables,
+    // whichever holds them (see TaskStorageService)
+    private static final String EXPORT_SQL = """
+            SELECT g.id AS goal_id, g.description AS goal_description, g.target_date, g.status AS goal_status,
+                   g.ai_analysis, g.created_at AS goal_created_at, g.updated_at AS goal_updated_at,
+                   g.completed_at AS goal_completed_at,
+                   t.id AS task_id, t.title, t.description AS task_description, t.detailed_description,
+                   t.estimated_duration_hours, t.priority::text AS priority, t.status::text AS task_status,
+                   t.order_index, t.rank_key, t.start_date, t.end_date, t.created_at AS task_created_at,
+                   t.started_at, t.completed_at AS task_completed_at,
+                   COALESCE(t.steps_json::text,
+                            (SELECT jsonb_agg(s.step ORDER BY s.step_order)::text FROM task_steps s WHERE s.task_id = t.id)) AS steps,
+                   COALESCE(t.dependency_ids,
+                            (SELECT array_agg(d.dependency_id ORDER BY d.dependency_order)
+                               FROM task_dependencies d WHERE d.task_id = t.id)) AS dependencies
+              FROM goals g
+              LEFT JOIN tasks t ON t.goal_id = g.id AND t.tenant_id = g.tenant_id
+             WHERE g.tenant_id = ? AND g.id > ?
+             ORDER BY g.id, t.rank_key NULLS LAST, t.order_index NULLS LAST, t.id
+            """;
+
+    private final JdbcTemplate cursorTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public GoalExportService(DataSource dataSource,
+                             PlatformTransactionManager transactionManager,
+                             TransferProperties properties,
+                             ObjectMapper objectMapper) {
+        this.cursorTemplate = new JdbcTemplate(dataSource);
+        this.cursorTemplate.setFetchSize(properties.getFetchSize());
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    private class GoalWriter implements RowCallbackHandler {
+        private final OutputStream out;
+        private GoalResponse current;
+        private long goals;
+        private long rows;
+
+        GoalWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long goalId = rs.getLong("goal_id");
+            if (current == null || !current.getId().equals(goalId)) {
+                flush();
+                current = GoalResponse.builder()
+                        .id(goalId)
+                        .description(rs.getString("goal_description"))
+                        .targetDate(toLocalDateTime(rs.getTimestamp("target_date")))
+                        .status(rs.getString("goal_status"))
+                        .aiAnalysis(rs.getString("ai_analysis"))
+                        .createdAt(toLocalDateTime(rs.getTimestamp("goal_created_at")))
+                        .updatedAt(toLocalDateTime(rs.getTimestamp("goal_updated_at")))
+                        .completedAt(toLocalDateTime(rs.getTimestamp("goal_completed_at")))
+                        .tasks(new ArrayList<>())
+                        .build();
+            }
+
+            rs.getLong("task_id");
+            if (rs.wasNull()) {
+                return;
+            }
+            List<String> steps = readSteps(rs.getString("steps"));
+            List<Long> dependencies = readDependencies(rs.getArray("dependencies"));
+            current.getTasks().add(TaskResponse.builder()
+                    .title(rs.getString("title"))
+                    .description(rs.getString("task_description"))
+                    .detailedDescription(rs.getString("detailed_description"))
+                    .estimatedDurationHours((Integer) rs.getObject("estimated_duration_hours"))
+                    .priority(rs.getString("priority"))
+                    .status(rs.getString("task_status"))
+                    .orderIndex((Integer) rs.getObject("order_index"))
+                    .rankKey(rs.getString("rank_key"))
+                    .startDate(toLocalDateTime(rs.getTimestamp("start_date")))
+                    .endDate(toLocalDateTime(rs.getTimestamp("end_date")))
+                    .createdAt(toLocalDateTime(rs.getTimestamp("task_created_at")))
+                    .startedAt(toLocalDateTime(rs.getTimestamp("started_at")))
+                    .completedAt(toLocalDateTime(rs.getTimestamp("task_completed_at")))
+                    .steps(steps)
+                    .dependencies(dependencies)
+                    .build());
+            rows += 1 + steps.size() + dependencies.size();
+        }
+
+        void flush() {
+            if (current == null) {
+                return;
+            }
+            try {
+                out.write(objectMapper.writeValueAsBytes(current));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            goals++;
+            rows++;
+            current = null;
+        }
+    }
+
+    /**
+     * Streams every goal of the tenant with id > afterId to {@code out}. The caller owns (and closes)
+     * the stream, e.g. a GZIPOutputStream over the HTTP response. The tenant is passed explicitly
+     * because streaming bodies are written on a different thread than the request.
+     */
+    public void export(OutputStream out, long afterId, String tenantId) {
+        long started = System.currentTimeMillis();
+        GoalWriter writer = new GoalWriter(out);
+
+        readOnlyTransaction.executeWithoutResult(status -> {
+            cursorTemplate.query(EXPORT_SQL, writer, tenantId, afterId);
+            writer.flush();
+        });
+
+        long elapsed = Math.max(1, System.currentTimeMillis() - started);
+        log.info("Exported {} goals ({} rows) after id {} in {} ms, {} rows/s",
+                writer.goals, writer.rows, afterId, elapsed, String.format("%.0f", writer.rows * 1000.0 / elapsed));
+    }
+
+    private List<String> readSteps(String json) {
+        if (json == null) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(json, new TypeReference<List<String>>() {
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<Long> readDependencies(Array array) throws SQLException {
+        if (array == null) {
+            return List.of();
+        }
+        return Arrays.asList((Long[]) array.getArray());
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,337 @@
+package com.milan.smarttaskplanner.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.milan.smarttaskplanner.config.TaskStorageMode;
+import com.milan.smarttaskplanner.config.TaskStorageProperties;
+import com.milan.smarttaskplanner.config.TransferProperties;
+import com.milan.smarttaskplanner.dto.GoalResponse;
+import com.milan.smarttaskplanner.dto.TaskResponse;
+import com.milan.smarttaskplanner.dto.TransferResultResponse;
+import com.milan.smarttaskplanner.entities.*;
+import com.milan.smarttaskplanner.repositories.GoalRepository;
+import com.milan.smarttaskplanner.repositories.TransferCheckpointRepository;
+import com.milan.smarttaskplanner.services.analytics.AnalyticsReconciler;
+import com.milan.smarttaskplanner.services.tenancy.TenantContext;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Loads NDJSON goal exports (plain or gzip) in batches of transfer.batch-size goals, one
+ * transaction per batch. Each transaction also advances the named checkpoint, so an interrupted
+ * import rerun under the same name continues after the last committed line.
+ *
+ * COPY mode pre-allocates ids from the sequences and streams rows with COPY ... FROM STDIN (CSV);
+ * REPOSITORY mode goes through GoalRepository with cascading tasks.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GoalImportService {
+
+    private static final String CHECKPOINT_SQL = """
+            INSERT INTO transfer_checkpoints (name, last_line, goals, tasks, updated_at)
+            VALUES (?, ?, ?, ?, LOCALTIMESTAMP)
+            ON CONFLICT (name) DO UPDATE
+               SET last_line = EXCLUDED.last_line,
+                   goals = transfer_checkpoints.goals + EXCLUDED.goals,
+                   tasks = transfer_checkpoints.tasks + EXCLUDED.tasks,
+                   updated_at = EXCLUDED.updated_at
+            """;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final GoalRepository goalRepository;
+    private final TransferCheckpointRepository checkpointRepository;
+    private final TaskStorageService taskStorageService;
+    private final TaskStorageProperties taskStorageProperties;
+    private final TransferProperties properties;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final PlanSimilarityIndex planSimilarityIndex;
+    private final AnalyticsReconciler analyticsReconciler;
+
+    private record Batch(List<GoalResponse> goals, long lastLine) {
+    }
+
+    public TransferResultResponse importGoals(InputStream input, String name) throws IOException {
+        long resumeAfter = checkpointRepository.findById(checkpointName(name)).map(TransferCheckpoint::getLastLine).orElse(0L);
+        TransferProperties.ImportMode mode = properties.getImportMode();
+        long started = System.currentTimeMillis();
+        long goals = 0;
+        long tasks = 0;
+        long rows = 0;
+        long lineNumber = 0;
+
+        if (resumeAfter > 0) {
+            log.info("Resuming import '{}' after line {}", name, resumeAfter);
+        }
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(decompress(input), StandardCharsets.UTF_8))) {
+            List<GoalResponse> pending = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber <= resumeAfter || line.isBlank()) {
+                    continue;
+                }
+                try {
+                    pending.add(objectMapper.readValue(line, GoalResponse.class));
+                } catch (IOException e) {
+                    throw new RuntimeException("Invalid goal on line " + lineNumber + ": " + e.getMessage(), e);
+                }
+
+                if (pending.size() >= properties.getBatchSize()) {
+                    rows += write(new Batch(pending, lineNumber), name, mode);
+                    goals += pending.size();
+                    tasks += countTasks(pending);
+                    pending = new ArrayList<>();
+                    logProgress(name, goals, rows, started);
+                }
+            }
+            if (!pending.isEmpty() || lineNumber > resumeAfter) {
+                rows += write(new Batch(pending, lineNumber), name, mode);
+                goals += pending.size();
+                tasks += countTasks(pending);
+            }
+        }
+
+        if (goals > 0) {
+            planSimilarityIndex.rebuild();
+            // Imported rows bypass the incremental analytics path
+            analyticsReconciler.reconcile();
+        }
+
+        long elapsed = Math.max(1, System.currentTimeMillis() - started);
+        TransferResultResponse result = TransferResultResponse.builder()
+                .name(name)
+                .mode(mode.name())
+                .resumedAfterLine(resumeAfter)
+                .lastLine(lineNumber)
+                .goals(goals)
+                .tasks(tasks)
+                .rows(rows)
+                .elapsedMs(elapsed)
+                .rowsPerSecond(rows * 1000.0 / elapsed)
+                .build();
+        log.info("Import '{}' finished: {} goals, {} rows in {} ms, {} rows/s", name, goals, rows, elapsed,
+                String.format("%.0f", result.getRowsPerSecond()));
+        return result;
+    }
+
+    public TransferCheckpoint getCheckpoint(String name) {
+        return checkpointRepository.findById(checkpointName(name))
+                .orElseThrow(() -> new RuntimeException("No import checkpoint named " + name));
+    }
+
+    private long write(Batch batch, String name, TransferProperties.ImportMode mode) {
+        Long rows = transactionTemplate.execute(status -> {
+            long written = batch.goals().isEmpty() ? 0
+                    : mode == TransferProperties.ImportMode.COPY ? copyBatch(batch.goals()) : saveBatch(batch.goals());
+            jdbcTemplate.update(CHECKPOINT_SQL, checkpointName(name), batch.lastLine(), batch.goals().size(), countTasks(batch.goals()));
+            return written;
+        });
+        return rows != null ? rows : 0;
+    }
+
+    // Imports run as the caller's tenant, so two tenants may use the same import name
+    private static String checkpointName(String name) {
+        return TenantContext.getTenantId() + "/" + name;
+    }
+
+    private long saveBatch(List<GoalResponse> goals) {
+        long rows = 0;
+        List<Goal> entities = new ArrayList<>();
+        for (GoalResponse source : goals) {
+            Goal goal = Goal.builder()
+                    .description(source.getDescription())
+                    .targetDate(source.getTargetDate())
+                    .status(GoalStatus.valueOf(source.getStatus()))
+                    .aiAnalysis(source.getAiAnalysis())
+                    .completedAt(source.getCompletedAt())
+                    .build();
+            for (TaskResponse sourceTask : tasksOf(source)) {
+                Task task = Task.builder()
+                        .title(sourceTask.getTitle())
+                        .description(sourceTask.getDescription())
+                        .detailedDescription(sourceTask.getDetailedDescription())
+                        .estimatedDurationHours(sourceTask.getEstimatedDurationHours())
+                        .priority(TaskPriority.valueOf(sourceTask.getPriority()))
+                        .status(TaskStatus.valueOf(sourceTask.getStatus()))
+                        .orderIndex(sourceTask.getOrderIndex())
+                        .rankKey(sourceTask.getRankKey())
+                        .startDate(sourceTask.getStartDate())
+                        .endDate(sourceTask.getEndDate())
+                        .startedAt(sourceTask.getStartedAt())
+                        .completedAt(sourceTask.getCompletedAt())
+                        .build();
+                taskStorageService.writeSteps(task, stepsOf(sourceTask));
+                taskStorageService.writeDependencies(task, dependenciesOf(sourceTask));
+                goal.addTask(task);
+                rows += 1 + stepsOf(sourceTask).size() + dependenciesOf(sourceTask).size();
+            }
+            entities.add(goal);
+            rows++;
+        }
+        goalRepository.saveAll(entities);
+        entityManager.flush();
+        entityManager.clear();
+        return rows;
+    }
+
+    private long copyBatch(List<GoalResponse> goals) {
+        boolean compact = taskStorageProperties.getMode() == TaskStorageMode.COMPACT;
+        LocalDateTime now = LocalDateTime.now();
+        String tenantId = TenantContext.getTenantId();
+        List<Long> goalIds = allocateIds("goals", goals.size());
+        List<Long> taskIds = allocateIds("tasks", countTasks(goals));
+
+        StringBuilder goalRows = new StringBuilder();
+        StringBuilder taskRows = new StringBuilder();
+        StringBuilder stepRows = new StringBuilder();
+        StringBuilder dependencyRows = new StringBuilder();
+        long rows = 0;
+        int taskCursor = 0;
+
+        for (int g = 0; g < goals.size(); g++) {
+            GoalResponse source = goals.get(g);
+            Long goalId = goalIds.get(g);
+            csvRow(goalRows, goalId, tenantId, source.getDescription(), source.getTargetDate(),
+                    GoalStatus.valueOf(source.getStatus()).name(), source.getAiAnalysis(),
+                    orNow(source.getCreatedAt(), now), orNow(source.getUpdatedAt(), now), source.getCompletedAt());
+            rows++;
+
+            for (TaskResponse task : tasksOf(source)) {
+                Long taskId = taskIds.get(taskCursor++);
+                List<String> steps = stepsOf(task);
+                List<Long> dependencies = dependenciesOf(task);
+                List<Object> values = new ArrayList<>(List.of(taskId, goalId, tenantId));
+                values.addAll(Arrays.asList(task.getTitle(), task.getDescription(), task.getDetailedDescription(),
+                        task.getEstimatedDurationHours(), TaskPriority.valueOf(task.getPriority()).name(),
+                        TaskStatus.valueOf(task.getStatus()).name(), task.getOrderIndex(), task.getRankKey(),
+                        task.getStartDate(), task.getEndDate(), orNow(task.getCreatedAt(), now), now,
+                        task.getStartedAt(), task.getCompletedAt()));
+                if (compact) {
+                    values.add(writeJson(steps));
+                    values.add(dependencies.stream().map(String::valueOf).collect(Collectors.joining(",", "{", "}")));
+                } else {
+                    for (int i = 0; i < steps.size(); i++) {
+                        csvRow(stepRows, taskId, i, steps.get(i));
+                    }
+                    for (int i = 0; i < dependencies.size(); i++) {
+                        csvRow(dependencyRows, taskId, i, dependencies.get(i));
+                    }
+                }
+                csvRow(taskRows, values.toArray());
+                rows += 1 + steps.size() + dependencies.size();
+            }
+        }
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+            copy.copyIn("COPY goals (id, tenant_id, description, target_date, status, ai_analysis, created_at, updated_at, completed_at) "
+                    + "FROM STDIN WITH (FORMAT csv)", new StringReader(goalRows.toString()));
+            copy.copyIn("COPY tasks (id, goal_id, tenant_id, title, description, detailed_description, estimated_duration_hours, "
+                    + "priority, status, order_index, rank_key, start_date, end_date, created_at, updated_at, started_at, completed_at"
+                    + (compact ? ", steps_json, dependency_ids" : "") + ") FROM STDIN WITH (FORMAT csv)",
+                    new StringReader(taskRows.toString()));
+            if (stepRows.length() > 0) {
+                copy.copyIn("COPY task_steps (task_id, step_order, step) FROM STDIN WITH (FORMAT csv)", new StringReader(stepRows.toString()));
+            }
+            if (dependencyRows.length() > 0) {
+                copy.copyIn("COPY task_dependencies (task_id, dependency_order, dependency_id) FROM STDIN WITH (FORMAT csv)",
+                        new StringReader(dependencyRows.toString()));
+            }
+        } catch (SQLException | IOException e) {
+            throw new RuntimeException("COPY import failed: " + e.getMessage(), e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+        return rows;
+    }
+
+    private List<Long> allocateIds(String table, int count) {
+        if (count == 0) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList("SELECT nextval(pg_get_serial_sequence(?, 'id')) FROM generate_series(1, ?)",
+                Long.class, table, count);
+    }
+
+    // CSV for COPY: null is an unquoted empty field, everything else is quoted
+    private static void csvRow(StringBuilder out, Object... values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            Object value = values[i];
+            if (value != null) {
+                out.append('"').append(value.toString().replace("\"", "\"\"")).append('"');
+            }
+        }
+        out.append('\n');
+    }
+
+    private String writeJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static InputStream decompress(InputStream input) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(input);
+        buffered.mark(2);
+        int first = buffered.read();
+        int second = buffered.read();
+        buffered.reset();
+        boolean gzip = first == 0x1f && second == 0x8b;
+        return gzip ? new GZIPInputStream(buffered, 64 * 1024) : buffered;
+    }
+
+    private void logProgress(String name, long goals, long rows, long started) {
+        long elapsed = Math.max(1, System.currentTimeMillis() - started);
+        log.info("Import '{}': {} goals, {} rows, {} rows/s", name, goals, rows, String.format("%.0f", rows * 1000.0 / elapsed));
+    }
+
+    private static int countTasks(List<GoalResponse> goals) {
+        return goals.stream().mapToInt(goal -> tasksOf(goal).size()).sum();
+    }
+
+    private static List<TaskResponse> tasksOf(GoalResponse goal) {
+        return goal.getTasks() != null ? goal.getTasks() : List.of();
+    }
+
+    private static List<String> stepsOf(TaskResponse task) {
+        return task.getSteps() != null ? task.getSteps() : List.of();
+    }
+
+    private static List<Long> dependenciesOf(TaskResponse task) {
+        return task.getDependencies() != null ? task.getDependencies() : List.of();
+    }
+
+    private static LocalDateTime orNow(LocalDateTime value, LocalDateTime now) {
+        return value != null ? value : now;
+    }
+}
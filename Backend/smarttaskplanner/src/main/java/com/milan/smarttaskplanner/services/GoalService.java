@@ -2,15 +2,34 @@ package com.milan.smarttaskplanner.services;
 
 import com.milan.smarttaskplanner.dto.*;
 import com.milan.smarttaskplanner.entities.*;
+import com.milan.smarttaskplanner.events.GoalCreatedEvent;
+import com.milan.smarttaskplanner.events.GoalDeletedEvent;
+import com.milan.smarttaskplanner.events.GoalReplannedEvent;
+import com.milan.smarttaskplanner.events.GoalUpdatedEvent;
+import com.milan.smarttaskplanner.events.PlanUpgradePendingEvent;
+import com.milan.smarttaskplanner.events.PlanUpgradedEvent;
+import com.milan.smarttaskplanner.events.TaskCompletedEvent;
 import com.milan.smarttaskplanner.repositories.GoalRepository;
 import com.milan.smarttaskplanner.repositories.TaskRepository;
+import com.milan.smarttaskplanner.repositories.TaskStatusChangeRepository;
+import com.milan.smarttaskplanner.services.analytics.AnalyticsRollupService;
+import com.milan.smarttaskplanner.services.analytics.GoalSnapshot;
+import com.milan.smarttaskplanner.services.tenancy.TenantContext;
+import com.milan.smarttaskplanner.services.tenancy.TenantQuotaService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.time.LocalDateTime;
 
@@ -22,50 +41,48 @@ public class GoalService {
     private final GoalRepository goalRepository;
     private final TaskRepository taskRepository;
     private final AIService aiService;
+    private final TaskStorageService taskStorageService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlanningJobQueue planningJobQueue;
+    private final TenantQuotaService tenantQuotaService;
+    private final GoalArchiveService goalArchiveService;
+    private final AnalyticsRollupService analyticsRollupService;
+    private final TaskStatusChangeRepository taskStatusChangeRepository;
+    private final DurationCalibrationService durationCalibrationService;
 
     @Transactional
     public TaskPlanResponse createGoalWithTasks(GoalRequest request) {
         log.info("Creating goal: {}", request.getDescription());
 
-        // Generate task plan using AI
-        Map<String, Object> aiPlan = aiService.generateTaskPlan(request);
+        // Generate task plan using AI, bounded by the tenant's concurrent planning quota; a pending
+        // upgrade keeps the slot until it completes or times out
+        Map<String, Object> aiPlan = tenantQuotaService.withPlanningSlot(() -> aiService.generateTaskPlan(request),
+                plan -> plan.get(TieredPlanningService.UPGRADE_KEY) instanceof CompletableFuture<?> upgrade ? upgrade : null);
 
         // Create Goal entity
         Goal goal = Goal.builder()
                 .description(request.getDescription())
                 .targetDate(request.getTargetDate())
+                .maxTasksPerDay(request.getMaxTasksPerDay())
                 .status(GoalStatus.PLANNING)
                 .aiAnalysis((String) aiPlan.get("analysis"))
+                .tenantId(TenantContext.getTenantId())
                 .build();
 
         goal = goalRepository.save(goal);
 
-        // Create Task entities from AI response
-        List<TaskResponse> taskResponses = (List<TaskResponse>) aiPlan.get("tasks");
-        if (taskResponses == null) {
-            taskResponses = List.of();
-        }
-
-        for (TaskResponse taskResponse : taskResponses) {
-            Task task = Task.builder()
-                    .title(taskResponse.getTitle())
-                    .description(taskResponse.getDescription())
-                    .detailedDescription(taskResponse.getDetailedDescription())  // NEW
-                    .steps(taskResponse.getSteps())  // NEW
-                    .goal(goal)
-                    .estimatedDurationHours(taskResponse.getEstimatedDurationHours())
-                    .startDate(taskResponse.getStartDate())
-                    .endDate(taskResponse.getEndDate())
-                    .priority(TaskPriority.valueOf(taskResponse.getPriority()))
-                    .status(TaskStatus.PENDING)
-                    .orderIndex(taskResponse.getOrderIndex())
-                    .dependencies(taskResponse.getDependencies())
-                    .build();
-
-            goal.addTask(task);
-        }
+        addTasksFromPlan(goal, aiPlan);
 
         goal = goalRepository.save(goal);
+        analyticsRollupService.recordChange(null, GoalSnapshot.of(goal));
+        eventPublisher.publishEvent(new GoalCreatedEvent(goal.getId(), goal.getTenantId(), goal.getDescription(), (String) aiPlan.get("source")));
+
+        // A quick plan was returned while a better one is still being generated
+        Object upgrade = aiPlan.get(TieredPlanningService.UPGRADE_KEY);
+        if (upgrade instanceof CompletableFuture<?>) {
+            eventPublisher.publishEvent(new PlanUpgradePendingEvent(goal.getId(),
+                    (CompletableFuture<Map<String, Object>>) upgrade));
+        }
 
         Object startDateObj = aiPlan.get("suggestedStartDate");
         LocalDateTime suggestedStartDate = null;
@@ -84,6 +101,9 @@ public class GoalService {
         }
 
         return TaskPlanResponse.builder()
+                .goalId(goal.getId())
+                .planSource((String) aiPlan.get("source"))
+                .upgradePending(upgrade instanceof CompletableFuture<?>)
                 .goalAnalysis((String) aiPlan.get("analysis"))
                 .totalTasks((Integer) aiPlan.get("totalTasks"))
                 .estimatedTotalHours((Integer) aiPlan.get("estimatedTotalHours"))
@@ -95,60 +115,406 @@ public class GoalService {
                 .build();
     }
 
+    /**
+     * Saves the goal without tasks and queues its plan generation in the same transaction, so the
+     * job survives restarts and can be picked up by any node. Tasks appear once the job completes.
+     */
+    @Transactional
+    public PlanningJobResponse enqueueGoalPlanning(GoalRequest request) {
+        log.info("Queueing plan generation for goal: {}", request.getDescription());
+
+        Goal goal = Goal.builder()
+                .description(request.getDescription())
+                .targetDate(request.getTargetDate())
+                .maxTasksPerDay(request.getMaxTasksPerDay())
+                .status(GoalStatus.PLANNING)
+                .tenantId(TenantContext.getTenantId())
+                .build();
+        goal = goalRepository.save(goal);
+        analyticsRollupService.recordChange(null, GoalSnapshot.of(goal));
+
+        return planningJobQueue.mapToResponse(planningJobQueue.enqueue(goal.getId(), request));
+    }
+
+    /**
+     * Persists the plan produced by a queued job. Runs inside the job's completion transaction;
+     * a goal that already has tasks or was deleted is left alone.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyQueuedPlan(Long goalId, Map<String, Object> aiPlan) {
+        Goal goal = goalRepository.findById(goalId).orElse(null);
+        if (goal == null || !goal.getTasks().isEmpty()) {
+            log.info("Goal {} was deleted or already planned, skipping queued plan", goalId);
+            return;
+        }
+
+        GoalSnapshot before = GoalSnapshot.of(goal);
+        goal.setAiAnalysis((String) aiPlan.get("analysis"));
+        addTasksFromPlan(goal, aiPlan);
+        goal = goalRepository.save(goal);
+        analyticsRollupService.recordChange(before, GoalSnapshot.of(goal));
+        eventPublisher.publishEvent(new GoalCreatedEvent(goal.getId(), goal.getTenantId(), goal.getDescription(), (String) aiPlan.get("source")));
+    }
+
+    /**
+     * Replaces the quick plan of a goal with an upgraded one, as long as nobody has started working
+     * on it yet. Returns false when the goal is gone or has progressed. Runs in its own transaction
+     * because it is triggered from after-commit callbacks of the creating transaction.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean applyPlanUpgrade(Long goalId, Map<String, Object> aiPlan) {
+        Goal goal = goalRepository.findById(goalId).orElse(null);
+        if (goal == null) {
+            return false;
+        }
+
+        boolean untouched = goal.getStatus() == GoalStatus.PLANNING
+                && goal.getTasks().stream().allMatch(t -> t.getStatus() == TaskStatus.PENDING);
+        if (!untouched) {
+            log.info("Goal {} progressed before its plan upgrade arrived, keeping the current plan", goalId);
+            return false;
+        }
+
+        GoalSnapshot before = GoalSnapshot.of(goal);
+        goal.getTasks().clear();
+        goal.setAiAnalysis((String) aiPlan.get("analysis"));
+        addTasksFromPlan(goal, aiPlan);
+        goal = goalRepository.save(goal);
+        analyticsRollupService.recordChange(before, GoalSnapshot.of(goal));
+
+        eventPublisher.publishEvent(new PlanUpgradedEvent(goal.getId(), goal.getTenantId(), goal.getDescription(), (String) aiPlan.get("source")));
+        log.info("Upgraded plan of goal {} to a {} plan with {} tasks", goalId, aiPlan.get("source"), goal.getTasks().size());
+        return true;
+    }
+
+    private void addTasksFromPlan(Goal goal, Map<String, Object> aiPlan) {
+        goal.setPlanSource((String) aiPlan.get("source"));
+
+        // Create Task entities from AI response
+        List<TaskResponse> taskResponses = (List<TaskResponse>) aiPlan.get("tasks");
+        if (taskResponses == null) {
+            taskResponses = List.of();
+        }
+
+        for (TaskResponse taskResponse : taskResponses) {
+            Task task = Task.builder()
+                    .title(taskResponse.getTitle())
+                    .description(taskResponse.getDescription())
+                    .detailedDescription(taskResponse.getDetailedDescription())  // NEW
+                    .goal(goal)
+                    .estimatedDurationHours(taskResponse.getEstimatedDurationHours())
+                    .startDate(taskResponse.getStartDate())
+                    .endDate(taskResponse.getEndDate())
+                    .priority(TaskPriority.valueOf(taskResponse.getPriority()))
+                    .status(TaskStatus.PENDING)
+                    .orderIndex(taskResponse.getOrderIndex())
+                    .build();
+            taskStorageService.writeSteps(task, taskResponse.getSteps());
+            taskStorageService.writeDependencies(task, taskResponse.getDependencies());
+
+            goal.addTask(task);
+        }
+    }
+
+    /**
+     * Applies the result of a partial re-plan as a minimal diff. Replacements are matched to the
+     * re-planned tasks by orderIndex and only fields that differ are set, so unchanged tasks (and
+     * unchanged steps) are never written and the changed rows are flushed together. Fails when a
+     * re-planned task was changed since the snapshot the model worked from.
+     */
+    @Transactional
+    public ReplanResponse applyReplan(Long goalId, LocalDateTime targetDate, List<TaskResponse> snapshot,
+                                      List<TaskResponse> replacements) {
+        Goal goal = goalRepository.findByIdAndTenantId(goalId, TenantContext.getTenantId())
+                .orElseThrow(() -> new RuntimeException("Goal not found with id: " + goalId));
+
+        Map<Long, Task> tasksById = goal.getTasks().stream().collect(Collectors.toMap(Task::getId, t -> t));
+        Map<Integer, Task> replanned = new HashMap<>();
+        for (TaskResponse seen : snapshot) {
+            Task task = tasksById.get(seen.getId());
+            if (task == null || !task.getStatus().name().equals(seen.getStatus()) || !task.getTitle().equals(seen.getTitle())) {
+                throw new RuntimeException("Goal " + goalId + " changed while it was being re-planned, please try again");
+            }
+            replanned.put(task.getOrderIndex(), task);
+        }
+        Set<Integer> orderIndexes = goal.getTasks().stream().map(Task::getOrderIndex).collect(Collectors.toSet());
+
+        GoalSnapshot before = GoalSnapshot.of(goal);
+        LocalDateTime now = LocalDateTime.now();
+        int rowsWritten = 0;
+        if (targetDate != null && !targetDate.equals(goal.getTargetDate())) {
+            goal.setTargetDate(targetDate);
+            rowsWritten++;
+        }
+
+        List<Task> changed = new ArrayList<>();
+        for (TaskResponse replacement : replacements) {
+            Task task = replanned.get(replacement.getOrderIndex());
+            if (task == null) {
+                continue;
+            }
+            TaskStatus previous = task.getStatus();
+            int rows = applyReplacement(task, replacement, orderIndexes);
+            if (previous != task.getStatus()) {
+                taskStatusChangeRepository.save(TaskStatusChange.builder()
+                        .taskId(task.getId())
+                        .goalId(goalId)
+                        .tenantId(task.getTenantId())
+                        .fromStatus(previous)
+                        .toStatus(task.getStatus())
+                        .changedAt(now)
+                        .build());
+                rows++;
+            }
+            if (rows > 0) {
+                changed.add(task);
+                rowsWritten += rows;
+            }
+        }
+
+        if (rowsWritten > 0) {
+            goal = goalRepository.save(goal);
+            analyticsRollupService.recordChange(before, GoalSnapshot.of(goal));
+            eventPublisher.publishEvent(new GoalUpdatedEvent(goalId));
+            eventPublisher.publishEvent(new GoalReplannedEvent(goalId, goal.getTenantId()));
+        }
+        log.info("Re-planned {} of {} tasks of goal {}, {} rows written", changed.size(), snapshot.size(), goalId, rowsWritten);
+
+        return ReplanResponse.builder()
+                .goalId(goalId)
+                .tasks(mapToTaskResponses(changed))
+                .rowsWritten(rowsWritten)
+                .build();
+    }
+
+    // Sets the fields of the replacement that differ; returns the number of rows that will be written
+    private int applyReplacement(Task task, TaskResponse replacement, Set<Integer> orderIndexes) {
+        boolean taskRowChanged = false;
+        if (!Objects.equals(task.getTitle(), replacement.getTitle())) {
+            task.setTitle(replacement.getTitle());
+            taskRowChanged = true;
+        }
+        if (!Objects.equals(task.getDescription(), replacement.getDescription())) {
+            task.setDescription(replacement.getDescription());
+            taskRowChanged = true;
+        }
+        if (!Objects.equals(task.getDetailedDescription(), replacement.getDetailedDescription())) {
+            task.setDetailedDescription(replacement.getDetailedDescription());
+            taskRowChanged = true;
+        }
+        if (!Objects.equals(task.getEstimatedDurationHours(), replacement.getEstimatedDurationHours())) {
+            task.setEstimatedDurationHours(replacement.getEstimatedDurationHours());
+            taskRowChanged = true;
+        }
+        // PartialReplanService has already calibrated and scheduled the replacement
+        LocalDateTime startDate = replacement.getStartDate() != null ? replacement.getStartDate() : task.getStartDate();
+        LocalDateTime endDate = replacement.getEndDate() != null ? replacement.getEndDate()
+                : startDate != null && task.getEstimatedDurationHours() != null
+                ? startDate.plusHours(task.getEstimatedDurationHours()) : task.getEndDate();
+        if (!Objects.equals(task.getStartDate(), startDate) || !Objects.equals(task.getEndDate(), endDate)) {
+            task.setStartDate(startDate);
+            task.setEndDate(endDate);
+            taskRowChanged = true;
+        }
+        try {
+            TaskPriority priority = TaskPriority.valueOf(replacement.getPriority());
+            if (priority != task.getPriority()) {
+                task.setPriority(priority);
+                taskRowChanged = true;
+            }
+        } catch (IllegalArgumentException | NullPointerException e) {
+            log.warn("Ignoring priority '{}' of re-planned task {}", replacement.getPriority(), task.getId());
+        }
+        // The replacement is a way around whatever blocked the task
+        if (task.getStatus() == TaskStatus.BLOCKED) {
+            task.setStatus(TaskStatus.PENDING);
+            taskRowChanged = true;
+        }
+
+        int collectionRows = 0;
+        List<String> steps = replacement.getSteps() != null ? replacement.getSteps() : List.of();
+        if (!taskStorageService.readSteps(task).equals(steps)) {
+            // Normalized storage rewrites the task's step rows, compact storage only the task row
+            collectionRows += task.getSteps() != null ? task.getSteps().size() : 0;
+            taskStorageService.writeSteps(task, steps);
+            collectionRows += task.getSteps() != null ? task.getSteps().size() : 0;
+            taskRowChanged |= task.getStepsJson() != null;
+        }
+        // Only earlier tasks of the same goal can be prerequisites
+        List<Long> dependencies = replacement.getDependencies() == null ? List.of() : replacement.getDependencies().stream()
+                .filter(d -> orderIndexes.contains(d.intValue()) && task.getOrderIndex() != null && d < task.getOrderIndex())
+                .distinct()
+                .toList();
+        if (!taskStorageService.readDependencies(task).equals(dependencies)) {
+            collectionRows += task.getDependencies() != null ? task.getDependencies().size() : 0;
+            taskStorageService.writeDependencies(task, dependencies);
+            collectionRows += task.getDependencies() != null ? task.getDependencies().size() : 0;
+            taskRowChanged |= task.getDependencyIds() != null;
+        }
+        return (taskRowChanged ? 1 : 0) + collectionRows;
+    }
+
+    @Transactional(readOnly = true)
     public GoalResponse getGoal(Long id) {
-        Goal goal = goalRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Goal not found with id: " + id));
+        return getGoal(id, ResponseView.DETAIL);
+    }
 
-        return mapToGoalResponse(goal);
+    @Transactional(readOnly = true)
+    public GoalResponse getGoal(Long id, ResponseView view) {
+        String tenantId = TenantContext.getTenantId();
+        Goal goal = goalRepository.findByIdAndTenantId(id, tenantId).orElse(null);
+        if (goal != null) {
+            return mapToGoalResponse(goal, view);
+        }
+
+        // Finished goals may have been moved to the archive; they are served from there unchanged
+        return goalArchiveService.find(id, tenantId)
+                .map(archived -> view == ResponseView.DETAIL ? archived : summarize(archived))
+                .orElseThrow(() -> new RuntimeException("Goal not found with id: " + id));
     }
 
-    public List<GoalResponse> getAllGoals() {
-        return goalRepository.findAll().stream()
-                .map(this::mapToGoalResponse)
+    @Transactional(readOnly = true)
+    public List<GoalResponse> getAllGoals(ResponseView view) {
+        return goalRepository.findByTenantId(TenantContext.getTenantId()).stream()
+                .map(goal -> mapToGoalResponse(goal, view))
                 .collect(Collectors.toList());
     }
 
-    public List<GoalResponse> getRecentGoals() {
-        return goalRepository.findTop10ByOrderByCreatedAtDesc().stream()
-                .map(this::mapToGoalResponse)
+    @Transactional(readOnly = true)
+    public List<GoalResponse> getRecentGoals(ResponseView view) {
+        return goalRepository.findTop10ByTenantIdOrderByCreatedAtDesc(TenantContext.getTenantId()).stream()
+                .map(goal -> mapToGoalResponse(goal, view))
                 .collect(Collectors.toList());
     }
 
     @Transactional
     public TaskResponse updateTaskStatus(Long goalId, UpdateTaskStatusRequest request) {
-        Task task = taskRepository.findById(request.getTaskId())
+        Task task = taskRepository.findByIdAndTenantId(request.getTaskId(), TenantContext.getTenantId())
                 .orElseThrow(() -> new RuntimeException("Task not found"));
 
         if (!task.getGoal().getId().equals(goalId)) {
             throw new RuntimeException("Task does not belong to this goal");
         }
 
-        task.setStatus(TaskStatus.valueOf(request.getStatus()));
+        GoalSnapshot before = GoalSnapshot.of(task.getGoal());
+        TaskStatus previous = task.getStatus();
+        TaskStatus status = TaskStatus.valueOf(request.getStatus());
+        LocalDateTime now = LocalDateTime.now();
+        if (status == TaskStatus.IN_PROGRESS && task.getStartedAt() == null) {
+            task.setStartedAt(now);
+        }
+        if (status != TaskStatus.COMPLETED) {
+            task.setCompletedAt(null);
+        } else if (previous != TaskStatus.COMPLETED) {
+            task.setCompletedAt(now);
+        }
+        task.setStatus(status);
         task = taskRepository.save(task);
 
+        if (status != previous) {
+            taskStatusChangeRepository.save(TaskStatusChange.builder()
+                    .taskId(task.getId())
+                    .goalId(goalId)
+                    .tenantId(task.getTenantId())
+                    .fromStatus(previous)
+                    .toStatus(status)
+                    .changedAt(now)
+                    .build());
+        }
+        if (status == TaskStatus.COMPLETED && previous != TaskStatus.COMPLETED) {
+            // Feeds the duration calibration once the change has committed
+            double activeHours = durationCalibrationService.activeHours(
+                    taskStatusChangeRepository.findByTaskIdOrderByChangedAtAsc(task.getId()));
+            eventPublisher.publishEvent(new TaskCompletedEvent(task.getTenantId(), task.getGoal().getDescription(),
+                    task.getTitle(), task.getPriority() != null ? task.getPriority().name() : null,
+                    task.getEstimatedDurationHours(), activeHours));
+        }
+
         // Update goal status if all tasks are completed
         updateGoalStatus(goalId);
+        analyticsRollupService.recordChange(before, GoalSnapshot.of(task.getGoal()));
+        eventPublisher.publishEvent(new GoalUpdatedEvent(goalId));
 
         return mapToTaskResponse(task);
     }
 
+    @Transactional(readOnly = true)
+    public List<TaskStatusChangeResponse> getTaskHistory(Long goalId, Long taskId) {
+        Task task = taskRepository.findByIdAndTenantId(taskId, TenantContext.getTenantId())
+                .orElseThrow(() -> new RuntimeException("Task not found"));
+        if (!task.getGoal().getId().equals(goalId)) {
+            throw new RuntimeException("Task does not belong to this goal");
+        }
+
+        return taskStatusChangeRepository.findByTaskIdOrderByChangedAtAsc(taskId).stream()
+                .map(change -> TaskStatusChangeResponse.builder()
+                        .fromStatus(change.getFromStatus() != null ? change.getFromStatus().name() : null)
+                        .toStatus(change.getToStatus().name())
+                        .changedAt(change.getChangedAt())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
     @Transactional
     public void deleteGoal(Long id) {
-        if (!goalRepository.existsById(id)) {
+        Goal goal = goalRepository.findByIdAndTenantId(id, TenantContext.getTenantId()).orElse(null);
+        if (goal == null) {
+            if (goalArchiveService.delete(id, TenantContext.getTenantId())) {
+                return;
+            }
             throw new RuntimeException("Goal not found with id: " + id);
         }
-        goalRepository.deleteById(id);
+        analyticsRollupService.recordChange(GoalSnapshot.of(goal), null);
+        taskStatusChangeRepository.deleteByGoalId(id);
+        goalRepository.delete(goal);
+        eventPublisher.publishEvent(new GoalDeletedEvent(id));
     }
 
     @Transactional
     public GoalResponse updateGoalStatus(Long id, String status) {
-        Goal goal = goalRepository.findById(id)
+        Goal goal = goalRepository.findByIdAndTenantId(id, TenantContext.getTenantId())
                 .orElseThrow(() -> new RuntimeException("Goal not found with id: " + id));
-        goal.setStatus(GoalStatus.valueOf(status));
+        GoalSnapshot before = GoalSnapshot.of(goal);
+        setStatus(goal, GoalStatus.valueOf(status));
         goal = goalRepository.save(goal);
+        analyticsRollupService.recordChange(before, GoalSnapshot.of(goal));
+        eventPublisher.publishEvent(new GoalUpdatedEvent(id));
         return mapToGoalResponse(goal);
     }
 
+    @Transactional
+    public GoalResponse setTemplate(Long id, boolean template) {
+        Goal goal = goalRepository.findByIdAndTenantId(id, TenantContext.getTenantId())
+                .orElseThrow(() -> new RuntimeException("Goal not found with id: " + id));
+        goal.setTemplate(template);
+        goal = goalRepository.save(goal);
+        eventPublisher.publishEvent(new GoalUpdatedEvent(id));
+        return mapToGoalResponse(goal);
+    }
+
+    /**
+     * Moves up to {@code limit} goals that were COMPLETED or CANCELLED before {@code finishedBefore}
+     * from the hot tables to the archive, in one transaction. Returns the number of goals moved.
+     */
+    @Transactional
+    public int archiveFinishedGoals(LocalDateTime finishedBefore, int limit) {
+        List<Long> ids = goalArchiveService.lockArchivableGoalIds(finishedBefore, limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        List<GoalSnapshot> archived = new ArrayList<>();
+        for (Goal goal : goalRepository.findAllById(ids)) {
+            goalArchiveService.store(goal, mapToGoalResponse(goal));
+            archived.add(GoalSnapshot.of(goal));
+        }
+        goalArchiveService.deleteHotRows(ids);
+        analyticsRollupService.recordArchived(archived);
+        // Archived goals leave the similarity index and the other nodes' caches like deleted ones
+        ids.forEach(id -> eventPublisher.publishEvent(new GoalDeletedEvent(id)));
+        return ids.size();
+    }
+
     private void updateGoalStatus(Long goalId) {
         Goal goal = goalRepository.findById(goalId)
                 .orElseThrow(() -> new RuntimeException("Goal not found"));
@@ -164,28 +530,56 @@ public class GoalService {
                 .count();
 
         if (completedTasks == tasks.size()) {
-            goal.setStatus(GoalStatus.COMPLETED);
+            setStatus(goal, GoalStatus.COMPLETED);
         } else if (completedTasks > 0) {
-            goal.setStatus(GoalStatus.IN_PROGRESS);
+            setStatus(goal, GoalStatus.IN_PROGRESS);
         }
 
         goalRepository.save(goal);
     }
 
+    // Keeps completedAt in step with the status; it feeds the goals-completed analytics
+    private void setStatus(Goal goal, GoalStatus status) {
+        if (status != GoalStatus.COMPLETED) {
+            goal.setCompletedAt(null);
+        } else if (goal.getStatus() != GoalStatus.COMPLETED) {
+            goal.setCompletedAt(LocalDateTime.now());
+        }
+        goal.setStatus(status);
+    }
+
     // Mapping methods
     private GoalResponse mapToGoalResponse(Goal goal) {
+        return mapToGoalResponse(goal, ResponseView.DETAIL);
+    }
+
+    private GoalResponse mapToGoalResponse(Goal goal, ResponseView view) {
+        boolean detail = view == ResponseView.DETAIL;
         return GoalResponse.builder()
                 .id(goal.getId())
                 .description(goal.getDescription())
                 .targetDate(goal.getTargetDate())
                 .status(goal.getStatus().name())
-                .tasks(mapToTaskResponses(goal.getTasks()))
-                .aiAnalysis(goal.getAiAnalysis())
+                .tasks(detail ? mapToTaskResponses(goal.getTasks()) : mapToTaskSummaries(goal.getTasks()))
+                .aiAnalysis(detail ? goal.getAiAnalysis() : null)
                 .createdAt(goal.getCreatedAt())
                 .updatedAt(goal.getUpdatedAt())
+                .template(goal.isTemplate() ? true : null)
                 .build();
     }
 
+    // Summary view of an archived document, matching what mapToGoalResponse returns for SUMMARY
+    private GoalResponse summarize(GoalResponse goal) {
+        goal.setAiAnalysis(null);
+        goal.getTasks().forEach(task -> {
+            task.setDetailedDescription(null);
+            task.setSteps(null);
+            task.setDependencies(null);
+            task.setCreatedAt(null);
+        });
+        return goal;
+    }
+
     private List<TaskResponse> mapToTaskResponses(List<Task> tasks) {
         if (tasks == null) return List.of();
         return tasks.stream()
@@ -193,20 +587,40 @@ public class GoalService {
                 .collect(Collectors.toList());
     }
 
+    // Summary tasks skip the detailed description, steps and dependencies, so those are never loaded
+    private List<TaskResponse> mapToTaskSummaries(List<Task> tasks) {
+        if (tasks == null) return List.of();
+        return tasks.stream()
+                .map(task -> TaskResponse.builder()
+                        .id(task.getId())
+                        .title(task.getTitle())
+                        .description(task.getDescription())
+                        .estimatedDurationHours(task.getEstimatedDurationHours())
+                        .startDate(task.getStartDate())
+                        .endDate(task.getEndDate())
+                        .priority(task.getPriority().name())
+                        .status(task.getStatus().name())
+                        .orderIndex(task.getOrderIndex())
+                        .overdueAt(task.getOverdueAt())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
     private TaskResponse mapToTaskResponse(Task task) {
         return TaskResponse.builder()
                 .id(task.getId())
                 .title(task.getTitle())
                 .description(task.getDescription())
                 .detailedDescription(task.getDetailedDescription())  // NEW
-                .steps(task.getSteps())  // NEW
+                .steps(taskStorageService.readSteps(task))  // NEW
                 .estimatedDurationHours(task.getEstimatedDurationHours())
                 .startDate(task.getStartDate())
                 .endDate(task.getEndDate())
                 .priority(task.getPriority().name())
                 .status(task.getStatus().name())
                 .orderIndex(task.getOrderIndex())
-                .dependencies(task.getDependencies())
+                .dependencies(taskStorageService.readDependencies(task))
+                .overdueAt(task.getOverdueAt())
                 .createdAt(task.getCreatedAt())
                 .build();
     }
@@ -0,0 +1,29 @@
+package com.milan.smarttaskplanner.services;
+
+import com.milan.smarttaskplanner.dto.GoalRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+public class LlmPlanningTier implements PlanningTier {
+
+    private final PlanReuseAIService planReuseAIService;
+
+    @Override
+    public String getName() {
+        return "llm";
+    }
+
+    @Override
+    public Map<String, Object> plan(GoalRequest request) {
+        return planReuseAIService.generateFreshPlan(request);
+    }
+
+    @Override
+    public boolean isUpgradable() {
+        return true;
+    }
+}
@@ -0,0 +1,170 @@
+package com.milan.smarttaskplanner.services;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.milan.smarttaskplanner.dto.GoalRequest;
+import com.milan.smarttaskplanner.dto.TaskResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Rule-based planner that needs no network call. The goal is classified into a template category by
+ * keyword, task durations are scaled by goal complexity and the time available until the target date,
+ * and tasks are scheduled as soon as their dependencies finish.
+ */
+@Service
+@Slf4j
+public class LocalPlanGenerator {
+
+    public static final String SOURCE_LOCAL = "LOCAL";
+    public static final String LOCAL_ANALYSIS_PREFIX = "Plan generated locally from the";
+
+    private static final String TEMPLATES_RESOURCE = "planning/templates.json";
+    private static final String GENERAL_CATEGORY = "general";
+    private static final int PRODUCTIVE_HOURS_PER_DAY = 4;
+    private static final int MAX_GOAL_LENGTH_IN_TITLE = 60;
+
+    private final List<PlanTemplate> templates;
+    private final PlanTemplate generalTemplate;
+
+    public LocalPlanGenerator() {
+        try (InputStream in = new ClassPathResource(TEMPLATES_RESOURCE).getInputStream()) {
+            templates = new ObjectMapper().readValue(in, new TypeReference<List<PlanTemplate>>() {
+            });
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not load plan templates from " + TEMPLATES_RESOURCE, e);
+        }
+        generalTemplate = templates.stream()
+                .filter(t -> GENERAL_CATEGORY.equals(t.getCategory()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Plan templates must include a 'general' category"));
+        log.info("Loaded {} plan templates", templates.size());
+    }
+
+    public PlanTemplate classify(String description) {
+        Set<String> words = new HashSet<>(Arrays.asList(
+                (description == null ? "" : description).toLowerCase(Locale.ROOT).split("[^a-z0-9]+")));
+
+        PlanTemplate best = generalTemplate;
+        int bestScore = 0;
+        for (PlanTemplate template : templates) {
+            int score = 0;
+            for (String keyword : template.getKeywords()) {
+                if (words.contains(keyword)) {
+                    score++;
+                }
+            }
+            if (score > bestScore) {
+                best = template;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    public Map<String, Object> generate(GoalRequest request) {
+        long started = System.nanoTime();
+        String description = request.getDescription() != null ? request.getDescription() : "Sample Goal";
+        PlanTemplate template = classify(description);
+        double factor = durationFactor(request, template);
+
+        String goalTitle = description.length() > MAX_GOAL_LENGTH_IN_TITLE
+                ? description.substring(0, MAX_GOAL_LENGTH_IN_TITLE).trim() + "..."
+                : description;
+
+        LocalDateTime startDate = LocalDateTime.now();
+        LocalDateTime endDate = startDate;
+        Map<Integer, LocalDateTime> endByOrder = new HashMap<>();
+        List<TaskResponse> tasks = new ArrayList<>();
+        int totalHours = 0;
+
+        for (int i = 0; i < template.getTasks().size(); i++) {
+            PlanTemplate.TemplateTask templateTask = template.getTasks().get(i);
+            int orderIndex = i + 1;
+            int hours = Math.max(1, (int) Math.round(templateTask.getHours() * factor));
+
+            List<Long> dependencies = new ArrayList<>();
+            if (templateTask.getDependsOn() != null) {
+                templateTask.getDependsOn().forEach(d -> dependencies.add(d.longValue()));
+            } else if (orderIndex > 1) {
+                dependencies.add((long) orderIndex - 1);
+            }
+
+            // Start as soon as every prerequisite has finished
+            LocalDateTime taskStart = startDate;
+            for (Long dependency : dependencies) {
+                LocalDateTime dependencyEnd = endByOrder.get(dependency.intValue());
+                if (dependencyEnd != null && dependencyEnd.isAfter(taskStart)) {
+                    taskStart = dependencyEnd;
+                }
+            }
+            LocalDateTime taskEnd = taskStart.plusHours(hours);
+            endByOrder.put(orderIndex, taskEnd);
+            if (taskEnd.isAfter(endDate)) {
+                endDate = taskEnd;
+            }
+
+            tasks.add(TaskResponse.builder()
+                    .title(templateTask.getTitle().replace("{goal}", goalTitle))
+                    .description(templateTask.getDescription())
+                    .detailedDescription(templateTask.getDetailedDescription())
+                    .steps(new ArrayList<>(templateTask.getSteps()))
+                    .estimatedDurationHours(hours)
+                    .priority(templateTask.getPriority())
+                    .status("PENDING")
+                    .orderIndex(orderIndex)
+                    .dependencies(dependencies)
+                    .startDate(taskStart)
+                    .endDate(taskEnd)
+                    .build());
+            totalHours += hours;
+        }
+
+        Map<String, Object> plan = new HashMap<>();
+        plan.put("source", SOURCE_LOCAL);
+        plan.put("category", template.getCategory());
+        plan.put("analysis", LOCAL_ANALYSIS_PREFIX + " \"" + template.getCategory() + "\" template. " + template.getAnalysis());
+        plan.put("tasks", tasks);
+        plan.put("totalTasks", tasks.size());
+        plan.put("estimatedTotalHours", totalHours);
+        plan.put("suggestedStartDate", startDate);
+        plan.put("suggestedEndDate", endDate);
+        plan.put("recommendations", new ArrayList<>(template.getRecommendations()));
+        plan.put("risks", new ArrayList<>(template.getRisks()));
+
+        log.debug("Local plan for category '{}' with {} tasks built in {} µs",
+                template.getCategory(), tasks.size(), (System.nanoTime() - started) / 1000);
+        return plan;
+    }
+
+    private double durationFactor(GoalRequest request, PlanTemplate template) {
+        String description = request.getDescription() != null ? request.getDescription() : "";
+        int words = description.trim().isEmpty() ? 0 : description.trim().split("\\s+").length;
+
+        // Longer, more specific goals and extra constraints tend to mean more work
+        double factor = words < 8 ? 0.8 : words < 20 ? 1.0 : 1.3;
+        if (request.getConstraints() != null) {
+            factor *= 1 + 0.05 * request.getConstraints().size();
+        }
+
+        // Compress the plan when the template would not fit before the target date
+        if (request.getTargetDate() != null) {
+            long days = Duration.between(LocalDateTime.now(), request.getTargetDate()).toDays();
+            int templateHours = template.getTasks().stream().mapToInt(PlanTemplate.TemplateTask::getHours).sum();
+            if (days > 0 && templateHours > 0) {
+                double available = (double) days * PRODUCTIVE_HOURS_PER_DAY;
+                if (templateHours * factor > available) {
+                    factor = available / templateHours;
+                }
+            }
+        }
+        return factor;
+    }
+}
@@ -0,0 +1,179 @@
+package com.milan.smarttaskplanner.services;
+
+import com.milan.smarttaskplanner.config.TaskStorageMode;
+import com.milan.smarttaskplanner.config.TaskStorageProperties;
+import com.milan.smarttaskplanner.dto.GoalRequest;
+import com.milan.smarttaskplanner.dto.GoalResponse;
+import com.milan.smarttaskplanner.dto.LlmProviderStatsResponse;
+import com.milan.smarttaskplanner.dto.ReplanRequest;
+import com.milan.smarttaskplanner.dto.ReplanResponse;
+import com.milan.smarttaskplanner.dto.TaskResponse;
+import com.milan.smarttaskplanner.entities.GoalStatus;
+import com.milan.smarttaskplanner.entities.TaskStatus;
+import com.milan.smarttaskplanner.services.llm.LlmRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Re-plans only the tasks of a goal that need it (BLOCKED ones, ones that no longer fit a moved
+ * target date, or an explicit selection) instead of regenerating the whole plan. The model gets
+ * those tasks plus their direct dependency neighbours as context and returns one replacement per
+ * task, which GoalService applies as a minimal diff. The goal is read and written in two short
+ * transactions; no transaction is open during the model call.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PartialReplanService {
+
+    private final GoalService goalService;
+    private final AIServiceImpl aiService;
+    private final DurationCalibrationService durationCalibrationService;
+    private final LlmRouter llmRouter;
+    private final TaskStorageProperties taskStorageProperties;
+
+    public ReplanResponse replan(Long goalId, ReplanRequest request) {
+        GoalResponse goal = goalService.getGoal(goalId);
+        if (!GoalStatus.PLANNING.name().equals(goal.getStatus()) && !GoalStatus.IN_PROGRESS.name().equals(goal.getStatus())) {
+            throw new RuntimeException("Only goals in PLANNING or IN_PROGRESS can be re-planned");
+        }
+
+        LocalDateTime targetDate = request.getTargetDate() != null ? request.getTargetDate() : goal.getTargetDate();
+        List<TaskResponse> affected = selectAffected(goal.getTasks(), request);
+        if (affected.isEmpty()) {
+            if (request.getTargetDate() == null) {
+                throw new RuntimeException("Nothing to re-plan: no task is BLOCKED and no taskIds were given");
+            }
+            // The target date moved without making any task late; only the goal row changes
+            ReplanResponse response = goalService.applyReplan(goalId, request.getTargetDate(), List.of(), List.of());
+            response.setPromptChars(0);
+            response.setMaxOutputTokens(0);
+            response.setLatencyMs(0L);
+            return withFullPlanCosts(response, goal, targetDate);
+        }
+        List<TaskResponse> context = selectContext(goal.getTasks(), affected);
+
+        Map<String, Object> result = aiService.generateReplacementTasks(goal.getDescription(), targetDate,
+                request.getReason(), affected, context);
+        if (result == null) {
+            throw new RuntimeException("Re-planning is not available right now; the goal was left unchanged");
+        }
+        List<TaskResponse> replacements = (List<TaskResponse>) result.get("tasks");
+        schedule(replacements, affected, goal.getDescription());
+
+        ReplanResponse response = goalService.applyReplan(goalId, request.getTargetDate(), affected, replacements);
+        response.setProvider((String) result.get("provider"));
+        response.setAffectedTaskIds(affected.stream().map(TaskResponse::getId).toList());
+        response.setContextTaskIds(context.stream().map(TaskResponse::getId).toList());
+        response.setPromptChars((Integer) result.get("promptChars"));
+        response.setMaxOutputTokens((Integer) result.get("maxOutputTokens"));
+        response.setLatencyMs((Long) result.get("latencyMs"));
+        return withFullPlanCosts(response, goal, targetDate);
+    }
+
+    private List<TaskResponse> selectAffected(List<TaskResponse> tasks, ReplanRequest request) {
+        List<TaskResponse> affected = new ArrayList<>();
+        if (request.getTaskIds() != null && !request.getTaskIds().isEmpty()) {
+            Set<Long> wanted = new HashSet<>(request.getTaskIds());
+            for (TaskResponse task : tasks) {
+                if (wanted.remove(task.getId())) {
+                    if (TaskStatus.COMPLETED.name().equals(task.getStatus())) {
+                        throw new RuntimeException("Task " + task.getId() + " is already completed");
+                    }
+                    affected.add(task);
+                }
+            }
+            if (!wanted.isEmpty()) {
+                throw new RuntimeException("Tasks " + wanted + " do not belong to this goal");
+            }
+            return affected;
+        }
+
+        for (TaskResponse task : tasks) {
+            boolean blocked = TaskStatus.BLOCKED.name().equals(task.getStatus());
+            boolean late = request.getTargetDate() != null && !TaskStatus.COMPLETED.name().equals(task.getStatus())
+                    && !TaskStatus.IN_PROGRESS.name().equals(task.getStatus())
+                    && task.getEndDate() != null && task.getEndDate().isAfter(request.getTargetDate());
+            if ((blocked || late) && task.getOrderIndex() != null) {
+                affected.add(task);
+            }
+        }
+        return affected;
+    }
+
+    // Direct prerequisites and direct dependents of the affected tasks (dependencies are orderIndex values)
+    private List<TaskResponse> selectContext(List<TaskResponse> tasks, List<TaskResponse> affected) {
+        Set<Long> affectedOrder = new HashSet<>();
+        Set<Long> prerequisites = new HashSet<>();
+        for (TaskResponse task : affected) {
+            affectedOrder.add(task.getOrderIndex().longValue());
+            if (task.getDependencies() != null) {
+                prerequisites.addAll(task.getDependencies());
+            }
+        }
+
+        List<TaskResponse> context = new ArrayList<>();
+        for (TaskResponse task : tasks) {
+            if (task.getOrderIndex() == null || affectedOrder.contains(task.getOrderIndex().longValue())) {
+                continue;
+            }
+            boolean prerequisite = prerequisites.contains(task.getOrderIndex().longValue());
+            boolean dependent = task.getDependencies() != null && task.getDependencies().stream().anyMatch(affectedOrder::contains);
+            if (prerequisite || dependent) {
+                context.add(task);
+            }
+        }
+        return context;
+    }
+
+    // Replacements keep the slot of the task they replace and get the tenant's duration calibration
+    private void schedule(List<TaskResponse> replacements, List<TaskResponse> affected, String goalDescription) {
+        Map<Integer, TaskResponse> byOrder = new HashMap<>();
+        affected.forEach(task -> byOrder.put(task.getOrderIndex(), task));
+        for (TaskResponse replacement : replacements) {
+            LocalDateTime start = byOrder.get(replacement.getOrderIndex()).getStartDate();
+            replacement.setStartDate(start);
+            replacement.setEndDate(start != null ? start.plusHours(replacement.getEstimatedDurationHours()) : null);
+        }
+        Map<String, Object> plan = new HashMap<>();
+        plan.put("tasks", replacements);
+        durationCalibrationService.calibrate(plan, goalDescription);
+    }
+
+    private ReplanResponse withFullPlanCosts(ReplanResponse response, GoalResponse goal, LocalDateTime targetDate) {
+        response.setFullPlanPromptChars(aiService.fullPlanPromptLength(GoalRequest.builder()
+                .description(goal.getDescription())
+                .targetDate(targetDate)
+                .build()));
+        response.setFullPlanMaxOutputTokens(aiService.fullPlanOutputTokens());
+        if (response.getProvider() != null) {
+            response.setFullPlanLatencyMs(llmRouter.getStats().stream()
+                    .filter(stats -> response.getProvider().equals(stats.getName()))
+                    .map(LlmProviderStatsResponse::getEwmaLatencyMs)
+                    .findFirst()
+                    .orElse(null));
+        }
+
+        // A full regeneration deletes and re-inserts every task row (and its step and dependency rows)
+        boolean compact = taskStorageProperties.getMode() == TaskStorageMode.COMPACT;
+        int rows = 0;
+        for (TaskResponse task : goal.getTasks()) {
+            rows += 1;
+            if (!compact) {
+                rows += (task.getSteps() != null ? task.getSteps().size() : 0)
+                        + (task.getDependencies() != null ? task.getDependencies().size() : 0);
+            }
+        }
+        response.setFullPlanRowsWritten(2 * rows);
+        return response;
+    }
+}
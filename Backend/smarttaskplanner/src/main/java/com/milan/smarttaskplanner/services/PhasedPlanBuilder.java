@@ -0,0 +1,201 @@
+package com.milan.smarttaskplanner.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.milan.smarttaskplanner.config.HierarchicalPlanningProperties;
+import com.milan.smarttaskplanner.dto.GoalRequest;
+import com.milan.smarttaskplanner.dto.TaskResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Prompts and merge step of hierarchical planning. A large goal is first split into phases by one
+ * short outline call; each phase is then expanded into tasks by its own call, so no single response
+ * has to carry the whole plan. {@link #merge} numbers the tasks of all phases into one plan and
+ * stitches the phases together: the first tasks of a phase depend on the last tasks of every phase
+ * it depends on. The calls themselves are made by AIServiceImpl.
+ */
+@Component
+@RequiredArgsConstructor
+public class PhasedPlanBuilder {
+
+    public record Phase(int number, String title, String objective, int estimatedHours, int taskCount,
+                        List<Integer> dependsOn) {
+    }
+
+    private final HierarchicalPlanningProperties properties;
+
+    public boolean isLargeGoal(GoalRequest request) {
+        if (!properties.isEnabled() || request.getDescription() == null) {
+            return false;
+        }
+        String description = request.getDescription().trim();
+        int words = description.isEmpty() ? 0 : description.split("\\s+").length;
+        long days = request.getTargetDate() != null
+                ? Duration.between(LocalDateTime.now(), request.getTargetDate()).toDays() : 0;
+        return words >= properties.getMinDescriptionWords() || days >= properties.getMinDaysAvailable();
+    }
+
+    public String buildOutlinePrompt(GoalRequest request) {
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("You are an expert project manager. The goal below is large, so first split it into ");
+        prompt.append("phases (milestones) that are each expanded into tasks later.\n\n");
+        appendGoal(prompt, request);
+
+        prompt.append("\nReturn ONLY a JSON object (no markdown) with this structure:\n");
+        prompt.append("{\"analysis\": \"2-3 sentences on the goal and approach\", ");
+        prompt.append("\"phases\": [{\"title\": \"Phase name\", \"objective\": \"1-2 sentences\", ");
+        prompt.append("\"estimatedHours\": 40, \"taskCount\": 5, \"dependsOn\": []}], ");
+        prompt.append("\"recommendations\": [\"...\"], \"risks\": [\"...\"]}\n");
+        prompt.append("Use 2-").append(properties.getMaxPhases()).append(" phases, numbered by position from 1. ");
+        prompt.append("dependsOn lists the numbers of earlier phases that must be finished first; phases that can ");
+        prompt.append("run in parallel do not depend on each other. taskCount is 3-8 per phase and the hours of all ");
+        prompt.append("phases must fit before the target date.\n");
+        return prompt.toString();
+    }
+
+    public List<Phase> parsePhases(JsonNode outline) {
+        List<Phase> phases = new ArrayList<>();
+        JsonNode phasesNode = outline.path("phases");
+        for (int i = 0; i < phasesNode.size() && phases.size() < properties.getMaxPhases(); i++) {
+            JsonNode node = phasesNode.get(i);
+            String title = node.path("title").asText("");
+            if (title.isBlank()) {
+                continue;
+            }
+            int number = phases.size() + 1;
+            List<Integer> dependsOn = new ArrayList<>();
+            node.path("dependsOn").forEach(d -> {
+                if (d.asInt() >= 1 && d.asInt() < number) {
+                    dependsOn.add(d.asInt());
+                }
+            });
+            phases.add(new Phase(number, title, node.path("objective").asText(title),
+                    Math.max(1, node.path("estimatedHours").asInt(8)),
+                    Math.min(8, Math.max(1, node.path("taskCount").asInt(4))), dependsOn));
+        }
+        return phases;
+    }
+
+    public String buildPhasePrompt(GoalRequest request, List<Phase> phases, Phase phase) {
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("You are an expert project manager expanding one phase of a larger plan into tasks.\n\n");
+        appendGoal(prompt, request);
+        prompt.append("\nPlan outline:\n");
+        for (Phase p : phases) {
+            prompt.append(p.number()).append(". ").append(p.title()).append(" - ").append(p.objective()).append("\n");
+        }
+
+        prompt.append("\nExpand phase ").append(phase.number()).append(" (").append(phase.title()).append(") into about ")
+                .append(phase.taskCount()).append(" tasks totalling about ").append(phase.estimatedHours())
+                .append(" hours. Only tasks of this phase; the other phases are expanded separately.\n");
+        prompt.append("Return ONLY a JSON object (no markdown) of the form {\"tasks\": [...]}. Each task has title, ");
+        prompt.append("description (1-2 sentences), detailedDescription (2-3 paragraphs), steps (3-8 specific actions), ");
+        prompt.append("estimatedDurationHours, priority (LOW, MEDIUM, HIGH, CRITICAL), status PENDING, orderIndex ");
+        prompt.append("(from 1 within this phase) and dependencies (orderIndex values of earlier tasks of this phase).\n");
+        return prompt.toString();
+    }
+
+    // Stand-in for a phase whose expansion failed, so the plan still covers it
+    public TaskResponse outlineTask(Phase phase) {
+        return TaskResponse.builder()
+                .title(phase.title())
+                .description(phase.objective())
+                .detailedDescription(phase.objective())
+                .steps(new ArrayList<>())
+                .estimatedDurationHours(phase.estimatedHours())
+                .priority("MEDIUM")
+                .status("PENDING")
+                .orderIndex(1)
+                .dependencies(new ArrayList<>())
+                .build();
+    }
+
+    /**
+     * Numbers the tasks of all phases (in phase order) from 1 and rewrites their dependencies to
+     * those numbers. Within a phase, dependencies refer to the phase's own orderIndex values; across
+     * phases, the entry tasks of a phase (no dependency inside it) get the exit tasks (nothing inside
+     * depends on them) of each phase it depends on. Tasks are scheduled one after another from start.
+     */
+    public List<TaskResponse> merge(List<Phase> phases, List<List<TaskResponse>> phaseTasks, LocalDateTime start) {
+        List<TaskResponse> merged = new ArrayList<>();
+        Map<Integer, List<Long>> exitsByPhase = new HashMap<>();
+
+        for (int p = 0; p < phases.size(); p++) {
+            List<TaskResponse> tasks = phaseTasks.get(p);
+            long offset = merged.size();
+
+            // The model's local numbers, mapped to positions within the phase
+            Map<Long, Integer> positionByLocal = new HashMap<>();
+            for (int i = 0; i < tasks.size(); i++) {
+                Integer local = tasks.get(i).getOrderIndex();
+                positionByLocal.putIfAbsent(local != null ? local.longValue() : i + 1L, i);
+            }
+
+            List<Long> crossPhase = new ArrayList<>();
+            for (int dependency : phases.get(p).dependsOn()) {
+                crossPhase.addAll(exitsByPhase.getOrDefault(dependency, List.of()));
+            }
+
+            boolean[] hasDependents = new boolean[tasks.size()];
+            for (int i = 0; i < tasks.size(); i++) {
+                TaskResponse task = tasks.get(i);
+                Set<Long> dependencies = new LinkedHashSet<>();
+                if (task.getDependencies() != null) {
+                    for (Long local : task.getDependencies()) {
+                        Integer position = positionByLocal.get(local);
+                        if (position != null && position < i) {
+                            dependencies.add(offset + position + 1);
+                            hasDependents[position] = true;
+                        }
+                    }
+                }
+                if (dependencies.isEmpty()) {
+                    dependencies.addAll(crossPhase);
+                }
+                task.setOrderIndex((int) (offset + i + 1));
+                task.setDependencies(new ArrayList<>(dependencies));
+                merged.add(task);
+            }
+
+            List<Long> exits = new ArrayList<>();
+            for (int i = 0; i < tasks.size(); i++) {
+                if (!hasDependents[i]) {
+                    exits.add(offset + i + 1);
+                }
+            }
+            exitsByPhase.put(phases.get(p).number(), exits);
+        }
+
+        LocalDateTime cursor = start;
+        for (TaskResponse task : merged) {
+            int hours = task.getEstimatedDurationHours() != null ? task.getEstimatedDurationHours() : 4;
+            task.setStartDate(cursor);
+            task.setEndDate(cursor.plusHours(hours));
+            cursor = task.getEndDate();
+        }
+        return merged;
+    }
+
+    private void appendGoal(StringBuilder prompt, GoalRequest request) {
+        prompt.append("Goal: ").append(request.getDescription()).append("\n");
+        if (request.getTargetDate() != null) {
+            prompt.append("Target Completion Date: ")
+                    .append(request.getTargetDate().format(DateTimeFormatter.ISO_LOCAL_DATE)).append("\n");
+            long days = Duration.between(LocalDateTime.now(), request.getTargetDate()).toDays();
+            prompt.append("Days Available: ").append(days).append(" days\n");
+        }
+        if (request.getConstraints() != null && !request.getConstraints().isEmpty()) {
+            prompt.append("Constraints: ").append(String.join(", ", request.getConstraints())).append("\n");
+        }
+    }
+}
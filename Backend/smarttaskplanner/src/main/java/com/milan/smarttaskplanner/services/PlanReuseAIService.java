@@ -0,0 +1,323 @@
+package com.milan.smarttaskplanner.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.milan.smarttaskplanner.config.CoordinationProperties;
+import com.milan.smarttaskplanner.config.PlanReuseProperties;
+import com.milan.smarttaskplanner.dto.GoalRequest;
+import com.milan.smarttaskplanner.dto.PlanReuseStatsResponse;
+import com.milan.smarttaskplanner.dto.TaskResponse;
+import com.milan.smarttaskplanner.entities.Goal;
+import com.milan.smarttaskplanner.entities.Task;
+import com.milan.smarttaskplanner.repositories.GoalRepository;
+import com.milan.smarttaskplanner.repositories.TaskRepository;
+import com.milan.smarttaskplanner.services.coordination.CoordinationService;
+import com.milan.smarttaskplanner.services.tenancy.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Looks for a previously generated plan with a similar goal before calling the LLM.
+ * Very close matches are reused directly (re-scheduled from now and calibrated, as long as they still
+ * fit the target date); weaker matches are sent to the model as a few-shot example with a much
+ * shorter prompt; everything else is generated fresh.
+ */
+@Service
+@Slf4j
+public class PlanReuseAIService implements AIService {
+
+    public static final String SOURCE_REUSED = "REUSED";
+    public static final String SOURCE_FEW_SHOT = "FEW_SHOT";
+    public static final String REUSED_ANALYSIS_PREFIX = "Adapted from a similar earlier goal";
+
+    private record Example(String description, String analysis, List<TaskResponse> tasks) {
+    }
+
+    private final AIServiceImpl delegate;
+    private final PlanSimilarityIndex index;
+    private final PlanReuseProperties properties;
+    private final GoalRepository goalRepository;
+    private final TaskRepository taskRepository;
+    private final TaskStorageService taskStorageService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final DurationCalibrationService durationCalibrationService;
+    private final CoordinationService coordinationService;
+    private final CoordinationProperties coordinationProperties;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong fewShot = new AtomicLong();
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicLong savedMillis = new AtomicLong();
+    private volatile double fullGenerationMs;
+    private volatile double fewShotGenerationMs;
+
+    public PlanReuseAIService(AIServiceImpl delegate,
+                              PlanSimilarityIndex index,
+                              PlanReuseProperties properties,
+                              GoalRepository goalRepository,
+                              TaskRepository taskRepository,
+                              TaskStorageService taskStorageService,
+                              PlatformTransactionManager transactionManager,
+                              DurationCalibrationService durationCalibrationService,
+                              CoordinationService coordinationService,
+                              CoordinationProperties coordinationProperties,
+                              ObjectMapper objectMapper) {
+        this.delegate = delegate;
+        this.index = index;
+        this.properties = properties;
+        this.goalRepository = goalRepository;
+        this.taskRepository = taskRepository;
+        this.taskStorageService = taskStorageService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.durationCalibrationService = durationCalibrationService;
+        this.coordinationService = coordinationService;
+        this.coordinationProperties = coordinationProperties;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Map<String, Object> generateTaskPlan(GoalRequest request) {
+        return findReusablePlan(request).orElseGet(() -> generateFreshPlan(request));
+    }
+
+    /**
+     * Cache tier: returns a stored plan when a previous goal is similar enough to reuse as-is.
+     * Never calls the model.
+     */
+    public Optional<Map<String, Object>> findReusablePlan(GoalRequest request) {
+        requests.incrementAndGet();
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+
+        long started = System.currentTimeMillis();
+        Optional<PlanSimilarityIndex.Match> match = index.findMostSimilar(TenantContext.getTenantId(), request.getDescription())
+                .filter(m -> m.similarity() >= properties.getReuseThreshold());
+        if (match.isEmpty()) {
+            return Optional.empty();
+        }
+
+        PlanSimilarityIndex.Match best = match.get();
+        Example example = readOnlyTransaction.execute(status -> loadExample(best.goalId()));
+        if (example == null) {
+            return Optional.empty();
+        }
+
+        Map<String, Object> plan = adaptPlan(request, example, best.similarity());
+        if (plan == null) {
+            return Optional.empty();
+        }
+        long elapsed = System.currentTimeMillis() - started;
+        reused.incrementAndGet();
+        savedMillis.addAndGet(Math.max(0, (long) fullGenerationMs - elapsed));
+        log.info("Reused plan of goal {} (similarity {}) in {} ms", best.goalId(),
+                String.format("%.2f", best.similarity()), elapsed);
+        return Optional.of(plan);
+    }
+
+    /**
+     * Model tier: generates a plan, using the closest previous goal as a few-shot example when
+     * one is similar enough. Identical requests in flight anywhere in the cluster share one call.
+     */
+    public Map<String, Object> generateFreshPlan(GoalRequest request) {
+        if (!coordinationProperties.isCoalescePlans()) {
+            return generatePlan(request);
+        }
+        String plan = coordinationService.coalesce(coalescingKey(request),
+                Duration.ofMillis(coordinationProperties.getCoalesceTimeoutMs()),
+                () -> writePlan(generatePlan(request)));
+        return readPlan(plan);
+    }
+
+    private Map<String, Object> generatePlan(GoalRequest request) {
+        if (properties.isEnabled()) {
+            Optional<PlanSimilarityIndex.Match> match = index.findMostSimilar(TenantContext.getTenantId(), request.getDescription())
+                    .filter(m -> m.similarity() >= properties.getFewShotThreshold());
+
+            if (match.isPresent()) {
+                PlanSimilarityIndex.Match best = match.get();
+                Example example = readOnlyTransaction.execute(status -> loadExample(best.goalId()));
+                if (example != null) {
+                    fewShot.incrementAndGet();
+                    log.info("Using goal {} as few-shot example (similarity {})", best.goalId(),
+                            String.format("%.2f", best.similarity()));
+                    Map<String, Object> plan = timed(true,
+                            () -> delegate.generateTaskPlanFromExample(request, example.description(), example.tasks()));
+                    if (AIServiceImpl.SOURCE_LLM.equals(plan.get("source"))) {
+                        plan.put("source", SOURCE_FEW_SHOT);
+                    }
+                    return plan;
+                }
+            }
+        }
+
+        generated.incrementAndGet();
+        return timed(false, () -> delegate.generateTaskPlan(request));
+    }
+
+    public PlanReuseStatsResponse getStats() {
+        long total = requests.get();
+        return PlanReuseStatsResponse.builder()
+                .requests(total)
+                .reused(reused.get())
+                .fewShot(fewShot.get())
+                .generated(generated.get())
+                .reuseRate(total == 0 ? 0.0 : (double) reused.get() / total)
+                .estimatedLatencySavedMs(savedMillis.get())
+                .averageFullGenerationMs(fullGenerationMs)
+                .averageFewShotGenerationMs(fewShotGenerationMs)
+                .indexedPlans(index.size())
+                .indexUpdates(index.getUpdateCount())
+                .averageIndexUpdateMicros(index.getAverageUpdateMicros())
+                .build();
+    }
+
+    private String coalescingKey(GoalRequest request) {
+        // Coalesced plans may contain a tenant's own goals as few-shot examples, so never share across tenants
+        String normalized = String.join("|",
+                TenantContext.getTenantId(),
+                request.getDescription().trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " "),
+                String.valueOf(request.getTargetDate()),
+                String.valueOf(request.getMaxTasksPerDay()),
+                String.valueOf(request.getConstraints()));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8));
+            return "plan:" + HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Plans cross node boundaries as JSON; tasks are converted back to TaskResponse for GoalService
+    private String writePlan(Map<String, Object> plan) {
+        try {
+            return objectMapper.writeValueAsString(plan);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize plan: " + e.getMessage(), e);
+        }
+    }
+
+    private Map<String, Object> readPlan(String json) {
+        try {
+            Map<String, Object> plan = objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {
+            });
+            plan.put("tasks", objectMapper.convertValue(plan.get("tasks"), new TypeReference<List<TaskResponse>>() {
+            }));
+            return plan;
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not read plan: " + e.getMessage(), e);
+        }
+    }
+
+    private Map<String, Object> timed(boolean fewShotCall, Supplier<Map<String, Object>> call) {
+        long started = System.currentTimeMillis();
+        Map<String, Object> plan = call.get();
+        long elapsed = System.currentTimeMillis() - started;
+
+        // EWMA of generation latency; the full-generation average is the baseline for "latency saved"
+        if (fewShotCall) {
+            fewShotGenerationMs = fewShotGenerationMs == 0 ? elapsed : 0.8 * fewShotGenerationMs + 0.2 * elapsed;
+            savedMillis.addAndGet(Math.max(0, (long) fullGenerationMs - elapsed));
+        } else {
+            fullGenerationMs = fullGenerationMs == 0 ? elapsed : 0.8 * fullGenerationMs + 0.2 * elapsed;
+        }
+        return plan;
+    }
+
+    private Example loadExample(Long goalId) {
+        Goal goal = goalRepository.findByIdAndTenantId(goalId, TenantContext.getTenantId()).orElse(null);
+        if (goal == null) {
+            index.remove(goalId);
+            return null;
+        }
+
+        List<TaskResponse> tasks = new ArrayList<>();
+        for (Task task : taskRepository.findByGoalIdAndTenantIdOrderByOrderIndexAsc(goalId, TenantContext.getTenantId())) {
+            tasks.add(TaskResponse.builder()
+                    .title(task.getTitle())
+                    .description(task.getDescription())
+                    .detailedDescription(task.getDetailedDescription())
+                    .steps(taskStorageService.readSteps(task))
+                    .estimatedDurationHours(task.getEstimatedDurationHours())
+                    .priority(task.getPriority().name())
+                    .status("PENDING")
+                    .orderIndex(task.getOrderIndex())
+                    .dependencies(taskStorageService.readDependencies(task))
+                    .build());
+        }
+        if (tasks.isEmpty()) {
+            return null;
+        }
+        return new Example(goal.getDescription(), goal.getAiAnalysis(), tasks);
+    }
+
+    /**
+     * Re-schedules the example's tasks back to back from now, starting at most maxTasksPerDay of them
+     * per day, and calibrates the durations like a generated plan. Returns null when the result ends
+     * after the request's target date, so the goal is planned by the model with the target in mind.
+     */
+    private Map<String, Object> adaptPlan(GoalRequest request, Example example, double similarity) {
+        LocalDateTime startDate = LocalDateTime.now();
+        LocalDateTime cursor = startDate;
+        int totalHours = 0;
+        Integer maxTasksPerDay = request.getMaxTasksPerDay();
+        int startedToday = 0;
+
+        List<TaskResponse> tasks = new ArrayList<>();
+        for (TaskResponse task : example.tasks()) {
+            int hours = task.getEstimatedDurationHours() != null ? task.getEstimatedDurationHours() : 4;
+            if (maxTasksPerDay != null && maxTasksPerDay > 0) {
+                if (!tasks.isEmpty() && !cursor.toLocalDate().equals(tasks.get(tasks.size() - 1).getStartDate().toLocalDate())) {
+                    startedToday = 0;
+                }
+                if (startedToday >= maxTasksPerDay) {
+                    cursor = cursor.toLocalDate().plusDays(1).atStartOfDay();
+                    startedToday = 0;
+                }
+                startedToday++;
+            }
+            task.setEstimatedDurationHours(hours);
+            task.setStartDate(cursor);
+            task.setEndDate(cursor.plusHours(hours));
+            cursor = task.getEndDate();
+            totalHours += hours;
+            tasks.add(task);
+        }
+
+        Map<String, Object> plan = new HashMap<>();
+        plan.put("source", SOURCE_REUSED);
+        plan.put("analysis", String.format(REUSED_ANALYSIS_PREFIX + " (\"%s\", similarity %.0f%%). %s",
+                example.description(), similarity * 100, example.analysis() != null ? example.analysis() : ""));
+        plan.put("tasks", tasks);
+        plan.put("totalTasks", tasks.size());
+        plan.put("estimatedTotalHours", totalHours);
+        plan.put("suggestedStartDate", startDate);
+        plan.put("suggestedEndDate", request.getTargetDate() != null ? request.getTargetDate() : cursor);
+        plan.put("recommendations", List.of(
+                "This plan was reused from a similar goal; review the tasks for anything specific to this goal"));
+        plan.put("risks", List.of());
+
+        durationCalibrationService.calibrate(plan, request.getDescription());
+        LocalDateTime lastEnd = tasks.stream().map(TaskResponse::getEndDate).max(LocalDateTime::compareTo).orElse(cursor);
+        if (request.getTargetDate() != null && lastEnd.isAfter(request.getTargetDate())) {
+            log.info("Similar plan would end {} after the target date {}, not reusing it", lastEnd, request.getTargetDate());
+            return null;
+        }
+        return plan;
+    }
+}
@@ -0,0 +1,272 @@
+package com.milan.smarttaskplanner.services;
+
+import com.milan.smarttaskplanner.config.PlanReuseProperties;
+import com.milan.smarttaskplanner.events.GoalCreatedEvent;
+import com.milan.smarttaskplanner.events.GoalDeletedEvent;
+import com.milan.smarttaskplanner.events.GoalInvalidatedEvent;
+import com.milan.smarttaskplanner.events.PlanUpgradedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory MinHash/LSH index over past goal descriptions. Each goal is reduced to a fixed-size
+ * signature of its word unigrams and bigrams; signatures are bucketed per band so a lookup only
+ * compares against goals sharing at least one band. Adding or removing a goal is O(numHashes).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlanSimilarityIndex {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "the", "and", "or", "to", "for", "of", "in", "on", "at", "by", "with", "from",
+            "my", "our", "i", "we", "me", "is", "be", "it", "this", "that", "want", "would", "like");
+
+    // Fallback, local, template-copy and reused plans only repeat a plan that is not the model's answer
+    // to this goal. The rebuild and the live events must skip the same goals.
+    private static final List<String> EXCLUDED_SOURCES = List.of(AIServiceImpl.SOURCE_FALLBACK, LocalPlanGenerator.SOURCE_LOCAL,
+            TemplateInstantiationService.SOURCE_TEMPLATE, PlanReuseAIService.SOURCE_REUSED);
+
+    // Goals planned before plan_source was recorded are recognised by their analysis text
+    private static final String INDEXABLE_GOALS_SQL = "SELECT id, tenant_id, description FROM goals WHERE status <> 'CANCELLED' "
+            + "AND (plan_source IS NULL OR plan_source NOT IN (?, ?, ?, ?)) "
+            + "AND (ai_analysis IS NULL OR (ai_analysis NOT LIKE ? AND ai_analysis NOT LIKE ? AND ai_analysis NOT LIKE ?))";
+
+    public record Match(Long goalId, double similarity) {
+    }
+
+    private final PlanReuseProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, int[]> signatures = new ConcurrentHashMap<>();
+    // Plans are only ever reused within the tenant that created them
+    private final Map<Long, String> tenants = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong updates = new AtomicLong();
+    private final AtomicLong updateNanos = new AtomicLong();
+
+    private long[] seeds;
+
+    @PostConstruct
+    void initSeeds() {
+        if (properties.getNumHashes() % properties.getBands() != 0) {
+            throw new IllegalStateException("plan-reuse.num-hashes must be divisible by plan-reuse.bands");
+        }
+        Random random = new Random(42);
+        seeds = new long[properties.getNumHashes()];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = random.nextLong();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        jdbcTemplate.query(INDEXABLE_GOALS_SQL,
+                (RowCallbackHandler) rs -> add(rs.getLong("id"), rs.getString("tenant_id"), rs.getString("description")),
+                indexableParams().toArray());
+        log.info("Plan similarity index built with {} goals in {} ms", signatures.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener
+    public void onGoalCreated(GoalCreatedEvent event) {
+        if (properties.isEnabled() && isModelPlan(event.planSource())) {
+            add(event.goalId(), event.tenantId(), event.description());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onPlanUpgraded(PlanUpgradedEvent event) {
+        if (properties.isEnabled() && isModelPlan(event.planSource())) {
+            add(event.goalId(), event.tenantId(), event.description());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onGoalDeleted(GoalDeletedEvent event) {
+        remove(event.goalId());
+    }
+
+    // The goal was created, changed or deleted on another node
+    @EventListener
+    public void onGoalInvalidated(GoalInvalidatedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT tenant_id, description FROM (" + INDEXABLE_GOALS_SQL + ") g WHERE id = ?",
+                indexableParams(event.goalId()).toArray());
+        if (rows.isEmpty()) {
+            remove(event.goalId());
+        } else {
+            add(event.goalId(), (String) rows.get(0).get("tenant_id"), (String) rows.get(0).get("description"));
+        }
+    }
+
+    public Optional<Match> findMostSimilar(String tenantId, String description) {
+        Set<String> tokens = tokenize(description);
+        if (tokens.isEmpty() || signatures.isEmpty()) {
+            return Optional.empty();
+        }
+
+        int[] signature = signature(tokens);
+        Set<Long> candidates = new HashSet<>();
+        for (int band = 0; band < properties.getBands(); band++) {
+            Set<Long> bucket = buckets.get(bandKey(signature, band));
+            if (bucket != null) {
+                candidates.addAll(bucket);
+            }
+        }
+
+        Match best = null;
+        for (Long goalId : candidates) {
+            int[] other = signatures.get(goalId);
+            if (other == null || !tenantId.equals(tenants.get(goalId))) {
+                continue;
+            }
+            double similarity = estimateSimilarity(signature, other);
+            if (best == null || similarity > best.similarity()) {
+                best = new Match(goalId, similarity);
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    public synchronized void add(Long goalId, String tenantId, String description) {
+        long started = System.nanoTime();
+        Set<String> tokens = tokenize(description);
+        if (tokens.isEmpty()) {
+            return;
+        }
+        remove(goalId);
+
+        int[] signature = signature(tokens);
+        signatures.put(goalId, signature);
+        tenants.put(goalId, tenantId);
+        for (int band = 0; band < properties.getBands(); band++) {
+            buckets.computeIfAbsent(bandKey(signature, band), k -> ConcurrentHashMap.newKeySet()).add(goalId);
+        }
+
+        updates.incrementAndGet();
+        updateNanos.addAndGet(System.nanoTime() - started);
+    }
+
+    public synchronized void remove(Long goalId) {
+        int[] signature = signatures.remove(goalId);
+        tenants.remove(goalId);
+        if (signature == null) {
+            return;
+        }
+        for (int band = 0; band < properties.getBands(); band++) {
+            long key = bandKey(signature, band);
+            Set<Long> bucket = buckets.get(key);
+            if (bucket != null) {
+                bucket.remove(goalId);
+                if (bucket.isEmpty()) {
+                    buckets.remove(key);
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return signatures.size();
+    }
+
+    public long getUpdateCount() {
+        return updates.get();
+    }
+
+    public double getAverageUpdateMicros() {
+        long count = updates.get();
+        return count == 0 ? 0 : updateNanos.get() / 1000.0 / count;
+    }
+
+    private static boolean isModelPlan(String planSource) {
+        return !EXCLUDED_SOURCES.contains(planSource);
+    }
+
+    private static List<Object> indexableParams(Object... extra) {
+        List<Object> params = new ArrayList<>(EXCLUDED_SOURCES);
+        params.add(AIServiceImpl.FALLBACK_ANALYSIS_PREFIX + "%");
+        params.add(LocalPlanGenerator.LOCAL_ANALYSIS_PREFIX + "%");
+        params.add(PlanReuseAIService.REUSED_ANALYSIS_PREFIX + "%");
+        params.addAll(Arrays.asList(extra));
+        return params;
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new HashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        List<String> words = new ArrayList<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^a-z0-9]+")) {
+            if (word.length() > 1 && !STOP_WORDS.contains(word)) {
+                words.add(word);
+            }
+        }
+        for (int i = 0; i < words.size(); i++) {
+            tokens.add(words.get(i));
+            if (i + 1 < words.size()) {
+                tokens.add(words.get(i) + " " + words.get(i + 1));
+            }
+        }
+        return tokens;
+    }
+
+    private int[] signature(Set<String> tokens) {
+        int[] signature = new int[seeds.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (String token : tokens) {
+            long base = token.hashCode();
+            for (int i = 0; i < seeds.length; i++) {
+                int hash = (int) mix(base ^ seeds[i]);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private long bandKey(int[] signature, int band) {
+        int rows = seeds.length / properties.getBands();
+        long hash = band;
+        for (int r = 0; r < rows; r++) {
+            hash = hash * 31 + signature[band * rows + r];
+        }
+        return mix(hash);
+    }
+
+    private static double estimateSimilarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / a.length;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
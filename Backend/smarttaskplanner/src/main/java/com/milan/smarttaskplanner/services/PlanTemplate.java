@@ -0,0 +1,33 @@
+package com.milan.smarttaskplanner.services;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A category of goals and its task skeleton, loaded from planning/templates.json.
+ * "{goal}" in a task title is replaced with the (shortened) goal description.
+ */
+@Data
+public class PlanTemplate {
+
+    private String category;
+    private List<String> keywords = new ArrayList<>();
+    private String analysis;
+    private List<TemplateTask> tasks = new ArrayList<>();
+    private List<String> recommendations = new ArrayList<>();
+    private List<String> risks = new ArrayList<>();
+
+    @Data
+    public static class TemplateTask {
+        private String title;
+        private String description;
+        private String detailedDescription;
+        private List<String> steps = new ArrayList<>();
+        private Integer hours;
+        private String priority;
+        // 1-based positions of prerequisite tasks; when absent the task depends on the previous one
+        private List<Integer> dependsOn;
+    }
+}
@@ -0,0 +1,37 @@
+package com.milan.smarttaskplanner.services;
+
+import com.milan.smarttaskplanner.events.PlanUpgradePendingEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Applies plan upgrades once the goal holding the quick plan is committed and the slower tier answers.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlanUpgradeListener {
+
+    private final GoalService goalService;
+
+    @TransactionalEventListener
+    public void onUpgradePending(PlanUpgradePendingEvent event) {
+        event.upgrade().whenComplete((plan, error) -> {
+            if (error != null) {
+                log.warn("Plan upgrade for goal {} did not complete: {}", event.goalId(), error.toString());
+                return;
+            }
+            if (plan == null || AIServiceImpl.SOURCE_FALLBACK.equals(plan.get("source"))) {
+                log.info("No better plan available for goal {}, keeping the local plan", event.goalId());
+                return;
+            }
+            try {
+                goalService.applyPlanUpgrade(event.goalId(), plan);
+            } catch (Exception e) {
+                log.error("Failed to apply plan upgrade for goal {}", event.goalId(), e);
+            }
+        });
+    }
+}
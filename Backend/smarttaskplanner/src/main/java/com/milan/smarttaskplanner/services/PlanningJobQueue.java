@@ -0,0 +1,215 @@
+package com.milan.smarttaskplanner.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.milan.smarttaskplanner.config.PlanningJobProperties;
+import com.milan.smarttaskplanner.dto.GoalRequest;
+import com.milan.smarttaskplanner.dto.PlanningJobResponse;
+import com.milan.smarttaskplanner.entities.PlanningJob;
+import com.milan.smarttaskplanner.entities.PlanningJobStatus;
+import com.milan.smarttaskplanner.repositories.PlanningJobRepository;
+import com.milan.smarttaskplanner.services.tenancy.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * PostgreSQL-backed queue of plan generation jobs.
+ *
+ * Jobs are inserted in the caller's transaction, so a goal and its job commit together. Workers
+ * claim jobs with FOR UPDATE SKIP LOCKED, which lets any number of nodes poll the same table
+ * without blocking each other. A claim is a lease: it carries the owner and the attempt number,
+ * and completion only succeeds while both still match, so a job whose lease expired and was
+ * claimed again can never be completed twice.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlanningJobQueue {
+
+    private static final String CLAIM_SQL = """
+            UPDATE planning_jobs j
+               SET status = 'RUNNING', lease_owner = ?, attempts = j.attempts + 1,
+                   lease_until = LOCALTIMESTAMP + (? * INTERVAL '1 millisecond'), updated_at = LOCALTIMESTAMP
+             WHERE j.id IN (SELECT id FROM planning_jobs
+                             WHERE (status = 'PENDING' AND available_at <= LOCALTIMESTAMP)
+                                OR (status = 'RUNNING' AND lease_until < LOCALTIMESTAMP AND attempts < max_attempts)
+                             ORDER BY available_at
+                             LIMIT ?
+                             FOR UPDATE SKIP LOCKED)
+            RETURNING j.id, j.goal_id, j.tenant_id, j.payload, j.attempts, j.max_attempts
+            """;
+
+    // Jobs whose node died during the final attempt cannot be claimed again
+    private static final String EXPIRE_SQL = """
+            UPDATE planning_jobs
+               SET status = 'DEAD', lease_owner = NULL, lease_until = NULL, updated_at = LOCALTIMESTAMP,
+                   last_error = 'Lease expired during the final attempt'
+             WHERE status = 'RUNNING' AND lease_until < LOCALTIMESTAMP AND attempts >= max_attempts
+            """;
+
+    private static final String LEASE_MATCH = " WHERE id = ? AND status = 'RUNNING' AND lease_owner = ? AND attempts = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlanningJobRepository planningJobRepository;
+    private final PlanningJobProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public record ClaimedJob(Long id, Long goalId, String tenantId, String payload, int attempt, int maxAttempts) {
+        public boolean isFinalAttempt() {
+            return attempt >= maxAttempts;
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public PlanningJob enqueue(Long goalId, GoalRequest request) {
+        PlanningJob job = PlanningJob.builder()
+                .goalId(goalId)
+                .tenantId(TenantContext.getTenantId())
+                .payload(writePayload(request))
+                .status(PlanningJobStatus.PENDING)
+                .attempts(0)
+                .maxAttempts(properties.getMaxAttempts())
+                .availableAt(LocalDateTime.now())
+                .build();
+        return planningJobRepository.save(job);
+    }
+
+    public List<ClaimedJob> claim(String owner, int limit) {
+        jdbcTemplate.update(EXPIRE_SQL);
+        return jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> new ClaimedJob(
+                rs.getLong("id"),
+                rs.getLong("goal_id"),
+                rs.getString("tenant_id"),
+                rs.getString("payload"),
+                rs.getInt("attempts"),
+                rs.getInt("max_attempts")), owner, properties.getLeaseMs(), limit);
+    }
+
+    /**
+     * Marks the job succeeded if this worker still holds its lease. Must run in the transaction
+     * that persists the job's result: the row lock taken here is what makes the result exactly-once.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean complete(ClaimedJob job, String owner) {
+        return jdbcTemplate.update("""
+                UPDATE planning_jobs
+                   SET status = 'SUCCEEDED', lease_owner = NULL, lease_until = NULL,
+                       completed_at = LOCALTIMESTAMP, updated_at = LOCALTIMESTAMP
+                """ + LEASE_MATCH, job.id(), owner, job.attempt()) == 1;
+    }
+
+    /**
+     * Schedules a retry with exponential backoff, or dead-letters the job after its last attempt.
+     * Returns the new status, or null when the lease had already been lost.
+     */
+    public PlanningJobStatus fail(ClaimedJob job, String owner, String error) {
+        PlanningJobStatus next = job.isFinalAttempt() ? PlanningJobStatus.DEAD : PlanningJobStatus.PENDING;
+        long backoff = Math.min(properties.getRetryBackoffMs() << Math.min(job.attempt() - 1, 20),
+                properties.getMaxRetryBackoffMs());
+        int updated = jdbcTemplate.update("""
+                UPDATE planning_jobs
+                   SET status = ?, lease_owner = NULL, lease_until = NULL, last_error = ?,
+                       available_at = LOCALTIMESTAMP + (? * INTERVAL '1 millisecond'), updated_at = LOCALTIMESTAMP
+                """ + LEASE_MATCH, next.name(), error, backoff, job.id(), owner, job.attempt());
+        return updated == 1 ? next : null;
+    }
+
+    /**
+     * Puts a claimed job back without charging an attempt, for a worker that cannot run it yet
+     * (e.g. its tenant has no free planning slot). Returns false when the lease was already lost.
+     */
+    public boolean defer(ClaimedJob job, String owner, long delayMs) {
+        return jdbcTemplate.update("""
+                UPDATE planning_jobs
+                   SET status = 'PENDING', lease_owner = NULL, lease_until = NULL, attempts = attempts - 1,
+                       available_at = LOCALTIMESTAMP + (? * INTERVAL '1 millisecond'), updated_at = LOCALTIMESTAMP
+                """ + LEASE_MATCH, delayMs, job.id(), owner, job.attempt()) == 1;
+    }
+
+    public void extendLeases(String owner, List<ClaimedJob> jobs) {
+        if (jobs.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("""
+                UPDATE planning_jobs SET lease_until = LOCALTIMESTAMP + (? * INTERVAL '1 millisecond')
+                """ + LEASE_MATCH, jobs.stream()
+                .map(job -> new Object[]{properties.getLeaseMs(), job.id(), owner, job.attempt()})
+                .collect(Collectors.toList()));
+    }
+
+    // Hands jobs back on a clean shutdown without charging an attempt
+    public int release(String owner) {
+        return jdbcTemplate.update("""
+                UPDATE planning_jobs
+                   SET status = 'PENDING', lease_owner = NULL, lease_until = NULL,
+                       attempts = attempts - 1, updated_at = LOCALTIMESTAMP
+                 WHERE status = 'RUNNING' AND lease_owner = ?
+                """, owner);
+    }
+
+    @Transactional
+    public PlanningJobResponse retry(Long jobId) {
+        PlanningJob job = planningJobRepository.findByIdAndTenantId(jobId, TenantContext.getTenantId())
+                .orElseThrow(() -> new RuntimeException("Planning job not found with id: " + jobId));
+        if (job.getStatus() != PlanningJobStatus.DEAD) {
+            throw new RuntimeException("Only dead-lettered jobs can be retried, job " + jobId + " is " + job.getStatus());
+        }
+        job.setStatus(PlanningJobStatus.PENDING);
+        job.setAttempts(0);
+        job.setAvailableAt(LocalDateTime.now());
+        return mapToResponse(planningJobRepository.save(job));
+    }
+
+    @Transactional(readOnly = true)
+    public PlanningJobResponse getJob(Long jobId) {
+        return planningJobRepository.findByIdAndTenantId(jobId, TenantContext.getTenantId())
+                .map(this::mapToResponse)
+                .orElseThrow(() -> new RuntimeException("Planning job not found with id: " + jobId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<PlanningJobResponse> getJobs(PlanningJobStatus status) {
+        return planningJobRepository.findTop100ByTenantIdAndStatusOrderByCreatedAtDesc(TenantContext.getTenantId(), status).stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    public PlanningJobResponse mapToResponse(PlanningJob job) {
+        return PlanningJobResponse.builder()
+                .jobId(job.getId())
+                .goalId(job.getGoalId())
+                .status(job.getStatus().name())
+                .attempts(job.getAttempts())
+                .maxAttempts(job.getMaxAttempts())
+                .leaseOwner(job.getLeaseOwner())
+                .availableAt(job.getAvailableAt())
+                .lastError(job.getLastError())
+                .createdAt(job.getCreatedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+
+    private String writePayload(GoalRequest request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize planning job: " + e.getMessage(), e);
+        }
+    }
+
+    public GoalRequest readRequest(ClaimedJob job) {
+        try {
+            return objectMapper.readValue(job.payload(), GoalRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not read planning job payload: " + e.getMessage(), e);
+        }
+    }
+}
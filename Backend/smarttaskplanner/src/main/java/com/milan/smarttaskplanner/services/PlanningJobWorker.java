@@ -0,0 +1,166 @@
+package com.milan.smarttaskplanner.services;
+
+import com.milan.smarttaskplanner.config.PlanningJobProperties;
+import com.milan.smarttaskplanner.dto.GoalRequest;
+import com.milan.smarttaskplanner.entities.PlanningJobStatus;
+import com.milan.smarttaskplanner.services.coordination.NodeIds;
+import com.milan.smarttaskplanner.services.tenancy.TenantContext;
+import com.milan.smarttaskplanner.services.tenancy.TenantQuotaService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Claims planning jobs up to the number of free worker threads on this node and runs them.
+ * Plans are generated outside any transaction; the result is then persisted in one transaction
+ * together with the lease-checked completion of the job.
+ */
+@Component
+@Slf4j
+public class PlanningJobWorker {
+
+    private final PlanningJobQueue planningJobQueue;
+    private final PlanReuseAIService planReuseAIService;
+    private final GoalService goalService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor executor;
+    private final PlanningJobProperties properties;
+    private final TenantQuotaService tenantQuotaService;
+    private final String nodeId;
+    private final Map<Long, PlanningJobQueue.ClaimedJob> inFlight = new ConcurrentHashMap<>();
+    private volatile boolean stopping;
+
+    public PlanningJobWorker(PlanningJobQueue planningJobQueue,
+                             PlanReuseAIService planReuseAIService,
+                             GoalService goalService,
+                             TransactionTemplate transactionTemplate,
+                             @Qualifier("planningJobExecutor") ThreadPoolTaskExecutor executor,
+                             PlanningJobProperties properties,
+                             TenantQuotaService tenantQuotaService) {
+        this.planningJobQueue = planningJobQueue;
+        this.planReuseAIService = planReuseAIService;
+        this.goalService = goalService;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+        this.properties = properties;
+        this.tenantQuotaService = tenantQuotaService;
+        this.nodeId = NodeIds.resolve(properties.getNodeId());
+        log.info("Planning job worker {} ({} threads, enabled: {})", nodeId, properties.getWorkerThreads(), properties.isWorkerEnabled());
+    }
+
+    @Scheduled(fixedDelayString = "${planning.jobs.poll-interval-ms:1000}")
+    public void poll() {
+        if (!properties.isWorkerEnabled() || stopping) {
+            return;
+        }
+        int free = properties.getWorkerThreads() - inFlight.size();
+        if (free <= 0) {
+            return;
+        }
+
+        List<PlanningJobQueue.ClaimedJob> jobs;
+        try {
+            jobs = planningJobQueue.claim(nodeId, free);
+        } catch (Exception e) {
+            log.warn("Could not claim planning jobs: {}", e.getMessage());
+            return;
+        }
+
+        for (PlanningJobQueue.ClaimedJob job : jobs) {
+            inFlight.put(job.id(), job);
+            executor.execute(() -> {
+                try {
+                    run(job);
+                } finally {
+                    inFlight.remove(job.id());
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${planning.jobs.heartbeat-interval-ms:20000}")
+    public void heartbeat() {
+        try {
+            planningJobQueue.extendLeases(nodeId, new ArrayList<>(inFlight.values()));
+        } catch (Exception e) {
+            log.warn("Could not extend planning job leases: {}", e.getMessage());
+        }
+    }
+
+    void run(PlanningJobQueue.ClaimedJob job) {
+        // A tenant at its concurrency limit must not occupy this node's worker threads
+        if (!tenantQuotaService.tryAcquirePlanningSlot(job.tenantId())) {
+            log.debug("Tenant {} has no free planning slot, deferring job {}", job.tenantId(), job.id());
+            planningJobQueue.defer(job, nodeId, properties.getTenantDeferMs());
+            return;
+        }
+        TenantContext.setTenantId(job.tenantId());
+        try {
+            runClaimed(job);
+        } finally {
+            TenantContext.clear();
+            tenantQuotaService.releasePlanningSlot(job.tenantId());
+        }
+    }
+
+    private void runClaimed(PlanningJobQueue.ClaimedJob job) {
+        log.info("Running planning job {} for goal {} (attempt {}/{})", job.id(), job.goalId(), job.attempt(), job.maxAttempts());
+        try {
+            GoalRequest request = planningJobQueue.readRequest(job);
+            Map<String, Object> plan = planReuseAIService.generateTaskPlan(request);
+
+            // The sample plan means the model was unreachable; retry unless this was the last chance
+            if (AIServiceImpl.SOURCE_FALLBACK.equals(plan.get("source")) && !job.isFinalAttempt()) {
+                fail(job, "LLM unavailable, only a fallback plan could be generated");
+                return;
+            }
+
+            Boolean completed = transactionTemplate.execute(status -> {
+                if (!planningJobQueue.complete(job, nodeId)) {
+                    return false;
+                }
+                goalService.applyQueuedPlan(job.goalId(), plan);
+                return true;
+            });
+            if (Boolean.TRUE.equals(completed)) {
+                log.info("Planning job {} succeeded with a {} plan", job.id(), plan.get("source"));
+            } else {
+                log.warn("Planning job {} lost its lease before completing, result discarded", job.id());
+            }
+        } catch (Exception e) {
+            log.error("Planning job {} failed: {}", job.id(), e.getMessage());
+            fail(job, e.getMessage());
+        }
+    }
+
+    private void fail(PlanningJobQueue.ClaimedJob job, String error) {
+        PlanningJobStatus next = planningJobQueue.fail(job, nodeId, error);
+        if (next == PlanningJobStatus.DEAD) {
+            log.error("Planning job {} for goal {} dead-lettered after {} attempts", job.id(), job.goalId(), job.attempt());
+        } else if (next == null) {
+            log.warn("Planning job {} lost its lease before the failure could be recorded", job.id());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopping = true;
+        int released = planningJobQueue.release(nodeId);
+        if (released > 0) {
+            log.info("Released {} planning jobs on shutdown", released);
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+}
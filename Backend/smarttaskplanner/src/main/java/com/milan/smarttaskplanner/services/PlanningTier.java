@@ -0,0 +1,21 @@
+package com.milan.smarttaskplanner.services;
+
+import com.milan.smarttaskplanner.dto.GoalRequest;
+
+import java.util.Map;
+
+/**
+ * One stage of the tiered planning chain (see TieredPlanningService).
+ */
+public interface PlanningTier {
+
+    String getName();
+
+    // Returns a plan in the AIService map format, or null when this tier has nothing for the request
+    Map<String, Object> plan(GoalRequest request);
+
+    // Whether a result that arrives after the response budget should still replace the quick plan
+    default boolean isUpgradable() {
+        return false;
+    }
+}
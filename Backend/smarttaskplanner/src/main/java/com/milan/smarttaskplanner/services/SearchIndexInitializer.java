@@ -0,0 +1,50 @@
+package com.milan.smarttaskplanner.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Creates the GIN full-text indexes used by {@link SearchService}. They are expression indexes, so
+ * PostgreSQL keeps them current on every insert/update and no separate indexing pass is needed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchIndexInitializer {
+
+    // Queries must use exactly these expressions (unqualified, single-table) for the indexes to apply
+    static final String GOAL_DOCUMENT =
+            "to_tsvector('english', coalesce(description, '') || ' ' || coalesce(ai_analysis, ''))";
+
+    static final String TASK_DOCUMENT =
+            "to_tsvector('english', coalesce(title, '') || ' ' || coalesce(description, '') || ' ' || "
+                    + "coalesce(detailed_description, '') || ' ' || coalesce(steps_json::text, ''))";
+
+    static final String STEP_DOCUMENT = "to_tsvector('english', step)";
+
+    private static final List<String> INDEXES = List.of(
+            "CREATE INDEX IF NOT EXISTS idx_goals_search ON goals USING GIN ((" + GOAL_DOCUMENT + "))",
+            "CREATE INDEX IF NOT EXISTS idx_tasks_search ON tasks USING GIN ((" + TASK_DOCUMENT + "))",
+            "CREATE INDEX IF NOT EXISTS idx_task_steps_search ON task_steps USING GIN ((" + STEP_DOCUMENT + "))",
+            "CREATE INDEX IF NOT EXISTS idx_task_steps_task_id ON task_steps (task_id)"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        for (String ddl : INDEXES) {
+            try {
+                jdbcTemplate.execute(ddl);
+            } catch (Exception e) {
+                log.warn("Could not create search index, search will fall back to sequential scans: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.milan.smarttaskplanner.services;
+
+import com.milan.smarttaskplanner.dto.SearchResponse;
+import com.milan.smarttaskplanner.dto.SearchResultResponse;
+import com.milan.smarttaskplanner.services.tenancy.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.milan.smarttaskplanner.services.SearchIndexInitializer.GOAL_DOCUMENT;
+import static com.milan.smarttaskplanner.services.SearchIndexInitializer.STEP_DOCUMENT;
+import static com.milan.smarttaskplanner.services.SearchIndexInitializer.TASK_DOCUMENT;
+
+/**
+ * Full-text search over goals (description, AI analysis) and tasks (title, descriptions, steps).
+ * Matching runs on the GIN indexes. ts_rank has to rebuild each row's tsvector, so only the newest
+ * {@link #MAX_CANDIDATES} matches per type are ranked, and snippets are only built for the
+ * requested page.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Matches ranked per type; deeper pages than this are empty, so refine the query instead
+    public static final int MAX_CANDIDATES = 1000;
+
+    // Steps kept in task_steps are outside TASK_DOCUMENT, so a step-only match would rank zero without them
+    private static final String STEP_RANK_DOCUMENT = "to_tsvector('english', string_agg(s.step, ' '))";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Transactional(readOnly = true)
+    public SearchResponse search(String query, String type, String status, String priority,
+                                 LocalDateTime from, LocalDateTime to, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new RuntimeException("Search query is required");
+        }
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        int pageNumber = Math.max(page, 0);
+
+        // Goals have no priority, so a priority filter implies task results only
+        boolean includeGoals = (type == null || "GOAL".equalsIgnoreCase(type)) && priority == null;
+        boolean includeTasks = type == null || "TASK".equalsIgnoreCase(type);
+        if (!includeGoals && !includeTasks) {
+            throw new RuntimeException("Unknown search type: " + type);
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("q", query)
+                .addValue("tenant", TenantContext.getTenantId())
+                .addValue("limit", pageSize + 1)
+                .addValue("candidates", MAX_CANDIDATES)
+                .addValue("offset", pageNumber * pageSize);
+
+        List<String> branches = new ArrayList<>();
+        if (includeGoals) {
+            branches.add("""
+                    SELECT 'GOAL' AS type, id, id AS goal_id, description AS title,
+                           coalesce(ai_analysis, description) AS body, status,
+                           CAST(NULL AS text) AS priority, created_at,
+                           ts_rank(%s, q.query) AS rank
+                      FROM (SELECT goals.* FROM goals, q
+                             WHERE %s @@ q.query%s
+                             ORDER BY id DESC
+                             LIMIT :candidates) goals
+                     CROSS JOIN q
+                    """.formatted(GOAL_DOCUMENT, GOAL_DOCUMENT, filters("", "status", status, null, from, to, params)));
+        }
+        if (includeTasks) {
+            branches.add("""
+                    SELECT 'TASK' AS type, t.id, t.goal_id, t.title,
+                           coalesce(t.description, '') || ' ' || coalesce(t.detailed_description, '') AS body,
+                           CAST(t.status AS text) AS status, CAST(t.priority AS text) AS priority, t.created_at,
+                           ts_rank(%s || coalesce((SELECT %s FROM task_steps s WHERE s.task_id = t.id),
+                                                  ''::tsvector), q.query) AS rank
+                      FROM (SELECT t.* FROM task_matches m
+                              JOIN tasks t ON t.id = m.task_id
+                             WHERE TRUE%s
+                             ORDER BY t.id DESC
+                             LIMIT :candidates) t
+                     CROSS JOIN q
+                    """.formatted(TASK_DOCUMENT, STEP_RANK_DOCUMENT,
+                    filters("t.", "CAST(t.status AS text)", status, priority, from, to, params)));
+        }
+
+        String sql = """
+                WITH q AS (SELECT websearch_to_tsquery('english', :q) AS query),
+                task_matches AS (
+                    SELECT id AS task_id FROM tasks, q WHERE %s @@ q.query AND tenant_id = :tenant
+                    UNION
+                    SELECT task_id FROM task_steps, q WHERE %s @@ q.query
+                ),
+                hits AS (
+                    %s
+                    ORDER BY rank DESC, id DESC
+                    LIMIT :limit OFFSET :offset
+                )
+                SELECT hits.*, ts_headline('english', body, q.query, 'MaxFragments=2, MaxWords=20, MinWords=5') AS snippet
+                  FROM hits, q
+                 ORDER BY rank DESC, id DESC
+                """.formatted(TASK_DOCUMENT, STEP_DOCUMENT, String.join(" UNION ALL ", branches));
+
+        long started = System.currentTimeMillis();
+        List<SearchResultResponse> results = jdbcTemplate.query(sql, params, (rs, rowNum) -> {
+            Timestamp createdAt = rs.getTimestamp("created_at");
+            return SearchResultResponse.builder()
+                    .type(rs.getString("type"))
+                    .id(rs.getLong("id"))
+                    .goalId(rs.getLong("goal_id"))
+                    .title(rs.getString("title"))
+                    .snippet(rs.getString("snippet"))
+                    .status(rs.getString("status"))
+                    .priority(rs.getString("priority"))
+                    .rank(rs.getDouble("rank"))
+                    .createdAt(createdAt != null ? createdAt.toLocalDateTime() : null)
+                    .build();
+        });
+        log.debug("Search '{}' page {} returned {} hits in {} ms", query, pageNumber, results.size(),
+                System.currentTimeMillis() - started);
+
+        boolean hasMore = results.size() > pageSize;
+        return SearchResponse.builder()
+                .query(query)
+                .page(pageNumber)
+                .size(pageSize)
+                .hasMore(hasMore)
+                .results(hasMore ? results.subList(0, pageSize) : results)
+                .build();
+    }
+
+    private String filters(String alias, String statusColumn, String status, String priority,
+                           LocalDateTime from, LocalDateTime to, MapSqlParameterSource params) {
+        // Every branch is confined to the caller's tenant; the tenant parameter is bound once above
+        StringBuilder sql = new StringBuilder(" AND ").append(alias).append("tenant_id = :tenant");
+        if (status != null) {
+            sql.append(" AND ").append(statusColumn).append(" = :status");
+            params.addValue("status", status.toUpperCase());
+        }
+        if (priority != null) {
+            sql.append(" AND CAST(").append(alias).append("priority AS text) = :priority");
+            params.addValue("priority", priority.toUpperCase());
+        }
+        if (from != null) {
+            sql.append(" AND ").append(alias).append("created_at >= :from");
+            params.addValue("from", Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND ").append(alias).append("created_at < :to");
+            params.addValue("to", Timestamp.valueOf(to));
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,105 @@
+package com.milan.smarttaskplanner.services;
+
+import com.milan.smarttaskplanner.config.TaskStorageMode;
+import com.milan.smarttaskplanner.config.TaskStorageProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Moves rows from task_steps / task_dependencies into the compact steps_json / dependency_ids
+ * columns in id-ordered batches, one transaction per batch, so it can be stopped and rerun safely.
+ * The same statements are available for manual use in db/compact-task-storage.sql.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskStorageMigrator implements SmartInitializingSingleton {
+
+    private static final String MIGRATE_BATCH_SQL = """
+            UPDATE tasks t
+               SET steps_json = COALESCE((SELECT jsonb_agg(s.step ORDER BY s.step_order)
+                                            FROM task_steps s WHERE s.task_id = t.id), '[]'::jsonb),
+                   dependency_ids = COALESCE((SELECT array_agg(d.dependency_id ORDER BY d.dependency_order)
+                                                FROM task_dependencies d WHERE d.task_id = t.id), '{}'::bigint[])
+             WHERE t.id > ? AND t.id <= ? AND t.steps_json IS NULL
+            """;
+
+    // Rows written before the position columns existed have none, which Hibernate cannot load;
+    // number them in physical order, the closest thing left to the order they were written in
+    private static final List<String> BACKFILL_POSITIONS_SQL = List.of("""
+            UPDATE task_steps s SET step_order = o.position
+              FROM (SELECT ctid, row_number() OVER (PARTITION BY task_id ORDER BY ctid) - 1 AS position
+                      FROM task_steps WHERE step_order IS NULL) o
+             WHERE s.ctid = o.ctid
+            """, """
+            UPDATE task_dependencies d SET dependency_order = o.position
+              FROM (SELECT ctid, row_number() OVER (PARTITION BY task_id ORDER BY ctid) - 1 AS position
+                      FROM task_dependencies WHERE dependency_order IS NULL) o
+             WHERE d.ctid = o.ctid
+            """);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskStorageProperties properties;
+
+    // Runs once the schema update is done but before the web server takes requests
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (String sql : BACKFILL_POSITIONS_SQL) {
+            try {
+                int rows = jdbcTemplate.update(sql);
+                if (rows > 0) {
+                    log.info("Numbered {} step/dependency rows that had no position", rows);
+                }
+            } catch (Exception e) {
+                log.warn("Could not number step/dependency positions: {}", e.getMessage());
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (properties.isMigrateOnStartup() && properties.getMode() == TaskStorageMode.COMPACT) {
+            migrateToCompact();
+        }
+    }
+
+    public long migrateToCompact() {
+        long lastId = 0;
+        long migrated = 0;
+        long started = System.currentTimeMillis();
+
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM tasks WHERE id > ? ORDER BY id LIMIT ?",
+                    Long.class, lastId, properties.getMigrationBatchSize());
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            long from = lastId;
+            long to = ids.get(ids.size() - 1);
+            Integer updated = transactionTemplate.execute(status -> {
+                int rows = jdbcTemplate.update(MIGRATE_BATCH_SQL, from, to);
+                jdbcTemplate.update("DELETE FROM task_steps WHERE task_id > ? AND task_id <= ?", from, to);
+                jdbcTemplate.update("DELETE FROM task_dependencies WHERE task_id > ? AND task_id <= ?", from, to);
+                return rows;
+            });
+
+            migrated += updated != null ? updated : 0;
+            lastId = to;
+            log.debug("Compact storage migration reached task id {}", lastId);
+        }
+
+        log.info("Migrated {} tasks to compact storage in {} ms", migrated, System.currentTimeMillis() - started);
+        return migrated;
+    }
+}
@@ -0,0 +1,59 @@
+package com.milan.smarttaskplanner.services;
+
+import com.milan.smarttaskplanner.config.TaskStorageMode;
+import com.milan.smarttaskplanner.config.TaskStorageProperties;
+import com.milan.smarttaskplanner.entities.Task;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decides where task steps and dependencies are written, and reads them back from
+ * whichever representation a row actually has. Reads always prefer the compact columns,
+ * so rows written in either mode (or half-way through a migration) stay readable.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskStorageService {
+
+    private final TaskStorageProperties properties;
+
+    public void writeSteps(Task task, List<String> steps) {
+        List<String> copy = steps == null ? new ArrayList<>() : new ArrayList<>(steps);
+        if (properties.getMode() == TaskStorageMode.COMPACT) {
+            task.setStepsJson(copy);
+            task.setSteps(null);
+        } else {
+            task.setSteps(copy);
+            task.setStepsJson(null);
+        }
+    }
+
+    public void writeDependencies(Task task, List<Long> dependencies) {
+        List<Long> copy = dependencies == null ? new ArrayList<>() : new ArrayList<>(dependencies);
+        if (properties.getMode() == TaskStorageMode.COMPACT) {
+            task.setDependencyIds(copy);
+            task.setDependencies(null);
+        } else {
+            task.setDependencies(copy);
+            task.setDependencyIds(null);
+        }
+    }
+
+    public List<String> readSteps(Task task) {
+        if (task.getStepsJson() != null) {
+            return task.getStepsJson();
+        }
+        // Copy so the lazy collection is initialised inside the caller's transaction
+        return task.getSteps() != null ? new ArrayList<>(task.getSteps()) : List.of();
+    }
+
+    public List<Long> readDependencies(Task task) {
+        if (task.getDependencyIds() != null) {
+            return task.getDependencyIds();
+        }
+        return task.getDependencies() != null ? new ArrayList<>(task.getDependencies()) : List.of();
+    }
+}
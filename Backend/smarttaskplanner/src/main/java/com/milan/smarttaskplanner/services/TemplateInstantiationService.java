@@ -0,0 +1,209 @@
+package com.milan.smarttaskplanner.services;
+
+import com.milan.smarttaskplanner.config.TemplateProperties;
+import com.milan.smarttaskplanner.config.TenantFilter;
+import com.milan.smarttaskplanner.dto.InstantiateTemplateRequest;
+import com.milan.smarttaskplanner.dto.InstantiateTemplateResponse;
+import com.milan.smarttaskplanner.entities.GoalStatus;
+import com.milan.smarttaskplanner.entities.TaskStatus;
+import com.milan.smarttaskplanner.events.GoalCreatedEvent;
+import com.milan.smarttaskplanner.services.analytics.AnalyticsRollupService;
+import com.milan.smarttaskplanner.services.analytics.GoalSnapshot;
+import com.milan.smarttaskplanner.services.tenancy.TenantAccessDeniedException;
+import com.milan.smarttaskplanner.services.tenancy.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Clones a template goal for many recipient tenants without a model call. The copies are written
+ * by three set-based statements in one transaction, so the cost barely grows with the template's
+ * size: the goals from an unnest of the recipients, then the tasks, steps and dependencies in one
+ * INSERT ... SELECT with data-modifying CTEs that give every copied task a new id.
+ *
+ * Every copy is shifted by whole days so its first task starts on the recipient's start date.
+ * Dependencies hold order indexes, which are the same in every copy, so they are copied as they
+ * are. Copied tasks start PENDING, with no history.
+ *
+ * Tenants are only named by a request header, so writing into any tenant other than the caller's
+ * takes the templates.admin-token as well.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TemplateInstantiationService {
+
+    public static final String SOURCE_TEMPLATE = "TEMPLATE";
+
+    private static final String TEMPLATE_SQL = """
+            SELECT g.description,
+                   (SELECT min(t.start_date) FROM tasks t WHERE t.goal_id = g.id) AS first_start,
+                   g.created_at
+              FROM goals g
+             WHERE g.id = ? AND g.tenant_id = ? AND g.template
+               FOR SHARE OF g
+            """;
+
+    private static final String TEMPLATE_TASKS_SQL = """
+            SELECT CAST(priority AS text) AS priority, estimated_duration_hours, end_date
+              FROM tasks WHERE goal_id = ?
+            """;
+
+    private static final String INSERT_GOALS_SQL = """
+            INSERT INTO goals (id, tenant_id, description, target_date, max_tasks_per_day, status, ai_analysis,
+                               template, plan_source, created_at, updated_at)
+            SELECT r.goal_id, r.tenant_id, g.description, g.target_date + make_interval(days => r.shift_days),
+                   g.max_tasks_per_day, ?, g.ai_analysis, false, ?, ?, ?
+              FROM goals g
+             CROSS JOIN unnest(CAST(? AS bigint[]), CAST(? AS varchar[]), CAST(? AS int[])) AS r(goal_id, tenant_id, shift_days)
+             WHERE g.id = ?
+            """;
+
+    private static final String INSERT_TASKS_SQL = """
+            WITH copies AS (
+                SELECT t.id AS source_id, r.goal_id, r.tenant_id, r.shift_days,
+                       nextval(pg_get_serial_sequence('tasks', 'id')) AS id
+                  FROM tasks t
+                 CROSS JOIN unnest(CAST(? AS bigint[]), CAST(? AS varchar[]), CAST(? AS int[])) AS r(goal_id, tenant_id, shift_days)
+                 WHERE t.goal_id = ?
+            ), task_rows AS (
+                INSERT INTO tasks (id, goal_id, tenant_id, title, description, detailed_description,
+                                   estimated_duration_hours, priority, status, order_index, rank_key, start_date, end_date,
+                                   steps_json, dependency_ids, created_at, updated_at)
+                SELECT c.id, c.goal_id, c.tenant_id, t.title, t.description, t.detailed_description,
+                       t.estimated_duration_hours, t.priority, CAST(? AS task_status), t.order_index, t.rank_key,
+                       t.start_date + make_interval(days => c.shift_days), t.end_date + make_interval(days => c.shift_days),
+                       t.steps_json, t.dependency_ids, ?, ?
+                  FROM copies c JOIN tasks t ON t.id = c.source_id
+                RETURNING 1
+            ), step_rows AS (
+                INSERT INTO task_steps (task_id, step_order, step)
+                SELECT c.id, s.step_order, s.step FROM copies c JOIN task_steps s ON s.task_id = c.source_id
+                RETURNING 1
+            ), dependency_rows AS (
+                INSERT INTO task_dependencies (task_id, dependency_order, dependency_id)
+                SELECT c.id, d.dependency_order, d.dependency_id FROM copies c JOIN task_dependencies d ON d.task_id = c.source_id
+                RETURNING 1
+            )
+            SELECT (SELECT count(*) FROM task_rows) AS tasks,
+                   (SELECT count(*) FROM step_rows) AS steps,
+                   (SELECT count(*) FROM dependency_rows) AS dependencies
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TemplateProperties properties;
+    private final AnalyticsRollupService analyticsRollupService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public InstantiateTemplateResponse instantiate(Long templateId, InstantiateTemplateRequest request, String adminToken) {
+        long started = System.currentTimeMillis();
+        List<InstantiateTemplateRequest.Recipient> recipients = request.getRecipients();
+        if (recipients == null || recipients.isEmpty()) {
+            throw new RuntimeException("At least one recipient is required");
+        }
+        if (recipients.size() > properties.getMaxRecipients()) {
+            throw new RuntimeException("At most " + properties.getMaxRecipients() + " recipients per call");
+        }
+        for (InstantiateTemplateRequest.Recipient recipient : recipients) {
+            if (recipient.getTenantId() == null || !TenantFilter.isValidTenantId(recipient.getTenantId())) {
+                throw new RuntimeException("Invalid recipient tenant id: " + recipient.getTenantId());
+            }
+        }
+        String callerTenant = TenantContext.getTenantId();
+        boolean otherTenants = recipients.stream().anyMatch(recipient -> !recipient.getTenantId().equals(callerTenant));
+        if (otherTenants && !isAdminToken(adminToken)) {
+            throw new TenantAccessDeniedException("Instantiating for other tenants requires a valid X-Admin-Token header");
+        }
+
+        List<Map<String, Object>> template = jdbcTemplate.queryForList(TEMPLATE_SQL, templateId, callerTenant);
+        if (template.isEmpty()) {
+            throw new RuntimeException("Template not found with id: " + templateId);
+        }
+        String description = (String) template.get(0).get("description");
+        LocalDate anchor = toDateTime(template.get(0).get("first_start") != null
+                ? template.get(0).get("first_start") : template.get(0).get("created_at")).toLocalDate();
+        LocalDate defaultStart = request.getStartDate() != null ? request.getStartDate() : LocalDate.now();
+
+        int count = recipients.size();
+        Long[] goalIds = jdbcTemplate.queryForList("SELECT nextval(pg_get_serial_sequence('goals', 'id')) FROM generate_series(1, ?)",
+                Long.class, count).toArray(new Long[0]);
+        String[] tenantIds = new String[count];
+        Integer[] shiftDays = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            InstantiateTemplateRequest.Recipient recipient = recipients.get(i);
+            tenantIds[i] = recipient.getTenantId();
+            LocalDate start = recipient.getStartDate() != null ? recipient.getStartDate() : defaultStart;
+            shiftDays[i] = Math.toIntExact(ChronoUnit.DAYS.between(anchor, start));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp nowTs = Timestamp.valueOf(now);
+        jdbcTemplate.update(INSERT_GOALS_SQL, GoalStatus.PLANNING.name(), SOURCE_TEMPLATE, nowTs, nowTs, goalIds, tenantIds, shiftDays, templateId);
+        Map<String, Object> written = jdbcTemplate.queryForMap(INSERT_TASKS_SQL, goalIds, tenantIds, shiftDays, templateId,
+                TaskStatus.PENDING.name(), nowTs, nowTs);
+        int tasks = ((Number) written.get("tasks")).intValue();
+
+        recordAnalytics(templateId, goalIds, tenantIds, shiftDays, now);
+        for (int i = 0; i < count; i++) {
+            eventPublisher.publishEvent(new GoalCreatedEvent(goalIds[i], tenantIds[i], description, SOURCE_TEMPLATE));
+        }
+
+        long elapsed = System.currentTimeMillis() - started;
+        log.info("Instantiated template {} for {} recipients: {} tasks in {} ms", templateId, count, tasks, elapsed);
+        return InstantiateTemplateResponse.builder()
+                .templateId(templateId)
+                .goalIds(List.of(goalIds))
+                .tasks(tasks)
+                .steps(((Number) written.get("steps")).intValue())
+                .dependencies(((Number) written.get("dependencies")).intValue())
+                .durationMs(elapsed)
+                .build();
+    }
+
+    // The copies are new PENDING goals; their snapshots follow from the template's tasks
+    private void recordAnalytics(Long templateId, Long[] goalIds, String[] tenantIds, Integer[] shiftDays, LocalDateTime now) {
+        List<Map<String, Object>> templateTasks = jdbcTemplate.queryForList(TEMPLATE_TASKS_SQL, templateId);
+        List<GoalSnapshot> snapshots = new ArrayList<>(goalIds.length);
+        for (int i = 0; i < goalIds.length; i++) {
+            int shift = shiftDays[i];
+            List<GoalSnapshot.TaskSnapshot> tasks = templateTasks.stream()
+                    .map(task -> new GoalSnapshot.TaskSnapshot(
+                            (String) task.get("priority"),
+                            TaskStatus.PENDING.name(),
+                            task.get("estimated_duration_hours") != null ? ((Number) task.get("estimated_duration_hours")).intValue() : 0,
+                            now,
+                            null,
+                            null,
+                            task.get("end_date") != null ? toDateTime(task.get("end_date")).plusDays(shift) : null))
+                    .toList();
+            snapshots.add(new GoalSnapshot(goalIds[i], tenantIds[i], now, null, tasks));
+        }
+        analyticsRollupService.recordCreated(snapshots);
+    }
+
+    private boolean isAdminToken(String token) {
+        String expected = properties.getAdminToken();
+        if (expected == null || expected.isBlank() || token == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static LocalDateTime toDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+}
@@ -0,0 +1,110 @@
+package com.milan.smarttaskplanner.services;
+
+import com.milan.smarttaskplanner.config.TieredPlanningProperties;
+import com.milan.smarttaskplanner.dto.GoalRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Answers plan requests within a fixed latency budget. Configured tiers (by default the plan cache,
+ * then the LLM) are tried in order, each within its own budget. If none answers in time the local
+ * rule-based planner does, and a still-running upgradable tier is attached to the plan under
+ * {@link #UPGRADE_KEY} so GoalService can replace the quick plan once the better one arrives.
+ * GoalService keeps the tenant's planning slot until the upgrade completes or times out, so
+ * upgrades count against the tenant's concurrency limit like the requests that started them.
+ */
+@Service
+@Primary
+@Slf4j
+public class TieredPlanningService implements AIService {
+
+    public static final String UPGRADE_KEY = "upgrade";
+
+    private final Map<String, PlanningTier> tiers = new HashMap<>();
+    private final LocalPlanGenerator localPlanGenerator;
+    private final DurationCalibrationService durationCalibrationService;
+    private final PlanReuseAIService planReuseAIService;
+    private final TieredPlanningProperties properties;
+    private final Executor executor;
+
+    public TieredPlanningService(List<PlanningTier> planningTiers,
+                                 LocalPlanGenerator localPlanGenerator,
+                                 DurationCalibrationService durationCalibrationService,
+                                 PlanReuseAIService planReuseAIService,
+                                 TieredPlanningProperties properties,
+                                 @Qualifier("planningExecutor") Executor executor) {
+        planningTiers.forEach(tier -> tiers.put(tier.getName(), tier));
+        this.localPlanGenerator = localPlanGenerator;
+        this.durationCalibrationService = durationCalibrationService;
+        this.planReuseAIService = planReuseAIService;
+        this.properties = properties;
+        this.executor = executor;
+    }
+
+    @Override
+    public Map<String, Object> generateTaskPlan(GoalRequest request) {
+        if (!properties.isEnabled()) {
+            return planReuseAIService.generateTaskPlan(request);
+        }
+
+        long deadline = System.currentTimeMillis() + properties.getResponseBudgetMs();
+        CompletableFuture<Map<String, Object>> pendingUpgrade = null;
+
+        for (String name : properties.getTiers()) {
+            PlanningTier tier = tiers.get(name);
+            if (tier == null) {
+                log.warn("Unknown planning tier '{}', skipping", name);
+                continue;
+            }
+
+            long remaining = deadline - System.currentTimeMillis();
+            long budget = Math.min(properties.getBudgetsMs().getOrDefault(name, remaining), remaining);
+            if (budget <= 0 && !tier.isUpgradable()) {
+                continue;
+            }
+
+            CompletableFuture<Map<String, Object>> future;
+            try {
+                future = CompletableFuture.supplyAsync(() -> tier.plan(request), executor);
+            } catch (RejectedExecutionException e) {
+                log.warn("Planning executor is saturated, skipping tier '{}'", name);
+                continue;
+            }
+
+            long started = System.currentTimeMillis();
+            try {
+                Map<String, Object> plan = future.get(Math.max(budget, 0), TimeUnit.MILLISECONDS);
+                if (plan != null) {
+                    log.info("Plan served by tier '{}' in {} ms", name, System.currentTimeMillis() - started);
+                    return plan;
+                }
+            } catch (TimeoutException e) {
+                if (tier.isUpgradable()) {
+                    log.info("Tier '{}' missed its {} ms budget, answering locally and upgrading later", name, budget);
+                    pendingUpgrade = future;
+                } else {
+                    log.info("Tier '{}' missed its {} ms budget", name, budget);
+                }
+            } catch (ExecutionException e) {
+                log.warn("Planning tier '{}' failed: {}", name, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        Map<String, Object> plan = durationCalibrationService.calibrate(localPlanGenerator.generate(request),
+                request.getDescription());
+        if (pendingUpgrade != null) {
+            plan.put(UPGRADE_KEY, pendingUpgrade.orTimeout(properties.getUpgradeTimeoutMs(), TimeUnit.MILLISECONDS));
+        }
+        return plan;
+    }
+}
@@ -0,0 +1,233 @@
+package com.milan.smarttaskplanner.services.analytics;
+
+import com.milan.smarttaskplanner.config.AnalyticsProperties;
+import com.milan.smarttaskplanner.config.ArchiveProperties;
+import com.milan.smarttaskplanner.services.coordination.CoordinationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Recomputes the analytics rollups from the goal tables, correcting any drift (e.g. from bulk
+ * imports, which bypass the incremental path) and refreshing the time-dependent overdue counts.
+ *
+ * Nothing is locked or rebuilt wholesale. Each rollup is corrected by one statement that
+ * compares the counts derived from the goal tables with the stored rows, both read from the
+ * same snapshot, and adds the difference to the rows that drifted, the same way
+ * AnalyticsRollupService applies its deltas. A writer that commits while the statement runs adds
+ * its own delta on top, so nothing is lost or counted twice, and writers only wait on the few
+ * rows that are corrected. Reconciliations are serialized by an advisory lock, so two of them
+ * never apply the same correction.
+ *
+ * Weekly rows are only corrected from the first week that lies entirely within the archive
+ * retention period: goals leave the hot tables only after that, so those weeks can be recounted
+ * exactly, while older weeks are kept as history. The first run on an empty rollup table
+ * covers every week. Goal and burndown rows are only corrected for goals still in the hot tables.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsReconciler {
+
+    private static final String LOCK_SQL = "SELECT pg_advisory_xact_lock(hashtext('analytics-reconcile'))";
+
+    // Drift below this is floating-point noise in the hour sums, not a missed change
+    private static final String EPSILON = "0.000001";
+
+    // Same formulas as AnalyticsRollupService: whole minutes, Monday weeks, completed_at only while COMPLETED
+    private static final String WEEKLY_EXPECTED = """
+            SELECT tenant_id, week_start, sum(goals_created) AS goals_created, sum(goals_completed) AS goals_completed,
+                   sum(tasks_created) AS tasks_created, sum(tasks_completed) AS tasks_completed,
+                   sum(tasks_completed_late) AS tasks_completed_late, sum(estimated_hours) AS estimated_hours_completed,
+                   sum(actual_hours) AS actual_hours_completed
+              FROM (SELECT tenant_id, date_trunc('week', created_at)::date AS week_start, 1 AS goals_created,
+                           0 AS goals_completed, 0 AS tasks_created, 0 AS tasks_completed, 0 AS tasks_completed_late,
+                           0 AS estimated_hours, 0.0 AS actual_hours
+                      FROM goals WHERE created_at >= ?
+                    UNION ALL
+                    SELECT tenant_id, date_trunc('week', completed_at)::date, 0, 1, 0, 0, 0, 0, 0.0
+                      FROM goals WHERE status = 'COMPLETED' AND completed_at >= ?
+                    UNION ALL
+                    SELECT tenant_id, date_trunc('week', created_at)::date, 0, 0, 1, 0, 0, 0, 0.0
+                      FROM tasks WHERE created_at >= ?
+                    UNION ALL
+                    SELECT tenant_id, date_trunc('week', completed_at)::date, 0, 0, 0, 1,
+                           CASE WHEN end_date IS NOT NULL AND completed_at > end_date THEN 1 ELSE 0 END,
+                           coalesce(estimated_duration_hours, 0),
+                           greatest(0, floor(extract(epoch FROM completed_at - coalesce(started_at, created_at)) / 60) / 60.0)
+                      FROM tasks WHERE status::text = 'COMPLETED' AND completed_at >= ?) contributions
+             GROUP BY tenant_id, week_start
+            """;
+
+    private static final String WEEKLY_SQL = driftSql("analytics_weekly_rollups", List.of("tenant_id", "week_start"),
+            List.of(), List.of("goals_created", "goals_completed", "tasks_created", "tasks_completed",
+                    "tasks_completed_late", "estimated_hours_completed", "actual_hours_completed"),
+            WEEKLY_EXPECTED, "WHERE r.week_start >= ?");
+
+    private static final String PRIORITY_SQL = driftSql("analytics_priority_rollups", List.of("tenant_id", "priority", "status"),
+            List.of(), List.of("task_count"), """
+                    SELECT tenant_id, priority::text AS priority, status::text AS status, count(*) AS task_count
+                      FROM tasks WHERE priority IS NOT NULL AND status IS NOT NULL
+                     GROUP BY tenant_id, priority, status
+                    """, "");
+
+    private static final String GOAL_SQL = driftSql("analytics_goal_rollups", List.of("goal_id"), List.of("tenant_id"),
+            List.of("total_tasks", "completed_tasks", "total_estimated_hours", "completed_estimated_hours", "actual_hours"), """
+                    SELECT g.id AS goal_id, g.tenant_id, count(t.id) AS total_tasks,
+                           count(t.id) FILTER (WHERE t.status::text = 'COMPLETED' AND t.completed_at IS NOT NULL) AS completed_tasks,
+                           coalesce(sum(t.estimated_duration_hours), 0) AS total_estimated_hours,
+                           coalesce(sum(t.estimated_duration_hours) FILTER (WHERE t.status::text = 'COMPLETED'
+                                                                               AND t.completed_at IS NOT NULL), 0)
+                               AS completed_estimated_hours,
+                           coalesce(sum(greatest(0, floor(extract(epoch FROM t.completed_at - coalesce(t.started_at, t.created_at)) / 60) / 60.0))
+                                    FILTER (WHERE t.status::text = 'COMPLETED' AND t.completed_at IS NOT NULL), 0) AS actual_hours
+                      FROM goals g LEFT JOIN tasks t ON t.goal_id = g.id
+                     GROUP BY g.id, g.tenant_id
+                    """, "WHERE EXISTS (SELECT 1 FROM goals g WHERE g.id = r.goal_id)");
+
+    private static final String BURNDOWN_SQL = driftSql("analytics_goal_burndown", List.of("goal_id", "day"),
+            List.of(), List.of("completed_tasks", "completed_estimated_hours"), """
+                    SELECT goal_id, completed_at::date AS day, count(*) AS completed_tasks,
+                           coalesce(sum(estimated_duration_hours), 0) AS completed_estimated_hours
+                      FROM tasks WHERE status::text = 'COMPLETED' AND completed_at IS NOT NULL
+                     GROUP BY goal_id, completed_at::date
+                    """, "WHERE EXISTS (SELECT 1 FROM goals g WHERE g.id = r.goal_id)");
+
+    // Rollups of archived goals stay; those of goals that exist nowhere any more are dropped
+    private static final String ORPHAN_GOALS_SQL = """
+            DELETE FROM analytics_goal_rollups r
+             WHERE NOT EXISTS (SELECT 1 FROM goals g WHERE g.id = r.goal_id)
+               AND NOT EXISTS (SELECT 1 FROM goal_archive a WHERE a.id = r.goal_id)
+            """;
+
+    private static final String ORPHAN_BURNDOWN_SQL = """
+            DELETE FROM analytics_goal_burndown b
+             WHERE NOT EXISTS (SELECT 1 FROM analytics_goal_rollups r WHERE r.goal_id = b.goal_id)
+            """;
+
+    // Only written here, so it is simply replaced
+    private static final String SNAPSHOT_SQL = """
+            INSERT INTO analytics_tenant_snapshots (tenant_id, overdue_tasks, overdue_goals, refreshed_at)
+            SELECT tenant_id, sum(overdue_tasks), sum(overdue_goals), LOCALTIMESTAMP
+              FROM (SELECT tenant_id, count(*) FILTER (WHERE status::text <> 'COMPLETED' AND end_date < LOCALTIMESTAMP)
+                           AS overdue_tasks, 0 AS overdue_goals
+                      FROM tasks GROUP BY tenant_id
+                    UNION ALL
+                    SELECT tenant_id, 0, count(*) FILTER (WHERE status NOT IN ('COMPLETED', 'CANCELLED')
+                                                           AND target_date < LOCALTIMESTAMP)
+                      FROM goals GROUP BY tenant_id) overdue
+             GROUP BY tenant_id
+            """;
+
+    // Before any Monday a timestamp column can hold in practice
+    private static final LocalDate EPOCH_WEEK = LocalDate.of(1970, 1, 5);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CoordinationService coordinationService;
+    private final AnalyticsProperties properties;
+    private final ArchiveProperties archiveProperties;
+
+    // Fills the rollups for data that existed before they were introduced
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        if (properties.isReconcileEnabled()) {
+            scheduledReconcile();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${analytics.reconcile-interval-ms:3600000}",
+            fixedDelayString = "${analytics.reconcile-interval-ms:3600000}")
+    public void scheduledReconcile() {
+        if (!properties.isReconcileEnabled()) {
+            return;
+        }
+        // One node per interval is enough; the others would only wait on the advisory lock
+        if (!coordinationService.tryAcquire("analytics-reconcile", 1, Duration.ofMillis(properties.getReconcileIntervalMs()))) {
+            return;
+        }
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.error("Analytics reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    public void reconcile() {
+        long started = System.currentTimeMillis();
+        LocalDate from = inStep(this::firstRebuiltWeek);
+        Timestamp fromTime = Timestamp.valueOf(from.atStartOfDay());
+
+        int weeks = inStep(() -> jdbcTemplate.update(WEEKLY_SQL, fromTime, fromTime, fromTime, fromTime, Date.valueOf(from)));
+        int priorities = inStep(() -> jdbcTemplate.update(PRIORITY_SQL));
+        int goals = inStep(() -> jdbcTemplate.update(GOAL_SQL));
+        int days = inStep(() -> jdbcTemplate.update(BURNDOWN_SQL));
+        inStep(() -> jdbcTemplate.update(ORPHAN_GOALS_SQL) + jdbcTemplate.update(ORPHAN_BURNDOWN_SQL));
+        inStep(() -> {
+            jdbcTemplate.update("DELETE FROM analytics_tenant_snapshots");
+            return jdbcTemplate.update(SNAPSHOT_SQL);
+        });
+        log.info("Reconciled analytics rollups from week {} in {} ms: corrected {} weekly, {} priority, {} goal "
+                + "and {} burndown rows", from, System.currentTimeMillis() - started, weeks, priorities, goals, days);
+    }
+
+    // One short transaction per rollup, so a correction only holds its rows for one statement
+    private <T> T inStep(Supplier<T> step) {
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.query(LOCK_SQL, (RowCallbackHandler) rs -> {
+            });
+            return step.get();
+        });
+    }
+
+    /**
+     * Upserts expected minus stored into the rows where they differ. {@code expected} must return
+     * the key, carried and value columns by name; {@code scope} limits the stored rows compared
+     * (alias r) to those {@code expected} covers.
+     */
+    private static String driftSql(String table, List<String> keys, List<String> carried, List<String> values,
+                           String expected, String scope) {
+        List<String> columns = new ArrayList<>(keys);
+        columns.addAll(carried);
+        columns.addAll(values);
+        String join = keys.stream().map(k -> "c." + k + " = e." + k).collect(Collectors.joining(" AND "));
+        String drift = Stream.concat(
+                        Stream.concat(keys.stream(), carried.stream()).map(k -> "coalesce(e." + k + ", c." + k + ") AS " + k),
+                        values.stream().map(v -> "coalesce(e." + v + ", 0) - coalesce(c." + v + ", 0) AS " + v))
+                .collect(Collectors.joining(", "));
+        return "WITH e AS (" + expected + "), c AS (SELECT " + String.join(", ", columns) + " FROM " + table + " r " + scope
+                + "), d AS (SELECT " + drift + " FROM e FULL JOIN c ON " + join + ")\n"
+                + "INSERT INTO " + table + " AS r (" + String.join(", ", columns) + ")\n"
+                + "SELECT " + String.join(", ", columns) + " FROM d WHERE "
+                + values.stream().map(v -> "abs(" + v + ") > " + EPSILON).collect(Collectors.joining(" OR ")) + "\n"
+                + "ON CONFLICT (" + String.join(", ", keys) + ") DO UPDATE SET "
+                + values.stream().map(v -> v + " = r." + v + " + EXCLUDED." + v).collect(Collectors.joining(", "));
+    }
+
+    private LocalDate firstRebuiltWeek() {
+        Boolean empty = jdbcTemplate.queryForObject(
+                "SELECT NOT EXISTS (SELECT 1 FROM analytics_weekly_rollups)", Boolean.class);
+        if (Boolean.TRUE.equals(empty)) {
+            return EPOCH_WEEK;
+        }
+        LocalDateTime retained = LocalDateTime.now().minusDays(archiveProperties.getRetentionDays());
+        return AnalyticsRollupService.weekStart(retained).plusWeeks(1);
+    }
+}
@@ -0,0 +1,281 @@
+package com.milan.smarttaskplanner.services.analytics;
+
+import com.milan.smarttaskplanner.entities.TaskStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the analytics rollup tables in step with goal changes. Every change is applied as the
+ * difference between a snapshot of the goal before and after it, in the transaction that makes
+ * the change, so the rollups never drift from committed data. Rows are upserted in a fixed key
+ * order so concurrent transactions lock them in the same order.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsRollupService {
+
+    private static final String WEEKLY_UPSERT = """
+            INSERT INTO analytics_weekly_rollups AS r (tenant_id, week_start, goals_created, goals_completed,
+                   tasks_created, tasks_completed, tasks_completed_late, estimated_hours_completed, actual_hours_completed)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (tenant_id, week_start) DO UPDATE
+               SET goals_created = r.goals_created + EXCLUDED.goals_created,
+                   goals_completed = r.goals_completed + EXCLUDED.goals_completed,
+                   tasks_created = r.tasks_created + EXCLUDED.tasks_created,
+                   tasks_completed = r.tasks_completed + EXCLUDED.tasks_completed,
+                   tasks_completed_late = r.tasks_completed_late + EXCLUDED.tasks_completed_late,
+                   estimated_hours_completed = r.estimated_hours_completed + EXCLUDED.estimated_hours_completed,
+                   actual_hours_completed = r.actual_hours_completed + EXCLUDED.actual_hours_completed
+            """;
+
+    private static final String PRIORITY_UPSERT = """
+            INSERT INTO analytics_priority_rollups AS r (tenant_id, priority, status, task_count)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (tenant_id, priority, status) DO UPDATE SET task_count = r.task_count + EXCLUDED.task_count
+            """;
+
+    private static final String GOAL_UPSERT = """
+            INSERT INTO analytics_goal_rollups AS r (goal_id, tenant_id, total_tasks, completed_tasks,
+                   total_estimated_hours, completed_estimated_hours, actual_hours)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (goal_id) DO UPDATE
+               SET total_tasks = r.total_tasks + EXCLUDED.total_tasks,
+                   completed_tasks = r.completed_tasks + EXCLUDED.completed_tasks,
+                   total_estimated_hours = r.total_estimated_hours + EXCLUDED.total_estimated_hours,
+                   completed_estimated_hours = r.completed_estimated_hours + EXCLUDED.completed_estimated_hours,
+                   actual_hours = r.actual_hours + EXCLUDED.actual_hours
+            """;
+
+    private static final String BURNDOWN_UPSERT = """
+            INSERT INTO analytics_goal_burndown AS r (goal_id, day, completed_tasks, completed_estimated_hours)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (goal_id, day) DO UPDATE
+               SET completed_tasks = r.completed_tasks + EXCLUDED.completed_tasks,
+                   completed_estimated_hours = r.completed_estimated_hours + EXCLUDED.completed_estimated_hours
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record StatusMove(String tenantId, String priority, String fromStatus, String toStatus) {
+    }
+
+    private record WeekKey(String tenantId, LocalDate weekStart) {
+    }
+
+    private record PriorityKey(String tenantId, String priority, String status) {
+    }
+
+    private static final class Counts {
+        long goalsCreated;
+        long goalsCompleted;
+        long tasksCreated;
+        long tasksCompleted;
+        long tasksCompletedLate;
+        long totalTasks;
+        long totalEstimatedHours;
+        long estimatedHoursCompleted;
+        double actualHoursCompleted;
+
+        boolean isZero() {
+            return goalsCreated == 0 && goalsCompleted == 0 && tasksCreated == 0 && tasksCompleted == 0
+                    && tasksCompletedLate == 0 && totalTasks == 0 && totalEstimatedHours == 0
+                    && estimatedHoursCompleted == 0 && Math.abs(actualHoursCompleted) < 1e-9;
+        }
+    }
+
+    // Everything one change moves, keyed and sorted the way the rows are locked
+    private static final class Deltas {
+        final Map<WeekKey, Counts> weeks = new TreeMap<>(
+                Comparator.comparing(WeekKey::tenantId).thenComparing(WeekKey::weekStart));
+        final Map<PriorityKey, Long> priorities = new TreeMap<>(
+                Comparator.comparing(PriorityKey::tenantId).thenComparing(PriorityKey::priority).thenComparing(PriorityKey::status));
+        final Map<LocalDate, Counts> burndown = new TreeMap<>();
+        final Counts goal = new Counts();
+
+        void add(GoalSnapshot snapshot, int sign) {
+            week(snapshot.tenantId(), snapshot.createdAt()).goalsCreated += sign;
+            if (snapshot.completedAt() != null) {
+                week(snapshot.tenantId(), snapshot.completedAt()).goalsCompleted += sign;
+            }
+
+            for (GoalSnapshot.TaskSnapshot task : snapshot.tasks()) {
+                addPriority(snapshot.tenantId(), task, sign);
+                week(snapshot.tenantId(), task.createdAt()).tasksCreated += sign;
+                goal.totalTasks += sign;
+                goal.totalEstimatedHours += (long) sign * task.estimatedHours();
+
+                if (isCompleted(task)) {
+                    double actual = actualHours(task);
+                    Counts week = week(snapshot.tenantId(), task.completedAt());
+                    week.tasksCompleted += sign;
+                    week.estimatedHoursCompleted += (long) sign * task.estimatedHours();
+                    week.actualHoursCompleted += sign * actual;
+                    if (task.endDate() != null && task.completedAt().isAfter(task.endDate())) {
+                        week.tasksCompletedLate += sign;
+                    }
+
+                    Counts day = burndown.computeIfAbsent(task.completedAt().toLocalDate(), d -> new Counts());
+                    day.tasksCompleted += sign;
+                    day.estimatedHoursCompleted += (long) sign * task.estimatedHours();
+
+                    goal.tasksCompleted += sign;
+                    goal.estimatedHoursCompleted += (long) sign * task.estimatedHours();
+                    goal.actualHoursCompleted += sign * actual;
+                }
+            }
+        }
+
+        void addPriority(String tenantId, GoalSnapshot.TaskSnapshot task, int sign) {
+            if (task.priority() != null && task.status() != null) {
+                priorities.merge(new PriorityKey(tenantId, task.priority(), task.status()), (long) sign, Long::sum);
+            }
+        }
+
+        private Counts week(String tenantId, LocalDateTime at) {
+            return weeks.computeIfAbsent(new WeekKey(tenantId, weekStart(at)), k -> new Counts());
+        }
+    }
+
+    /**
+     * Moves the rollups by the difference between two snapshots of one goal: before == null for a
+     * new goal, after == null for a deleted one.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(GoalSnapshot before, GoalSnapshot after) {
+        GoalSnapshot goal = after != null ? after : before;
+        if (goal == null) {
+            return;
+        }
+        Deltas deltas = new Deltas();
+        if (before != null) {
+            deltas.add(before, -1);
+        }
+        if (after != null) {
+            deltas.add(after, 1);
+        }
+
+        writeWeeks(deltas);
+        writePriorities(deltas);
+        if (after == null) {
+            jdbcTemplate.update("DELETE FROM analytics_goal_burndown WHERE goal_id = ?", goal.goalId());
+            jdbcTemplate.update("DELETE FROM analytics_goal_rollups WHERE goal_id = ?", goal.goalId());
+            return;
+        }
+        if (!deltas.goal.isZero() || before == null) {
+            Counts c = deltas.goal;
+            jdbcTemplate.update(GOAL_UPSERT, goal.goalId(), goal.tenantId(), c.totalTasks, c.tasksCompleted,
+                    c.totalEstimatedHours, c.estimatedHoursCompleted, c.actualHoursCompleted);
+        }
+        deltas.burndown.forEach((day, c) -> {
+            if (!c.isZero()) {
+                jdbcTemplate.update(BURNDOWN_UPSERT, goal.goalId(), Date.valueOf(day), c.tasksCompleted, c.estimatedHoursCompleted);
+            }
+        });
+    }
+
+    /**
+     * Archived goals leave the priority distribution, which only covers the hot tables. Their
+     * weekly history, totals and burndown stay.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordArchived(List<GoalSnapshot> goals) {
+        Deltas deltas = new Deltas();
+        goals.forEach(goal -> goal.tasks().forEach(task -> deltas.addPriority(goal.tenantId(), task, -1)));
+        writePriorities(deltas);
+    }
+
+    /**
+     * recordChange(null, goal) for many new goals at once: the weekly and priority deltas of all of
+     * them are summed before they are written, and the goal rollups go out as one batch.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(List<GoalSnapshot> goals) {
+        Deltas shared = new Deltas();
+        List<Object[]> goalRows = new ArrayList<>();
+        List<Object[]> burndownRows = new ArrayList<>();
+        for (GoalSnapshot goal : goals) {
+            Deltas own = new Deltas();
+            own.add(goal, 1);
+            shared.add(goal, 1);
+            Counts c = own.goal;
+            goalRows.add(new Object[]{goal.goalId(), goal.tenantId(), c.totalTasks, c.tasksCompleted,
+                    c.totalEstimatedHours, c.estimatedHoursCompleted, c.actualHoursCompleted});
+            own.burndown.forEach((day, d) -> burndownRows.add(new Object[]{goal.goalId(), Date.valueOf(day),
+                    d.tasksCompleted, d.estimatedHoursCompleted}));
+        }
+
+        writeWeeks(shared);
+        writePriorities(shared);
+        if (!goalRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(GOAL_UPSERT, goalRows);
+        }
+        if (!burndownRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(BURNDOWN_UPSERT, burndownRows);
+        }
+    }
+
+    /**
+     * Tasks whose status changed outside GoalService, such as overdue tasks the deadline engine
+     * blocks. Short of COMPLETED, a status only counts in the priority distribution.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusMoves(List<StatusMove> moves) {
+        Deltas deltas = new Deltas();
+        for (StatusMove move : moves) {
+            if (move.priority() != null) {
+                deltas.priorities.merge(new PriorityKey(move.tenantId(), move.priority(), move.fromStatus()), -1L, Long::sum);
+                deltas.priorities.merge(new PriorityKey(move.tenantId(), move.priority(), move.toStatus()), 1L, Long::sum);
+            }
+        }
+        writePriorities(deltas);
+    }
+
+    public static LocalDate weekStart(LocalDateTime at) {
+        return at.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    static boolean isCompleted(GoalSnapshot.TaskSnapshot task) {
+        return TaskStatus.COMPLETED.name().equals(task.status()) && task.completedAt() != null;
+    }
+
+    // Elapsed time from the first IN_PROGRESS (or creation, for tasks completed straight away)
+    static double actualHours(GoalSnapshot.TaskSnapshot task) {
+        LocalDateTime start = task.startedAt() != null ? task.startedAt() : task.createdAt();
+        return Math.max(0, Duration.between(start, task.completedAt()).toMinutes() / 60.0);
+    }
+
+    private void writeWeeks(Deltas deltas) {
+        deltas.weeks.forEach((key, c) -> {
+            if (!c.isZero()) {
+                jdbcTemplate.update(WEEKLY_UPSERT, key.tenantId(), Date.valueOf(key.weekStart()), c.goalsCreated,
+                        c.goalsCompleted, c.tasksCreated, c.tasksCompleted, c.tasksCompletedLate,
+                        c.estimatedHoursCompleted, c.actualHoursCompleted);
+            }
+        });
+    }
+
+    private void writePriorities(Deltas deltas) {
+        deltas.priorities.forEach((key, count) -> {
+            if (count != 0) {
+                jdbcTemplate.update(PRIORITY_UPSERT, key.tenantId(), key.priority(), key.status(), count);
+            }
+        });
+    }
+}
@@ -0,0 +1,182 @@
+package com.milan.smarttaskplanner.services.analytics;
+
+import com.milan.smarttaskplanner.config.AnalyticsProperties;
+import com.milan.smarttaskplanner.dto.AnalyticsOverviewResponse;
+import com.milan.smarttaskplanner.dto.GoalBurndownResponse;
+import com.milan.smarttaskplanner.dto.PriorityDistributionResponse;
+import com.milan.smarttaskplanner.dto.WeeklyThroughputResponse;
+import com.milan.smarttaskplanner.entities.GoalBurndownDay;
+import com.milan.smarttaskplanner.entities.GoalRollup;
+import com.milan.smarttaskplanner.entities.PriorityRollup;
+import com.milan.smarttaskplanner.entities.TaskPriority;
+import com.milan.smarttaskplanner.entities.TenantAnalyticsSnapshot;
+import com.milan.smarttaskplanner.entities.WeeklyRollup;
+import com.milan.smarttaskplanner.repositories.GoalBurndownDayRepository;
+import com.milan.smarttaskplanner.repositories.GoalRollupRepository;
+import com.milan.smarttaskplanner.repositories.PriorityRollupRepository;
+import com.milan.smarttaskplanner.repositories.TenantAnalyticsSnapshotRepository;
+import com.milan.smarttaskplanner.repositories.WeeklyRollupRepository;
+import com.milan.smarttaskplanner.services.tenancy.TenantContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Analytics for the current tenant, read from the rollup tables only. The cost of each call
+ * depends on the number of weeks (or days of one goal) asked for, not on the number of goals.
+ */
+@Service
+@RequiredArgsConstructor
+public class AnalyticsService {
+
+    private final WeeklyRollupRepository weeklyRollupRepository;
+    private final GoalRollupRepository goalRollupRepository;
+    private final GoalBurndownDayRepository goalBurndownDayRepository;
+    private final PriorityRollupRepository priorityRollupRepository;
+    private final TenantAnalyticsSnapshotRepository snapshotRepository;
+    private final AnalyticsProperties properties;
+
+    // One entry per week, oldest first, including weeks without activity
+    @Transactional(readOnly = true)
+    public List<WeeklyThroughputResponse> getThroughput(Integer weeks) {
+        int count = weeks(weeks);
+        LocalDate current = AnalyticsRollupService.weekStart(LocalDateTime.now());
+        LocalDate from = current.minusWeeks(count - 1L);
+        Map<LocalDate, WeeklyRollup> rows = weeklyRollupRepository
+                .findByTenantIdAndWeekStartGreaterThanEqualOrderByWeekStartAsc(TenantContext.getTenantId(), from).stream()
+                .collect(Collectors.toMap(WeeklyRollup::getWeekStart, Function.identity()));
+
+        List<WeeklyThroughputResponse> result = new ArrayList<>(count);
+        for (LocalDate week = from; !week.isAfter(current); week = week.plusWeeks(1)) {
+            WeeklyRollup row = rows.get(week);
+            result.add(row != null ? mapToThroughput(row) : emptyWeek(week));
+        }
+        return result;
+    }
+
+    @Transactional(readOnly = true)
+    public AnalyticsOverviewResponse getOverview(Integer weeks) {
+        List<WeeklyThroughputResponse> throughput = getThroughput(weeks);
+        long tasksCreated = sum(throughput, WeeklyThroughputResponse::getTasksCreated);
+        long tasksCompleted = sum(throughput, WeeklyThroughputResponse::getTasksCompleted);
+        long estimated = sum(throughput, WeeklyThroughputResponse::getEstimatedHoursCompleted);
+        double actual = throughput.stream().mapToDouble(WeeklyThroughputResponse::getActualHoursCompleted).sum();
+        TenantAnalyticsSnapshot snapshot = snapshotRepository.findById(TenantContext.getTenantId()).orElse(null);
+
+        return AnalyticsOverviewResponse.builder()
+                .weeks(throughput.size())
+                .goalsCreated(sum(throughput, WeeklyThroughputResponse::getGoalsCreated))
+                .goalsCompleted(sum(throughput, WeeklyThroughputResponse::getGoalsCompleted))
+                .tasksCreated(tasksCreated)
+                .tasksCompleted(tasksCompleted)
+                .taskCompletionRate(tasksCreated > 0 ? (double) tasksCompleted / tasksCreated : null)
+                .tasksCompletedLate(sum(throughput, WeeklyThroughputResponse::getTasksCompletedLate))
+                .estimatedHoursCompleted(estimated)
+                .actualHoursCompleted(actual)
+                .actualToEstimatedRatio(ratio(actual, estimated))
+                .overdueTasks(snapshot != null ? snapshot.getOverdueTasks() : 0L)
+                .overdueGoals(snapshot != null ? snapshot.getOverdueGoals() : 0L)
+                .overdueRefreshedAt(snapshot != null ? snapshot.getRefreshedAt() : null)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public GoalBurndownResponse getBurndown(Long goalId) {
+        GoalRollup goal = goalRollupRepository.findByGoalIdAndTenantId(goalId, TenantContext.getTenantId())
+                .orElseThrow(() -> new RuntimeException("No analytics for goal with id: " + goalId));
+
+        List<GoalBurndownResponse.BurndownPoint> points = new ArrayList<>();
+        long remainingTasks = goal.getTotalTasks();
+        long remainingHours = goal.getTotalEstimatedHours();
+        for (GoalBurndownDay day : goalBurndownDayRepository.findByGoalIdOrderByDayAsc(goalId)) {
+            remainingTasks -= day.getCompletedTasks();
+            remainingHours -= day.getCompletedEstimatedHours();
+            points.add(GoalBurndownResponse.BurndownPoint.builder()
+                    .day(day.getDay())
+                    .remainingTasks(remainingTasks)
+                    .remainingEstimatedHours(remainingHours)
+                    .build());
+        }
+
+        return GoalBurndownResponse.builder()
+                .goalId(goalId)
+                .totalTasks(goal.getTotalTasks())
+                .completedTasks(goal.getCompletedTasks())
+                .totalEstimatedHours(goal.getTotalEstimatedHours())
+                .completedEstimatedHours(goal.getCompletedEstimatedHours())
+                .actualHours(goal.getActualHours())
+                .points(points)
+                .build();
+    }
+
+    // Ordered from CRITICAL to LOW
+    @Transactional(readOnly = true)
+    public List<PriorityDistributionResponse> getPriorityDistribution() {
+        Map<String, Map<String, Long>> byPriority = new LinkedHashMap<>();
+        for (int i = TaskPriority.values().length - 1; i >= 0; i--) {
+            byPriority.put(TaskPriority.values()[i].name(), new LinkedHashMap<>());
+        }
+        for (PriorityRollup row : priorityRollupRepository.findByTenantId(TenantContext.getTenantId())) {
+            if (row.getTaskCount() > 0) {
+                byPriority.computeIfAbsent(row.getPriority(), p -> new LinkedHashMap<>()).put(row.getStatus(), row.getTaskCount());
+            }
+        }
+
+        return byPriority.entrySet().stream()
+                .map(entry -> PriorityDistributionResponse.builder()
+                        .priority(entry.getKey())
+                        .total(entry.getValue().values().stream().mapToLong(Long::longValue).sum())
+                        .byStatus(entry.getValue())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private int weeks(Integer weeks) {
+        int requested = weeks != null ? weeks : properties.getDefaultWeeks();
+        return Math.min(Math.max(requested, 1), properties.getMaxWeeks());
+    }
+
+    private WeeklyThroughputResponse mapToThroughput(WeeklyRollup row) {
+        return WeeklyThroughputResponse.builder()
+                .weekStart(row.getWeekStart())
+                .goalsCreated(row.getGoalsCreated())
+                .goalsCompleted(row.getGoalsCompleted())
+                .tasksCreated(row.getTasksCreated())
+                .tasksCompleted(row.getTasksCompleted())
+                .tasksCompletedLate(row.getTasksCompletedLate())
+                .estimatedHoursCompleted(row.getEstimatedHoursCompleted())
+                .actualHoursCompleted(row.getActualHoursCompleted())
+                .actualToEstimatedRatio(ratio(row.getActualHoursCompleted(), row.getEstimatedHoursCompleted()))
+                .build();
+    }
+
+    private WeeklyThroughputResponse emptyWeek(LocalDate week) {
+        return WeeklyThroughputResponse.builder()
+                .weekStart(week)
+                .goalsCreated(0L)
+                .goalsCompleted(0L)
+                .tasksCreated(0L)
+                .tasksCompleted(0L)
+                .tasksCompletedLate(0L)
+                .estimatedHoursCompleted(0L)
+                .actualHoursCompleted(0.0)
+                .build();
+    }
+
+    private static long sum(List<WeeklyThroughputResponse> weeks, Function<WeeklyThroughputResponse, Long> field) {
+        return weeks.stream().mapToLong(field::apply).sum();
+    }
+
+    private static Double ratio(double actual, long estimated) {
+        return estimated > 0 ? actual / estimated : null;
+    }
+}
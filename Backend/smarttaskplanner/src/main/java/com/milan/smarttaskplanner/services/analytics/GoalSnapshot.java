@@ -0,0 +1,38 @@
+package com.milan.smarttaskplanner.services.analytics;
+
+import com.milan.smarttaskplanner.entities.Goal;
+import com.milan.smarttaskplanner.entities.Task;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The parts of a goal that feed the analytics rollups, copied at one point in time. GoalService
+ * takes one before and one after a change; the rollups are moved by the difference.
+ */
+public record GoalSnapshot(Long goalId, String tenantId, LocalDateTime createdAt, LocalDateTime completedAt,
+                           List<TaskSnapshot> tasks) {
+
+    public record TaskSnapshot(String priority, String status, int estimatedHours, LocalDateTime createdAt,
+                               LocalDateTime startedAt, LocalDateTime completedAt, LocalDateTime endDate) {
+    }
+
+    public static GoalSnapshot of(Goal goal) {
+        // Entities that are not flushed yet have no creation timestamp; they are being created now
+        LocalDateTime now = LocalDateTime.now();
+        List<Task> tasks = goal.getTasks() != null ? goal.getTasks() : List.of();
+        return new GoalSnapshot(goal.getId(), goal.getTenantId(),
+                goal.getCreatedAt() != null ? goal.getCreatedAt() : now,
+                goal.getCompletedAt(),
+                tasks.stream()
+                        .map(task -> new TaskSnapshot(
+                                task.getPriority() != null ? task.getPriority().name() : null,
+                                task.getStatus() != null ? task.getStatus().name() : null,
+                                task.getEstimatedDurationHours() != null ? task.getEstimatedDurationHours() : 0,
+                                task.getCreatedAt() != null ? task.getCreatedAt() : now,
+                                task.getStartedAt(),
+                                task.getCompletedAt(),
+                                task.getEndDate()))
+                        .toList());
+    }
+}
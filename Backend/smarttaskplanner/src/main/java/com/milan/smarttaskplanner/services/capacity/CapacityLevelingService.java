@@ -0,0 +1,261 @@
+package com.milan.smarttaskplanner.services.capacity;
+
+import com.milan.smarttaskplanner.config.CapacityProperties;
+import com.milan.smarttaskplanner.dto.CapacityLevelingResponse;
+import com.milan.smarttaskplanner.entities.TaskPriority;
+import com.milan.smarttaskplanner.entities.TaskStatus;
+import com.milan.smarttaskplanner.events.GoalCreatedEvent;
+import com.milan.smarttaskplanner.events.GoalReplannedEvent;
+import com.milan.smarttaskplanner.events.GoalUpdatedEvent;
+import com.milan.smarttaskplanner.events.PlanUpgradedEvent;
+import com.milan.smarttaskplanner.events.TaskCompletedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps the start/end dates of every open task of a tenant consistent with one shared working
+ * calendar (capacity.hours-per-day), across all PLANNING and IN_PROGRESS goals.
+ *
+ * Re-leveling runs in the background after a goal gets its plan (or a better or partially
+ * re-planned one) and after a task completes. Requests for a tenant that is already queued are
+ * coalesced into that run. Queued tenants are leveled one after another by at most
+ * capacity.max-concurrent-runs jobs on the planning executor, so a burst of requests (such as a
+ * template instantiated for a thousand tenants) takes a few threads instead of flooding its queue;
+ * tenants still queued when the executor rejects a job are picked up by the next request or by
+ * the retry every capacity.retry-interval-ms. A run reads only the open tasks' scheduling columns, levels them in
+ * memory with {@link CapacityScheduler} and writes back just the tasks whose dates changed. Runs for the same tenant are serialized across
+ * nodes by a transaction-scoped advisory lock.
+ *
+ * Tasks already marked overdue by the deadline engine, and BLOCKED tasks, keep their dates: moving
+ * them past now would clear the overdue flag and fire the deadline again later.
+ */
+@Service
+@Slf4j
+public class CapacityLevelingService {
+
+    // Estimate used for tasks without one, as in AIServiceImpl
+    private static final int DEFAULT_TASK_HOURS = 4;
+
+    private static final String OPEN_TASKS_SQL = """
+            SELECT g.id AS goal_id, g.target_date, g.created_at AS goal_created_at, g.max_tasks_per_day,
+                   t.id, CAST(t.priority AS text) AS priority, CAST(t.status AS text) AS status,
+                   t.estimated_duration_hours, t.started_at, t.start_date, t.end_date
+              FROM goals g
+              JOIN tasks t ON t.goal_id = g.id AND t.tenant_id = g.tenant_id
+             WHERE g.tenant_id = ? AND g.status IN ('PLANNING', 'IN_PROGRESS') AND NOT g.template
+               AND CAST(t.status AS text) NOT IN ('COMPLETED', 'BLOCKED') AND t.overdue_at IS NULL
+             ORDER BY g.id, t.order_index NULLS LAST, t.id
+            """;
+
+    private static final String UPDATE_SQL =
+            "UPDATE tasks SET start_date = ?, end_date = ?, updated_at = LOCALTIMESTAMP WHERE id = ? AND tenant_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CapacityProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Executor executor;
+    private final Set<String> queuedTenants = ConcurrentHashMap.newKeySet();
+    private final Queue<String> pendingTenants = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger runningJobs = new AtomicInteger();
+
+    public CapacityLevelingService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                   CapacityProperties properties, ApplicationEventPublisher eventPublisher,
+                                   @Qualifier("planningExecutor") Executor executor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.executor = executor;
+    }
+
+    @TransactionalEventListener
+    public void onGoalCreated(GoalCreatedEvent event) {
+        requestLeveling(event.tenantId());
+    }
+
+    @TransactionalEventListener
+    public void onPlanUpgraded(PlanUpgradedEvent event) {
+        requestLeveling(event.tenantId());
+    }
+
+    @TransactionalEventListener
+    public void onGoalReplanned(GoalReplannedEvent event) {
+        requestLeveling(event.tenantId());
+    }
+
+    @TransactionalEventListener
+    public void onTaskCompleted(TaskCompletedEvent event) {
+        requestLeveling(event.tenantId());
+    }
+
+    public void requestLeveling(String tenantId) {
+        if (!properties.isEnabled() || tenantId == null || !queuedTenants.add(tenantId)) {
+            return;
+        }
+        pendingTenants.add(tenantId);
+        startJob();
+    }
+
+    @Scheduled(fixedDelayString = "${capacity.retry-interval-ms:30000}")
+    public void retryQueued() {
+        startJob();
+    }
+
+    private void startJob() {
+        while (true) {
+            int running = runningJobs.get();
+            if (running >= properties.getMaxConcurrentRuns() || pendingTenants.isEmpty()) {
+                return;
+            }
+            if (runningJobs.compareAndSet(running, running + 1)) {
+                break;
+            }
+        }
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            runningJobs.decrementAndGet();
+            log.warn("Capacity leveling delayed, planning executor is saturated; {} tenants queued", pendingTenants.size());
+        }
+    }
+
+    private void drain() {
+        try {
+            String tenantId;
+            while ((tenantId = pendingTenants.poll()) != null) {
+                queuedTenants.remove(tenantId);
+                try {
+                    level(tenantId);
+                } catch (Exception e) {
+                    log.warn("Capacity leveling for tenant {} failed: {}", tenantId, e.getMessage());
+                }
+            }
+        } finally {
+            runningJobs.decrementAndGet();
+        }
+        // A tenant queued between the last poll and the decrement would otherwise wait for the retry
+        startJob();
+    }
+
+    public CapacityLevelingResponse level(String tenantId) {
+        return transactionTemplate.execute(status -> levelInTransaction(tenantId));
+    }
+
+    private CapacityLevelingResponse levelInTransaction(String tenantId) {
+        long started = System.currentTimeMillis();
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(hashtext(?))", (RowCallbackHandler) rs -> {
+        }, "capacity:" + tenantId);
+
+        Map<Long, GoalRows> goals = new LinkedHashMap<>();
+        jdbcTemplate.query(OPEN_TASKS_SQL, (RowCallbackHandler) rs -> {
+            long goalId = rs.getLong("goal_id");
+            GoalRows goal = goals.get(goalId);
+            if (goal == null) {
+                Integer maxTasksPerDay = (Integer) rs.getObject("max_tasks_per_day");
+                goal = new GoalRows(goalId, toLocalDateTime(rs.getTimestamp("target_date")),
+                        toLocalDateTime(rs.getTimestamp("goal_created_at")),
+                        maxTasksPerDay != null ? maxTasksPerDay : properties.getDefaultMaxTasksPerDay());
+                goals.put(goalId, goal);
+            }
+            Integer hours = (Integer) rs.getObject("estimated_duration_hours");
+            String priority = rs.getString("priority");
+            goal.tasks.add(new CapacityScheduler.TaskItem(rs.getLong("id"),
+                    priority != null ? TaskPriority.valueOf(priority) : null,
+                    TaskStatus.valueOf(rs.getString("status")),
+                    60L * (hours != null && hours > 0 ? hours : DEFAULT_TASK_HOURS),
+                    toLocalDateTime(rs.getTimestamp("started_at"))));
+            goal.current.put(rs.getLong("id"), new CapacityScheduler.Slot(
+                    toLocalDateTime(rs.getTimestamp("start_date")), toLocalDateTime(rs.getTimestamp("end_date"))));
+        }, tenantId);
+
+        WorkCalendar calendar = new WorkCalendar(properties.getWorkdayStartHour(), properties.getHoursPerDay(),
+                properties.getWorkingDays());
+        Map<Long, CapacityScheduler.Slot> slots = new CapacityScheduler(calendar).schedule(
+                goals.values().stream().map(GoalRows::toPlan).toList(), LocalDateTime.now().withSecond(0).withNano(0));
+
+        List<Object[]> updates = new ArrayList<>();
+        Set<Long> movedGoals = new LinkedHashSet<>();
+        LocalDateTime scheduleEnd = null;
+        for (GoalRows goal : goals.values()) {
+            for (Map.Entry<Long, CapacityScheduler.Slot> current : goal.current.entrySet()) {
+                CapacityScheduler.Slot slot = slots.get(current.getKey());
+                if (slot == null) {
+                    continue;
+                }
+                if (scheduleEnd == null || slot.end().isAfter(scheduleEnd)) {
+                    scheduleEnd = slot.end();
+                }
+                if (!Objects.equals(slot, current.getValue())) {
+                    updates.add(new Object[]{Timestamp.valueOf(slot.start()), Timestamp.valueOf(slot.end()),
+                            current.getKey(), tenantId});
+                    movedGoals.add(goal.goalId);
+                }
+            }
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+        }
+        // Caches and other nodes reload the goals whose schedule moved once this commits
+        movedGoals.forEach(goalId -> eventPublisher.publishEvent(new GoalUpdatedEvent(goalId)));
+
+        long durationMs = System.currentTimeMillis() - started;
+        log.info("Leveled {} open tasks of {} goals for tenant {}: {} moved in {} ms",
+                slots.size(), goals.size(), tenantId, updates.size(), durationMs);
+        return CapacityLevelingResponse.builder()
+                .tenantId(tenantId)
+                .activeGoals(goals.size())
+                .openTasks(slots.size())
+                .tasksMoved(updates.size())
+                .scheduleEnd(scheduleEnd)
+                .durationMs(durationMs)
+                .build();
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private static final class GoalRows {
+        private final long goalId;
+        private final LocalDateTime targetDate;
+        private final LocalDateTime createdAt;
+        private final int maxTasksPerDay;
+        private final List<CapacityScheduler.TaskItem> tasks = new ArrayList<>();
+        private final Map<Long, CapacityScheduler.Slot> current = new LinkedHashMap<>();
+
+        private GoalRows(long goalId, LocalDateTime targetDate, LocalDateTime createdAt, int maxTasksPerDay) {
+            this.goalId = goalId;
+            this.targetDate = targetDate;
+            this.createdAt = createdAt;
+            this.maxTasksPerDay = maxTasksPerDay;
+        }
+
+        CapacityScheduler.GoalPlan toPlan() {
+            return new CapacityScheduler.GoalPlan(goalId, targetDate, createdAt, maxTasksPerDay, tasks);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.milan.smarttaskplanner.services.capacity;
+
+import com.milan.smarttaskplanner.entities.TaskPriority;
+import com.milan.smarttaskplanner.entities.TaskStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Levels the open tasks of all active goals of one tenant onto a single working calendar.
+ *
+ * Each goal is a chain: its open tasks are done in orderIndex order, which also satisfies its
+ * dependencies (they always point to earlier tasks). Whenever the calendar is free, the scheduler
+ * starts the next task of the goal whose next task ranks highest: tasks already IN_PROGRESS first,
+ * then by priority, the goal's target date and the goal's age. A goal whose maxTasksPerDay tasks
+ * were already started that day waits for the next working day. One pass over a priority queue of
+ * chain heads, so O(tasks * log(goals)).
+ */
+public class CapacityScheduler {
+
+    public record GoalPlan(long goalId, LocalDateTime targetDate, LocalDateTime createdAt, int maxTasksPerDay,
+                           List<TaskItem> tasks) {
+    }
+
+    public record TaskItem(long taskId, TaskPriority priority, TaskStatus status, long estimatedMinutes,
+                           LocalDateTime startedAt) {
+    }
+
+    public record Slot(LocalDateTime start, LocalDateTime end) {
+    }
+
+    // Floor for what is left of a task that has been in progress longer than its estimate
+    private static final long MIN_REMAINING_MINUTES = 60;
+
+    private static final Comparator<Chain> RANK = Comparator
+            .comparing((Chain chain) -> chain.head().status() != TaskStatus.IN_PROGRESS)
+            .thenComparing(chain -> chain.head().priority() == null ? 0 : -chain.head().priority().ordinal() - 1)
+            .thenComparing(chain -> chain.goal.targetDate(), Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(chain -> chain.goal.createdAt(), Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingLong(chain -> chain.goal.goalId());
+
+    private final WorkCalendar calendar;
+
+    public CapacityScheduler(WorkCalendar calendar) {
+        this.calendar = calendar;
+    }
+
+    public Map<Long, Slot> schedule(List<GoalPlan> goals, LocalDateTime now) {
+        Map<Long, Slot> slots = new HashMap<>();
+        PriorityQueue<Chain> ready = new PriorityQueue<>(RANK);
+        List<Chain> waiting = new ArrayList<>();
+        for (GoalPlan goal : goals) {
+            if (!goal.tasks().isEmpty()) {
+                ready.add(new Chain(goal));
+            }
+        }
+
+        LocalDateTime cursor = calendar.normalize(now);
+        LocalDate day = cursor.toLocalDate();
+        while (!ready.isEmpty() || !waiting.isEmpty()) {
+            if (ready.isEmpty()) {
+                cursor = calendar.nextDayStart(day);
+                day = cursor.toLocalDate();
+                ready.addAll(waiting);
+                waiting.clear();
+                continue;
+            }
+
+            Chain chain = ready.poll();
+            if (chain.startedOn(day) >= chain.dailyLimit()) {
+                waiting.add(chain);
+                continue;
+            }
+
+            TaskItem task = chain.head();
+            long minutes = remainingMinutes(task, now);
+            LocalDateTime start = task.status() == TaskStatus.IN_PROGRESS && task.startedAt() != null
+                    && task.startedAt().isBefore(cursor) ? task.startedAt() : cursor;
+            LocalDateTime end = calendar.advance(cursor, minutes);
+            slots.put(task.taskId(), new Slot(start, end));
+            chain.recordStart(day);
+
+            cursor = calendar.normalize(end);
+            if (!cursor.toLocalDate().equals(day)) {
+                day = cursor.toLocalDate();
+                ready.addAll(waiting);
+                waiting.clear();
+            }
+            if (chain.advance()) {
+                ready.add(chain);
+            }
+        }
+        return slots;
+    }
+
+    private long remainingMinutes(TaskItem task, LocalDateTime now) {
+        if (task.status() != TaskStatus.IN_PROGRESS || task.startedAt() == null) {
+            return task.estimatedMinutes();
+        }
+        long worked = calendar.workingMinutesBetween(task.startedAt(), now, task.estimatedMinutes());
+        return Math.max(task.estimatedMinutes() - worked, Math.min(MIN_REMAINING_MINUTES, task.estimatedMinutes()));
+    }
+
+    private static final class Chain {
+        private final GoalPlan goal;
+        private int index;
+        private LocalDate day;
+        private int startedThatDay;
+
+        private Chain(GoalPlan goal) {
+            this.goal = goal;
+        }
+
+        TaskItem head() {
+            return goal.tasks().get(index);
+        }
+
+        boolean advance() {
+            return ++index < goal.tasks().size();
+        }
+
+        int dailyLimit() {
+            return goal.maxTasksPerDay() > 0 ? goal.maxTasksPerDay() : Integer.MAX_VALUE;
+        }
+
+        int startedOn(LocalDate date) {
+            return date.equals(day) ? startedThatDay : 0;
+        }
+
+        void recordStart(LocalDate date) {
+            startedThatDay = startedOn(date) + 1;
+            day = date;
+        }
+    }
+}
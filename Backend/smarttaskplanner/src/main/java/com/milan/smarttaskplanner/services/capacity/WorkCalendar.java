@@ -0,0 +1,86 @@
+package com.milan.smarttaskplanner.services.capacity;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Working time of one tenant: the same window (start hour plus hours per day) on every working day.
+ * All arithmetic is in whole minutes.
+ */
+public final class WorkCalendar {
+
+    private final LocalTime dayStart;
+    private final long minutesPerDay;
+    private final Set<DayOfWeek> workingDays;
+
+    public WorkCalendar(int startHour, double hoursPerDay, Collection<DayOfWeek> workingDays) {
+        if (hoursPerDay <= 0 || startHour < 0 || startHour * 60 + hoursPerDay * 60 > 24 * 60) {
+            throw new IllegalArgumentException("Working hours must lie within one day");
+        }
+        if (workingDays == null || workingDays.isEmpty()) {
+            throw new IllegalArgumentException("At least one working day is required");
+        }
+        this.dayStart = LocalTime.of(startHour, 0);
+        this.minutesPerDay = Math.round(hoursPerDay * 60);
+        this.workingDays = EnumSet.copyOf(workingDays);
+    }
+
+    // The given time if it is working time, otherwise the start of the next working period
+    public LocalDateTime normalize(LocalDateTime time) {
+        LocalDate day = time.toLocalDate();
+        if (workingDays.contains(day.getDayOfWeek())) {
+            LocalDateTime start = day.atTime(dayStart);
+            if (time.isBefore(start)) {
+                return start;
+            }
+            if (time.isBefore(dayEnd(day))) {
+                return time;
+            }
+        }
+        return nextDayStart(day);
+    }
+
+    public LocalDateTime nextDayStart(LocalDate day) {
+        LocalDate next = day.plusDays(1);
+        while (!workingDays.contains(next.getDayOfWeek())) {
+            next = next.plusDays(1);
+        }
+        return next.atTime(dayStart);
+    }
+
+    // The time at which the given amount of working time, started at from, is done
+    public LocalDateTime advance(LocalDateTime from, long minutes) {
+        LocalDateTime time = normalize(from);
+        long remaining = minutes;
+        while (true) {
+            long available = Duration.between(time, dayEnd(time.toLocalDate())).toMinutes();
+            if (remaining <= available) {
+                return time.plusMinutes(remaining);
+            }
+            remaining -= available;
+            time = nextDayStart(time.toLocalDate());
+        }
+    }
+
+    // Working minutes in [from, to), counted only up to cap
+    public long workingMinutesBetween(LocalDateTime from, LocalDateTime to, long cap) {
+        long total = 0;
+        LocalDateTime time = normalize(from);
+        while (time.isBefore(to) && total < cap) {
+            LocalDateTime end = dayEnd(time.toLocalDate());
+            total += Duration.between(time, end.isBefore(to) ? end : to).toMinutes();
+            time = nextDayStart(time.toLocalDate());
+        }
+        return Math.min(total, cap);
+    }
+
+    private LocalDateTime dayEnd(LocalDate day) {
+        return day.atTime(dayStart).plusMinutes(minutesPerDay);
+    }
+}
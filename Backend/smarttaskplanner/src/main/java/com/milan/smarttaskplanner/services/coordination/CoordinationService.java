@@ -0,0 +1,33 @@
+package com.milan.smarttaskplanner.services.coordination;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * State that has to be shared by every backend replica. Select the implementation with
+ * coordination.mode: EmbeddedCoordinationService for a single node, RedisCoordinationService
+ * for several nodes behind a load balancer.
+ */
+public interface CoordinationService {
+
+    String getNodeId();
+
+    /**
+     * Takes one permit from a fixed-window counter shared by all nodes. Returns false when
+     * {@code limit} permits were already taken in the current window.
+     */
+    boolean tryAcquire(String bucket, long limit, Duration window);
+
+    // Fire-and-forget broadcast to every node, including this one
+    void publish(String channel, String message);
+
+    void subscribe(String channel, Consumer<String> listener);
+
+    /**
+     * Runs {@code loader} once for all concurrent callers with the same key, cluster-wide, and
+     * hands its result to all of them. Callers that wait longer than {@code timeout} for another
+     * node, or whose leader failed, run the loader themselves.
+     */
+    String coalesce(String key, Duration timeout, Supplier<String> loader);
+}
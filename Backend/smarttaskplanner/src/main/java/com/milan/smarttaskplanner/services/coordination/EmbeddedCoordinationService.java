@@ -0,0 +1,71 @@
+package com.milan.smarttaskplanner.services.coordination;
+
+import com.milan.smarttaskplanner.config.CoordinationProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Single-node stand-in for RedisCoordinationService with the same semantics, kept entirely in memory.
+ */
+@Service
+@ConditionalOnProperty(prefix = "coordination", name = "mode", havingValue = "embedded", matchIfMissing = true)
+@Slf4j
+public class EmbeddedCoordinationService implements CoordinationService {
+
+    private record Window(long start, AtomicLong count) {
+    }
+
+    private final String nodeId;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private final Map<String, List<Consumer<String>>> listeners = new ConcurrentHashMap<>();
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    public EmbeddedCoordinationService(CoordinationProperties properties) {
+        this.nodeId = NodeIds.resolve(properties.getNodeId());
+        log.info("Using embedded coordination (node {})", nodeId);
+    }
+
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public boolean tryAcquire(String bucket, long limit, Duration window) {
+        long windowStart = System.currentTimeMillis() / window.toMillis();
+        Window current = windows.compute(bucket, (key, existing) ->
+                existing != null && existing.start() == windowStart ? existing : new Window(windowStart, new AtomicLong()));
+        return current.count().incrementAndGet() <= limit;
+    }
+
+    @Override
+    public void publish(String channel, String message) {
+        for (Consumer<String> listener : listeners.getOrDefault(channel, List.of())) {
+            try {
+                listener.accept(message);
+            } catch (Exception e) {
+                log.warn("Listener on channel {} failed: {}", channel, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(String channel, Consumer<String> listener) {
+        listeners.computeIfAbsent(channel, key -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    @Override
+    public String coalesce(String key, Duration timeout, Supplier<String> loader) {
+        return singleFlight.run(key, timeout, loader);
+    }
+}
@@ -0,0 +1,72 @@
+package com.milan.smarttaskplanner.services.coordination;
+
+import com.milan.smarttaskplanner.events.GoalCreatedEvent;
+import com.milan.smarttaskplanner.events.GoalDeletedEvent;
+import com.milan.smarttaskplanner.events.GoalInvalidatedEvent;
+import com.milan.smarttaskplanner.events.GoalUpdatedEvent;
+import com.milan.smarttaskplanner.events.PlanUpgradedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Broadcasts committed goal mutations to the other nodes and turns their broadcasts into local
+ * GoalInvalidatedEvents, so per-node state (e.g. the plan similarity index) stays in sync.
+ * Messages are "nodeId|goalId"; a node ignores its own messages.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GoalInvalidationBroadcaster {
+
+    static final String CHANNEL = "goal-invalidation";
+
+    private final CoordinationService coordinationService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostConstruct
+    void subscribe() {
+        coordinationService.subscribe(CHANNEL, this::onMessage);
+    }
+
+    @TransactionalEventListener
+    public void onGoalCreated(GoalCreatedEvent event) {
+        broadcast(event.goalId());
+    }
+
+    @TransactionalEventListener
+    public void onGoalUpdated(GoalUpdatedEvent event) {
+        broadcast(event.goalId());
+    }
+
+    @TransactionalEventListener
+    public void onPlanUpgraded(PlanUpgradedEvent event) {
+        broadcast(event.goalId());
+    }
+
+    @TransactionalEventListener
+    public void onGoalDeleted(GoalDeletedEvent event) {
+        broadcast(event.goalId());
+    }
+
+    private void broadcast(Long goalId) {
+        try {
+            coordinationService.publish(CHANNEL, coordinationService.getNodeId() + "|" + goalId);
+        } catch (Exception e) {
+            log.warn("Could not broadcast invalidation of goal {}: {}", goalId, e.getMessage());
+        }
+    }
+
+    private void onMessage(String message) {
+        int separator = message.lastIndexOf('|');
+        if (separator < 0 || message.substring(0, separator).equals(coordinationService.getNodeId())) {
+            return;
+        }
+        Long goalId = Long.valueOf(message.substring(separator + 1));
+        log.debug("Goal {} changed on another node", goalId);
+        eventPublisher.publishEvent(new GoalInvalidatedEvent(goalId));
+    }
+}
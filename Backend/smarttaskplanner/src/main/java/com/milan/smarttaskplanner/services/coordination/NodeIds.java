@@ -0,0 +1,23 @@
+package com.milan.smarttaskplanner.services.coordination;
+
+import java.net.InetAddress;
+import java.util.UUID;
+
+public final class NodeIds {
+
+    private NodeIds() {
+    }
+
+    public static String resolve(String configured) {
+        if (configured != null && !configured.isBlank()) {
+            return configured;
+        }
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,131 @@
+package com.milan.smarttaskplanner.services.coordination;
+
+import com.milan.smarttaskplanner.config.CoordinationProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Coordination through any server speaking the Redis protocol (Redis, Valkey, KeyDB, ...).
+ *
+ * Rate limits are fixed-window counters (INCR + PEXPIRE in one script). Broadcasts use pub/sub.
+ * Coalescing elects a leader with SET NX PX; the leader stores its result under a short-lived key
+ * that followers poll, and followers take over if the leader's lock disappears without a result.
+ */
+@Service
+@ConditionalOnProperty(prefix = "coordination", name = "mode", havingValue = "redis")
+@Slf4j
+public class RedisCoordinationService implements CoordinationService {
+
+    private static final DefaultRedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>(
+            "local c = redis.call('INCR', KEYS[1]) "
+                    + "if c == 1 then redis.call('PEXPIRE', KEYS[1], ARGV[1]) end "
+                    + "return c", Long.class);
+
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end "
+                    + "return 0", Long.class);
+
+    private final StringRedisTemplate redis;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final CoordinationProperties properties;
+    private final String nodeId;
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    public RedisCoordinationService(StringRedisTemplate redis,
+                                    RedisMessageListenerContainer listenerContainer,
+                                    CoordinationProperties properties) {
+        this.redis = redis;
+        this.listenerContainer = listenerContainer;
+        this.properties = properties;
+        this.nodeId = NodeIds.resolve(properties.getNodeId());
+        log.info("Using Redis coordination (node {})", nodeId);
+    }
+
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public boolean tryAcquire(String bucket, long limit, Duration window) {
+        long windowStart = System.currentTimeMillis() / window.toMillis();
+        String key = properties.getKeyPrefix() + "rate:" + bucket + ":" + windowStart;
+        Long count = redis.execute(INCREMENT_SCRIPT, List.of(key), String.valueOf(window.toMillis()));
+        return count != null && count <= limit;
+    }
+
+    @Override
+    public void publish(String channel, String message) {
+        redis.convertAndSend(properties.getKeyPrefix() + channel, message);
+    }
+
+    @Override
+    public void subscribe(String channel, Consumer<String> listener) {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            try {
+                listener.accept(new String(message.getBody(), StandardCharsets.UTF_8));
+            } catch (Exception e) {
+                log.warn("Listener on channel {} failed: {}", channel, e.getMessage());
+            }
+        }, new ChannelTopic(properties.getKeyPrefix() + channel));
+    }
+
+    @Override
+    public String coalesce(String key, Duration timeout, Supplier<String> loader) {
+        // Coalesce on this node first so only one local thread talks to Redis per key
+        return singleFlight.run(key, timeout, () -> coalesceAcrossNodes(key, timeout, loader));
+    }
+
+    private String coalesceAcrossNodes(String key, Duration timeout, Supplier<String> loader) {
+        String resultKey = properties.getKeyPrefix() + "coalesce:result:" + key;
+        String lockKey = properties.getKeyPrefix() + "coalesce:lock:" + key;
+
+        String ready = redis.opsForValue().get(resultKey);
+        if (ready != null) {
+            return ready;
+        }
+
+        String token = nodeId + ":" + UUID.randomUUID();
+        if (Boolean.TRUE.equals(redis.opsForValue().setIfAbsent(lockKey, token, timeout))) {
+            try {
+                String result = loader.get();
+                redis.opsForValue().set(resultKey, result, Duration.ofMillis(properties.getCoalesceResultTtlMs()));
+                return result;
+            } finally {
+                redis.execute(RELEASE_SCRIPT, List.of(lockKey), token);
+            }
+        }
+
+        long deadline = System.currentTimeMillis() + timeout.toMillis();
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(properties.getCoalescePollMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for " + key, e);
+            }
+            String result = redis.opsForValue().get(resultKey);
+            if (result != null) {
+                return result;
+            }
+            if (!Boolean.TRUE.equals(redis.hasKey(lockKey))) {
+                break;
+            }
+        }
+
+        log.debug("Leader for {} failed or timed out, loading locally", key);
+        return loader.get();
+    }
+}
@@ -0,0 +1,47 @@
+package com.milan.smarttaskplanner.services.coordination;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * In-process request coalescing: the first caller for a key runs the loader, callers arriving
+ * while it runs wait for the same result.
+ */
+public class SingleFlight {
+
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    public String run(String key, Duration timeout, Supplier<String> loader) {
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, mine);
+
+        if (existing != null) {
+            try {
+                return existing.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for " + key, e);
+            } catch (ExecutionException | TimeoutException e) {
+                // The leader failed or is too slow; do the work ourselves
+                return loader.get();
+            }
+        }
+
+        try {
+            String result = loader.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+}
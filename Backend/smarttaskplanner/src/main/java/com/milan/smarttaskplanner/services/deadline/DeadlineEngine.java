@@ -0,0 +1,525 @@
+package com.milan.smarttaskplanner.services.deadline;
+
+import com.milan.smarttaskplanner.config.DeadlineProperties;
+import com.milan.smarttaskplanner.dto.DeadlineStatsResponse;
+import com.milan.smarttaskplanner.events.GoalCreatedEvent;
+import com.milan.smarttaskplanner.events.GoalDeletedEvent;
+import com.milan.smarttaskplanner.events.GoalInvalidatedEvent;
+import com.milan.smarttaskplanner.events.GoalUpdatedEvent;
+import com.milan.smarttaskplanner.events.PlanUpgradedEvent;
+import com.milan.smarttaskplanner.services.analytics.AnalyticsRollupService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fires task end dates and goal target dates: a "due soon" notification deadline.reminder-lead-minutes
+ * ahead and an overdue one when the date passes. Overdue tasks are flagged (tasks.overdue_at) or
+ * also BLOCKED, in batches of deadline.batch-size per transaction.
+ *
+ * Only deadlines inside a sliding window of deadline.horizon-hours are held, in a
+ * HierarchicalTimingWheel. They are loaded at startup by keyset-paged scans of two partial indexes
+ * over open tasks and goals, which is all a restart has to redo: what already fired is in the
+ * tasks' overdue flags and in deadline_notifications. Goals written through GoalService (or on
+ * another node) are queued and reloaded on the next tick, one query per batch of goals.
+ *
+ * Every node runs its own wheel; the insert into deadline_notifications decides which node
+ * delivers, so each deadline is notified once. Delivery to the sink is at most once.
+ */
+@Service
+@Slf4j
+public class DeadlineEngine {
+
+    private static final String TASK_COLUMNS = """
+            SELECT t.id, t.goal_id, t.tenant_id, t.title, t.end_date,
+                   EXISTS (SELECT 1 FROM deadline_notifications n
+                            WHERE n.kind = 'TASK_DUE_SOON' AND n.subject_id = t.id AND n.deadline = t.end_date) AS reminded
+              FROM tasks t
+              JOIN goals g ON g.id = t.goal_id AND g.status IN ('PLANNING', 'IN_PROGRESS') AND NOT g.template
+             WHERE t.end_date IS NOT NULL AND t.overdue_at IS NULL AND t.status <> 'COMPLETED'
+            """;
+
+    private static final String GOAL_COLUMNS = """
+            SELECT g.id, g.tenant_id, g.description, g.target_date,
+                   EXISTS (SELECT 1 FROM deadline_notifications n
+                            WHERE n.kind = 'GOAL_DUE_SOON' AND n.subject_id = g.id AND n.deadline = g.target_date) AS reminded
+              FROM goals g
+             WHERE g.target_date IS NOT NULL AND g.status IN ('PLANNING', 'IN_PROGRESS') AND NOT g.template
+               AND NOT EXISTS (SELECT 1 FROM deadline_notifications n
+                                WHERE n.kind = 'GOAL_OVERDUE' AND n.subject_id = g.id AND n.deadline = g.target_date)
+            """;
+
+    private static final String TASK_PAGE_SQL = TASK_COLUMNS
+            + " AND (t.end_date, t.id) > (?, ?) AND t.end_date < ? ORDER BY t.end_date, t.id LIMIT ?";
+
+    private static final String GOAL_PAGE_SQL = GOAL_COLUMNS
+            + " AND (g.target_date, g.id) > (?, ?) AND g.target_date < ? ORDER BY g.target_date, g.id LIMIT ?";
+
+    private static final String GOAL_TASKS_SQL = TASK_COLUMNS + " AND t.goal_id = ANY(?) AND t.end_date < ?";
+
+    private static final String GOALS_SQL = GOAL_COLUMNS + " AND g.id = ANY(?) AND g.target_date < ?";
+
+    // Tasks whose end date was moved past now (by an edit or a re-plan) are no longer overdue;
+    // capacity leveling never moves flagged tasks, so it cannot clear the flag
+    private static final String CLEAR_FLAGS_SQL = """
+            UPDATE tasks SET overdue_at = NULL
+             WHERE goal_id = ANY(?) AND overdue_at IS NOT NULL AND end_date > ? AND status <> 'COMPLETED'
+            """;
+
+    private static final String CLAIM_SQL = """
+            INSERT INTO deadline_notifications (kind, subject_id, tenant_id, deadline, fired_at)
+            SELECT n.kind, n.subject_id, n.tenant_id, n.deadline, ?
+              FROM unnest(CAST(? AS varchar[]), CAST(? AS bigint[]), CAST(? AS varchar[]), CAST(? AS timestamp[]))
+                   AS n(kind, subject_id, tenant_id, deadline)
+            ON CONFLICT (kind, subject_id, deadline) DO NOTHING
+            RETURNING kind, subject_id
+            """;
+
+    // Re-checks each task, so deadlines that moved or tasks finished since they were loaded are skipped
+    private static final String MARK_OVERDUE_SQL = """
+            WITH due AS (
+                SELECT id, status, priority FROM tasks
+                 WHERE id = ANY(?) AND overdue_at IS NULL AND status <> 'COMPLETED' AND end_date <= ?
+                   FOR UPDATE
+            )
+            UPDATE tasks t
+               SET overdue_at = ?, updated_at = ?,
+                   status = CASE WHEN ? THEN CAST('BLOCKED' AS task_status) ELSE t.status END
+              FROM due
+             WHERE t.id = due.id
+            RETURNING t.id, t.goal_id, t.tenant_id, CAST(due.status AS text) AS previous_status,
+                      CAST(due.priority AS text) AS priority
+            """;
+
+    private static final String STATUS_CHANGE_SQL = """
+            INSERT INTO task_status_changes (task_id, goal_id, tenant_id, from_status, to_status, changed_at)
+            VALUES (?, ?, ?, ?, 'BLOCKED', ?)
+            """;
+
+    private static final List<String> INDEXES = List.of(
+            "CREATE INDEX IF NOT EXISTS idx_tasks_open_deadline ON tasks (end_date, id) "
+                    + "WHERE overdue_at IS NULL AND status <> 'COMPLETED'",
+            "CREATE INDEX IF NOT EXISTS idx_goals_open_deadline ON goals (target_date, id) "
+                    + "WHERE status IN ('PLANNING', 'IN_PROGRESS') AND NOT template");
+
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    record DeadlineKey(DeadlineKind kind, long subjectId) {
+    }
+
+    record Deadline(DeadlineKey key, Long goalId, String tenantId, String title, LocalDateTime deadline) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DeadlineProperties properties;
+    private final DeadlineNotificationSink sink;
+    private final AnalyticsRollupService analyticsRollupService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Guarded by this
+    private HierarchicalTimingWheel<DeadlineKey> wheel;
+    private final Map<DeadlineKey, Deadline> deadlines = new HashMap<>();
+    private final Map<Long, Set<DeadlineKey>> goalKeys = new HashMap<>();
+    private LocalDateTime horizonEnd;
+
+    private final Set<Long> pendingGoals = ConcurrentHashMap.newKeySet();
+    private volatile boolean running;
+    private volatile long lastLoadMs;
+    private volatile long lastLoadDeadlines;
+    private final AtomicLong fired = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong markedOverdue = new AtomicLong();
+
+    public DeadlineEngine(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                          DeadlineProperties properties, DeadlineNotificationSink sink,
+                          AnalyticsRollupService analyticsRollupService, ApplicationEventPublisher eventPublisher,
+                          MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.sink = sink;
+        this.analyticsRollupService = analyticsRollupService;
+        this.eventPublisher = eventPublisher;
+        Gauge.builder("planner.deadline.scheduled", this, DeadlineEngine::scheduledCount)
+                .description("Deadlines held in the timing wheel")
+                .register(meterRegistry);
+        Gauge.builder("planner.deadline.delivered", delivered, AtomicLong::get)
+                .description("Deadline notifications delivered by this node since startup")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (String ddl : INDEXES) {
+            try {
+                jdbcTemplate.execute(ddl);
+            } catch (Exception e) {
+                log.warn("Could not create deadline index, loading will scan: {}", e.getMessage());
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (this) {
+            wheel = new HierarchicalTimingWheel<>(properties.getTickMs(), properties.getWheelSize(),
+                    properties.getLevels(), toMillis(now));
+            deadlines.clear();
+            goalKeys.clear();
+            horizonEnd = now.plusHours(properties.getHorizonHours());
+        }
+        load(BEGINNING, horizonEnd, now);
+        running = true;
+    }
+
+    @TransactionalEventListener
+    public void onGoalCreated(GoalCreatedEvent event) {
+        pendingGoals.add(event.goalId());
+    }
+
+    @TransactionalEventListener
+    public void onPlanUpgraded(PlanUpgradedEvent event) {
+        pendingGoals.add(event.goalId());
+    }
+
+    @TransactionalEventListener
+    public void onGoalUpdated(GoalUpdatedEvent event) {
+        pendingGoals.add(event.goalId());
+    }
+
+    @TransactionalEventListener
+    public void onGoalDeleted(GoalDeletedEvent event) {
+        pendingGoals.add(event.goalId());
+    }
+
+    // The goal was changed on another node
+    @EventListener
+    public void onGoalInvalidated(GoalInvalidatedEvent event) {
+        pendingGoals.add(event.goalId());
+    }
+
+    @Scheduled(fixedDelayString = "${deadline.tick-ms:1000}")
+    public void tick() {
+        if (!running) {
+            return;
+        }
+        try {
+            resyncPendingGoals();
+            extendHorizon();
+            List<Deadline> due = advance();
+            for (int from = 0; from < due.size(); from += properties.getBatchSize()) {
+                List<Deadline> batch = due.subList(from, Math.min(due.size(), from + properties.getBatchSize()));
+                try {
+                    fire(batch);
+                } catch (Exception e) {
+                    batch.forEach(this::retry);
+                    log.warn("Firing {} deadlines failed, retrying on the next tick: {}", batch.size(), e.getMessage());
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Deadline tick failed: {}", e.getMessage());
+        }
+    }
+
+    public DeadlineStatsResponse getStats() {
+        synchronized (this) {
+            return DeadlineStatsResponse.builder()
+                    .enabled(properties.isEnabled())
+                    .sink(sink.getName())
+                    .scheduled(wheel != null ? wheel.size() : 0)
+                    .horizonEnd(horizonEnd)
+                    .pendingGoals(pendingGoals.size())
+                    .lastLoadDeadlines(lastLoadDeadlines)
+                    .lastLoadMs(lastLoadMs)
+                    .fired(fired.get())
+                    .delivered(delivered.get())
+                    .tasksMarkedOverdue(markedOverdue.get())
+                    .build();
+        }
+    }
+
+    private void load(LocalDateTime after, LocalDateTime before, LocalDateTime now) {
+        long started = System.currentTimeMillis();
+        long loaded = 0;
+        int pageSize = properties.getLoadPageSize();
+
+        LocalDateTime cursorTime = after;
+        long cursorId = -1;
+        while (true) {
+            List<Deadline> page = new ArrayList<>();
+            List<Boolean> reminded = new ArrayList<>();
+            jdbcTemplate.query(TASK_PAGE_SQL, (RowCallbackHandler) rs -> {
+                page.add(taskDeadline(rs));
+                reminded.add(rs.getBoolean("reminded"));
+            }, Timestamp.valueOf(cursorTime), cursorId, Timestamp.valueOf(before), pageSize);
+            for (int i = 0; i < page.size(); i++) {
+                loaded += scheduleWithReminder(page.get(i), reminded.get(i), now);
+            }
+            if (page.size() < pageSize) {
+                break;
+            }
+            Deadline last = page.get(page.size() - 1);
+            cursorTime = last.deadline();
+            cursorId = last.key().subjectId();
+        }
+
+        cursorTime = after;
+        cursorId = -1;
+        while (true) {
+            List<Deadline> page = new ArrayList<>();
+            List<Boolean> reminded = new ArrayList<>();
+            jdbcTemplate.query(GOAL_PAGE_SQL, (RowCallbackHandler) rs -> {
+                page.add(goalDeadline(rs));
+                reminded.add(rs.getBoolean("reminded"));
+            }, Timestamp.valueOf(cursorTime), cursorId, Timestamp.valueOf(before), pageSize);
+            for (int i = 0; i < page.size(); i++) {
+                loaded += scheduleWithReminder(page.get(i), reminded.get(i), now);
+            }
+            if (page.size() < pageSize) {
+                break;
+            }
+            Deadline last = page.get(page.size() - 1);
+            cursorTime = last.deadline();
+            cursorId = last.key().subjectId();
+        }
+
+        lastLoadDeadlines = loaded;
+        lastLoadMs = System.currentTimeMillis() - started;
+        log.info("Loaded {} deadlines before {} in {} ms", loaded, before, lastLoadMs);
+    }
+
+    // Slides the window forward once a quarter of it has passed
+    private void extendHorizon() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime target = now.plusHours(properties.getHorizonHours());
+        LocalDateTime from;
+        synchronized (this) {
+            if (target.isBefore(horizonEnd.plusMinutes(properties.getHorizonHours() * 15L))) {
+                return;
+            }
+            from = horizonEnd;
+            horizonEnd = target;
+        }
+        // Starts just before the old end so deadlines exactly on it are included
+        load(from.minusNanos(1000), target, now);
+    }
+
+    private void resyncPendingGoals() {
+        if (pendingGoals.isEmpty()) {
+            return;
+        }
+        List<Long> goalIds = new ArrayList<>(pendingGoals);
+        pendingGoals.removeAll(goalIds);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime before;
+        synchronized (this) {
+            before = horizonEnd;
+        }
+
+        for (int from = 0; from < goalIds.size(); from += properties.getBatchSize()) {
+            Long[] batch = goalIds.subList(from, Math.min(goalIds.size(), from + properties.getBatchSize())).toArray(new Long[0]);
+            jdbcTemplate.update(CLEAR_FLAGS_SQL, batch, Timestamp.valueOf(now));
+
+            List<Deadline> loaded = new ArrayList<>();
+            List<Boolean> reminded = new ArrayList<>();
+            RowCallbackHandler tasks = rs -> {
+                loaded.add(taskDeadline(rs));
+                reminded.add(rs.getBoolean("reminded"));
+            };
+            RowCallbackHandler goals = rs -> {
+                loaded.add(goalDeadline(rs));
+                reminded.add(rs.getBoolean("reminded"));
+            };
+            jdbcTemplate.query(GOAL_TASKS_SQL, tasks, batch, Timestamp.valueOf(before));
+            jdbcTemplate.query(GOALS_SQL, goals, batch, Timestamp.valueOf(before));
+
+            synchronized (this) {
+                for (Long goalId : batch) {
+                    Set<DeadlineKey> keys = goalKeys.remove(goalId);
+                    if (keys != null) {
+                        keys.forEach(key -> {
+                            wheel.cancel(key);
+                            deadlines.remove(key);
+                        });
+                    }
+                }
+                for (int i = 0; i < loaded.size(); i++) {
+                    scheduleWithReminder(loaded.get(i), reminded.get(i), now);
+                }
+            }
+        }
+    }
+
+    // Schedules the overdue deadline and, unless sent already or too late, the reminder; returns how many
+    private synchronized int scheduleWithReminder(Deadline overdue, boolean reminded, LocalDateTime now) {
+        schedule(overdue);
+        if (reminded || !overdue.deadline().isAfter(now)) {
+            return 1;
+        }
+        DeadlineKind reminderKind = overdue.key().kind().isGoal() ? DeadlineKind.GOAL_DUE_SOON : DeadlineKind.TASK_DUE_SOON;
+        Deadline reminder = new Deadline(new DeadlineKey(reminderKind, overdue.key().subjectId()), overdue.goalId(),
+                overdue.tenantId(), overdue.title(), overdue.deadline());
+        wheel.schedule(reminder.key(), toMillis(overdue.deadline().minusMinutes(properties.getReminderLeadMinutes())));
+        track(reminder);
+        return 2;
+    }
+
+    private synchronized void schedule(Deadline deadline) {
+        wheel.schedule(deadline.key(), toMillis(deadline.deadline()));
+        track(deadline);
+    }
+
+    // Back into the wheel as due now, so the next tick retries it. Not at deadline(): for a reminder that
+    // is the due date it warns about, and the retry would wait for it and fire with the overdue notice
+    private synchronized void retry(Deadline deadline) {
+        wheel.schedule(deadline.key(), System.currentTimeMillis());
+        track(deadline);
+    }
+
+    private void track(Deadline deadline) {
+        deadlines.put(deadline.key(), deadline);
+        goalKeys.computeIfAbsent(deadline.goalId(), id -> new HashSet<>()).add(deadline.key());
+    }
+
+    private synchronized List<Deadline> advance() {
+        List<Deadline> due = new ArrayList<>();
+        for (DeadlineKey key : wheel.advance(System.currentTimeMillis())) {
+            Deadline deadline = deadlines.remove(key);
+            if (deadline == null) {
+                continue;
+            }
+            Set<DeadlineKey> keys = goalKeys.get(deadline.goalId());
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    goalKeys.remove(deadline.goalId());
+                }
+            }
+            due.add(deadline);
+        }
+        return due;
+    }
+
+    private void fire(List<Deadline> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        List<DeadlineNotification> notifications = transactionTemplate.execute(status -> {
+            Set<DeadlineKey> claimed = claim(batch, now);
+            List<Long> overdueTasks = batch.stream()
+                    .map(Deadline::key)
+                    .filter(key -> key.kind() == DeadlineKind.TASK_OVERDUE && claimed.contains(key))
+                    .map(DeadlineKey::subjectId)
+                    .toList();
+            Set<Long> marked = overdueTasks.isEmpty() ? Set.of() : markOverdue(overdueTasks, now);
+
+            List<DeadlineNotification> out = new ArrayList<>();
+            for (Deadline deadline : batch) {
+                DeadlineKey key = deadline.key();
+                if (claimed.contains(key) && (key.kind() != DeadlineKind.TASK_OVERDUE || marked.contains(key.subjectId()))) {
+                    out.add(new DeadlineNotification(key.kind(), deadline.tenantId(), deadline.goalId(),
+                            key.kind().isGoal() ? null : key.subjectId(), deadline.title(), deadline.deadline(), now));
+                }
+            }
+            return out;
+        });
+
+        fired.addAndGet(batch.size());
+        if (!notifications.isEmpty()) {
+            sink.deliver(notifications);
+            delivered.addAndGet(notifications.size());
+        }
+    }
+
+    private Set<DeadlineKey> claim(List<Deadline> batch, LocalDateTime now) {
+        int size = batch.size();
+        String[] kinds = new String[size];
+        Long[] subjects = new Long[size];
+        String[] tenants = new String[size];
+        String[] times = new String[size];
+        for (int i = 0; i < size; i++) {
+            Deadline deadline = batch.get(i);
+            kinds[i] = deadline.key().kind().name();
+            subjects[i] = deadline.key().subjectId();
+            tenants[i] = deadline.tenantId();
+            times[i] = deadline.deadline().toString();
+        }
+        Set<DeadlineKey> claimed = new HashSet<>();
+        jdbcTemplate.query(CLAIM_SQL, (RowCallbackHandler) rs -> claimed.add(
+                        new DeadlineKey(DeadlineKind.valueOf(rs.getString("kind")), rs.getLong("subject_id"))),
+                Timestamp.valueOf(now), kinds, subjects, tenants, times);
+        return claimed;
+    }
+
+    private Set<Long> markOverdue(List<Long> taskIds, LocalDateTime now) {
+        boolean block = properties.getOverdueAction() == DeadlineProperties.OverdueAction.BLOCK;
+        Timestamp at = Timestamp.valueOf(now);
+        Set<Long> marked = new HashSet<>();
+        Set<Long> goals = new LinkedHashSet<>();
+        List<Object[]> statusChanges = new ArrayList<>();
+        List<AnalyticsRollupService.StatusMove> moves = new ArrayList<>();
+        jdbcTemplate.query(MARK_OVERDUE_SQL, (RowCallbackHandler) rs -> {
+            long taskId = rs.getLong("id");
+            long goalId = rs.getLong("goal_id");
+            String tenantId = rs.getString("tenant_id");
+            String previous = rs.getString("previous_status");
+            marked.add(taskId);
+            goals.add(goalId);
+            if (block && !"BLOCKED".equals(previous)) {
+                statusChanges.add(new Object[]{taskId, goalId, tenantId, previous, at});
+                moves.add(new AnalyticsRollupService.StatusMove(tenantId, rs.getString("priority"), previous, "BLOCKED"));
+            }
+        }, taskIds.toArray(new Long[0]), at, at, at, block);
+
+        if (!statusChanges.isEmpty()) {
+            jdbcTemplate.batchUpdate(STATUS_CHANGE_SQL, statusChanges);
+            analyticsRollupService.recordStatusMoves(moves);
+        }
+        markedOverdue.addAndGet(marked.size());
+        // Caches and other nodes reload the goals once this commits
+        goals.forEach(goalId -> eventPublisher.publishEvent(new GoalUpdatedEvent(goalId)));
+        return marked;
+    }
+
+    private synchronized int scheduledCount() {
+        return wheel != null ? wheel.size() : 0;
+    }
+
+    private static Deadline taskDeadline(ResultSet rs) throws SQLException {
+        return new Deadline(new DeadlineKey(DeadlineKind.TASK_OVERDUE, rs.getLong("id")), rs.getLong("goal_id"),
+                rs.getString("tenant_id"), rs.getString("title"), rs.getTimestamp("end_date").toLocalDateTime());
+    }
+
+    private static Deadline goalDeadline(ResultSet rs) throws SQLException {
+        long goalId = rs.getLong("id");
+        return new Deadline(new DeadlineKey(DeadlineKind.GOAL_OVERDUE, goalId), goalId,
+                rs.getString("tenant_id"), rs.getString("description"), rs.getTimestamp("target_date").toLocalDateTime());
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
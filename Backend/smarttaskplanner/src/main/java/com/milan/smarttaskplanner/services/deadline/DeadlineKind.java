@@ -0,0 +1,12 @@
+package com.milan.smarttaskplanner.services.deadline;
+
+public enum DeadlineKind {
+    TASK_DUE_SOON,
+    TASK_OVERDUE,
+    GOAL_DUE_SOON,
+    GOAL_OVERDUE;
+
+    public boolean isGoal() {
+        return this == GOAL_DUE_SOON || this == GOAL_OVERDUE;
+    }
+}
@@ -0,0 +1,11 @@
+package com.milan.smarttaskplanner.services.deadline;
+
+import java.time.LocalDateTime;
+
+/**
+ * What a sink receives when a deadline fires. taskId is null for goal deadlines; title is the
+ * task title or the goal description.
+ */
+public record DeadlineNotification(DeadlineKind kind, String tenantId, Long goalId, Long taskId, String title,
+                                   LocalDateTime deadline, LocalDateTime firedAt) {
+}
@@ -0,0 +1,14 @@
+package com.milan.smarttaskplanner.services.deadline;
+
+import java.util.List;
+
+/**
+ * Where fired deadlines go (deadline.sink). Called outside any transaction, after the batch was
+ * recorded in deadline_notifications; a failed delivery is logged and not retried.
+ */
+public interface DeadlineNotificationSink {
+
+    String getName();
+
+    void deliver(List<DeadlineNotification> notifications);
+}
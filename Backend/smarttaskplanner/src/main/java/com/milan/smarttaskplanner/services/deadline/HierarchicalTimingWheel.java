@@ -0,0 +1,148 @@
+package com.milan.smarttaskplanner.services.deadline;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hierarchical timing wheel: level i has wheelSize buckets of tickMs * wheelSize^i each. A key
+ * goes into the lowest level whose span reaches its deadline; when time enters a bucket of a
+ * higher level, the keys in it move down a level. Scheduling and cancelling are O(1), and
+ * advancing costs one bucket per tick plus the keys that fall due, however many keys are waiting.
+ *
+ * Keys further out than the top level's span wait in its last bucket and are placed again each
+ * time it is reached. Keys fire once time has passed the end of the tick holding their deadline,
+ * so never early and at most one tick late. Not thread-safe.
+ */
+public final class HierarchicalTimingWheel<K> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long[] levelTickMs;
+    private final List<Set<K>[]> levels = new ArrayList<>();
+    private final Map<K, Entry> entries = new HashMap<>();
+    // Scheduled at or before the current time; returned by the next advance
+    private final Set<K> due = new LinkedHashSet<>();
+    // Start of the next tick to process; every earlier tick has fired
+    private long currentTime;
+
+    private record Entry(long deadline, Set<?> bucket) {
+    }
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, int levelCount, long startTime) {
+        if (tickMs <= 0 || wheelSize < 2 || levelCount < 1) {
+            throw new IllegalArgumentException("Timing wheel needs a positive tick, two buckets and one level");
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.levelTickMs = new long[levelCount];
+        long span = tickMs;
+        for (int i = 0; i < levelCount; i++) {
+            levelTickMs[i] = span;
+            levels.add(new Set[wheelSize]);
+            span = Math.multiplyExact(span, wheelSize);
+        }
+        this.currentTime = Math.floorDiv(startTime, tickMs) * tickMs;
+    }
+
+    /** Schedules the key, replacing its previous deadline if it had one. */
+    public void schedule(K key, long deadline) {
+        cancel(key);
+        place(key, deadline);
+    }
+
+    public boolean cancel(K key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.bucket() != null) {
+            entry.bucket().remove(key);
+        } else {
+            due.remove(key);
+        }
+        return true;
+    }
+
+    public boolean contains(K key) {
+        return entries.containsKey(key);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long currentTime() {
+        return currentTime;
+    }
+
+    /** Moves the wheel to {@code now} and returns the keys that fell due, in deadline order per tick. */
+    public List<K> advance(long now) {
+        List<K> fired = new ArrayList<>(due);
+        due.forEach(entries::remove);
+        due.clear();
+
+        while (currentTime + tickMs <= now) {
+            // Entering a higher-level bucket moves its keys down first
+            for (int level = levelTickMs.length - 1; level >= 1; level--) {
+                if (currentTime % levelTickMs[level] == 0) {
+                    Set<K> bucket = take(level, currentTime);
+                    if (bucket != null) {
+                        bucket.forEach(key -> place(key, entries.get(key).deadline()));
+                    }
+                }
+            }
+            Set<K> bucket = take(0, currentTime);
+            if (bucket != null) {
+                List<K> ordered = new ArrayList<>(bucket);
+                ordered.sort((a, b) -> Long.compare(entries.get(a).deadline(), entries.get(b).deadline()));
+                ordered.forEach(entries::remove);
+                fired.addAll(ordered);
+            }
+            currentTime += tickMs;
+        }
+        return fired;
+    }
+
+    private void place(K key, long deadline) {
+        if (deadline < currentTime) {
+            due.add(key);
+            entries.put(key, new Entry(deadline, null));
+            return;
+        }
+        int top = levelTickMs.length - 1;
+        for (int level = 0; level <= top; level++) {
+            long slot = Math.floorDiv(deadline, levelTickMs[level]);
+            long currentSlot = Math.floorDiv(currentTime, levelTickMs[level]);
+            if (slot - currentSlot < wheelSize) {
+                add(key, deadline, level, slot);
+                return;
+            }
+        }
+        // Beyond the top level: park in its last bucket and place again when that is reached
+        long parked = Math.floorDiv(currentTime, levelTickMs[top]) + wheelSize - 1;
+        add(key, deadline, top, parked);
+    }
+
+    private void add(K key, long deadline, int level, long slot) {
+        Set<K>[] buckets = levels.get(level);
+        int index = (int) Math.floorMod(slot, (long) wheelSize);
+        if (buckets[index] == null) {
+            buckets[index] = new LinkedHashSet<>();
+        }
+        buckets[index].add(key);
+        entries.put(key, new Entry(deadline, buckets[index]));
+    }
+
+    private Set<K> take(int level, long time) {
+        Set<K>[] buckets = levels.get(level);
+        int index = (int) Math.floorMod(Math.floorDiv(time, levelTickMs[level]), (long) wheelSize);
+        Set<K> bucket = buckets[index];
+        buckets[index] = null;
+        return bucket;
+    }
+}
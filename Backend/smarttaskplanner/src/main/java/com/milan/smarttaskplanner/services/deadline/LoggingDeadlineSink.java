@@ -0,0 +1,24 @@
+package com.milan.smarttaskplanner.services.deadline;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(prefix = "deadline", name = "sink", havingValue = "log", matchIfMissing = true)
+@Slf4j
+public class LoggingDeadlineSink implements DeadlineNotificationSink {
+
+    @Override
+    public String getName() {
+        return "log";
+    }
+
+    @Override
+    public void deliver(List<DeadlineNotification> notifications) {
+        notifications.forEach(n -> log.info("{} tenant={} goal={} task={} deadline={}: {}",
+                n.kind(), n.tenantId(), n.goalId(), n.taskId(), n.deadline(), n.title()));
+    }
+}
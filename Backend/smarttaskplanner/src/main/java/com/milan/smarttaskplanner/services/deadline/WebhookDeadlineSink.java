@@ -0,0 +1,46 @@
+package com.milan.smarttaskplanner.services.deadline;
+
+import com.milan.smarttaskplanner.config.DeadlineProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+/**
+ * POSTs each batch as a JSON array to deadline.webhook-url. The default URL is the local stub
+ * (DeadlineController), which keeps the last notifications for inspection.
+ */
+@Component
+@ConditionalOnProperty(prefix = "deadline", name = "sink", havingValue = "webhook")
+@Slf4j
+public class WebhookDeadlineSink implements DeadlineNotificationSink {
+
+    private final DeadlineProperties properties;
+    private final RestTemplate restTemplate;
+
+    public WebhookDeadlineSink(DeadlineProperties properties) {
+        this.properties = properties;
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(properties.getWebhookTimeoutMs());
+        requestFactory.setReadTimeout(properties.getWebhookTimeoutMs());
+        this.restTemplate = new RestTemplate(requestFactory);
+    }
+
+    @Override
+    public String getName() {
+        return "webhook";
+    }
+
+    @Override
+    public void deliver(List<DeadlineNotification> notifications) {
+        try {
+            restTemplate.postForEntity(properties.getWebhookUrl(), notifications, Void.class);
+        } catch (Exception e) {
+            log.warn("Webhook delivery of {} deadline notifications to {} failed: {}",
+                    notifications.size(), properties.getWebhookUrl(), e.getMessage());
+        }
+    }
+}
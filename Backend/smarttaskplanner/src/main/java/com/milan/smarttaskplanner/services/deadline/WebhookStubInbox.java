@@ -0,0 +1,38 @@
+package com.milan.smarttaskplanner.services.deadline;
+
+import com.milan.smarttaskplanner.config.DeadlineProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+// The last deadline.stub-capacity notifications POSTed to the local webhook stub
+@Component
+@RequiredArgsConstructor
+public class WebhookStubInbox {
+
+    private final DeadlineProperties properties;
+    private final Deque<DeadlineNotification> received = new ArrayDeque<>();
+    private long total;
+
+    public synchronized void add(List<DeadlineNotification> notifications) {
+        for (DeadlineNotification notification : notifications) {
+            received.addLast(notification);
+            total++;
+            while (received.size() > properties.getStubCapacity()) {
+                received.removeFirst();
+            }
+        }
+    }
+
+    public synchronized List<DeadlineNotification> recent() {
+        return new ArrayList<>(received);
+    }
+
+    public synchronized long total() {
+        return total;
+    }
+}
@@ -0,0 +1,41 @@
+package com.milan.smarttaskplanner.services.llm;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.milan.smarttaskplanner.config.LlmProperties;
+import org.springframework.http.HttpHeaders;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class GeminiLlmProvider extends HttpLlmProvider {
+
+    private static final String DEFAULT_BASE_URL = "https://generativelanguage.googleapis.com";
+
+    public GeminiLlmProvider(LlmProperties.Provider settings) {
+        super(settings);
+    }
+
+    @Override
+    public boolean isConfigured() {
+        return settings.getApiKey() != null && !settings.getApiKey().trim().isEmpty();
+    }
+
+    @Override
+    public String complete(String prompt, int maxOutputTokens, double temperature) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("x-goog-api-key", settings.getApiKey());
+
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("contents", List.of(Map.of("parts", List.of(Map.of("text", prompt)))));
+
+        Map<String, Object> generationConfig = new HashMap<>();
+        generationConfig.put("temperature", temperature);
+        generationConfig.put("maxOutputTokens", maxOutputTokens);
+        requestBody.put("generationConfig", generationConfig);
+
+        String url = String.format("%s/v1beta/models/%s:generateContent", baseUrl(DEFAULT_BASE_URL), settings.getModel());
+        JsonNode root = postJson(url, headers, requestBody);
+        return requireText(root.at("/candidates/0/content/parts/0/text"));
+    }
+}
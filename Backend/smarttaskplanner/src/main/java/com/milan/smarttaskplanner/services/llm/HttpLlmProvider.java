@@ -0,0 +1,69 @@
+package com.milan.smarttaskplanner.services.llm;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.milan.smarttaskplanner.config.LlmProperties;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+
+/**
+ * Base class for JSON-over-HTTP providers: one RestTemplate per provider with its own timeouts.
+ */
+public abstract class HttpLlmProvider implements LlmProvider {
+
+    protected final LlmProperties.Provider settings;
+    protected final ObjectMapper mapper = new ObjectMapper();
+    private final RestTemplate restTemplate;
+
+    protected HttpLlmProvider(LlmProperties.Provider settings) {
+        this.settings = settings;
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout((int) Math.min(settings.getTimeoutMs(), 10_000L));
+        requestFactory.setReadTimeout(settings.getTimeoutMs().intValue());
+        this.restTemplate = new RestTemplate(requestFactory);
+    }
+
+    @Override
+    public String getName() {
+        return settings.getName();
+    }
+
+    @Override
+    public int getQualityTier() {
+        return settings.getQualityTier();
+    }
+
+    @Override
+    public int getCostTier() {
+        return settings.getCostTier();
+    }
+
+    protected JsonNode postJson(String url, HttpHeaders headers, Map<String, Object> body) {
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<String> response = restTemplate.postForEntity(url, new HttpEntity<>(body, headers), String.class);
+        try {
+            return mapper.readTree(response.getBody());
+        } catch (Exception e) {
+            throw new RuntimeException("Invalid JSON from LLM provider " + getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    protected String requireText(JsonNode node) {
+        String text = node.isMissingNode() || node.isNull() ? "" : node.asText();
+        if (text.isEmpty()) {
+            throw new RuntimeException("Empty response from LLM provider " + getName());
+        }
+        return text;
+    }
+
+    protected String baseUrl(String defaultUrl) {
+        String url = settings.getBaseUrl() != null ? settings.getBaseUrl() : defaultUrl;
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
@@ -0,0 +1,31 @@
+package com.milan.smarttaskplanner.services.llm;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.milan.smarttaskplanner.config.LlmProperties;
+import org.springframework.http.HttpHeaders;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A local llama.cpp server using its native /completion endpoint.
+ */
+public class LlamaCppLlmProvider extends HttpLlmProvider {
+
+    private static final String DEFAULT_BASE_URL = "http://localhost:8081";
+
+    public LlamaCppLlmProvider(LlmProperties.Provider settings) {
+        super(settings);
+    }
+
+    @Override
+    public String complete(String prompt, int maxOutputTokens, double temperature) {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("prompt", prompt);
+        requestBody.put("n_predict", maxOutputTokens);
+        requestBody.put("temperature", temperature);
+
+        JsonNode root = postJson(baseUrl(DEFAULT_BASE_URL) + "/completion", new HttpHeaders(), requestBody);
+        return requireText(root.path("content"));
+    }
+}
@@ -0,0 +1,21 @@
+package com.milan.smarttaskplanner.services.llm;
+
+/**
+ * Adapter for one text-generation endpoint. Implementations unwrap their provider's response
+ * envelope and return only the generated text.
+ */
+public interface LlmProvider {
+
+    String getName();
+
+    int getQualityTier();
+
+    int getCostTier();
+
+    // False when the provider cannot be called at all (e.g. missing API key)
+    default boolean isConfigured() {
+        return true;
+    }
+
+    String complete(String prompt, int maxOutputTokens, double temperature);
+}
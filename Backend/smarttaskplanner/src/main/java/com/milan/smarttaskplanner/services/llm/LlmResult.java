@@ -0,0 +1,4 @@
+package com.milan.smarttaskplanner.services.llm;
+
+public record LlmResult(String provider, String text, long latencyMs, int attempt) {
+}
@@ -0,0 +1,152 @@
+package com.milan.smarttaskplanner.services.llm;
+
+import com.milan.smarttaskplanner.config.LlmProperties;
+import com.milan.smarttaskplanner.config.OpenAIProperties;
+import com.milan.smarttaskplanner.dto.LlmProviderStatsResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Picks an LLM provider per request from live latency and error-rate estimates and fails over
+ * to the next candidate when a call errors or times out.
+ *
+ * Ranking: providers with no measurements yet are tried first so every provider gets sampled,
+ * then by EWMA latency inflated by the recent error rate (cost tier breaks near-ties). Providers
+ * whose error rate is above llm.max-error-rate and that failed within llm.cooldown-ms go last.
+ */
+@Service
+@Slf4j
+public class LlmRouter {
+
+    private final LlmProperties llmProperties;
+    private final List<LlmProvider> providers;
+    private final Map<String, ProviderStats> stats = new LinkedHashMap<>();
+    private final LlmTrafficRecorder trafficRecorder;
+
+    @Autowired
+    public LlmRouter(LlmProperties llmProperties, OpenAIProperties openAIProperties, LlmTrafficRecorder trafficRecorder) {
+        this(llmProperties, buildProviders(llmProperties, openAIProperties), trafficRecorder);
+    }
+
+    LlmRouter(LlmProperties llmProperties, List<LlmProvider> providers) {
+        this(llmProperties, providers, new LlmTrafficRecorder(llmProperties));
+    }
+
+    LlmRouter(LlmProperties llmProperties, List<LlmProvider> providers, LlmTrafficRecorder trafficRecorder) {
+        this.llmProperties = llmProperties;
+        this.trafficRecorder = trafficRecorder;
+        this.providers = providers.stream()
+                .filter(p -> p.getQualityTier() >= llmProperties.getMinQualityTier())
+                .filter(p -> p.getCostTier() <= llmProperties.getMaxCostTier())
+                .toList();
+        for (LlmProvider provider : this.providers) {
+            stats.put(provider.getName(), new ProviderStats(llmProperties.getEwmaAlpha()));
+        }
+        log.info("LLM router initialised with providers {}", this.providers.stream().map(LlmProvider::getName).toList());
+    }
+
+    public boolean hasConfiguredProvider() {
+        return providers.stream().anyMatch(LlmProvider::isConfigured);
+    }
+
+    public LlmResult complete(String prompt, int maxOutputTokens, double temperature) {
+        List<LlmProvider> candidates = rankProviders();
+        int maxAttempts = Math.min(llmProperties.getMaxAttempts(), candidates.size());
+        if (maxAttempts == 0) {
+            throw new RuntimeException("No LLM provider is configured");
+        }
+
+        RuntimeException lastError = null;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            LlmProvider provider = candidates.get(attempt - 1);
+            ProviderStats providerStats = stats.get(provider.getName());
+            long start = System.currentTimeMillis();
+            try {
+                String text = provider.complete(prompt, maxOutputTokens, temperature);
+                long latency = System.currentTimeMillis() - start;
+                providerStats.recordSuccess(latency);
+                trafficRecorder.record(provider, prompt, text, latency, true);
+                return new LlmResult(provider.getName(), text, latency, attempt);
+            } catch (RuntimeException e) {
+                long latency = System.currentTimeMillis() - start;
+                providerStats.recordFailure(latency);
+                trafficRecorder.record(provider, prompt, e.getMessage(), latency, false);
+                lastError = e;
+                log.warn("LLM provider {} failed after {}ms (attempt {}/{}): {}",
+                        provider.getName(), latency, attempt, maxAttempts, e.getMessage());
+            }
+        }
+        throw new RuntimeException("All LLM providers failed: " + lastError.getMessage(), lastError);
+    }
+
+    List<LlmProvider> rankProviders() {
+        long now = System.currentTimeMillis();
+        List<LlmProvider> ranked = new ArrayList<>(providers.stream().filter(LlmProvider::isConfigured).toList());
+        ranked.sort(Comparator
+                .comparing((LlmProvider p) -> isCoolingDown(stats.get(p.getName()), now))
+                .thenComparing(p -> stats.get(p.getName()).isMeasured())
+                .thenComparingDouble(this::score));
+        return ranked;
+    }
+
+    public List<LlmProviderStatsResponse> getStats() {
+        long now = System.currentTimeMillis();
+        return providers.stream()
+                .map(p -> {
+                    ProviderStats s = stats.get(p.getName());
+                    return LlmProviderStatsResponse.builder()
+                            .name(p.getName())
+                            .configured(p.isConfigured())
+                            .qualityTier(p.getQualityTier())
+                            .costTier(p.getCostTier())
+                            .ewmaLatencyMs(Math.round(s.getEwmaLatencyMs()))
+                            .errorRate(s.getErrorRate())
+                            .calls(s.getCalls())
+                            .failures(s.getFailures())
+                            .coolingDown(isCoolingDown(s, now))
+                            .build();
+                })
+                .toList();
+    }
+
+    private double score(LlmProvider provider) {
+        ProviderStats s = stats.get(provider.getName());
+        return s.getEwmaLatencyMs() * (1 + 4 * s.getErrorRate()) * (1 + 0.05 * provider.getCostTier());
+    }
+
+    private boolean isCoolingDown(ProviderStats s, long now) {
+        return s.getErrorRate() > llmProperties.getMaxErrorRate()
+                && now - s.getLastFailureAt() < llmProperties.getCooldownMs();
+    }
+
+    private static List<LlmProvider> buildProviders(LlmProperties llmProperties, OpenAIProperties openAIProperties) {
+        List<LlmProvider> providers = new ArrayList<>();
+        if (llmProperties.getProviders().isEmpty()) {
+            LlmProperties.Provider gemini = new LlmProperties.Provider();
+            gemini.setName("gemini");
+            gemini.setModel(openAIProperties.getModel());
+            gemini.setApiKey(openAIProperties.getKey());
+            providers.add(new GeminiLlmProvider(gemini));
+            return providers;
+        }
+        for (LlmProperties.Provider settings : llmProperties.getProviders()) {
+            if (!settings.isEnabled()) {
+                continue;
+            }
+            providers.add(switch (settings.getType()) {
+                case GEMINI -> new GeminiLlmProvider(settings);
+                case OPENAI -> new OpenAICompatibleLlmProvider(settings);
+                case LLAMA_CPP -> new LlamaCppLlmProvider(settings);
+                case REPLAY -> new ReplayLlmProvider(settings, llmProperties.getRecording());
+            });
+        }
+        return providers;
+    }
+}
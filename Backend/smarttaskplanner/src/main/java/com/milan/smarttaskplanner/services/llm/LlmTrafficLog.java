@@ -0,0 +1,214 @@
+package com.milan.smarttaskplanner.services.llm;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Format of the recorded LLM traffic: a directory of append-only segment files (*.llmlog), each a
+ * 4-byte magic followed by length-prefixed records.
+ *
+ * record = int length, int crc32 of body, body
+ * body   = long timestamp, int latencyMs, byte success, long promptKey, short providerLength, provider,
+ *          int promptRawLength, int promptLength, deflated prompt, int textRawLength, int textLength, deflated text
+ *
+ * Prompt and text are compressed per record, so a reader can map a segment and inflate only the
+ * records it needs. The text is the provider's generated text or, for failed calls, the error
+ * message. A record that was cut short by a crash fails its length or CRC check and ends the
+ * segment; writers therefore never append to an existing segment.
+ */
+@Slf4j
+public final class LlmTrafficLog {
+
+    public static final String SEGMENT_SUFFIX = ".llmlog";
+    static final int MAGIC = 0x4C4C4D31; // "LLM1"
+
+    // Prompts embed the current date; without it, the same request made on another day matches
+    private static final Pattern DATE_TIME = Pattern.compile("\\d{4}-\\d{2}-\\d{2}(T\\d{2}:\\d{2}(:\\d{2}(\\.\\d+)?)?)?");
+
+    public record Entry(long timestamp, int latencyMs, boolean success, long promptKey, String provider,
+                        ByteBuffer promptData, int promptRawLength, ByteBuffer textData, int textRawLength) {
+
+        public String prompt() {
+            return inflate(promptData, promptRawLength);
+        }
+
+        public String text() {
+            return inflate(textData, textRawLength);
+        }
+    }
+
+    private LlmTrafficLog() {
+    }
+
+    public static byte[] encode(long timestamp, String provider, String prompt, String text, long latencyMs, boolean success) {
+        byte[] providerBytes = provider.getBytes(StandardCharsets.UTF_8);
+        byte[] promptBytes = prompt.getBytes(StandardCharsets.UTF_8);
+        byte[] textBytes = text.getBytes(StandardCharsets.UTF_8);
+        byte[] promptDeflated = deflate(promptBytes);
+        byte[] textDeflated = deflate(textBytes);
+
+        int bodyLength = 8 + 4 + 1 + 8 + 2 + providerBytes.length + 8 + promptDeflated.length + 8 + textDeflated.length;
+        ByteBuffer buffer = ByteBuffer.allocate(8 + bodyLength);
+        buffer.putInt(bodyLength).putInt(0);
+        buffer.putLong(timestamp)
+                .putInt((int) Math.min(latencyMs, Integer.MAX_VALUE))
+                .put((byte) (success ? 1 : 0))
+                .putLong(promptKey(prompt))
+                .putShort((short) providerBytes.length).put(providerBytes)
+                .putInt(promptBytes.length).putInt(promptDeflated.length).put(promptDeflated)
+                .putInt(textBytes.length).putInt(textDeflated.length).put(textDeflated);
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 8, bodyLength);
+        buffer.putInt(4, (int) crc.getValue());
+        return buffer.array();
+    }
+
+    public static byte[] header() {
+        return ByteBuffer.allocate(4).putInt(MAGIC).array();
+    }
+
+    /**
+     * Maps one segment read-only. The entries reference the mapping and stay valid after return.
+     */
+    public static List<Entry> read(Path segment) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (mapped.remaining() < 4 || mapped.getInt() != MAGIC) {
+            throw new IOException("Not an LLM traffic log: " + segment);
+        }
+
+        CRC32 crc = new CRC32();
+        while (mapped.remaining() >= 8) {
+            int start = mapped.position();
+            int length = mapped.getInt();
+            int expectedCrc = mapped.getInt();
+            if (length <= 0 || length > mapped.remaining()) {
+                log.warn("Truncated record at offset {} of {}, ignoring the rest", start, segment);
+                break;
+            }
+            ByteBuffer body = mapped.slice(mapped.position(), length);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != expectedCrc) {
+                log.warn("Corrupt record at offset {} of {}, ignoring the rest", start, segment);
+                break;
+            }
+            entries.add(decode(body));
+            mapped.position(mapped.position() + length);
+        }
+        return entries;
+    }
+
+    // All segments of a recording directory in the order they were written
+    public static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    public static List<Entry> readAll(Path directory) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        for (Path segment : segments(directory)) {
+            entries.addAll(read(segment));
+        }
+        return entries;
+    }
+
+    // 64-bit FNV-1a of the prompt with dates and times blanked out
+    public static long promptKey(String prompt) {
+        String normalized = DATE_TIME.matcher(prompt).replaceAll("#");
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < normalized.length(); i++) {
+            hash ^= normalized.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static Entry decode(ByteBuffer body) {
+        long timestamp = body.getLong();
+        int latencyMs = body.getInt();
+        boolean success = body.get() == 1;
+        long promptKey = body.getLong();
+        byte[] providerBytes = new byte[body.getShort()];
+        body.get(providerBytes);
+        int promptRawLength = body.getInt();
+        ByteBuffer promptData = slice(body, body.getInt());
+        int textRawLength = body.getInt();
+        ByteBuffer textData = slice(body, body.getInt());
+        return new Entry(timestamp, latencyMs, success, promptKey, new String(providerBytes, StandardCharsets.UTF_8),
+                promptData, promptRawLength, textData, textRawLength);
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int length) {
+        ByteBuffer slice = buffer.slice(buffer.position(), length);
+        buffer.position(buffer.position() + length);
+        return slice;
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            byte[] buffer = new byte[Math.max(64, data.length / 2)];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            return Arrays.copyOf(buffer, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static String inflate(ByteBuffer data, int rawLength) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data.duplicate());
+            byte[] raw = new byte[rawLength];
+            int length = 0;
+            while (length < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(raw, length, rawLength - length);
+                if (n == 0 && inflater.needsInput()) {
+                    break;
+                }
+                length += n;
+            }
+            return new String(raw, 0, length, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed data in LLM traffic log", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.milan.smarttaskplanner.services.llm;
+
+import com.milan.smarttaskplanner.config.LlmProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends every provider call (prompt, generated text or error, latency, outcome) to the traffic
+ * log in llm.recording.directory when llm.recording.enabled is set. Each node and each restart
+ * writes its own segments. Calls served by a REPLAY provider are not recorded again.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LlmTrafficRecorder {
+
+    private final LlmProperties llmProperties;
+
+    private FileChannel segment;
+    private long segmentBytes;
+    private int segmentIndex;
+
+    public void record(LlmProvider provider, String prompt, String text, long latencyMs, boolean success) {
+        if (!llmProperties.getRecording().isEnabled() || provider instanceof ReplayLlmProvider) {
+            return;
+        }
+        // Compress outside the lock; only the append itself is serialized
+        byte[] record = LlmTrafficLog.encode(System.currentTimeMillis(), provider.getName(), prompt,
+                text != null ? text : "", latencyMs, success);
+        append(record);
+    }
+
+    private synchronized void append(byte[] record) {
+        try {
+            if (segment == null || segmentBytes + record.length > llmProperties.getRecording().getMaxSegmentBytes()) {
+                openSegment();
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(record);
+            while (buffer.hasRemaining()) {
+                segment.write(buffer);
+            }
+            segmentBytes += record.length;
+        } catch (IOException e) {
+            log.warn("Could not record LLM call: {}", e.getMessage());
+        }
+    }
+
+    private void openSegment() throws IOException {
+        close();
+        Path directory = Path.of(llmProperties.getRecording().getDirectory());
+        Files.createDirectories(directory);
+        String name = String.format("llm-%d-%d-%04d%s", System.currentTimeMillis(), ProcessHandle.current().pid(),
+                segmentIndex++, LlmTrafficLog.SEGMENT_SUFFIX);
+        segment = FileChannel.open(directory.resolve(name), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        segment.write(ByteBuffer.wrap(LlmTrafficLog.header()));
+        segmentBytes = 4;
+        log.info("Recording LLM traffic to {}", directory.resolve(name).toAbsolutePath());
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        if (segment == null) {
+            return;
+        }
+        try {
+            segment.close();
+        } catch (IOException e) {
+            log.warn("Could not close LLM traffic segment: {}", e.getMessage());
+        }
+        segment = null;
+    }
+}
@@ -0,0 +1,38 @@
+package com.milan.smarttaskplanner.services.llm;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.milan.smarttaskplanner.config.LlmProperties;
+import org.springframework.http.HttpHeaders;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Any endpoint implementing the OpenAI chat completions API (OpenAI, vLLM, Ollama, LM Studio, ...).
+ */
+public class OpenAICompatibleLlmProvider extends HttpLlmProvider {
+
+    private static final String DEFAULT_BASE_URL = "https://api.openai.com";
+
+    public OpenAICompatibleLlmProvider(LlmProperties.Provider settings) {
+        super(settings);
+    }
+
+    @Override
+    public String complete(String prompt, int maxOutputTokens, double temperature) {
+        HttpHeaders headers = new HttpHeaders();
+        if (settings.getApiKey() != null && !settings.getApiKey().isBlank()) {
+            headers.setBearerAuth(settings.getApiKey());
+        }
+
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("model", settings.getModel());
+        requestBody.put("messages", List.of(Map.of("role", "user", "content", prompt)));
+        requestBody.put("max_tokens", maxOutputTokens);
+        requestBody.put("temperature", temperature);
+
+        JsonNode root = postJson(baseUrl(DEFAULT_BASE_URL) + "/v1/chat/completions", headers, requestBody);
+        return requireText(root.at("/choices/0/message/content"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.milan.smarttaskplanner.services.llm;
+
+/**
+ * Exponentially weighted latency and error rate for one provider.
+ */
+public class ProviderStats {
+
+    private final double alpha;
+    private double ewmaLatencyMs = -1;
+    private double errorRate;
+    private long calls;
+    private long failures;
+    private long lastFailureAt;
+
+    public ProviderStats(double alpha) {
+        this.alpha = alpha;
+    }
+
+    public synchronized void recordSuccess(long latencyMs) {
+        calls++;
+        ewmaLatencyMs = ewmaLatencyMs < 0 ? latencyMs : alpha * latencyMs + (1 - alpha) * ewmaLatencyMs;
+        errorRate = (1 - alpha) * errorRate;
+    }
+
+    public synchronized void recordFailure(long latencyMs) {
+        calls++;
+        failures++;
+        lastFailureAt = System.currentTimeMillis();
+        // A timeout is still a latency observation; a fast failure should not make a provider look quick
+        if (ewmaLatencyMs < 0) {
+            ewmaLatencyMs = latencyMs;
+        } else if (latencyMs > ewmaLatencyMs) {
+            ewmaLatencyMs = alpha * latencyMs + (1 - alpha) * ewmaLatencyMs;
+        }
+        errorRate = alpha + (1 - alpha) * errorRate;
+    }
+
+    public synchronized boolean isMeasured() {
+        return ewmaLatencyMs >= 0;
+    }
+
+    public synchronized double getEwmaLatencyMs() {
+        return Math.max(ewmaLatencyMs, 0);
+    }
+
+    public synchronized double getErrorRate() {
+        return errorRate;
+    }
+
+    public synchronized long getCalls() {
+        return calls;
+    }
+
+    public synchronized long getFailures() {
+        return failures;
+    }
+
+    public synchronized long getLastFailureAt() {
+        return lastFailureAt;
+    }
+}
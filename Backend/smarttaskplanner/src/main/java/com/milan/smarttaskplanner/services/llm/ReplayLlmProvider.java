@@ -0,0 +1,105 @@
+package com.milan.smarttaskplanner.services.llm;
+
+import com.milan.smarttaskplanner.config.LlmProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves recorded LLM traffic instead of calling a model: the recorded text, or the recorded
+ * failure as an exception, after the recorded latency times replay-latency-scale. With
+ * replay-match PROMPT, repeated prompts cycle through their recordings in order.
+ */
+@Slf4j
+public class ReplayLlmProvider implements LlmProvider {
+
+    private final LlmProperties.Provider settings;
+    private final List<LlmTrafficLog.Entry> entries;
+    private final Map<Long, List<LlmTrafficLog.Entry>> byPrompt = new HashMap<>();
+    private final Map<Long, AtomicInteger> promptCursors = new ConcurrentHashMap<>();
+    private final AtomicLong cursor = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ReplayLlmProvider(LlmProperties.Provider settings, LlmProperties.Recording recording) {
+        this.settings = settings;
+        Path directory = Path.of(settings.getReplayDirectory() != null ? settings.getReplayDirectory() : recording.getDirectory());
+        try {
+            this.entries = LlmTrafficLog.readAll(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read LLM recordings from " + directory, e);
+        }
+        for (LlmTrafficLog.Entry entry : entries) {
+            byPrompt.computeIfAbsent(entry.promptKey(), key -> new ArrayList<>()).add(entry);
+        }
+        log.info("Replay provider {}: {} recordings of {} distinct prompts from {}",
+                settings.getName(), entries.size(), byPrompt.size(), directory.toAbsolutePath());
+    }
+
+    @Override
+    public String getName() {
+        return settings.getName();
+    }
+
+    @Override
+    public int getQualityTier() {
+        return settings.getQualityTier();
+    }
+
+    @Override
+    public int getCostTier() {
+        return settings.getCostTier();
+    }
+
+    @Override
+    public boolean isConfigured() {
+        return !entries.isEmpty();
+    }
+
+    @Override
+    public String complete(String prompt, int maxOutputTokens, double temperature) {
+        LlmTrafficLog.Entry entry = select(prompt);
+        long delayMs = Math.round(entry.latencyMs() * settings.getReplayLatencyScale());
+        if (delayMs > 0) {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Replay interrupted", e);
+            }
+        }
+        if (!entry.success()) {
+            throw new RuntimeException("Replayed failure: " + entry.text());
+        }
+        return entry.text();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+
+    private LlmTrafficLog.Entry select(String prompt) {
+        if (settings.getReplayMatch() == LlmProperties.ReplayMatch.PROMPT) {
+            long key = LlmTrafficLog.promptKey(prompt);
+            List<LlmTrafficLog.Entry> recorded = byPrompt.get(key);
+            if (recorded != null) {
+                int next = promptCursors.computeIfAbsent(key, k -> new AtomicInteger()).getAndIncrement();
+                return recorded.get(Math.floorMod(next, recorded.size()));
+            }
+            long missCount = misses.incrementAndGet();
+            if (missCount == 1 || missCount % 100 == 0) {
+                log.debug("Replay provider {}: {} prompts without a recording, serving in recorded order",
+                        settings.getName(), missCount);
+            }
+        }
+        return entries.get((int) Math.floorMod(cursor.getAndIncrement(), (long) entries.size()));
+    }
+}
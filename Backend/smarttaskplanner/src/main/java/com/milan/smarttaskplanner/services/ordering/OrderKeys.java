@@ -0,0 +1,101 @@
+package com.milan.smarttaskplanner.services.ordering;
+
+/**
+ * Fractional order keys: base-62 digit strings read as fractions in (0, 1), so "V" is 0.5. Plain
+ * string comparison (or a "C" collation in the database) orders them, and there is always a key
+ * between two others. Keys never end in the zero digit, which is what keeps that true.
+ */
+public final class OrderKeys {
+
+    static final String DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = DIGITS.length();
+
+    private OrderKeys() {
+    }
+
+    /**
+     * A key strictly between {@code lower} and {@code upper}; null stands for the start or the end
+     * of the list. The key is as short as the gap allows, so repeated inserts into the same gap
+     * grow it by about one digit every six inserts.
+     */
+    public static String between(String lower, String upper) {
+        String a = lower != null ? lower : "";
+        if (upper != null && a.compareTo(upper) >= 0) {
+            throw new IllegalArgumentException("Order key " + lower + " is not before " + upper);
+        }
+        validate(a);
+        if (upper != null) {
+            validate(upper);
+        }
+        return midpoint(a, upper);
+    }
+
+    /**
+     * {@code count} keys of one length spread evenly over the whole range, at least BASE apart, so
+     * every gap takes a few inserts before its keys grow.
+     */
+    public static String[] evenlySpaced(int count) {
+        int width = 1;
+        long range = BASE;
+        while (range / (count + 1L) < BASE) {
+            width++;
+            range *= BASE;
+        }
+        String[] keys = new String[count];
+        long step = range / (count + 1L);
+        for (int i = 0; i < count; i++) {
+            keys[i] = encode(step * (i + 1), width);
+        }
+        return keys;
+    }
+
+    private static String midpoint(String a, String b) {
+        if (b != null) {
+            // Shared leading digits stay as they are; a is padded with zero digits
+            int n = 0;
+            while (digitAt(a, n) == DIGITS.indexOf(b.charAt(n))) {
+                n++;
+            }
+            if (n > 0) {
+                return b.substring(0, n) + midpoint(a.length() > n ? a.substring(n) : "", b.substring(n));
+            }
+        }
+        int low = digitAt(a, 0);
+        int high = b != null ? DIGITS.indexOf(b.charAt(0)) : BASE;
+        if (high - low > 1) {
+            return String.valueOf(DIGITS.charAt((low + high) / 2));
+        }
+        if (b != null && b.length() > 1) {
+            return b.substring(0, 1);
+        }
+        return DIGITS.charAt(low) + midpoint(a.length() > 1 ? a.substring(1) : "", null);
+    }
+
+    private static int digitAt(String key, int index) {
+        return index < key.length() ? DIGITS.indexOf(key.charAt(index)) : 0;
+    }
+
+    private static String encode(long value, int width) {
+        char[] digits = new char[width];
+        for (int i = width - 1; i >= 0; i--) {
+            digits[i] = DIGITS.charAt((int) (value % BASE));
+            value /= BASE;
+        }
+        int end = width;
+        while (end > 1 && digits[end - 1] == DIGITS.charAt(0)) {
+            end--;
+        }
+        return new String(digits, 0, end);
+    }
+
+    private static void validate(String key) {
+        for (int i = 0; i < key.length(); i++) {
+            if (DIGITS.indexOf(key.charAt(i)) < 0) {
+                throw new IllegalArgumentException("Invalid order key: " + key);
+            }
+        }
+        if (!key.isEmpty() && key.charAt(key.length() - 1) == DIGITS.charAt(0)) {
+            throw new IllegalArgumentException("Order key ends in the zero digit: " + key);
+        }
+    }
+}
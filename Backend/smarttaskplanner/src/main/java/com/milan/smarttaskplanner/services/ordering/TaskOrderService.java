@@ -0,0 +1,193 @@
+package com.milan.smarttaskplanner.services.ordering;
+
+import com.milan.smarttaskplanner.config.TaskOrderProperties;
+import com.milan.smarttaskplanner.dto.ReorderTaskResponse;
+import com.milan.smarttaskplanner.events.GoalUpdatedEvent;
+import com.milan.smarttaskplanner.services.tenancy.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Moves a task to another position of its goal by writing a single rank key between the keys of
+ * its new neighbours; no other task is touched, whatever the size of the plan. The neighbour keys
+ * come from probes of idx_tasks_goal_rank.
+ *
+ * A goal's keys are assigned the first time it is reordered. Once a move produces a key longer
+ * than task-order.max-key-length, the goal is queued for rebalancing, which respaces its keys
+ * evenly in the background. Moves and rebalancing of one goal are serialized by an advisory lock.
+ */
+@Service
+@Slf4j
+public class TaskOrderService {
+
+    private static final String KEY_SQL = "SELECT rank_key FROM tasks WHERE id = ? AND goal_id = ? AND tenant_id = ?";
+
+    private static final String FIRST_KEY_SQL = """
+            SELECT rank_key FROM tasks
+             WHERE goal_id = ? AND rank_key IS NOT NULL AND id <> ?
+             ORDER BY rank_key LIMIT 1
+            """;
+
+    private static final String NEXT_KEY_SQL = """
+            SELECT rank_key FROM tasks
+             WHERE goal_id = ? AND rank_key > ? AND id <> ?
+             ORDER BY rank_key LIMIT 1
+            """;
+
+    private static final String UNKEYED_SQL = "SELECT EXISTS (SELECT 1 FROM tasks WHERE goal_id = ? AND rank_key IS NULL)";
+
+    // The display order of Goal.tasks
+    private static final String ORDERED_TASKS_SQL = """
+            SELECT id, rank_key FROM tasks
+             WHERE goal_id = ? AND tenant_id = ?
+             ORDER BY rank_key NULLS LAST, order_index NULLS LAST, id
+            """;
+
+    private static final String UPDATE_SQL =
+            "UPDATE tasks SET rank_key = ?, updated_at = LOCALTIMESTAMP WHERE id = ? AND tenant_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskOrderProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Executor executor;
+    private final Set<Long> queuedGoals = ConcurrentHashMap.newKeySet();
+
+    public TaskOrderService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                            TaskOrderProperties properties, ApplicationEventPublisher eventPublisher,
+                            @Qualifier("planningExecutor") Executor executor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.executor = executor;
+    }
+
+    public ReorderTaskResponse move(Long goalId, Long taskId, Long afterTaskId) {
+        String tenantId = TenantContext.getTenantId();
+        if (taskId.equals(afterTaskId)) {
+            throw new RuntimeException("A task cannot be moved after itself");
+        }
+        ReorderTaskResponse response = transactionTemplate.execute(status -> {
+            lock(goalId);
+            if (keyOf(taskId, goalId, tenantId) == null) {
+                throw new RuntimeException("Task not found with id: " + taskId);
+            }
+            int rows = 0;
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(UNKEYED_SQL, Boolean.class, goalId))) {
+                rows += respace(goalId, tenantId);
+            }
+
+            String lower = null;
+            String upper;
+            if (afterTaskId != null) {
+                List<String> after = keyOf(afterTaskId, goalId, tenantId);
+                if (after == null) {
+                    throw new RuntimeException("Task not found with id: " + afterTaskId);
+                }
+                lower = after.get(0);
+                upper = firstOrNull(jdbcTemplate.queryForList(NEXT_KEY_SQL, String.class, goalId, lower, taskId));
+            } else {
+                upper = firstOrNull(jdbcTemplate.queryForList(FIRST_KEY_SQL, String.class, goalId, taskId));
+            }
+
+            String key = OrderKeys.between(lower, upper);
+            jdbcTemplate.update(UPDATE_SQL, key, taskId, tenantId);
+            eventPublisher.publishEvent(new GoalUpdatedEvent(goalId));
+            return ReorderTaskResponse.builder()
+                    .goalId(goalId)
+                    .taskId(taskId)
+                    .rankKey(key)
+                    .rowsWritten(rows + 1)
+                    .rebalanceQueued(key.length() > properties.getMaxKeyLength())
+                    .build();
+        });
+
+        if (Boolean.TRUE.equals(response.getRebalanceQueued())) {
+            requestRebalance(goalId, tenantId);
+        }
+        return response;
+    }
+
+    public void requestRebalance(Long goalId, String tenantId) {
+        if (!queuedGoals.add(goalId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                queuedGoals.remove(goalId);
+                try {
+                    rebalance(goalId, tenantId);
+                } catch (Exception e) {
+                    log.warn("Rebalancing task order of goal {} failed: {}", goalId, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queuedGoals.remove(goalId);
+            log.warn("Rebalancing task order of goal {} skipped, planning executor is saturated", goalId);
+        }
+    }
+
+    // Respaces the goal's keys evenly in their current order; returns the number of tasks rewritten
+    public int rebalance(Long goalId, String tenantId) {
+        Integer rows = transactionTemplate.execute(status -> {
+            lock(goalId);
+            int written = respace(goalId, tenantId);
+            if (written > 0) {
+                eventPublisher.publishEvent(new GoalUpdatedEvent(goalId));
+            }
+            return written;
+        });
+        log.info("Rebalanced task order of goal {}: {} keys rewritten", goalId, rows);
+        return rows;
+    }
+
+    private int respace(Long goalId, String tenantId) {
+        List<Long> ids = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        jdbcTemplate.query(ORDERED_TASKS_SQL, (RowCallbackHandler) rs -> {
+            ids.add(rs.getLong("id"));
+            current.add(rs.getString("rank_key"));
+        }, goalId, tenantId);
+
+        String[] keys = OrderKeys.evenlySpaced(ids.size());
+        List<Object[]> updates = new ArrayList<>();
+        for (int i = 0; i < keys.length; i++) {
+            if (!Objects.equals(keys[i], current.get(i))) {
+                updates.add(new Object[]{keys[i], ids.get(i), tenantId});
+            }
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+        }
+        return updates.size();
+    }
+
+    private void lock(Long goalId) {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(hashtext(?))", (RowCallbackHandler) rs -> {
+        }, "task-order:" + goalId);
+    }
+
+    // Singleton list holding the task's key (which may be null), or null when there is no such task
+    private List<String> keyOf(Long taskId, Long goalId, String tenantId) {
+        List<String> keys = jdbcTemplate.queryForList(KEY_SQL, String.class, taskId, goalId, tenantId);
+        return keys.isEmpty() ? null : keys;
+    }
+
+    private static String firstOrNull(List<String> values) {
+        return values.isEmpty() ? null : values.get(0);
+    }
+}
@@ -0,0 +1,122 @@
+package com.milan.smarttaskplanner.services.overload;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that follows the latency of the requests it admits (a gradient limiter in the
+ * style of Netflix's Gradient2). Each completed request compares its latency with a long-term
+ * average: while latency stays within rttTolerance of it the limit grows by about sqrt(limit),
+ * when requests start queueing and latency rises the limit shrinks in proportion, down to half per
+ * update. A server error cuts the limit multiplicatively (AIMD backoff). Requests over the limit
+ * are not queued; the caller rejects them.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    public final class Permit {
+        private final long startNanos = System.nanoTime();
+        private final int inFlightAtStart;
+        private boolean released;
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        public void release(boolean failed) {
+            if (released) {
+                return;
+            }
+            released = true;
+            inFlight.decrementAndGet();
+            onSample(System.nanoTime() - startNanos, inFlightAtStart, failed);
+        }
+
+        // Frees the slot without feeding the latency, for requests whose duration says nothing about load
+        public void releaseUnsampled() {
+            if (released) {
+                return;
+            }
+            released = true;
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final int longWindow;
+    private final double rttTolerance;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double estimatedLimit;
+    private double longRttNanos;
+    private long samples;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, double smoothing,
+                                      int longWindow, double rttTolerance, double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid limits for " + name + ": " + minLimit + ".." + maxLimit);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.longWindow = Math.max(1, longWindow);
+        this.rttTolerance = rttTolerance;
+        this.backoffRatio = backoffRatio;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    // A permit that must be released when the request completes, or null when the limit is reached
+    public Permit tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit(current + 1);
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) estimatedLimit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    // Package-private so tests can feed latencies directly
+    synchronized void onSample(long rttNanos, int inFlightAtStart, boolean failed) {
+        double limit = estimatedLimit;
+        if (failed) {
+            estimatedLimit = Math.max(minLimit, limit * backoffRatio);
+            return;
+        }
+
+        samples++;
+        double window = Math.min(samples, longWindow);
+        longRttNanos = longRttNanos + (rttNanos - longRttNanos) / window;
+        // Let the long-term average catch up quickly after a stretch of slow requests has passed
+        if (longRttNanos > 2.0 * rttNanos) {
+            longRttNanos *= 0.95;
+        }
+
+        // A limit that was never approached says nothing about capacity; don't grow it further
+        if (inFlightAtStart < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / Math.max(1, rttNanos)));
+        double next = limit * gradient + Math.sqrt(limit);
+        next = limit * (1 - smoothing) + next * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+}
@@ -0,0 +1,8 @@
+package com.milan.smarttaskplanner.services.tenancy;
+
+public class TenantAccessDeniedException extends RuntimeException {
+
+    public TenantAccessDeniedException(String message) {
+        super(message);
+    }
+}
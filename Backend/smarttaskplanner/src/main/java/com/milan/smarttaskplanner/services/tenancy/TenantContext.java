@@ -0,0 +1,47 @@
+package com.milan.smarttaskplanner.services.tenancy;
+
+/**
+ * Tenant of the current request or background task. Set by TenantFilter for HTTP requests and
+ * carried into planning threads by {@link #wrap(Runnable)}; code running outside either sees
+ * the default tenant.
+ */
+public final class TenantContext {
+
+    public static final String DEFAULT_TENANT = "default";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String getTenantId() {
+        String tenantId = CURRENT.get();
+        return tenantId != null ? tenantId : DEFAULT_TENANT;
+    }
+
+    public static void setTenantId(String tenantId) {
+        CURRENT.set(tenantId);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    // Task decorator for executors: runs the task as the tenant that submitted it
+    public static Runnable wrap(Runnable task) {
+        String tenantId = CURRENT.get();
+        return () -> {
+            String previous = CURRENT.get();
+            CURRENT.set(tenantId);
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,8 @@
+package com.milan.smarttaskplanner.services.tenancy;
+
+public class TenantQuotaExceededException extends RuntimeException {
+
+    public TenantQuotaExceededException(String message) {
+        super(message);
+    }
+}
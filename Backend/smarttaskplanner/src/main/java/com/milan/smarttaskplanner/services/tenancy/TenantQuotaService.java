@@ -0,0 +1,114 @@
+package com.milan.smarttaskplanner.services.tenancy;
+
+import com.milan.smarttaskplanner.config.TenantProperties;
+import com.milan.smarttaskplanner.dto.TenantQuotaResponse;
+import com.milan.smarttaskplanner.services.coordination.CoordinationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Per-tenant bulkheads: a bounded number of concurrent plan generations per tenant on each node,
+ * and a cluster-wide LLM call rate per tenant (through CoordinationService). A tenant that hits
+ * its limits waits or degrades on its own, without taking planning threads or LLM quota from others.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TenantQuotaService {
+
+    private final TenantProperties properties;
+    private final CoordinationService coordinationService;
+    private final Map<String, Semaphore> planningSlots = new ConcurrentHashMap<>();
+
+    /**
+     * Runs {@code planning} in one of the tenant's plan slots, waiting up to the tenant's
+     * acquire timeout for one to free up.
+     */
+    public <T> T withPlanningSlot(Supplier<T> planning) {
+        return withPlanningSlot(planning, result -> null);
+    }
+
+    /**
+     * Like {@link #withPlanningSlot(Supplier)}, but if {@code pending} finds work still running for
+     * the result (such as a plan upgrade on the planning executor), the slot stays taken until that
+     * work completes, so a tenant cannot fill the shared executor with background work.
+     */
+    public <T> T withPlanningSlot(Supplier<T> planning, Function<T, CompletableFuture<?>> pending) {
+        String tenantId = TenantContext.getTenantId();
+        TenantProperties.Quota quota = properties.quotaFor(tenantId);
+        Semaphore slots = slots(tenantId);
+        boolean acquired;
+        try {
+            acquired = slots.tryAcquire(quota.getAcquireTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a planning slot", e);
+        }
+        if (!acquired) {
+            throw new TenantQuotaExceededException("Tenant " + tenantId + " already has "
+                    + quota.getMaxConcurrentPlans() + " plan generations running, try again shortly");
+        }
+        boolean handedOver = false;
+        try {
+            T result = planning.get();
+            CompletableFuture<?> running = pending.apply(result);
+            if (running != null && !running.isDone()) {
+                running.whenComplete((value, error) -> slots.release());
+                handedOver = true;
+            }
+            return result;
+        } finally {
+            if (!handedOver) {
+                slots.release();
+            }
+        }
+    }
+
+    // Non-blocking variant for queue workers, which defer the job instead of waiting
+    public boolean tryAcquirePlanningSlot(String tenantId) {
+        return slots(tenantId).tryAcquire();
+    }
+
+    public void releasePlanningSlot(String tenantId) {
+        slots(tenantId).release();
+    }
+
+    public boolean tryAcquireAiCall() {
+        String tenantId = TenantContext.getTenantId();
+        long limit = properties.quotaFor(tenantId).getAiCallsPerMinute();
+        if (limit <= 0) {
+            return true;
+        }
+        boolean allowed = coordinationService.tryAcquire("llm-calls:tenant:" + tenantId, limit, Duration.ofMinutes(1));
+        if (!allowed) {
+            log.warn("Tenant {} reached its LLM quota of {} calls per minute", tenantId, limit);
+        }
+        return allowed;
+    }
+
+    public TenantQuotaResponse getQuota(String tenantId) {
+        TenantProperties.Quota quota = properties.quotaFor(tenantId);
+        Semaphore slots = slots(tenantId);
+        return TenantQuotaResponse.builder()
+                .tenantId(tenantId)
+                .maxConcurrentPlans(quota.getMaxConcurrentPlans())
+                .runningPlans(quota.getMaxConcurrentPlans() - slots.availablePermits())
+                .aiCallsPerMinute(quota.getAiCallsPerMinute())
+                .build();
+    }
+
+    private Semaphore slots(String tenantId) {
+        return planningSlots.computeIfAbsent(tenantId,
+                id -> new Semaphore(properties.quotaFor(id).getMaxConcurrentPlans()));
+    }
+}
@@ -0,0 +1,40 @@
+-- Compact task storage (task-storage.mode: COMPACT)
+--
+-- Moves steps and dependencies from the per-row element collection tables into
+-- columns on tasks. Safe to run repeatedly: already migrated rows are skipped.
+-- TaskStorageMigrator runs the same statements in batches when
+-- task-storage.migrate-on-startup is enabled.
+
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS steps_json jsonb;
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS dependency_ids bigint[];
+
+-- Positions of the element collections (Task @OrderColumn); rows from before they existed are
+-- numbered in physical order. TaskStorageMigrator does the same at startup.
+ALTER TABLE task_steps ADD COLUMN IF NOT EXISTS step_order integer;
+ALTER TABLE task_dependencies ADD COLUMN IF NOT EXISTS dependency_order integer;
+
+BEGIN;
+
+UPDATE task_steps s SET step_order = o.position
+  FROM (SELECT ctid, row_number() OVER (PARTITION BY task_id ORDER BY ctid) - 1 AS position
+          FROM task_steps WHERE step_order IS NULL) o
+ WHERE s.ctid = o.ctid;
+UPDATE task_dependencies d SET dependency_order = o.position
+  FROM (SELECT ctid, row_number() OVER (PARTITION BY task_id ORDER BY ctid) - 1 AS position
+          FROM task_dependencies WHERE dependency_order IS NULL) o
+ WHERE d.ctid = o.ctid;
+
+UPDATE tasks t
+   SET steps_json = COALESCE((SELECT jsonb_agg(s.step ORDER BY s.step_order)
+                                FROM task_steps s WHERE s.task_id = t.id), '[]'::jsonb),
+       dependency_ids = COALESCE((SELECT array_agg(d.dependency_id ORDER BY d.dependency_order)
+                                    FROM task_dependencies d WHERE d.task_id = t.id), '{}'::bigint[])
+ WHERE t.steps_json IS NULL;
+
+DELETE FROM task_steps s USING tasks t WHERE t.id = s.task_id AND t.steps_json IS NOT NULL;
+DELETE FROM task_dependencies d USING tasks t WHERE t.id = d.task_id AND t.dependency_ids IS NOT NULL;
+
+COMMIT;
+
+-- Rows are read from the compact columns whenever they are present, so switching
+-- task-storage.mode back to ELEMENT_COLLECTION only affects newly created tasks.
@@ -0,0 +1,98 @@
+-- Tenant partitioning of goals and tasks
+--
+-- Rebuilds goals and tasks as tables hash-partitioned on tenant_id, so each tenant's
+-- rows (and their indexes) live in a fixed subset of partitions and tenant-scoped
+-- queries prune the others. Run once during a maintenance window, after the
+-- application has created the tenant_id columns (ddl-auto: update).
+--
+-- A unique key on a partitioned table must include the partition key, so the primary
+-- keys become (id, tenant_id) and tasks reference goals by (goal_id, tenant_id). Ids stay
+-- globally unique because they still come from one sequence per table. Hibernate creates
+-- the id columns as identity columns, which LIKE does not copy and partitioned tables
+-- (before PostgreSQL 17) cannot have, so the new ids default to plain sequences set past
+-- the highest copied id. Foreign keys to a task id alone are no longer possible;
+-- task_steps and task_dependencies lose theirs (task deletes still remove their rows
+-- through the ORM).
+--
+-- Every index of the old tables (from the entities and the ones created at startup) is
+-- recreated on the new ones; partitioned indexes cascade to every partition.
+--
+-- Hibernate cannot reproduce this layout, so set spring.jpa.hibernate.ddl-auto to
+-- validate (or none) once it is in place. Indexes added to the Goal or Task entities
+-- afterwards then have to be created by hand.
+
+BEGIN;
+
+ALTER TABLE task_steps DROP CONSTRAINT IF EXISTS task_steps_task_id_fkey;
+ALTER TABLE task_dependencies DROP CONSTRAINT IF EXISTS task_dependencies_task_id_fkey;
+DO $$
+DECLARE fk record;
+BEGIN
+    -- Hibernate names foreign keys FK<hash>; drop every one that points at goals or tasks
+    FOR fk IN SELECT conrelid::regclass AS tbl, conname FROM pg_constraint
+               WHERE contype = 'f' AND confrelid IN ('goals'::regclass, 'tasks'::regclass)
+    LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', fk.tbl, fk.conname);
+    END LOOP;
+END $$;
+
+-- Index definitions still name goals and tasks, so they apply to the new tables as they are
+CREATE TEMP TABLE partitioning_indexes ON COMMIT DROP AS
+SELECT i.indexdef
+  FROM pg_indexes i
+ WHERE i.schemaname = current_schema() AND i.tablename IN ('goals', 'tasks')
+   AND NOT EXISTS (SELECT 1 FROM pg_constraint c
+                    WHERE c.conname = i.indexname AND c.contype IN ('p', 'u')
+                      AND c.conrelid IN ('goals'::regclass, 'tasks'::regclass));
+
+ALTER TABLE goals RENAME TO goals_unpartitioned;
+ALTER TABLE tasks RENAME TO tasks_unpartitioned;
+
+-- Frees goals_id_seq / tasks_id_seq: identity columns (Hibernate 6) drop their sequence,
+-- serial columns (older schemas) drop the default and then the sequence
+ALTER TABLE goals_unpartitioned ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE goals_unpartitioned ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS goals_id_seq;
+ALTER TABLE tasks_unpartitioned ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE tasks_unpartitioned ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS tasks_id_seq;
+
+CREATE TABLE goals (LIKE goals_unpartitioned INCLUDING DEFAULTS INCLUDING GENERATED)
+    PARTITION BY HASH (tenant_id);
+ALTER TABLE goals ADD PRIMARY KEY (id, tenant_id);
+CREATE SEQUENCE goals_id_seq OWNED BY goals.id;
+ALTER TABLE goals ALTER COLUMN id SET DEFAULT nextval('goals_id_seq');
+
+CREATE TABLE tasks (LIKE tasks_unpartitioned INCLUDING DEFAULTS INCLUDING GENERATED)
+    PARTITION BY HASH (tenant_id);
+ALTER TABLE tasks ADD PRIMARY KEY (id, tenant_id);
+CREATE SEQUENCE tasks_id_seq OWNED BY tasks.id;
+ALTER TABLE tasks ALTER COLUMN id SET DEFAULT nextval('tasks_id_seq');
+ALTER TABLE tasks ADD FOREIGN KEY (goal_id, tenant_id) REFERENCES goals (id, tenant_id) ON DELETE CASCADE;
+
+DO $$
+BEGIN
+    FOR i IN 0..7 LOOP
+        EXECUTE format('CREATE TABLE goals_p%s PARTITION OF goals FOR VALUES WITH (MODULUS 8, REMAINDER %s)', i, i);
+        EXECUTE format('CREATE TABLE tasks_p%s PARTITION OF tasks FOR VALUES WITH (MODULUS 8, REMAINDER %s)', i, i);
+    END LOOP;
+END $$;
+
+INSERT INTO goals SELECT * FROM goals_unpartitioned;
+INSERT INTO tasks SELECT * FROM tasks_unpartitioned;
+
+SELECT setval('goals_id_seq', coalesce(max(id), 0) + 1, false) FROM goals;
+SELECT setval('tasks_id_seq', coalesce(max(id), 0) + 1, false) FROM tasks;
+
+DROP TABLE tasks_unpartitioned;
+DROP TABLE goals_unpartitioned;
+
+DO $$
+DECLARE idx record;
+BEGIN
+    FOR idx IN SELECT indexdef FROM partitioning_indexes LOOP
+        EXECUTE idx.indexdef;
+    END LOOP;
+END $$;
+
+COMMIT;
@@ -0,0 +1,108 @@
+package com.milan.smarttaskplanner.benchmark;
+
+import com.milan.smarttaskplanner.dto.AgendaResponse;
+import com.milan.smarttaskplanner.services.AgendaService;
+import com.milan.smarttaskplanner.services.tenancy.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Agenda query latency on a large task table: seeds benchmark.tasks tasks (spread over two years,
+ * 1-40 hours long) for a scratch tenant, queries random day and week windows, then removes them.
+ *
+ * Runs inside BenchmarkRun against a PostgreSQL container:
+ * mvn -Pbenchmark test -Dbenchmark.agenda=true -Dbenchmark.tasks=1000000
+ */
+@Component
+@Profile("benchmark")
+@ConditionalOnProperty(prefix = "benchmark", name = "agenda", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class AgendaBenchmark implements CommandLineRunner {
+
+    private static final String TENANT = "agenda-benchmark";
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private final AgendaService agendaService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${benchmark.tasks:1000000}")
+    private int taskCount;
+
+    @Value("${benchmark.tasks-per-goal:20}")
+    private int tasksPerGoal;
+
+    @Value("${benchmark.iterations:500}")
+    private int iterations;
+
+    @Override
+    public void run(String... args) {
+        agendaService.createIndex();
+        seed();
+        String previousTenant = TenantContext.getTenantId();
+        TenantContext.setTenantId(TENANT);
+        try {
+            measure("day", 1);
+            measure("week", 7);
+        } finally {
+            TenantContext.setTenantId(previousTenant);
+            jdbcTemplate.update("DELETE FROM tasks WHERE tenant_id = ?", TENANT);
+            jdbcTemplate.update("DELETE FROM goals WHERE tenant_id = ?", TENANT);
+        }
+    }
+
+    private void seed() {
+        long start = System.nanoTime();
+        int goals = Math.max(1, taskCount / tasksPerGoal);
+        jdbcTemplate.update("""
+                INSERT INTO goals (tenant_id, description, status, created_at, updated_at)
+                SELECT ?, 'Agenda benchmark goal ' || n, 'IN_PROGRESS', now(), now()
+                  FROM generate_series(1, ?) n
+                """, TENANT, goals);
+        jdbcTemplate.update("""
+                INSERT INTO tasks (tenant_id, goal_id, title, status, priority, start_date, end_date,
+                                   estimated_duration_hours, order_index, created_at, updated_at)
+                SELECT ?, g.id, 'Agenda benchmark task ' || n,
+                       (ARRAY['PENDING','IN_PROGRESS','COMPLETED','BLOCKED'])[1 + n % 4]::task_status,
+                       (ARRAY['LOW','MEDIUM','HIGH','CRITICAL'])[1 + n % 4]::task_priority,
+                       s.start_date, s.start_date + make_interval(hours => s.hours), s.hours, n, now(), now()
+                  FROM generate_series(1, ?) n
+                  JOIN (SELECT id, row_number() OVER (ORDER BY id) - 1 AS idx FROM goals WHERE tenant_id = ?) g
+                    ON g.idx = (n - 1) / ?
+                 CROSS JOIN LATERAL (SELECT ?::timestamp + make_interval(mins => (random() * 730 * 24 * 60)::int) AS start_date,
+                                            1 + (random() * 39)::int AS hours) s
+                """, TENANT, taskCount, TENANT, tasksPerGoal, EPOCH);
+        jdbcTemplate.execute("ANALYZE tasks");
+        log.info("Seeded {} tasks in {} goals in {} ms", taskCount, goals, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void measure(String label, int days) {
+        Random random = new Random(42);
+        long[] micros = new long[iterations];
+        long items = 0;
+        for (int i = 0; i < iterations; i++) {
+            LocalDateTime from = EPOCH.plusDays(random.nextInt(730 - days));
+            long start = System.nanoTime();
+            AgendaResponse agenda = agendaService.getAgenda(from, from.plusDays(days), null,
+                    i % 2 == 0 ? null : "PENDING,IN_PROGRESS", null, AgendaService.DEFAULT_LIMIT);
+            micros[i] = (System.nanoTime() - start) / 1000;
+            items += agenda.getItems().size();
+        }
+        Arrays.sort(micros);
+        log.info("[{}] {} tasks | {} queries, {} tasks/query | p50 {} ms, p99 {} ms, max {} ms",
+                label, taskCount, iterations, items / iterations,
+                String.format("%.2f", micros[iterations / 2] / 1000.0),
+                String.format("%.2f", micros[Math.min(iterations - 1, (int) (iterations * 0.99))] / 1000.0),
+                String.format("%.2f", micros[iterations - 1] / 1000.0));
+    }
+}
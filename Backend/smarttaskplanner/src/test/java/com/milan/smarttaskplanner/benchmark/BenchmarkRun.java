@@ -0,0 +1,40 @@
+package com.milan.smarttaskplanner.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Boots the application with the benchmark profile against a throwaway PostgreSQL container, so the
+ * benchmark runners in this package (each switched on by its own benchmark.* property) run at
+ * startup and never touch a real database. Only runs with -Pbenchmark:
+ *
+ * mvn -Pbenchmark test -Dbenchmark.agenda=true -Dbenchmark.tasks=1000000
+ *
+ * A benchmark that throws fails context startup and so fails the run.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("benchmark")
+@Testcontainers
+class BenchmarkRun {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl() + "&stringtype=unspecified");
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("gemini.api.key", () -> "stub");
+    }
+
+    @Test
+    void benchmarksComplete() {
+    }
+}
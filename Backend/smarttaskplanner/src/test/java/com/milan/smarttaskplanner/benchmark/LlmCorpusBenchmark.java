@@ -0,0 +1,126 @@
+package com.milan.smarttaskplanner.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.milan.smarttaskplanner.services.llm.LlmTrafficLog;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Offline analysis of recorded LLM traffic (llm.recording): recorded latency percentiles, the hit
+ * rate a prompt cache of a given size would have had, and JSON parse throughput over the recorded
+ * plans. Needs no database and no model.
+ *
+ * mvn -Pbenchmark test -Dbenchmark.llm-corpus=true -Dbenchmark.corpus-dir=llm-recordings
+ */
+@Component
+@Profile("benchmark")
+@ConditionalOnProperty(prefix = "benchmark", name = "llm-corpus", havingValue = "true")
+@Slf4j
+public class LlmCorpusBenchmark implements CommandLineRunner {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Value("${benchmark.corpus-dir:${llm.recording.directory:llm-recordings}}")
+    private String corpusDir;
+
+    @Value("${benchmark.iterations:20}")
+    private int iterations;
+
+    @Override
+    public void run(String... args) throws IOException {
+        List<LlmTrafficLog.Entry> entries = LlmTrafficLog.readAll(Path.of(corpusDir));
+        if (entries.isEmpty()) {
+            log.warn("No recordings in {}", Path.of(corpusDir).toAbsolutePath());
+            return;
+        }
+
+        int[] latencies = entries.stream().mapToInt(LlmTrafficLog.Entry::latencyMs).sorted().toArray();
+        long successes = entries.stream().filter(LlmTrafficLog.Entry::success).count();
+        log.info("Corpus {}: {} calls, {} succeeded | latency p50 {} ms, p90 {} ms, p99 {} ms, max {} ms",
+                corpusDir, entries.size(), successes,
+                percentile(latencies, 50), percentile(latencies, 90), percentile(latencies, 99), latencies[latencies.length - 1]);
+
+        simulateCache(entries, Integer.MAX_VALUE);
+        for (int size : new int[]{16, 128, 1024}) {
+            simulateCache(entries, size);
+        }
+        measureParsing(entries);
+    }
+
+    // Replays the prompts in recorded order through an LRU cache keyed like the replay provider
+    private void simulateCache(List<LlmTrafficLog.Entry> entries, int capacity) {
+        Map<Long, Boolean> cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+        long hits = 0;
+        for (LlmTrafficLog.Entry entry : entries) {
+            if (cache.put(entry.promptKey(), Boolean.TRUE) != null) {
+                hits++;
+            }
+        }
+        log.info("Prompt cache ({}): {} hits of {} calls ({}%)",
+                capacity == Integer.MAX_VALUE ? "unbounded" : capacity + " entries",
+                hits, entries.size(), String.format("%.1f", 100.0 * hits / entries.size()));
+    }
+
+    // The JSON part of AIServiceImpl's plan parsing: strip code fences, then build the tree
+    private void measureParsing(List<LlmTrafficLog.Entry> entries) {
+        List<String> texts = entries.stream()
+                .filter(LlmTrafficLog.Entry::success)
+                .map(entry -> stripCodeFence(entry.text()))
+                .toList();
+        long bytes = texts.stream().mapToLong(text -> text.getBytes(StandardCharsets.UTF_8).length).sum();
+
+        Set<Integer> unparseable = new HashSet<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            for (int t = 0; t < texts.size(); t++) {
+                try {
+                    mapper.readTree(texts.get(t));
+                } catch (IOException e) {
+                    unparseable.add(t);
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        log.info("Parsing: {} plans x {} iterations | {} plans/s, {} MB/s, {} unparseable",
+                texts.size(), iterations,
+                String.format("%.0f", texts.size() * iterations / seconds),
+                String.format("%.1f", bytes * iterations / seconds / 1_000_000),
+                unparseable.size());
+    }
+
+    private static String stripCodeFence(String content) {
+        String text = content.trim();
+        if (text.startsWith("```json")) {
+            text = text.substring(7).trim();
+        } else if (text.startsWith("```")) {
+            text = text.substring(3).trim();
+        }
+        if (text.endsWith("```")) {
+            text = text.substring(0, text.length() - 3).trim();
+        }
+        return text;
+    }
+
+    private static int percentile(int[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
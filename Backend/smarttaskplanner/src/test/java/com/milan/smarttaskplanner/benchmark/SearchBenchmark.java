@@ -0,0 +1,153 @@
+package com.milan.smarttaskplanner.benchmark;
+
+import com.milan.smarttaskplanner.dto.SearchResponse;
+import com.milan.smarttaskplanner.services.SearchIndexInitializer;
+import com.milan.smarttaskplanner.services.SearchService;
+import com.milan.smarttaskplanner.services.tenancy.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * Search latency on a large task table: seeds benchmark.tasks tasks whose titles and descriptions
+ * draw from a small vocabulary (every tenth task also gets steps with words found only there), runs
+ * random one- and two-word queries with and without filters, then removes everything it wrote.
+ * Fails when the p99 of any query mix exceeds benchmark.search-p99-ms.
+ *
+ * Runs inside BenchmarkRun against a PostgreSQL container:
+ * mvn -Pbenchmark test -Dbenchmark.search=true -Dbenchmark.tasks=1000000
+ */
+@Component
+@Profile("benchmark")
+@ConditionalOnProperty(prefix = "benchmark", name = "search", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class SearchBenchmark implements CommandLineRunner {
+
+    private static final String TENANT = "search-benchmark";
+    private static final String[] WORDS = {"budget", "launch", "garden", "marathon", "website", "invoice",
+            "portfolio", "renovation", "spanish", "fundraiser", "interview", "migration", "onboarding",
+            "photography", "workshop", "newsletter", "inventory", "podcast", "audit", "roadmap"};
+    private static final String[] STEP_WORDS = {"checklist", "rehearse", "measure", "sketch", "benchmark"};
+
+    private final SearchService searchService;
+    private final SearchIndexInitializer searchIndexInitializer;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${benchmark.tasks:1000000}")
+    private int taskCount;
+
+    @Value("${benchmark.tasks-per-goal:20}")
+    private int tasksPerGoal;
+
+    @Value("${benchmark.iterations:500}")
+    private int iterations;
+
+    @Value("${benchmark.search-p99-ms:200}")
+    private double p99TargetMs;
+
+    @Override
+    public void run(String... args) {
+        // The indexes are normally created on ApplicationReadyEvent, which fires after this runner
+        searchIndexInitializer.createIndexes();
+        seed();
+        String previousTenant = TenantContext.getTenantId();
+        TenantContext.setTenantId(TENANT);
+        try {
+            double worst = Math.max(measure("one word", false, false),
+                    Math.max(measure("two words", true, false), measure("filtered", false, true)));
+            worst = Math.max(worst, measureSteps());
+            if (worst > p99TargetMs) {
+                throw new IllegalStateException(String.format("Search p99 %.2f ms exceeds the %.0f ms target",
+                        worst, p99TargetMs));
+            }
+        } finally {
+            TenantContext.setTenantId(previousTenant);
+            jdbcTemplate.update("DELETE FROM task_steps WHERE task_id IN (SELECT id FROM tasks WHERE tenant_id = ?)", TENANT);
+            jdbcTemplate.update("DELETE FROM tasks WHERE tenant_id = ?", TENANT);
+            jdbcTemplate.update("DELETE FROM goals WHERE tenant_id = ?", TENANT);
+        }
+    }
+
+    private void seed() {
+        long start = System.nanoTime();
+        int goals = Math.max(1, taskCount / tasksPerGoal);
+        String words = "ARRAY['" + String.join("','", WORDS) + "']";
+        String stepWords = "ARRAY['" + String.join("','", STEP_WORDS) + "']";
+        jdbcTemplate.update("""
+                INSERT INTO goals (tenant_id, description, status, created_at, updated_at)
+                SELECT ?, 'Plan the ' || (%1$s)[1 + n %% 20] || ' and the ' || (%1$s)[1 + (n / 20) %% 20],
+                       'IN_PROGRESS', now() - make_interval(days => n %% 730), now()
+                  FROM generate_series(1, ?) n
+                """.formatted(words), TENANT, goals);
+        jdbcTemplate.update("""
+                INSERT INTO tasks (tenant_id, goal_id, title, description, detailed_description, status, priority,
+                                   estimated_duration_hours, order_index, created_at, updated_at)
+                SELECT ?, g.id, 'Prepare ' || (%1$s)[1 + (random() * 19)::int] || ' ' || n,
+                       'Work on the ' || (%1$s)[1 + (random() * 19)::int] || ' for the ' || (%1$s)[1 + (random() * 19)::int],
+                       'Details about the ' || (%1$s)[1 + (random() * 19)::int] || ' and follow-up notes',
+                       (ARRAY['PENDING','IN_PROGRESS','COMPLETED','BLOCKED'])[1 + n %% 4]::task_status,
+                       (ARRAY['LOW','MEDIUM','HIGH','CRITICAL'])[1 + (n / 4) %% 4]::task_priority,
+                       1 + n %% 8, n, now() - make_interval(days => n %% 730), now()
+                  FROM generate_series(1, ?) n
+                  JOIN (SELECT id, row_number() OVER (ORDER BY id) - 1 AS idx FROM goals WHERE tenant_id = ?) g
+                    ON g.idx = (n - 1) / ?
+                """.formatted(words), TENANT, taskCount, TENANT, tasksPerGoal);
+        jdbcTemplate.update("""
+                INSERT INTO task_steps (task_id, step_order, step)
+                SELECT t.id, i - 1, 'Step ' || i || ': ' || (%s)[1 + (random() * 4)::int] || ' the draft'
+                  FROM tasks t
+                 CROSS JOIN generate_series(1, 3) i
+                 WHERE t.tenant_id = ? AND t.order_index %% 10 = 0
+                """.formatted(stepWords), TENANT);
+        jdbcTemplate.execute("ANALYZE goals");
+        jdbcTemplate.execute("ANALYZE tasks");
+        jdbcTemplate.execute("ANALYZE task_steps");
+        log.info("Seeded {} tasks in {} goals in {} ms", taskCount, goals, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private double measure(String label, boolean twoWords, boolean filtered) {
+        Random random = new Random(42);
+        return time(label, i -> {
+            String query = WORDS[random.nextInt(WORDS.length)]
+                    + (twoWords ? " " + WORDS[random.nextInt(WORDS.length)] : "");
+            LocalDateTime from = filtered ? LocalDateTime.now().minusDays(90) : null;
+            return searchService.search(query, filtered ? "TASK" : null, filtered ? "PENDING" : null,
+                    filtered ? "HIGH" : null, from, null, i % 5, 20);
+        });
+    }
+
+    private double measureSteps() {
+        Random random = new Random(7);
+        return time("step words", i -> searchService.search(STEP_WORDS[random.nextInt(STEP_WORDS.length)],
+                "TASK", null, null, null, null, 0, 20));
+    }
+
+    private double time(String label, IntFunction<SearchResponse> query) {
+        long[] micros = new long[iterations];
+        long results = 0;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            SearchResponse response = query.apply(i);
+            micros[i] = (System.nanoTime() - start) / 1000;
+            results += response.getResults().size();
+        }
+        Arrays.sort(micros);
+        double p99 = micros[Math.min(iterations - 1, (int) (iterations * 0.99))] / 1000.0;
+        log.info("[{}] {} tasks | {} queries, {} results/query | p50 {} ms, p99 {} ms, max {} ms",
+                label, taskCount, iterations, results / iterations,
+                String.format("%.2f", micros[iterations / 2] / 1000.0), String.format("%.2f", p99),
+                String.format("%.2f", micros[iterations - 1] / 1000.0));
+        return p99;
+    }
+}
@@ -0,0 +1,137 @@
+package com.milan.smarttaskplanner.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.milan.smarttaskplanner.config.MessageConverterConfig;
+import com.milan.smarttaskplanner.dto.GoalResponse;
+import com.milan.smarttaskplanner.dto.ResponseView;
+import com.milan.smarttaskplanner.dto.TaskResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Payload size and serialization throughput of goal responses per view and encoding, on large
+ * synthetic goals. Needs no database.
+ *
+ * mvn -Pbenchmark test -Dbenchmark.serialization=true
+ */
+@Component
+@Profile("benchmark")
+@ConditionalOnProperty(prefix = "benchmark", name = "serialization", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class SerializationBenchmark implements CommandLineRunner {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${benchmark.goals:10}")
+    private int goalCount;
+
+    @Value("${benchmark.tasks-per-goal:40}")
+    private int tasksPerGoal;
+
+    @Value("${benchmark.steps-per-task:8}")
+    private int stepsPerTask;
+
+    @Value("${benchmark.iterations:200}")
+    private int iterations;
+
+    @Override
+    public void run(String... args) throws IOException {
+        Map<String, ObjectMapper> encodings = new LinkedHashMap<>();
+        encodings.put("json", objectMapper);
+        encodings.put("smile", MessageConverterConfig.configure(Jackson2ObjectMapperBuilder.smile()));
+        encodings.put("cbor", MessageConverterConfig.configure(Jackson2ObjectMapperBuilder.cbor()));
+
+        for (ResponseView view : ResponseView.values()) {
+            List<GoalResponse> goals = buildGoals(view);
+            for (Map.Entry<String, ObjectMapper> encoding : encodings.entrySet()) {
+                measure(view, encoding.getKey(), encoding.getValue(), goals);
+            }
+        }
+    }
+
+    private void measure(ResponseView view, String encoding, ObjectMapper mapper, List<GoalResponse> goals) throws IOException {
+        byte[] payload = mapper.writeValueAsBytes(goals);
+        for (int i = 0; i < Math.max(10, iterations / 10); i++) {
+            mapper.writeValueAsBytes(goals);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            mapper.writeValueAsBytes(goals);
+        }
+        long nanos = System.nanoTime() - start;
+
+        double seconds = nanos / 1e9;
+        log.info("[{} / {}] goals={} tasks/goal={} | {} bytes, {} gzipped | {} responses/s, {} MB/s",
+                view, encoding, goalCount, tasksPerGoal,
+                payload.length, gzipSize(payload),
+                String.format("%.0f", iterations / seconds),
+                String.format("%.1f", (double) payload.length * iterations / seconds / 1_000_000));
+    }
+
+    private int gzipSize(byte[] payload) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(payload);
+        }
+        return out.size();
+    }
+
+    // Mirrors what GoalService puts in each view
+    private List<GoalResponse> buildGoals(ResponseView view) {
+        boolean detail = view == ResponseView.DETAIL;
+        LocalDateTime start = LocalDateTime.now();
+        List<GoalResponse> goals = new ArrayList<>();
+
+        for (int g = 1; g <= goalCount; g++) {
+            List<TaskResponse> tasks = new ArrayList<>();
+            for (int t = 1; t <= tasksPerGoal; t++) {
+                List<String> steps = new ArrayList<>();
+                for (int s = 1; s <= stepsPerTask; s++) {
+                    steps.add("Step " + s + ": open the project workspace, review the notes from the previous task and complete action " + s);
+                }
+                tasks.add(TaskResponse.builder()
+                        .id((long) g * 1000 + t)
+                        .title("Benchmark task " + t + " of goal " + g)
+                        .description("Synthetic task used to measure response sizes")
+                        .detailedDescription(detail ? "This task covers a realistic amount of explanation. ".repeat(12) : null)
+                        .steps(detail ? steps : null)
+                        .estimatedDurationHours(4)
+                        .priority("MEDIUM")
+                        .status("PENDING")
+                        .orderIndex(t)
+                        .dependencies(detail ? (t > 1 ? List.of((long) t - 1) : List.of()) : null)
+                        .startDate(start.plusHours(4L * (t - 1)))
+                        .endDate(start.plusHours(4L * t))
+                        .createdAt(detail ? start : null)
+                        .build());
+            }
+            goals.add(GoalResponse.builder()
+                    .id((long) g)
+                    .description("Benchmark goal " + g + " with " + tasksPerGoal + " tasks")
+                    .status("PLANNING")
+                    .tasks(tasks)
+                    .aiAnalysis(detail ? "Synthetic analysis of the goal. ".repeat(20) : null)
+                    .createdAt(start)
+                    .updatedAt(start)
+                    .build());
+        }
+        return goals;
+    }
+}
@@ -0,0 +1,140 @@
+package com.milan.smarttaskplanner.benchmark;
+
+import com.milan.smarttaskplanner.config.TaskStorageMode;
+import com.milan.smarttaskplanner.config.TaskStorageProperties;
+import com.milan.smarttaskplanner.entities.Goal;
+import com.milan.smarttaskplanner.entities.GoalStatus;
+import com.milan.smarttaskplanner.entities.Task;
+import com.milan.smarttaskplanner.entities.TaskPriority;
+import com.milan.smarttaskplanner.entities.TaskStatus;
+import com.milan.smarttaskplanner.repositories.GoalRepository;
+import com.milan.smarttaskplanner.services.TaskStorageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares ELEMENT_COLLECTION and COMPACT task storage on large synthetic goals.
+ *
+ * Runs inside BenchmarkRun against a PostgreSQL container:
+ * mvn -Pbenchmark test -Dbenchmark.task-storage=true
+ */
+@Component
+@Profile("benchmark")
+@ConditionalOnProperty(prefix = "benchmark", name = "task-storage", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class TaskStorageBenchmark implements CommandLineRunner {
+
+    private final GoalRepository goalRepository;
+    private final TaskStorageService taskStorageService;
+    private final TaskStorageProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${benchmark.goals:50}")
+    private int goalCount;
+
+    @Value("${benchmark.tasks-per-goal:20}")
+    private int tasksPerGoal;
+
+    @Value("${benchmark.steps-per-task:6}")
+    private int stepsPerTask;
+
+    @Override
+    public void run(String... args) {
+        TaskStorageMode configuredMode = properties.getMode();
+        try {
+            for (TaskStorageMode mode : TaskStorageMode.values()) {
+                properties.setMode(mode);
+                measure(mode);
+            }
+        } finally {
+            properties.setMode(configuredMode);
+        }
+    }
+
+    private void measure(TaskStorageMode mode) {
+        long childRowsBefore = countChildRows();
+
+        List<Long> goalIds = new ArrayList<>();
+        long insertStart = System.nanoTime();
+        for (int i = 0; i < goalCount; i++) {
+            Goal saved = transactionTemplate.execute(status -> goalRepository.save(buildGoal()));
+            goalIds.add(saved.getId());
+        }
+        long insertNanos = System.nanoTime() - insertStart;
+
+        long childRows = countChildRows() - childRowsBefore;
+
+        long readStart = System.nanoTime();
+        Integer stepsRead = transactionTemplate.execute(status -> {
+            int total = 0;
+            for (Long id : goalIds) {
+                Goal goal = goalRepository.findById(id).orElseThrow();
+                for (Task task : goal.getTasks()) {
+                    total += taskStorageService.readSteps(task).size();
+                    total += taskStorageService.readDependencies(task).size();
+                }
+            }
+            return total;
+        });
+        long readNanos = System.nanoTime() - readStart;
+
+        transactionTemplate.executeWithoutResult(status -> goalRepository.deleteAllById(goalIds));
+
+        log.info("[{}] goals={} tasks/goal={} steps/task={} | insert {} ms ({} ms/goal) | read {} ms ({} ms/goal) | child rows written {} | values read {}",
+                mode, goalCount, tasksPerGoal, stepsPerTask,
+                insertNanos / 1_000_000, String.format("%.2f", insertNanos / 1e6 / goalCount),
+                readNanos / 1_000_000, String.format("%.2f", readNanos / 1e6 / goalCount),
+                childRows, stepsRead);
+    }
+
+    private long countChildRows() {
+        Long steps = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM task_steps", Long.class);
+        Long dependencies = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM task_dependencies", Long.class);
+        return (steps != null ? steps : 0) + (dependencies != null ? dependencies : 0);
+    }
+
+    private Goal buildGoal() {
+        Goal goal = Goal.builder()
+                .description("Benchmark goal with " + tasksPerGoal + " tasks")
+                .status(GoalStatus.PLANNING)
+                .aiAnalysis("Synthetic plan for storage benchmarking")
+                .build();
+
+        LocalDateTime start = LocalDateTime.now();
+        for (int t = 1; t <= tasksPerGoal; t++) {
+            List<String> steps = new ArrayList<>();
+            for (int s = 1; s <= stepsPerTask; s++) {
+                steps.add("Step " + s + ": benchmark action for task " + t);
+            }
+
+            Task task = Task.builder()
+                    .title("Benchmark task " + t)
+                    .description("Synthetic task")
+                    .detailedDescription("Synthetic task used to compare task storage layouts")
+                    .estimatedDurationHours(4)
+                    .priority(TaskPriority.MEDIUM)
+                    .status(TaskStatus.PENDING)
+                    .orderIndex(t)
+                    .startDate(start.plusHours(4L * (t - 1)))
+                    .endDate(start.plusHours(4L * t))
+                    .build();
+            taskStorageService.writeSteps(task, steps);
+            taskStorageService.writeDependencies(task, t > 1 ? List.of((long) t - 1) : List.of());
+            goal.addTask(task);
+        }
+        return goal;
+    }
+}
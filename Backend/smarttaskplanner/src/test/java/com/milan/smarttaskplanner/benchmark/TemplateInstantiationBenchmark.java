@@ -0,0 +1,144 @@
+package com.milan.smarttaskplanner.benchmark;
+
+import com.milan.smarttaskplanner.config.TaskStorageMode;
+import com.milan.smarttaskplanner.config.TaskStorageProperties;
+import com.milan.smarttaskplanner.config.TemplateProperties;
+import com.milan.smarttaskplanner.dto.InstantiateTemplateRequest;
+import com.milan.smarttaskplanner.dto.InstantiateTemplateResponse;
+import com.milan.smarttaskplanner.services.TemplateInstantiationService;
+import com.milan.smarttaskplanner.services.tenancy.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Template instantiation throughput: seeds a template of benchmark.template-tasks tasks (with
+ * steps and a dependency chain) and clones it for benchmark.instantiations recipient tenants,
+ * once per batch size in benchmark.batch-sizes (recipients per instantiate call), then removes
+ * everything it wrote. The recipients are other tenants, so templates.admin-token must be set.
+ * Capacity leveling of the recipients runs in the background unless disabled with
+ * --capacity.enabled=false.
+ *
+ * Runs inside BenchmarkRun against a PostgreSQL container:
+ * mvn -Pbenchmark test -Dbenchmark.templates=true -Dbenchmark.instantiations=1000 -Dtemplates.admin-token=benchmark
+ */
+@Component
+@Profile("benchmark")
+@ConditionalOnProperty(prefix = "benchmark", name = "templates", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class TemplateInstantiationBenchmark implements CommandLineRunner {
+
+    private static final String TENANT = "template-benchmark";
+    private static final String RECIPIENT_PREFIX = "template-benchmark-r";
+
+    private final TemplateInstantiationService templateInstantiationService;
+    private final TaskStorageProperties taskStorageProperties;
+    private final TemplateProperties templateProperties;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${benchmark.instantiations:1000}")
+    private int instantiations;
+
+    @Value("${benchmark.template-tasks:20}")
+    private int templateTasks;
+
+    @Value("${benchmark.steps-per-task:5}")
+    private int stepsPerTask;
+
+    @Value("${benchmark.batch-sizes:1,100,1000}")
+    private List<Integer> batchSizes;
+
+    @Override
+    public void run(String... args) {
+        String previousTenant = TenantContext.getTenantId();
+        TenantContext.setTenantId(TENANT);
+        try {
+            Long templateId = seedTemplate();
+            for (int batchSize : batchSizes) {
+                measure(templateId, Math.min(batchSize, instantiations));
+                removeCopies();
+            }
+        } finally {
+            TenantContext.setTenantId(previousTenant);
+            removeCopies();
+            jdbcTemplate.update("DELETE FROM task_steps WHERE task_id IN (SELECT id FROM tasks WHERE tenant_id = ?)", TENANT);
+            jdbcTemplate.update("DELETE FROM task_dependencies WHERE task_id IN (SELECT id FROM tasks WHERE tenant_id = ?)", TENANT);
+            jdbcTemplate.update("DELETE FROM tasks WHERE tenant_id = ?", TENANT);
+            jdbcTemplate.update("DELETE FROM goals WHERE tenant_id = ?", TENANT);
+        }
+    }
+
+    private Long seedTemplate() {
+        Long goalId = jdbcTemplate.queryForObject("""
+                INSERT INTO goals (tenant_id, description, target_date, status, ai_analysis, template, created_at, updated_at)
+                VALUES (?, 'Template benchmark onboarding', now() + interval '60 days', 'PLANNING', 'Benchmark template', true, now(), now())
+                RETURNING id
+                """, Long.class, TENANT);
+        boolean compact = taskStorageProperties.getMode() == TaskStorageMode.COMPACT;
+        jdbcTemplate.update("""
+                INSERT INTO tasks (tenant_id, goal_id, title, description, status, priority, start_date, end_date,
+                                   estimated_duration_hours, order_index, steps_json, dependency_ids, created_at, updated_at)
+                SELECT ?, ?, 'Onboarding task ' || n, 'Benchmark task ' || n, 'PENDING'::task_status,
+                       (ARRAY['LOW','MEDIUM','HIGH','CRITICAL'])[1 + n % 4]::task_priority,
+                       now() + make_interval(days => n), now() + make_interval(days => n, hours => 4), 4, n,
+                       CASE WHEN ? THEN (SELECT jsonb_agg('Step ' || s) FROM generate_series(1, ?) s) END,
+                       CASE WHEN ? AND n > 1 THEN ARRAY[n - 1]::bigint[] END,
+                       now(), now()
+                  FROM generate_series(1, ?) n
+                """, TENANT, goalId, compact, stepsPerTask, compact, templateTasks);
+        if (!compact) {
+            jdbcTemplate.update("""
+                    INSERT INTO task_steps (task_id, step_order, step)
+                    SELECT t.id, s - 1, 'Step ' || s FROM tasks t CROSS JOIN generate_series(1, ?) s WHERE t.goal_id = ?
+                    """, stepsPerTask, goalId);
+            jdbcTemplate.update("""
+                    INSERT INTO task_dependencies (task_id, dependency_order, dependency_id)
+                    SELECT id, 0, order_index - 1 FROM tasks WHERE goal_id = ? AND order_index > 1
+                    """, goalId);
+        }
+        log.info("Seeded template {} with {} tasks, {} steps each ({} storage)", goalId, templateTasks, stepsPerTask,
+                taskStorageProperties.getMode());
+        return goalId;
+    }
+
+    private void measure(Long templateId, int batchSize) {
+        long start = System.nanoTime();
+        long tasks = 0;
+        long rows = 0;
+        for (int from = 0; from < instantiations; from += batchSize) {
+            List<InstantiateTemplateRequest.Recipient> recipients = new ArrayList<>();
+            for (int i = from; i < Math.min(instantiations, from + batchSize); i++) {
+                recipients.add(new InstantiateTemplateRequest.Recipient(RECIPIENT_PREFIX + i, LocalDate.now().plusDays(i % 30)));
+            }
+            InstantiateTemplateResponse response = templateInstantiationService.instantiate(templateId,
+                    InstantiateTemplateRequest.builder().recipients(recipients).build(), templateProperties.getAdminToken());
+            tasks += response.getTasks();
+            rows += response.getGoalIds().size() + response.getTasks() + response.getSteps() + response.getDependencies();
+        }
+        double seconds = Math.max(1, System.nanoTime() - start) / 1e9;
+        log.info("[batch {}] {} instantiations, {} tasks, {} rows in {} ms | {} instantiations/s, {} rows/s",
+                batchSize, instantiations, tasks, rows, String.format("%.0f", seconds * 1000),
+                String.format("%.0f", instantiations / seconds), String.format("%.0f", rows / seconds));
+    }
+
+    private void removeCopies() {
+        String recipients = RECIPIENT_PREFIX + "%";
+        jdbcTemplate.update("DELETE FROM task_steps WHERE task_id IN (SELECT id FROM tasks WHERE tenant_id LIKE ?)", recipients);
+        jdbcTemplate.update("DELETE FROM task_dependencies WHERE task_id IN (SELECT id FROM tasks WHERE tenant_id LIKE ?)", recipients);
+        jdbcTemplate.update("DELETE FROM tasks WHERE tenant_id LIKE ?", recipients);
+        jdbcTemplate.update("DELETE FROM goals WHERE tenant_id LIKE ?", recipients);
+        jdbcTemplate.update("DELETE FROM analytics_goal_rollups WHERE tenant_id LIKE ?", recipients);
+        jdbcTemplate.update("DELETE FROM analytics_weekly_rollups WHERE tenant_id LIKE ?", recipients);
+        jdbcTemplate.update("DELETE FROM analytics_priority_rollups WHERE tenant_id LIKE ?", recipients);
+    }
+}
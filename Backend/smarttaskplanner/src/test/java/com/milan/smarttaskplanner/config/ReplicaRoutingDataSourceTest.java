@@ -0,0 +1,120 @@
+package com.milan.smarttaskplanner.config;
+
+import com.milan.smarttaskplanner.services.tenancy.TenantContext;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final ReplicaNode first = new ReplicaNode("replica-1", null);
+    private final ReplicaNode second = new ReplicaNode("replica-2", null);
+    private final DataSourceRoutingProperties properties = new DataSourceRoutingProperties();
+    private final ReplicaHealthMonitor monitor = new ReplicaHealthMonitor(List.of(first, second), properties);
+    private final ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(monitor);
+    private static final String TENANT = TenantContext.DEFAULT_TENANT;
+
+    ReplicaRoutingDataSourceTest() {
+        properties.setMaxLagMs(5000L);
+        properties.setReadYourWritesWindowMs(60_000L);
+        first.markUp(0);
+        second.markUp(0);
+    }
+
+    @AfterEach
+    void clearTransaction() {
+        TransactionSynchronizationManager.clear();
+        TenantContext.clear();
+    }
+
+    @Test
+    void readOnlyTransactionsAlternateBetweenReplicas() {
+        beginTransaction(true);
+
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+        assertEquals("replica-2", routing.determineCurrentLookupKey());
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void writeTransactionsGoToThePrimary() {
+        beginTransaction(false);
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readYourWritesWindowStartsWhenTheWriteCommits() {
+        beginTransaction(false);
+        routing.determineCurrentLookupKey();
+        assertEquals(Optional.of(first), monitor.selectReplica(TENANT));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(Optional.empty(), monitor.selectReplica(TENANT));
+    }
+
+    @Test
+    void writesOnlyKeepTheWritingTenantOnThePrimary() {
+        TenantContext.setTenantId("writer");
+        beginTransaction(false);
+        routing.determineCurrentLookupKey();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(Optional.empty(), monitor.selectReplica("writer"));
+        assertTrue(monitor.selectReplica("reader").isPresent());
+    }
+
+    @Test
+    void connectionsUsedOutsideATransactionCountAsWrites() throws SQLException {
+        JdbcDataSource primary = new JdbcDataSource();
+        primary.setURL("jdbc:h2:mem:routing;DB_CLOSE_DELAY=-1");
+        routing.setTargetDataSources(Map.of(ReplicaRoutingDataSource.PRIMARY, primary));
+        routing.afterPropertiesSet();
+
+        try (Connection connection = routing.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS notes (id INT)");
+            assertEquals(Optional.of(first), monitor.selectReplica(TENANT));
+        }
+        assertEquals(Optional.empty(), monitor.selectReplica(TENANT));
+    }
+
+    @Test
+    void rolledBackWriteDoesNotPinReadsToThePrimary() {
+        beginTransaction(false);
+        routing.determineCurrentLookupKey();
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertEquals(Optional.of(first), monitor.selectReplica(TENANT));
+    }
+
+    @Test
+    void skipsReplicasThatAreDownOrLagging() {
+        first.markDown();
+        second.markUp(6000);
+        beginTransaction(true);
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+
+        second.markUp(100);
+        assertEquals("replica-2", routing.determineCurrentLookupKey());
+    }
+
+    private static void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+}
@@ -0,0 +1,133 @@
+package com.milan.smarttaskplanner.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for Gemini's generateContent endpoint. Replays the recorded response payloads in
+ * src/test/resources/loadtest/gemini round-robin after base latency plus exponentially distributed
+ * jitter, and answers a configurable share of calls with 503, 429 or a truncated (unparseable) plan.
+ */
+class GeminiStub implements AutoCloseable {
+
+    record Profile(long latencyMs, long jitterMs, double errorRate, double rateLimitRate, double malformedRate) {
+
+        static Profile fromSystemProperties() {
+            return new Profile(
+                    Long.getLong("loadtest.gemini.latency-ms", 1500),
+                    Long.getLong("loadtest.gemini.jitter-ms", 500),
+                    Double.parseDouble(System.getProperty("loadtest.gemini.error-rate", "0.02")),
+                    Double.parseDouble(System.getProperty("loadtest.gemini.rate-limit-rate", "0.01")),
+                    Double.parseDouble(System.getProperty("loadtest.gemini.malformed-rate", "0.01")));
+        }
+    }
+
+    private final Profile profile;
+    private final List<byte[]> payloads;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    private GeminiStub(Profile profile, List<byte[]> payloads) throws IOException {
+        this.profile = profile;
+        this.payloads = payloads;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        // Every call sleeps for its latency, so each one needs its own thread
+        server.setExecutor(executor);
+        server.createContext("/v1beta/models/", this::handle);
+        server.start();
+    }
+
+    static GeminiStub start(Profile profile) throws IOException {
+        List<byte[]> payloads = new ArrayList<>();
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources("classpath:loadtest/gemini/*.json")) {
+            try (InputStream in = resource.getInputStream()) {
+                payloads.add(in.readAllBytes());
+            }
+        }
+        if (payloads.isEmpty()) {
+            throw new IllegalStateException("No recorded payloads under loadtest/gemini");
+        }
+        return new GeminiStub(profile, payloads);
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    long calls() {
+        return calls.get();
+    }
+
+    long failures() {
+        return failures.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long call = calls.getAndIncrement();
+        try (exchange) {
+            exchange.getRequestBody().readAllBytes();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long jitter = profile.jitterMs() > 0 ? (long) (-profile.jitterMs() * Math.log(1 - random.nextDouble())) : 0;
+            Thread.sleep(profile.latencyMs() + jitter);
+
+            double outcome = random.nextDouble();
+            if (outcome < profile.errorRate()) {
+                failures.incrementAndGet();
+                respond(exchange, 503, "{\"error\":{\"code\":503,\"status\":\"UNAVAILABLE\"}}".getBytes(StandardCharsets.UTF_8));
+            } else if (outcome < profile.errorRate() + profile.rateLimitRate()) {
+                failures.incrementAndGet();
+                respond(exchange, 429, "{\"error\":{\"code\":429,\"status\":\"RESOURCE_EXHAUSTED\"}}".getBytes(StandardCharsets.UTF_8));
+            } else {
+                byte[] payload = payloads.get((int) (call % payloads.size()));
+                if (outcome < profile.errorRate() + profile.rateLimitRate() + profile.malformedRate()) {
+                    failures.incrementAndGet();
+                    payload = truncatePlan(payload);
+                }
+                respond(exchange, 200, payload);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Cuts the generated text off mid-plan while keeping the envelope valid, like a max-token stop
+    private static byte[] truncatePlan(byte[] payload) {
+        String json = new String(payload, StandardCharsets.UTF_8);
+        int tasks = json.indexOf("\\\"tasks\\\"");
+        int textEnd = json.indexOf("\"\n", tasks);
+        if (tasks < 0 || textEnd < 0) {
+            return payload;
+        }
+        return (json.substring(0, tasks) + json.substring(textEnd)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
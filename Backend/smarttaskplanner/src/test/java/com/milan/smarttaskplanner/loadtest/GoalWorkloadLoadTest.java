@@ -0,0 +1,248 @@
+package com.milan.smarttaskplanner.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mixed workload against one node: goal creation, polling of /recent, task status updates and
+ * deletes, each at its own arrival rate, with PostgreSQL in a container and Gemini replaced by
+ * {@link GeminiStub}. Fails when any SLO gate in {@link SloGate} is missed.
+ *
+ * mvn -Ploadtest test -Dloadtest.duration-seconds=120 -Dloadtest.create-rate=5 -Dloadtest.gemini.latency-ms=3000
+ *
+ * Overload run: goal creation far beyond what the planner can serve may be shed, while /recent and
+ * status updates must keep their SLOs:
+ * mvn -Ploadtest test -Dloadtest.create-rate=60 -Dloadtest.gemini.latency-ms=8000 -Dloadtest.shed-allowed=create
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("prod")
+@Testcontainers
+@Slf4j
+class GoalWorkloadLoadTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    static final GeminiStub GEMINI = startGemini();
+
+    private static final String[] SUBJECTS = {"conversational Spanish", "a small business website", "a half marathon",
+            "a home vegetable garden", "an online bookkeeping course", "a mobile budgeting app", "a family photo book",
+            "a kitchen renovation", "a machine learning portfolio", "a community fundraising event"};
+    private static final String[] HORIZONS = {"in two weeks", "in one month", "in three months", "by the end of the year"};
+
+    @LocalServerPort
+    int port;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final GoalPool goals = new GoalPool();
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl() + "&stringtype=unspecified");
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("gemini.api.key", () -> "stub");
+        registry.add("llm.providers[0].name", () -> "gemini-stub");
+        registry.add("llm.providers[0].type", () -> "GEMINI");
+        registry.add("llm.providers[0].model", () -> "gemini-2.0-flash");
+        registry.add("llm.providers[0].api-key", () -> "stub");
+        registry.add("llm.providers[0].base-url", GEMINI::baseUrl);
+        // Only the stub's own error profile should decide how many plans fall back
+        registry.add("tenancy.defaults.ai-calls-per-minute", () -> 1_000_000);
+        registry.add("tenancy.defaults.max-concurrent-plans", () -> 256);
+    }
+
+    @AfterAll
+    static void stopGemini() {
+        GEMINI.close();
+    }
+
+    @Test
+    void mixedWorkloadMeetsSlos() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+
+        Map<String, Supplier<CompletableFuture<WorkloadDriver.Outcome>>> operations = new LinkedHashMap<>();
+        operations.put(LoadTestSettings.CREATE, this::createGoal);
+        operations.put(LoadTestSettings.RECENT, this::pollRecent);
+        operations.put(LoadTestSettings.STATUS, this::updateTaskStatus);
+        operations.put(LoadTestSettings.DELETE, this::deleteGoal);
+
+        Map<String, WorkloadDriver.OperationStats> stats = new WorkloadDriver(settings.maxOutstanding())
+                .run(operations, settings.rates(), settings.warmup(), settings.duration());
+        log.info("Gemini stub: {} calls, {} injected failures", GEMINI.calls(), GEMINI.failures());
+
+        logConcurrencyMetrics();
+
+        List<String> violations = new SloGate(settings).check(stats);
+        assertTrue(violations.isEmpty(), "SLO gates missed:\n" + String.join("\n", violations));
+    }
+
+    private CompletableFuture<WorkloadDriver.Outcome> createGoal() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String description = "Prepare " + SUBJECTS[random.nextInt(SUBJECTS.length)] + " "
+                + HORIZONS[random.nextInt(HORIZONS.length)] + " (#" + random.nextInt(1_000_000) + ")";
+        HttpRequest request = json(URI.create(baseUrl() + "/api/goals"))
+                .POST(HttpRequest.BodyPublishers.ofString(toJson(Map.of("description", description))))
+                .build();
+        return send(request).thenApply(response -> {
+            if (response.statusCode() == 503) {
+                return WorkloadDriver.Outcome.SHED;
+            }
+            if (response.statusCode() != 201) {
+                return WorkloadDriver.Outcome.FAILED;
+            }
+            JsonNode plan = readTree(response.body());
+            List<Long> taskIds = new ArrayList<>();
+            plan.path("tasks").forEach(task -> taskIds.add(task.path("id").asLong()));
+            goals.add(new GoalRef(plan.path("goalId").asLong(), taskIds));
+            return WorkloadDriver.Outcome.OK;
+        });
+    }
+
+    private CompletableFuture<WorkloadDriver.Outcome> pollRecent() {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl() + "/api/goals/recent")).GET().build())
+                .thenApply(response -> outcome(response, 200));
+    }
+
+    private CompletableFuture<WorkloadDriver.Outcome> updateTaskStatus() {
+        GoalRef goal = goals.random();
+        if (goal == null || goal.taskIds().isEmpty()) {
+            return CompletableFuture.completedFuture(WorkloadDriver.Outcome.SKIPPED);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Long taskId = goal.taskIds().get(random.nextInt(goal.taskIds().size()));
+        String status = random.nextInt(3) == 0 ? "COMPLETED" : "IN_PROGRESS";
+        HttpRequest request = json(URI.create(baseUrl() + "/api/goals/" + goal.goalId() + "/tasks/status"))
+                .PUT(HttpRequest.BodyPublishers.ofString(toJson(Map.of("taskId", taskId, "status", status))))
+                .build();
+        return send(request).thenApply(response -> {
+            // The goal may have been deleted (or its plan upgraded) since it was picked
+            if (response.statusCode() == 400) {
+                return WorkloadDriver.Outcome.SKIPPED;
+            }
+            return outcome(response, 200);
+        });
+    }
+
+    private CompletableFuture<WorkloadDriver.Outcome> deleteGoal() {
+        GoalRef goal = goals.pollOldest();
+        if (goal == null) {
+            return CompletableFuture.completedFuture(WorkloadDriver.Outcome.SKIPPED);
+        }
+        return send(HttpRequest.newBuilder(URI.create(baseUrl() + "/api/goals/" + goal.goalId())).DELETE().build())
+                .thenApply(response -> outcome(response, 204));
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(HttpRequest request) {
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static WorkloadDriver.Outcome outcome(HttpResponse<String> response, int expectedStatus) {
+        if (response.statusCode() == 503) {
+            return WorkloadDriver.Outcome.SHED;
+        }
+        return response.statusCode() == expectedStatus ? WorkloadDriver.Outcome.OK : WorkloadDriver.Outcome.FAILED;
+    }
+
+    // Where the server's adaptive limits ended up and how much each class shed
+    private void logConcurrencyMetrics() throws Exception {
+        for (String metric : List.of("planner.concurrency.limit", "planner.concurrency.rejected")) {
+            for (String limiterClass : List.of("planning", "interactive")) {
+                HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(
+                                baseUrl() + "/actuator/metrics/" + metric + "?tag=class:" + limiterClass)).GET().build(),
+                        HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() == 200) {
+                    log.info("{} [{}] = {}", metric, limiterClass,
+                            readTree(response.body()).path("measurements").path(0).path("value").asDouble());
+                }
+            }
+        }
+    }
+
+    private static HttpRequest.Builder json(URI uri) {
+        return HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json");
+    }
+
+    private String baseUrl() {
+        return "http://localhost:" + port;
+    }
+
+    private String toJson(Object value) {
+        try {
+            return mapper.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private JsonNode readTree(String body) {
+        try {
+            return mapper.readTree(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static GeminiStub startGemini() {
+        try {
+            return GeminiStub.start(GeminiStub.Profile.fromSystemProperties());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    record GoalRef(long goalId, List<Long> taskIds) {
+    }
+
+    // Goals created during the run; deletes take the oldest and keep a few for status updates
+    static final class GoalPool {
+        private static final int KEEP = 20;
+        private final List<GoalRef> goals = new ArrayList<>();
+
+        synchronized void add(GoalRef goal) {
+            goals.add(goal);
+        }
+
+        synchronized GoalRef random() {
+            return goals.isEmpty() ? null : goals.get(ThreadLocalRandom.current().nextInt(goals.size()));
+        }
+
+        synchronized GoalRef pollOldest() {
+            return goals.size() <= KEEP ? null : goals.remove(0);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.milan.smarttaskplanner.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Load test knobs, all overridable with -Dloadtest.*: arrival rate per operation (requests per
+ * second), per-operation p99 limits, the share of the target rate that must be served and the
+ * allowed error rate. With a baseline file, p99 and throughput must also stay within
+ * regression-tolerance of the baseline run. Operations listed in loadtest.shed-allowed may be shed
+ * by the server's concurrency limiter (a quick 503 then counts as handled); shedding any other
+ * operation counts as an error. Shed responses must come back within the shed p99 limit.
+ */
+record LoadTestSettings(Duration warmup,
+                        Duration duration,
+                        Map<String, Double> rates,
+                        Map<String, Long> p99LimitsMs,
+                        double minThroughputRatio,
+                        double maxErrorRate,
+                        Set<String> shedAllowed,
+                        long shedP99LimitMs,
+                        Path baseline,
+                        double regressionTolerance,
+                        Path reportDir,
+                        int maxOutstanding) {
+
+    static final String CREATE = "create";
+    static final String RECENT = "recent";
+    static final String STATUS = "status";
+    static final String DELETE = "delete";
+
+    static LoadTestSettings fromSystemProperties() {
+        Map<String, Double> rates = new LinkedHashMap<>();
+        rates.put(CREATE, doubleProperty("loadtest.create-rate", 2));
+        rates.put(RECENT, doubleProperty("loadtest.recent-rate", 20));
+        rates.put(STATUS, doubleProperty("loadtest.status-rate", 10));
+        rates.put(DELETE, doubleProperty("loadtest.delete-rate", 1));
+
+        // Goal creation answers within the tiered planning budget, then upgrades in the background
+        Map<String, Long> p99LimitsMs = new LinkedHashMap<>();
+        p99LimitsMs.put(CREATE, Long.getLong("loadtest.slo.create-p99-ms", 2000));
+        p99LimitsMs.put(RECENT, Long.getLong("loadtest.slo.recent-p99-ms", 250));
+        p99LimitsMs.put(STATUS, Long.getLong("loadtest.slo.status-p99-ms", 250));
+        p99LimitsMs.put(DELETE, Long.getLong("loadtest.slo.delete-p99-ms", 500));
+
+        String baseline = System.getProperty("loadtest.baseline", "src/test/resources/loadtest/baseline.json");
+        return new LoadTestSettings(
+                Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 15)),
+                Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 60)),
+                rates,
+                p99LimitsMs,
+                doubleProperty("loadtest.slo.min-throughput-ratio", 0.95),
+                doubleProperty("loadtest.slo.max-error-rate", 0.01),
+                Arrays.stream(System.getProperty("loadtest.shed-allowed", "").split(","))
+                        .map(String::trim)
+                        .filter(name -> !name.isEmpty())
+                        .collect(Collectors.toSet()),
+                Long.getLong("loadtest.slo.shed-p99-ms", 100),
+                baseline.isBlank() ? null : Path.of(baseline),
+                doubleProperty("loadtest.regression-tolerance", 0.2),
+                Path.of(System.getProperty("loadtest.report-dir", "target/loadtest")),
+                Integer.getInteger("loadtest.max-outstanding", 500));
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        return value == null || value.isBlank() ? defaultValue : Double.parseDouble(value);
+    }
+}
@@ -0,0 +1,135 @@
+package com.milan.smarttaskplanner.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks a load test run against the absolute SLOs and, when a baseline file exists, against the
+ * baseline run. Writes results.json (the format of a baseline file) and one HdrHistogram percentile
+ * distribution per operation (&lt;operation&gt;.hgrm, in milliseconds) to the report directory.
+ * To accept a run as the new baseline, copy its results.json over the baseline file.
+ */
+@Slf4j
+class SloGate {
+
+    private final LoadTestSettings settings;
+    private final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    SloGate(LoadTestSettings settings) {
+        this.settings = settings;
+    }
+
+    List<String> check(Map<String, WorkloadDriver.OperationStats> stats) throws IOException {
+        Map<String, Map<String, Object>> results = summarize(stats);
+        writeReport(stats, results);
+
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Object>> entry : results.entrySet()) {
+            String operation = entry.getKey();
+            Map<String, Object> result = entry.getValue();
+            double p99 = (double) result.get("p99Ms");
+            double throughput = (double) result.get("throughput");
+            double errorRate = (double) result.get("errorRate");
+            double shedP99 = (double) result.get("shedP99Ms");
+
+            Long p99Limit = settings.p99LimitsMs().get(operation);
+            if (p99Limit != null && p99 > p99Limit) {
+                violations.add(String.format("%s: p99 %.1f ms above limit %d ms", operation, p99, p99Limit));
+            }
+            double minThroughput = settings.rates().get(operation) * settings.minThroughputRatio();
+            if (throughput < minThroughput) {
+                violations.add(String.format("%s: %.2f req/s served, below %.2f req/s", operation, throughput, minThroughput));
+            }
+            if (errorRate > settings.maxErrorRate()) {
+                violations.add(String.format("%s: error rate %.2f%% above %.2f%%",
+                        operation, errorRate * 100, settings.maxErrorRate() * 100));
+            }
+            // Shedding only helps when the rejection itself is cheap
+            if (shedP99 > settings.shedP99LimitMs()) {
+                violations.add(String.format("%s: shed responses took %.1f ms at p99, above %d ms",
+                        operation, shedP99, settings.shedP99LimitMs()));
+            }
+        }
+        violations.addAll(checkBaseline(results));
+        return violations;
+    }
+
+    private Map<String, Map<String, Object>> summarize(Map<String, WorkloadDriver.OperationStats> stats) {
+        double seconds = settings.duration().toMillis() / 1000.0;
+        Map<String, Map<String, Object>> results = new LinkedHashMap<>();
+        for (WorkloadDriver.OperationStats operation : stats.values()) {
+            boolean shedAllowed = settings.shedAllowed().contains(operation.name);
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("targetRate", operation.targetRate);
+            result.put("throughput", operation.served(shedAllowed) / seconds);
+            result.put("ok", operation.ok.sum());
+            result.put("failed", operation.failed.sum());
+            result.put("skipped", operation.skipped.sum());
+            result.put("dropped", operation.dropped.sum());
+            result.put("shed", operation.shed.sum());
+            result.put("errorRate", operation.errorRate(shedAllowed));
+            result.put("shedP99Ms", operation.shedLatencyMicros.getValueAtPercentile(99) / 1000.0);
+            result.put("p50Ms", operation.percentileMs(50));
+            result.put("p90Ms", operation.percentileMs(90));
+            result.put("p99Ms", operation.percentileMs(99));
+            result.put("p999Ms", operation.percentileMs(99.9));
+            result.put("maxMs", operation.latencyMicros.getMaxValue() / 1000.0);
+            results.put(operation.name, result);
+
+            log.info("{}: target {} req/s, served {} req/s, ok {}, failed {}, shed {}, p50 {} ms, p99 {} ms, max {} ms",
+                    operation.name, operation.targetRate, String.format("%.2f", result.get("throughput")),
+                    result.get("ok"), result.get("failed"), result.get("shed"), result.get("p50Ms"),
+                    result.get("p99Ms"), result.get("maxMs"));
+        }
+        return results;
+    }
+
+    private void writeReport(Map<String, WorkloadDriver.OperationStats> stats,
+                             Map<String, Map<String, Object>> results) throws IOException {
+        Files.createDirectories(settings.reportDir());
+        mapper.writeValue(settings.reportDir().resolve("results.json").toFile(), results);
+        for (WorkloadDriver.OperationStats operation : stats.values()) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(settings.reportDir().resolve(operation.name + ".hgrm")))) {
+                operation.latencyMicros.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        log.info("Load test report written to {}", settings.reportDir().toAbsolutePath());
+    }
+
+    private List<String> checkBaseline(Map<String, Map<String, Object>> results) throws IOException {
+        List<String> violations = new ArrayList<>();
+        if (settings.baseline() == null || !Files.exists(settings.baseline())) {
+            return violations;
+        }
+        JsonNode baseline = mapper.readTree(settings.baseline().toFile());
+        double tolerance = settings.regressionTolerance();
+        for (Map.Entry<String, Map<String, Object>> entry : results.entrySet()) {
+            JsonNode base = baseline.path(entry.getKey());
+            if (base.isMissingNode()) {
+                continue;
+            }
+            double p99 = (double) entry.getValue().get("p99Ms");
+            double throughput = (double) entry.getValue().get("throughput");
+            double baseP99 = base.path("p99Ms").asDouble();
+            double baseThroughput = base.path("throughput").asDouble();
+            if (baseP99 > 0 && p99 > baseP99 * (1 + tolerance)) {
+                violations.add(String.format("%s: p99 %.1f ms regressed from baseline %.1f ms", entry.getKey(), p99, baseP99));
+            }
+            if (throughput < baseThroughput * (1 - tolerance)) {
+                violations.add(String.format("%s: throughput %.2f req/s regressed from baseline %.2f req/s",
+                        entry.getKey(), throughput, baseThroughput));
+            }
+        }
+        return violations;
+    }
+}
@@ -0,0 +1,158 @@
+package com.milan.smarttaskplanner.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Open-loop load generator: every operation is started at its own fixed arrival rate whether or
+ * not earlier calls have returned, so a slow server shows up as latency instead of as a lower
+ * request rate. Latency is measured from the intended start time (no coordinated omission).
+ * Calls started during the warmup are executed but not recorded.
+ */
+@Slf4j
+class WorkloadDriver {
+
+    enum Outcome {
+        OK,
+        FAILED,
+        // Nothing to do right now (e.g. no goal left to delete); counts as served, not as latency
+        SKIPPED,
+        // Rejected by the server's concurrency limiter (503); its latency is recorded separately
+        SHED
+    }
+
+    static final class OperationStats {
+        final String name;
+        final double targetRate;
+        final Histogram latencyMicros = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(10), 3);
+        final Histogram shedLatencyMicros = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(10), 3);
+        final LongAdder ok = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder skipped = new LongAdder();
+        final LongAdder shed = new LongAdder();
+        // Not started because too many calls of this operation were already outstanding
+        final LongAdder dropped = new LongAdder();
+
+        OperationStats(String name, double targetRate) {
+            this.name = name;
+            this.targetRate = targetRate;
+        }
+
+        // Where shedding is expected (overload runs), a quick 503 counts as handled rather than as an error
+        long served(boolean shedAllowed) {
+            return ok.sum() + skipped.sum() + (shedAllowed ? shed.sum() : 0);
+        }
+
+        double errorRate(boolean shedAllowed) {
+            long errors = failed.sum() + dropped.sum() + (shedAllowed ? 0 : shed.sum());
+            long total = ok.sum() + failed.sum() + dropped.sum() + shed.sum();
+            return total == 0 ? 0 : (double) errors / total;
+        }
+
+        double percentileMs(double percentile) {
+            return latencyMicros.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+
+    private final int maxOutstandingPerOperation;
+
+    WorkloadDriver(int maxOutstandingPerOperation) {
+        this.maxOutstandingPerOperation = maxOutstandingPerOperation;
+    }
+
+    Map<String, OperationStats> run(Map<String, Supplier<CompletableFuture<Outcome>>> operations,
+                                    Map<String, Double> rates, Duration warmup, Duration duration)
+            throws InterruptedException {
+        Map<String, OperationStats> stats = new LinkedHashMap<>();
+        List<ScheduledFuture<?>> schedules = new ArrayList<>();
+        List<AtomicInteger> outstanding = new ArrayList<>();
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(Math.max(2, operations.size()));
+
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+
+        for (Map.Entry<String, Supplier<CompletableFuture<Outcome>>> operation : operations.entrySet()) {
+            double rate = rates.getOrDefault(operation.getKey(), 0.0);
+            if (rate <= 0) {
+                continue;
+            }
+            OperationStats operationStats = new OperationStats(operation.getKey(), rate);
+            stats.put(operation.getKey(), operationStats);
+            AtomicInteger inFlight = new AtomicInteger();
+            outstanding.add(inFlight);
+            AtomicLong sequence = new AtomicLong();
+            long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+
+            schedules.add(scheduler.scheduleAtFixedRate(() -> {
+                long intended = start + sequence.getAndIncrement() * periodNanos;
+                if (intended >= measureUntil) {
+                    return;
+                }
+                boolean measured = intended >= measureFrom;
+                if (inFlight.get() >= maxOutstandingPerOperation) {
+                    if (measured) {
+                        operationStats.dropped.increment();
+                    }
+                    return;
+                }
+                inFlight.incrementAndGet();
+                CompletableFuture<Outcome> call;
+                try {
+                    call = operation.getValue().get();
+                } catch (RuntimeException e) {
+                    call = CompletableFuture.failedFuture(e);
+                }
+                call.whenComplete((outcome, error) -> {
+                    inFlight.decrementAndGet();
+                    if (!measured) {
+                        return;
+                    }
+                    if (error != null || outcome == Outcome.FAILED) {
+                        operationStats.failed.increment();
+                    } else if (outcome == Outcome.SKIPPED) {
+                        operationStats.skipped.increment();
+                        return;
+                    } else if (outcome == Outcome.SHED) {
+                        operationStats.shed.increment();
+                        operationStats.shedLatencyMicros.recordValue(
+                                Math.max(0, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended)));
+                        return;
+                    } else {
+                        operationStats.ok.increment();
+                    }
+                    operationStats.latencyMicros.recordValue(
+                            Math.max(0, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended)));
+                });
+            }, start - System.nanoTime(), periodNanos, TimeUnit.NANOSECONDS));
+        }
+
+        log.info("Load test: {}s warmup, {}s measured, rates {}", warmup.toSeconds(), duration.toSeconds(), rates);
+        TimeUnit.NANOSECONDS.sleep(Math.max(0, measureUntil - System.nanoTime()));
+        schedules.forEach(schedule -> schedule.cancel(false));
+        scheduler.shutdown();
+
+        // Let calls started inside the window finish so slow tails are not cut off
+        long drainUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (outstanding.stream().anyMatch(inFlight -> inFlight.get() > 0) && System.nanoTime() < drainUntil) {
+            Thread.sleep(50);
+        }
+        return stats;
+    }
+}
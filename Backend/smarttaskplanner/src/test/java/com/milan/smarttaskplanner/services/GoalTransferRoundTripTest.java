@@ -0,0 +1,321 @@
+package com.milan.smarttaskplanner.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.milan.smarttaskplanner.config.TaskStorageMode;
+import com.milan.smarttaskplanner.config.TaskStorageProperties;
+import com.milan.smarttaskplanner.config.TransferProperties;
+import com.milan.smarttaskplanner.dto.GoalRequest;
+import com.milan.smarttaskplanner.dto.GoalResponse;
+import com.milan.smarttaskplanner.dto.TaskResponse;
+import com.milan.smarttaskplanner.dto.TransferResultResponse;
+import com.milan.smarttaskplanner.dto.UpdateTaskStatusRequest;
+import com.milan.smarttaskplanner.services.tenancy.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Export → COPY import → export must give back the same goals, apart from their ids. The goals
+ * carry text that CSV has to quote (quotes, commas, line breaks, backslashes, empty strings,
+ * non-ASCII) and are imported into a second tenant so both copies can be read side by side.
+ * Completed work must keep its start and completion times, which the analytics are built from.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("prod")
+@Testcontainers(disabledWithoutDocker = true)
+class GoalTransferRoundTripTest {
+
+    private static final String TARGET_TENANT = "restore";
+    private static final String[] AWKWARD_TEXT = {
+            "He said \"ship it\", then left",
+            "line one\nline two\r\nline three",
+            "C:\\temp\\new \\N not null",
+            "naïve café – 日本語 🚀",
+            ",,,\"\"",
+            ""
+    };
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl() + "&stringtype=unspecified");
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("gemini.api.key", () -> "stub");
+        registry.add("planning.jobs.worker-enabled", () -> false);
+        registry.add("analytics.reconcile-enabled", () -> false);
+        registry.add("deadline.enabled", () -> false);
+        registry.add("capacity.enabled", () -> false);
+    }
+
+    @Autowired
+    GoalExportService exportService;
+
+    @Autowired
+    GoalImportService importService;
+
+    @Autowired
+    GoalService goalService;
+
+    @Autowired
+    TaskStorageProperties taskStorageProperties;
+
+    @Autowired
+    TransferProperties transferProperties;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    private TaskStorageMode storageMode;
+    private Integer batchSize;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE goals, tasks, task_steps, task_dependencies, task_status_changes, planning_jobs, "
+                + "transfer_checkpoints, analytics_weekly_rollups, analytics_priority_rollups, analytics_goal_rollups, "
+                + "analytics_goal_burndown, analytics_tenant_snapshots CASCADE");
+        storageMode = taskStorageProperties.getMode();
+        batchSize = transferProperties.getBatchSize();
+        transferProperties.setImportMode(TransferProperties.ImportMode.COPY);
+    }
+
+    @AfterEach
+    void restore() {
+        taskStorageProperties.setMode(storageMode);
+        transferProperties.setBatchSize(batchSize);
+        TenantContext.clear();
+    }
+
+    @Test
+    void copyImportIntoElementCollectionsReproducesEveryGoal() throws IOException {
+        byte[] export = exportSourceGoals(0);
+
+        TransferResultResponse result = importInto(TARGET_TENANT, export, "element-collection");
+
+        assertEquals(3, result.getGoals());
+        assertEquals(goals(export), goals(export(TARGET_TENANT)));
+        assertEquals(0, countTargetTasks("steps_json IS NOT NULL OR dependency_ids IS NOT NULL"));
+    }
+
+    @Test
+    void importedCompletionsReachTheAnalytics() throws IOException {
+        byte[] export = exportSourceGoals(0);
+
+        importInto(TARGET_TENANT, export, "analytics");
+
+        assertEquals(countTasks(TenantContext.DEFAULT_TENANT, "started_at IS NOT NULL"), countTargetTasks("started_at IS NOT NULL"));
+        assertEquals(countTasks(TenantContext.DEFAULT_TENANT, "completed_at IS NOT NULL"), countTargetTasks("completed_at IS NOT NULL"));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM goals WHERE tenant_id = ? AND completed_at IS NOT NULL",
+                Integer.class, TARGET_TENANT));
+        Map<String, Object> completions = completions(TenantContext.DEFAULT_TENANT);
+        assertTrue(((Number) completions.get("tasks_completed")).longValue() > 0);
+        assertEquals(completions, completions(TARGET_TENANT));
+    }
+
+    @Test
+    void compactCopyImportReproducesEveryGoal() throws IOException {
+        byte[] export = exportSourceGoals(0);
+        taskStorageProperties.setMode(TaskStorageMode.COMPACT);
+
+        TransferResultResponse result = importInto(TARGET_TENANT, gzip(export), "compact");
+
+        assertEquals(3, result.getGoals());
+        assertEquals(goals(export), goals(export(TARGET_TENANT)));
+        assertEquals(countTargetTasks("TRUE"), countTargetTasks("steps_json IS NOT NULL AND dependency_ids IS NOT NULL"));
+        assertEquals(0, jdbcTemplate.queryForObject("""
+                SELECT (SELECT count(*) FROM task_steps s JOIN tasks t ON t.id = s.task_id WHERE t.tenant_id = ?)
+                     + (SELECT count(*) FROM task_dependencies d JOIN tasks t ON t.id = d.task_id WHERE t.tenant_id = ?)
+                """, Integer.class, TARGET_TENANT, TARGET_TENANT));
+    }
+
+    @Test
+    void interruptedImportResumesAfterTheLastCommittedBatch() throws IOException {
+        byte[] export = exportSourceGoals(3);
+        transferProperties.setBatchSize(2);
+
+        // The connection drops after the third line: the first batch is committed, the third goal is not
+        InputStream broken = new SequenceInputStream(new ByteArrayInputStream(firstLines(export, 3)), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        });
+        assertThrows(IOException.class, () -> importInto(TARGET_TENANT, broken, "resumable"));
+        assertEquals(2, countTargetGoals());
+
+        TransferResultResponse resumed = importInto(TARGET_TENANT, export, "resumable");
+        assertEquals(2, resumed.getResumedAfterLine());
+        assertEquals(4, resumed.getGoals());
+        assertEquals(goals(export), goals(export(TARGET_TENANT)));
+
+        // A finished import rerun under the same name writes nothing twice
+        TransferResultResponse rerun = importInto(TARGET_TENANT, export, "resumable");
+        assertEquals(0, rerun.getGoals());
+        assertEquals(6, countTargetGoals());
+    }
+
+    // Three goals written in different storage modes, one in progress, one completed and one without
+    // tasks, plus any number of plain goals
+    private byte[] exportSourceGoals(int plainGoals) {
+        taskStorageProperties.setMode(TaskStorageMode.ELEMENT_COLLECTION);
+        Long inProgress = plannedGoal(AWKWARD_TEXT[0] + " / " + AWKWARD_TEXT[1], LocalDateTime.now().plusMonths(2).withNano(123_456_000));
+        taskStorageProperties.setMode(TaskStorageMode.COMPACT);
+        Long completed = plannedGoal(AWKWARD_TEXT[2] + " / " + AWKWARD_TEXT[3], null);
+        taskStorageProperties.setMode(storageMode);
+        List<Long> inProgressTasks = taskIds(inProgress);
+        setStatus(inProgress, inProgressTasks.get(0), "IN_PROGRESS");
+        setStatus(inProgress, inProgressTasks.get(0), "COMPLETED");
+        setStatus(inProgress, inProgressTasks.get(1), "IN_PROGRESS");
+        for (Long taskId : taskIds(completed)) {
+            setStatus(completed, taskId, "IN_PROGRESS");
+            setStatus(completed, taskId, "COMPLETED");
+        }
+        goalService.enqueueGoalPlanning(GoalRequest.builder().description(AWKWARD_TEXT[4]).build());
+        for (int i = 0; i < plainGoals; i++) {
+            plannedGoal("Plain goal " + i, null);
+        }
+        return export(TenantContext.DEFAULT_TENANT);
+    }
+
+    private Long plannedGoal(String description, LocalDateTime targetDate) {
+        Long goalId = goalService.enqueueGoalPlanning(GoalRequest.builder()
+                .description(description)
+                .targetDate(targetDate)
+                .build()).getGoalId();
+        LocalDateTime start = LocalDateTime.now().withNano(0);
+        List<TaskResponse> tasks = new ArrayList<>();
+        for (int i = 0; i < AWKWARD_TEXT.length; i++) {
+            String text = AWKWARD_TEXT[i];
+            tasks.add(TaskResponse.builder()
+                    .title("Task " + (i + 1) + ": " + text)
+                    .description(text)
+                    .detailedDescription(i % 2 == 0 ? text + "\n\n" + text : null)
+                    .steps(i == 0 ? List.of() : List.of(text, "Check " + text, "\"" + i + "\""))
+                    .estimatedDurationHours(1 + i)
+                    .priority(i % 2 == 0 ? "HIGH" : "LOW")
+                    .status("PENDING")
+                    .orderIndex(i + 1)
+                    .dependencies(i == 0 ? List.of() : i == 1 ? List.of(1L) : List.of(1L, (long) i))
+                    .startDate(start.plusDays(i))
+                    .endDate(i == AWKWARD_TEXT.length - 1 ? null : start.plusDays(i).plusHours(1 + i))
+                    .build());
+        }
+        Map<String, Object> plan = Map.of("source", "LLM", "analysis", String.join(" | ", AWKWARD_TEXT), "tasks", tasks);
+        transactionTemplate.executeWithoutResult(status -> goalService.applyQueuedPlan(goalId, plan));
+        return goalId;
+    }
+
+    private List<Long> taskIds(Long goalId) {
+        return jdbcTemplate.queryForList("SELECT id FROM tasks WHERE goal_id = ? ORDER BY order_index", Long.class, goalId);
+    }
+
+    private void setStatus(Long goalId, Long taskId, String status) {
+        goalService.updateTaskStatus(goalId, new UpdateTaskStatusRequest(taskId, status));
+    }
+
+    private Map<String, Object> completions(String tenantId) {
+        return jdbcTemplate.queryForMap("""
+                SELECT coalesce(sum(goals_completed), 0) AS goals_completed, coalesce(sum(tasks_completed), 0) AS tasks_completed,
+                       round(coalesce(sum(actual_hours_completed), 0)::numeric, 4) AS actual_hours_completed
+                  FROM analytics_weekly_rollups WHERE tenant_id = ?
+                """, tenantId);
+    }
+
+    private byte[] export(String tenantId) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(out, 0, tenantId);
+        return out.toByteArray();
+    }
+
+    private TransferResultResponse importInto(String tenantId, byte[] export, String name) throws IOException {
+        return importInto(tenantId, new ByteArrayInputStream(export), name);
+    }
+
+    private TransferResultResponse importInto(String tenantId, InputStream input, String name) throws IOException {
+        TenantContext.setTenantId(tenantId);
+        try {
+            return importService.importGoals(input, name);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    // Goals in export order with their ids dropped; everything else must survive the round trip
+    private List<GoalResponse> goals(byte[] export) throws IOException {
+        List<GoalResponse> goals = new ArrayList<>();
+        for (String line : new String(export, StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isBlank()) {
+                GoalResponse goal = objectMapper.readValue(line, GoalResponse.class);
+                goal.setId(null);
+                goals.add(goal);
+            }
+        }
+        return goals;
+    }
+
+    private static byte[] firstLines(byte[] export, int lines) {
+        int end = 0;
+        for (int found = 0; found < lines; end++) {
+            if (export[end] == '\n') {
+                found++;
+            }
+        }
+        return Arrays.copyOf(export, end);
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private int countTargetGoals() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM goals WHERE tenant_id = ?", Integer.class, TARGET_TENANT);
+    }
+
+    private int countTargetTasks(String condition) {
+        return countTasks(TARGET_TENANT, condition);
+    }
+
+    private int countTasks(String tenantId, String condition) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM tasks WHERE tenant_id = ? AND (" + condition + ")",
+                Integer.class, tenantId);
+    }
+}
@@ -0,0 +1,87 @@
+package com.milan.smarttaskplanner.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.milan.smarttaskplanner.config.HierarchicalPlanningProperties;
+import com.milan.smarttaskplanner.dto.TaskResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PhasedPlanBuilderTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 10, 19, 9, 0);
+
+    private final PhasedPlanBuilder builder = new PhasedPlanBuilder(new HierarchicalPlanningProperties());
+
+    @Test
+    void parsesPhasesAndDropsForwardDependencies() throws Exception {
+        List<PhasedPlanBuilder.Phase> phases = builder.parsePhases(new ObjectMapper().readTree("""
+                {"phases": [
+                  {"title": "Research", "objective": "Find out", "estimatedHours": 10, "taskCount": 3, "dependsOn": [2]},
+                  {"title": "", "objective": "untitled"},
+                  {"title": "Build", "estimatedHours": 30, "taskCount": 20, "dependsOn": [1, 1]}
+                ]}"""));
+
+        assertEquals(2, phases.size());
+        assertEquals(List.of(), phases.get(0).dependsOn());
+        assertEquals(2, phases.get(1).number());
+        assertEquals("Build", phases.get(1).objective());
+        assertEquals(8, phases.get(1).taskCount());
+        assertEquals(List.of(1, 1), phases.get(1).dependsOn());
+    }
+
+    @Test
+    void numbersTasksAcrossPhasesAndStitchesDependencies() {
+        List<PhasedPlanBuilder.Phase> phases = List.of(
+                new PhasedPlanBuilder.Phase(1, "Design", "", 6, 3, List.of()),
+                new PhasedPlanBuilder.Phase(2, "Content", "", 4, 2, List.of()),
+                new PhasedPlanBuilder.Phase(3, "Launch", "", 3, 2, List.of(1, 2)));
+        List<List<TaskResponse>> phaseTasks = List.of(
+                // 1 -> 2 and 1 -> 3: tasks 2 and 3 are the exits of the phase
+                List.of(task(1, 2), task(2, 2, 1L), task(3, 2, 1L)),
+                List.of(task(1, 2), task(2, 2)),
+                List.of(task(1, 1), task(2, 2, 1L, 5L)));
+
+        List<TaskResponse> merged = builder.merge(phases, phaseTasks, START);
+
+        assertEquals(7, merged.size());
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7), merged.stream().map(TaskResponse::getOrderIndex).toList());
+        assertEquals(List.of(1L), merged.get(2).getDependencies());
+        assertEquals(List.of(), merged.get(3).getDependencies());
+        // The entry task of Launch waits for the exits of Design and Content
+        assertEquals(List.of(2L, 3L, 4L, 5L), merged.get(5).getDependencies());
+        // Unknown local dependency 5 is dropped
+        assertEquals(List.of(6L), merged.get(6).getDependencies());
+        assertEquals(START, merged.get(0).getStartDate());
+        assertEquals(START.plusHours(13), merged.get(6).getEndDate());
+    }
+
+    @Test
+    void phaseWithoutTasksDoesNotBreakStitching() {
+        List<PhasedPlanBuilder.Phase> phases = List.of(
+                new PhasedPlanBuilder.Phase(1, "Prepare", "Get ready", 5, 2, List.of()),
+                new PhasedPlanBuilder.Phase(2, "Do", "", 2, 1, List.of(1)));
+        List<List<TaskResponse>> phaseTasks = List.of(
+                List.of(builder.outlineTask(phases.get(0))),
+                List.of(task(7, 2)));
+
+        List<TaskResponse> merged = builder.merge(phases, phaseTasks, START);
+
+        assertEquals("Prepare", merged.get(0).getTitle());
+        assertEquals(List.of(1L), merged.get(1).getDependencies());
+        assertEquals(START.plusHours(5), merged.get(1).getStartDate());
+    }
+
+    private static TaskResponse task(int orderIndex, int hours, Long... dependencies) {
+        return TaskResponse.builder()
+                .title("Task " + orderIndex)
+                .estimatedDurationHours(hours)
+                .orderIndex(orderIndex)
+                .dependencies(new ArrayList<>(List.of(dependencies)))
+                .build();
+    }
+}
@@ -0,0 +1,248 @@
+package com.milan.smarttaskplanner.services;
+
+import com.milan.smarttaskplanner.dto.GoalRequest;
+import com.milan.smarttaskplanner.dto.TaskResponse;
+import com.milan.smarttaskplanner.entities.PlanningJobStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The lease rules of the planning job queue against PostgreSQL: concurrent claims never hand out
+ * the same job, an expired lease moves the job to a new owner, and only the current owner can
+ * complete, fail or defer it, so a plan is persisted exactly once.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("prod")
+@Testcontainers(disabledWithoutDocker = true)
+class PlanningJobQueueTest {
+
+    private static final String WORKER_A = "worker-a";
+    private static final String WORKER_B = "worker-b";
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl() + "&stringtype=unspecified");
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("gemini.api.key", () -> "stub");
+        // The test plays both workers; this node's own worker must not claim anything
+        registry.add("planning.jobs.worker-enabled", () -> false);
+    }
+
+    @Autowired
+    PlanningJobQueue queue;
+
+    @Autowired
+    GoalService goalService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void clean() {
+        jdbcTemplate.execute("TRUNCATE planning_jobs, goals, tasks CASCADE");
+    }
+
+    @Test
+    void concurrentClaimsNeverShareAJob() throws Exception {
+        for (int i = 0; i < 40; i++) {
+            enqueueGoal("Goal " + i);
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService workers = Executors.newFixedThreadPool(2);
+        try {
+            CompletableFuture<List<PlanningJobQueue.ClaimedJob>> a = claimAfter(start, workers, WORKER_A);
+            CompletableFuture<List<PlanningJobQueue.ClaimedJob>> b = claimAfter(start, workers, WORKER_B);
+            start.countDown();
+
+            Set<Long> claimedByA = ids(a.get(10, TimeUnit.SECONDS));
+            Set<Long> claimedByB = ids(b.get(10, TimeUnit.SECONDS));
+            Set<Long> overlap = new HashSet<>(claimedByA);
+            overlap.retainAll(claimedByB);
+            assertTrue(overlap.isEmpty(), "jobs claimed twice: " + overlap);
+            assertEquals(40, claimedByA.size() + claimedByB.size());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    @Test
+    void aLiveLeaseCannotBeClaimedAgain() {
+        enqueueGoal("Learn conversational Spanish");
+        assertEquals(1, queue.claim(WORKER_A, 5).size());
+
+        assertTrue(queue.claim(WORKER_B, 5).isEmpty());
+    }
+
+    @Test
+    void expiredLeaseMovesTheJobAndOnlyTheNewOwnerPersistsThePlan() throws Exception {
+        Long goalId = enqueueGoal("Run a half marathon");
+        PlanningJobQueue.ClaimedJob stale = queue.claim(WORKER_A, 1).get(0);
+        expireLeases();
+
+        PlanningJobQueue.ClaimedJob current = queue.claim(WORKER_B, 1).get(0);
+        assertEquals(stale.id(), current.id());
+        assertEquals(2, current.attempt());
+
+        // The old owner's heartbeat, failure and deferral all miss
+        queue.extendLeases(WORKER_A, List.of(stale));
+        assertNull(queue.fail(stale, WORKER_A, "timed out"));
+        assertFalse(queue.defer(stale, WORKER_A, 0));
+        assertEquals(WORKER_B, jdbcTemplate.queryForObject("SELECT lease_owner FROM planning_jobs WHERE id = ?",
+                String.class, current.id()));
+
+        // Both workers finish at the same time and try to persist their plan, as PlanningJobWorker does
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService workers = Executors.newFixedThreadPool(2);
+        try {
+            CompletableFuture<Boolean> staleResult = persistAfter(start, workers, stale, WORKER_A, goalId, 3);
+            CompletableFuture<Boolean> currentResult = persistAfter(start, workers, current, WORKER_B, goalId, 4);
+            start.countDown();
+
+            assertFalse(staleResult.get(10, TimeUnit.SECONDS));
+            assertTrue(currentResult.get(10, TimeUnit.SECONDS));
+        } finally {
+            workers.shutdownNow();
+        }
+
+        assertEquals(4, jdbcTemplate.queryForObject("SELECT count(*) FROM tasks WHERE goal_id = ?", Integer.class, goalId));
+        assertEquals(PlanningJobStatus.SUCCEEDED.name(), status(current.id()));
+        // A second completion, e.g. a retried commit, finds no lease to match
+        assertFalse(completeInTransaction(current, WORKER_B));
+    }
+
+    @Test
+    void deferReturnsTheJobWithoutChargingAnAttempt() {
+        enqueueGoal("Build a family photo book");
+        PlanningJobQueue.ClaimedJob job = queue.claim(WORKER_A, 1).get(0);
+
+        assertTrue(queue.defer(job, WORKER_A, 0));
+        assertEquals(PlanningJobStatus.PENDING.name(), status(job.id()));
+
+        PlanningJobQueue.ClaimedJob again = queue.claim(WORKER_B, 1).get(0);
+        assertEquals(1, again.attempt());
+    }
+
+    @Test
+    void failedJobsRetryAndDeadLetterAfterTheLastAttempt() {
+        enqueueGoal("Renovate the kitchen");
+        jdbcTemplate.update("UPDATE planning_jobs SET max_attempts = 2");
+
+        PlanningJobQueue.ClaimedJob first = queue.claim(WORKER_A, 1).get(0);
+        assertEquals(PlanningJobStatus.PENDING, queue.fail(first, WORKER_A, "model unavailable"));
+        jdbcTemplate.update("UPDATE planning_jobs SET available_at = LOCALTIMESTAMP - INTERVAL '1 second'");
+
+        PlanningJobQueue.ClaimedJob second = queue.claim(WORKER_B, 1).get(0);
+        assertTrue(second.isFinalAttempt());
+        assertEquals(PlanningJobStatus.DEAD, queue.fail(second, WORKER_B, "model unavailable"));
+        assertTrue(queue.claim(WORKER_A, 1).isEmpty());
+    }
+
+    @Test
+    void leaseExpiringDuringTheFinalAttemptDeadLettersTheJob() {
+        enqueueGoal("Organise a fundraising event");
+        jdbcTemplate.update("UPDATE planning_jobs SET max_attempts = 1");
+        PlanningJobQueue.ClaimedJob job = queue.claim(WORKER_A, 1).get(0);
+        expireLeases();
+
+        assertTrue(queue.claim(WORKER_B, 1).isEmpty());
+        assertEquals(PlanningJobStatus.DEAD.name(), status(job.id()));
+        assertFalse(completeInTransaction(job, WORKER_A));
+    }
+
+    private Long enqueueGoal(String description) {
+        return goalService.enqueueGoalPlanning(GoalRequest.builder().description(description).build()).getGoalId();
+    }
+
+    private boolean completeInTransaction(PlanningJobQueue.ClaimedJob job, String owner) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(tx -> queue.complete(job, owner)));
+    }
+
+    private void expireLeases() {
+        jdbcTemplate.update("UPDATE planning_jobs SET lease_until = LOCALTIMESTAMP - INTERVAL '1 second' WHERE status = 'RUNNING'");
+    }
+
+    private String status(Long jobId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM planning_jobs WHERE id = ?", String.class, jobId);
+    }
+
+    private CompletableFuture<List<PlanningJobQueue.ClaimedJob>> claimAfter(CountDownLatch start, ExecutorService executor,
+                                                                           String owner) {
+        return CompletableFuture.supplyAsync(awaiting(start, () -> queue.claim(owner, 40)), executor);
+    }
+
+    private CompletableFuture<Boolean> persistAfter(CountDownLatch start, ExecutorService executor,
+                                                    PlanningJobQueue.ClaimedJob job, String owner, Long goalId, int tasks) {
+        return CompletableFuture.supplyAsync(awaiting(start, () -> transactionTemplate.execute(tx -> {
+            if (!queue.complete(job, owner)) {
+                return false;
+            }
+            goalService.applyQueuedPlan(goalId, plan(tasks));
+            return true;
+        })), executor);
+    }
+
+    private static <T> Supplier<T> awaiting(CountDownLatch start, Supplier<T> action) {
+        return () -> {
+            try {
+                start.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            return action.get();
+        };
+    }
+
+    private static Map<String, Object> plan(int tasks) {
+        List<TaskResponse> taskResponses = new java.util.ArrayList<>();
+        for (int i = 0; i < tasks; i++) {
+            taskResponses.add(TaskResponse.builder()
+                    .title("Task " + (i + 1))
+                    .estimatedDurationHours(2)
+                    .priority("MEDIUM")
+                    .status("PENDING")
+                    .orderIndex(i + 1)
+                    .build());
+        }
+        return Map.of("source", "LLM", "analysis", "Test plan", "tasks", taskResponses);
+    }
+
+    private static Set<Long> ids(List<PlanningJobQueue.ClaimedJob> jobs) {
+        return jobs.stream().map(PlanningJobQueue.ClaimedJob::id).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,199 @@
+package com.milan.smarttaskplanner.services.analytics;
+
+import com.milan.smarttaskplanner.dto.GoalRequest;
+import com.milan.smarttaskplanner.dto.TaskResponse;
+import com.milan.smarttaskplanner.dto.UpdateTaskStatusRequest;
+import com.milan.smarttaskplanner.services.GoalService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * The rollups kept by AnalyticsRollupService on every goal change must equal what the reconciler
+ * derives from the goal tables, and the reconciler must bring drifted rollups back to those totals.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("prod")
+@Testcontainers(disabledWithoutDocker = true)
+class AnalyticsReconcilerTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl() + "&stringtype=unspecified");
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("gemini.api.key", () -> "stub");
+        // Nothing but the test may change goals or rollups between two readings
+        registry.add("planning.jobs.worker-enabled", () -> false);
+        registry.add("analytics.reconcile-enabled", () -> false);
+        registry.add("deadline.enabled", () -> false);
+        registry.add("capacity.enabled", () -> false);
+    }
+
+    @Autowired
+    GoalService goalService;
+
+    @Autowired
+    AnalyticsReconciler reconciler;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void clean() {
+        jdbcTemplate.execute("TRUNCATE goals, tasks, task_status_changes, planning_jobs, analytics_weekly_rollups, "
+                + "analytics_priority_rollups, analytics_goal_rollups, analytics_goal_burndown, analytics_tenant_snapshots CASCADE");
+    }
+
+    @Test
+    void incrementalRollupsMatchTheReconciledTotals() {
+        buildWorkload();
+        Map<String, List<Map<String, Object>>> incremental = rollups();
+
+        reconciler.reconcile();
+        assertEquals(incremental, rollups(), "reconciler found drift in the incremental rollups");
+
+        rebuildFromScratch();
+        assertEquals(incremental, rollups(), "incremental rollups differ from a rebuild from the goal tables");
+    }
+
+    @Test
+    void reconcileCorrectsDriftedRows() {
+        Long goalId = buildWorkload();
+        // A bulk write that bypasses the incremental path, and rows that drifted
+        jdbcTemplate.update("""
+                INSERT INTO tasks (goal_id, tenant_id, title, status, priority, estimated_duration_hours, order_index,
+                                   started_at, completed_at, created_at, updated_at)
+                VALUES (?, 'default', 'Imported task', 'COMPLETED', 'HIGH', 3, 99,
+                        LOCALTIMESTAMP - INTERVAL '2 hours', LOCALTIMESTAMP, LOCALTIMESTAMP, LOCALTIMESTAMP)
+                """, goalId);
+        jdbcTemplate.update("UPDATE analytics_priority_rollups SET task_count = task_count + 5 WHERE status = 'PENDING'");
+        jdbcTemplate.update("UPDATE analytics_weekly_rollups SET goals_created = goals_created - 1");
+        jdbcTemplate.update("DELETE FROM analytics_goal_burndown");
+        Map<String, List<Map<String, Object>>> drifted = rollups();
+
+        reconciler.reconcile();
+        Map<String, List<Map<String, Object>>> reconciled = rollups();
+        assertNotEquals(drifted, reconciled);
+
+        rebuildFromScratch();
+        assertEquals(reconciled, rollups());
+
+        // Nothing left to correct
+        reconciler.reconcile();
+        assertEquals(reconciled, rollups());
+    }
+
+    // Goals with completed, in-progress and blocked tasks, a completed goal and a deleted one
+    private Long buildWorkload() {
+        Long first = plannedGoal("Run a half marathon", 5);
+        Long second = plannedGoal("Launch a small business website", 4);
+        Long deleted = plannedGoal("Plant a vegetable garden", 3);
+
+        List<Long> firstTasks = taskIds(first);
+        setStatus(first, firstTasks.get(0), "IN_PROGRESS");
+        setStatus(first, firstTasks.get(0), "COMPLETED");
+        setStatus(first, firstTasks.get(1), "COMPLETED");
+        setStatus(first, firstTasks.get(2), "BLOCKED");
+        setStatus(first, firstTasks.get(3), "IN_PROGRESS");
+        // Completed, then reopened
+        setStatus(first, firstTasks.get(4), "COMPLETED");
+        setStatus(first, firstTasks.get(4), "PENDING");
+
+        for (Long taskId : taskIds(second)) {
+            setStatus(second, taskId, "IN_PROGRESS");
+            setStatus(second, taskId, "COMPLETED");
+        }
+
+        setStatus(deleted, taskIds(deleted).get(0), "COMPLETED");
+        goalService.deleteGoal(deleted);
+        return first;
+    }
+
+    private Long plannedGoal(String description, int taskCount) {
+        Long goalId = goalService.enqueueGoalPlanning(GoalRequest.builder().description(description).build()).getGoalId();
+        LocalDateTime start = LocalDateTime.now().minusDays(3);
+        List<TaskResponse> tasks = new ArrayList<>();
+        for (int i = 0; i < taskCount; i++) {
+            tasks.add(TaskResponse.builder()
+                    .title(description + " step " + (i + 1))
+                    .description("Task " + (i + 1))
+                    .steps(List.of("Prepare", "Do it"))
+                    .estimatedDurationHours(2 + i)
+                    .priority(i % 2 == 0 ? "HIGH" : "MEDIUM")
+                    .status("PENDING")
+                    .orderIndex(i + 1)
+                    .dependencies(List.of())
+                    .startDate(start.plusDays(i))
+                    .endDate(start.plusDays(i).plusHours(2 + i))
+                    .build());
+        }
+        Map<String, Object> plan = Map.of("source", "LLM", "analysis", "Test plan", "tasks", tasks);
+        transactionTemplate.executeWithoutResult(status -> goalService.applyQueuedPlan(goalId, plan));
+        return goalId;
+    }
+
+    private List<Long> taskIds(Long goalId) {
+        return jdbcTemplate.queryForList("SELECT id FROM tasks WHERE goal_id = ? ORDER BY order_index", Long.class, goalId);
+    }
+
+    private void setStatus(Long goalId, Long taskId, String status) {
+        goalService.updateTaskStatus(goalId, new UpdateTaskStatusRequest(taskId, status));
+    }
+
+    private void rebuildFromScratch() {
+        jdbcTemplate.execute("TRUNCATE analytics_weekly_rollups, analytics_priority_rollups, analytics_goal_rollups, "
+                + "analytics_goal_burndown, analytics_tenant_snapshots");
+        reconciler.reconcile();
+    }
+
+    // Rows that sum to zero are left behind by the incremental path and carry no information
+    private Map<String, List<Map<String, Object>>> rollups() {
+        Map<String, List<Map<String, Object>>> rollups = new LinkedHashMap<>();
+        rollups.put("weekly", jdbcTemplate.queryForList("""
+                SELECT tenant_id, week_start, goals_created, goals_completed, tasks_created, tasks_completed,
+                       tasks_completed_late, estimated_hours_completed, round(actual_hours_completed::numeric, 4) AS actual_hours
+                  FROM analytics_weekly_rollups
+                 WHERE goals_created <> 0 OR goals_completed <> 0 OR tasks_created <> 0 OR tasks_completed <> 0
+                 ORDER BY tenant_id, week_start
+                """));
+        rollups.put("priority", jdbcTemplate.queryForList("""
+                SELECT tenant_id, priority, status, task_count FROM analytics_priority_rollups
+                 WHERE task_count <> 0 ORDER BY tenant_id, priority, status
+                """));
+        rollups.put("goal", jdbcTemplate.queryForList("""
+                SELECT goal_id, tenant_id, total_tasks, completed_tasks, total_estimated_hours, completed_estimated_hours,
+                       round(actual_hours::numeric, 4) AS actual_hours
+                  FROM analytics_goal_rollups ORDER BY goal_id
+                """));
+        rollups.put("burndown", jdbcTemplate.queryForList("""
+                SELECT goal_id, day, completed_tasks, completed_estimated_hours FROM analytics_goal_burndown
+                 WHERE completed_tasks <> 0 ORDER BY goal_id, day
+                """));
+        return rollups;
+    }
+}
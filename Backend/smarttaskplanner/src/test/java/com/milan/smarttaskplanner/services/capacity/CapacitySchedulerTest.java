@@ -0,0 +1,95 @@
+package com.milan.smarttaskplanner.services.capacity;
+
+import com.milan.smarttaskplanner.entities.TaskPriority;
+import com.milan.smarttaskplanner.entities.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CapacitySchedulerTest {
+
+    // Monday
+    private static final LocalDateTime MONDAY_9 = LocalDateTime.of(2026, 10, 19, 9, 0);
+
+    private final CapacityScheduler scheduler = new CapacityScheduler(new WorkCalendar(9, 8,
+            EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY)));
+
+    @Test
+    void schedulesHigherPriorityGoalFirst() {
+        Map<Long, CapacityScheduler.Slot> slots = scheduler.schedule(List.of(
+                goal(1, 0, task(11, TaskPriority.LOW, 2)),
+                goal(2, 0, task(21, TaskPriority.HIGH, 3))), MONDAY_9);
+
+        assertEquals(slot(MONDAY_9, MONDAY_9.plusHours(3)), slots.get(21L));
+        assertEquals(slot(MONDAY_9.plusHours(3), MONDAY_9.plusHours(5)), slots.get(11L));
+    }
+
+    @Test
+    void spillsOverToNextWorkingDay() {
+        Map<Long, CapacityScheduler.Slot> slots = scheduler.schedule(List.of(
+                goal(1, 0, task(11, TaskPriority.MEDIUM, 6), task(12, TaskPriority.MEDIUM, 4))), MONDAY_9);
+
+        assertEquals(slot(MONDAY_9, MONDAY_9.plusHours(6)), slots.get(11L));
+        assertEquals(slot(MONDAY_9.plusHours(6), MONDAY_9.plusDays(1).plusHours(2)), slots.get(12L));
+    }
+
+    @Test
+    void skipsWeekends() {
+        LocalDateTime fridayAfternoon = MONDAY_9.plusDays(4).withHour(15);
+        Map<Long, CapacityScheduler.Slot> slots = scheduler.schedule(List.of(
+                goal(1, 0, task(11, TaskPriority.MEDIUM, 4))), fridayAfternoon);
+
+        assertEquals(slot(fridayAfternoon, MONDAY_9.plusDays(7).plusHours(2)), slots.get(11L));
+    }
+
+    @Test
+    void startsOutsideWorkingHoursAtNextWorkdayStart() {
+        Map<Long, CapacityScheduler.Slot> slots = scheduler.schedule(List.of(
+                goal(1, 0, task(11, TaskPriority.MEDIUM, 1))), MONDAY_9.minusDays(1).withHour(22));
+
+        assertEquals(slot(MONDAY_9, MONDAY_9.plusHours(1)), slots.get(11L));
+    }
+
+    @Test
+    void defersGoalThatReachedItsDailyTaskLimit() {
+        Map<Long, CapacityScheduler.Slot> slots = scheduler.schedule(List.of(
+                goal(1, 1, task(11, TaskPriority.HIGH, 1), task(12, TaskPriority.HIGH, 1)),
+                goal(2, 0, task(21, TaskPriority.LOW, 1))), MONDAY_9);
+
+        assertEquals(slot(MONDAY_9, MONDAY_9.plusHours(1)), slots.get(11L));
+        assertEquals(slot(MONDAY_9.plusHours(1), MONDAY_9.plusHours(2)), slots.get(21L));
+        assertEquals(slot(MONDAY_9.plusDays(1), MONDAY_9.plusDays(1).plusHours(1)), slots.get(12L));
+    }
+
+    @Test
+    void keepsTaskInProgressFirstWithItsRemainingTime() {
+        LocalDateTime startedAt = MONDAY_9.minusDays(3).withHour(14);
+        CapacityScheduler.TaskItem running = new CapacityScheduler.TaskItem(11, TaskPriority.LOW,
+                TaskStatus.IN_PROGRESS, 5 * 60, startedAt);
+        Map<Long, CapacityScheduler.Slot> slots = scheduler.schedule(List.of(
+                goal(1, 0, running),
+                goal(2, 0, task(21, TaskPriority.CRITICAL, 1))), MONDAY_9);
+
+        // Friday 14:00-17:00 already counts, two hours are left
+        assertEquals(slot(startedAt, MONDAY_9.plusHours(2)), slots.get(11L));
+        assertEquals(slot(MONDAY_9.plusHours(2), MONDAY_9.plusHours(3)), slots.get(21L));
+    }
+
+    private static CapacityScheduler.GoalPlan goal(long goalId, int maxTasksPerDay, CapacityScheduler.TaskItem... tasks) {
+        return new CapacityScheduler.GoalPlan(goalId, null, MONDAY_9.minusDays(goalId), maxTasksPerDay, List.of(tasks));
+    }
+
+    private static CapacityScheduler.TaskItem task(long taskId, TaskPriority priority, int hours) {
+        return new CapacityScheduler.TaskItem(taskId, priority, TaskStatus.PENDING, hours * 60L, null);
+    }
+
+    private static CapacityScheduler.Slot slot(LocalDateTime start, LocalDateTime end) {
+        return new CapacityScheduler.Slot(start, end);
+    }
+}
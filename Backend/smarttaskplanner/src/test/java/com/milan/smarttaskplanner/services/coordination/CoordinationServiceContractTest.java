@@ -0,0 +1,97 @@
+package com.milan.smarttaskplanner.services.coordination;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Behaviour every CoordinationService must have; subclasses supply the implementation.
+ */
+abstract class CoordinationServiceContractTest {
+
+    protected abstract CoordinationService coordinationService();
+
+    // Keys are unique per test run so a shared Redis does not leak state between runs
+    protected String unique(String name) {
+        return name + "-" + UUID.randomUUID();
+    }
+
+    @Test
+    void rateLimitAllowsOnlyLimitPerWindow() {
+        CoordinationService service = coordinationService();
+        String bucket = unique("bucket");
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(service.tryAcquire(bucket, 3, Duration.ofMinutes(1)));
+        }
+        assertFalse(service.tryAcquire(bucket, 3, Duration.ofMinutes(1)));
+    }
+
+    @Test
+    void publishedMessagesReachSubscribers() throws Exception {
+        CoordinationService service = coordinationService();
+        String channel = unique("channel");
+        List<String> received = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        service.subscribe(channel, message -> {
+            received.add(message);
+            latch.countDown();
+        });
+        awaitSubscription();
+
+        service.publish(channel, "hello");
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("hello"), received);
+    }
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        CoordinationService service = coordinationService();
+        String key = unique("key");
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> service.coalesce(key, Duration.ofSeconds(10), () -> {
+                    loads.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "plan";
+                })));
+            }
+            Thread.sleep(300);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("plan", result.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    protected void awaitSubscription() throws InterruptedException {
+    }
+}
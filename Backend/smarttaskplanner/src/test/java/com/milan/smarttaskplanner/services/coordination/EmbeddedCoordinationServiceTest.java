@@ -0,0 +1,13 @@
+package com.milan.smarttaskplanner.services.coordination;
+
+import com.milan.smarttaskplanner.config.CoordinationProperties;
+
+class EmbeddedCoordinationServiceTest extends CoordinationServiceContractTest {
+
+    private final CoordinationService service = new EmbeddedCoordinationService(new CoordinationProperties());
+
+    @Override
+    protected CoordinationService coordinationService() {
+        return service;
+    }
+}
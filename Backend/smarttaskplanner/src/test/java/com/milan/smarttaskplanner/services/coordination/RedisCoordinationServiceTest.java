@@ -0,0 +1,55 @@
+package com.milan.smarttaskplanner.services.coordination;
+
+import com.milan.smarttaskplanner.config.CoordinationProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Runs the contract against a real Redis, e.g. the one from docker-compose.redis.yml:
+ * mvn test -Dcoordination.test.redis-host=localhost
+ */
+@EnabledIfSystemProperty(named = "coordination.test.redis-host", matches = ".+")
+class RedisCoordinationServiceTest extends CoordinationServiceContractTest {
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisMessageListenerContainer listenerContainer;
+    private CoordinationService service;
+
+    @BeforeEach
+    void connect() {
+        connectionFactory = new LettuceConnectionFactory(System.getProperty("coordination.test.redis-host"),
+                Integer.getInteger("coordination.test.redis-port", 6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(connectionFactory);
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+
+        CoordinationProperties properties = new CoordinationProperties();
+        properties.setKeyPrefix("stp-test:");
+        service = new RedisCoordinationService(new StringRedisTemplate(connectionFactory), listenerContainer, properties);
+    }
+
+    @AfterEach
+    void disconnect() throws Exception {
+        listenerContainer.destroy();
+        connectionFactory.destroy();
+    }
+
+    @Override
+    protected CoordinationService coordinationService() {
+        return service;
+    }
+
+    // Subscriptions are registered asynchronously by the listener container
+    @Override
+    protected void awaitSubscription() throws InterruptedException {
+        Thread.sleep(500);
+    }
+}
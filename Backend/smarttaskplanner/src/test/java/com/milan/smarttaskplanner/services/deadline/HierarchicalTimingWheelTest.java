@@ -0,0 +1,88 @@
+package com.milan.smarttaskplanner.services.deadline;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalTimingWheelTest {
+
+    // Levels span 10, 40 and 160 ms
+    private final HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 4, 3, 0);
+
+    @Test
+    void firesOnceTheTickHoldingTheDeadlineHasPassed() {
+        wheel.schedule("a", 25);
+
+        assertEquals(List.of(), wheel.advance(25));
+        assertEquals(List.of("a"), wheel.advance(30));
+        assertEquals(List.of(), wheel.advance(100));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cascadesFromHigherLevels() {
+        wheel.schedule("late", 155);
+        wheel.schedule("early", 45);
+
+        assertEquals(List.of("early"), wheel.advance(150));
+        assertEquals(List.of("late"), wheel.advance(170));
+    }
+
+    @Test
+    void cancelledAndRescheduledKeysFireOnlyAtTheirLastDeadline() {
+        wheel.schedule("a", 50);
+        wheel.schedule("b", 50);
+        wheel.schedule("a", 120);
+        assertTrue(wheel.cancel("b"));
+
+        assertEquals(List.of(), wheel.advance(100));
+        assertEquals(List.of("a"), wheel.advance(130));
+    }
+
+    @Test
+    void keepsDeadlinesBeyondTheTopLevel() {
+        wheel.schedule("far", 1000);
+
+        assertEquals(List.of(), wheel.advance(990));
+        assertEquals(List.of("far"), wheel.advance(1010));
+    }
+
+    @Test
+    void pastDeadlinesFireOnTheNextAdvance() {
+        wheel.advance(500);
+        wheel.schedule("missed", 120);
+
+        assertEquals(List.of("missed"), wheel.advance(500));
+    }
+
+    @Test
+    void randomDeadlinesFireExactlyOnceAndNeverEarly() {
+        Random random = new Random(11);
+        Map<String, Long> deadlines = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            long deadline = random.nextInt(5000);
+            deadlines.put("k" + i, deadline);
+            wheel.schedule("k" + i, deadline);
+        }
+
+        long previous = 0;
+        for (long now = 0; now <= 5100; now += 1 + random.nextInt(40)) {
+            for (String key : wheel.advance(now)) {
+                Long deadline = deadlines.remove(key);
+                assertTrue(deadline != null, key + " fired twice");
+                assertTrue(deadline <= now, key + " fired early");
+                assertTrue(deadline >= previous - 10, key + " fired late");
+            }
+            previous = now;
+        }
+        wheel.advance(6000).forEach(deadlines::remove);
+        assertEquals(Map.of(), deadlines);
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,106 @@
+package com.milan.smarttaskplanner.services.llm;
+
+import com.milan.smarttaskplanner.config.LlmProperties;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LlmRouterTest {
+
+    private final List<HttpServer> servers = new ArrayList<>();
+
+    @AfterEach
+    void stopServers() {
+        servers.forEach(server -> server.stop(0));
+    }
+
+    @Test
+    void routesToFastestProviderOnceMeasured() {
+        LlmProperties properties = new LlmProperties();
+        LlmRouter router = new LlmRouter(properties, List.of(
+                llamaCpp("slow", stub(300, 200, "slow")),
+                llamaCpp("fast", stub(10, 200, "fast"))));
+
+        // First two calls sample each unmeasured provider once
+        router.complete("plan", 100, 0.5);
+        router.complete("plan", 100, 0.5);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("fast", router.complete("plan", 100, 0.5).provider());
+        }
+    }
+
+    @Test
+    void failsOverWithinTheSameRequest() {
+        LlmProperties properties = new LlmProperties();
+        LlmRouter router = new LlmRouter(properties, List.of(
+                llamaCpp("broken", stub(0, 500, "")),
+                llamaCpp("healthy", stub(50, 200, "ok"))));
+
+        // Make the broken provider look attractive so it is tried first
+        router.complete("plan", 100, 0.5);
+        LlmResult result = router.complete("plan", 100, 0.5);
+
+        assertEquals("healthy", result.provider());
+        assertEquals("ok", result.text());
+    }
+
+    @Test
+    void timeoutCountsAsFailure() {
+        LlmProperties properties = new LlmProperties();
+        properties.setMaxAttempts(1);
+        LlmRouter router = new LlmRouter(properties, List.of(
+                llamaCpp("hung", stub(1_000, 200, "late"), 200L)));
+
+        assertThrows(RuntimeException.class, () -> router.complete("plan", 100, 0.5));
+        assertEquals(1, router.getStats().get(0).getFailures());
+    }
+
+    private LlmProvider llamaCpp(String name, String baseUrl) {
+        return llamaCpp(name, baseUrl, 5_000L);
+    }
+
+    private LlmProvider llamaCpp(String name, String baseUrl, long timeoutMs) {
+        LlmProperties.Provider settings = new LlmProperties.Provider();
+        settings.setName(name);
+        settings.setType(LlmProperties.ProviderType.LLAMA_CPP);
+        settings.setBaseUrl(baseUrl);
+        settings.setTimeoutMs(timeoutMs);
+        return new LlamaCppLlmProvider(settings);
+    }
+
+    // A llama.cpp-shaped /completion endpoint that answers after the given delay
+    private String stub(long delayMs, int status, String content) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/completion", exchange -> {
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = ("{\"content\":\"" + content + "\"}").getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(status, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            servers.add(server);
+            return "http://127.0.0.1:" + server.getAddress().getPort();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
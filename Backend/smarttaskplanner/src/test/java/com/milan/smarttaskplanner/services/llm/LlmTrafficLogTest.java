@@ -0,0 +1,118 @@
+package com.milan.smarttaskplanner.services.llm;
+
+import com.milan.smarttaskplanner.config.LlmProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LlmTrafficLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recordsAndReadsBackCalls() throws IOException {
+        LlmTrafficRecorder recorder = recorder();
+        LlmProvider gemini = provider("gemini");
+        String plan = "{\"tasks\":[" + "{\"title\":\"Write the outline\"},".repeat(200) + "{}]}";
+
+        recorder.record(gemini, "Plan: learn Spanish", plan, 1234, true);
+        recorder.record(gemini, "Plan: run a marathon", "503 Service Unavailable", 87, false);
+        recorder.close();
+
+        List<LlmTrafficLog.Entry> entries = LlmTrafficLog.readAll(directory);
+        assertEquals(2, entries.size());
+        assertEquals("gemini", entries.get(0).provider());
+        assertEquals("Plan: learn Spanish", entries.get(0).prompt());
+        assertEquals(plan, entries.get(0).text());
+        assertEquals(1234, entries.get(0).latencyMs());
+        assertTrue(entries.get(0).success());
+        assertFalse(entries.get(1).success());
+        assertEquals("503 Service Unavailable", entries.get(1).text());
+
+        // Repetitive plans compress well; the segment must be much smaller than the raw text
+        assertTrue(Files.size(LlmTrafficLog.segments(directory).get(0)) < plan.length() / 4);
+    }
+
+    @Test
+    void ignoresRecordCutShortByACrash() throws IOException {
+        LlmTrafficRecorder recorder = recorder();
+        recorder.record(provider("gemini"), "first", "one", 10, true);
+        recorder.record(provider("gemini"), "second", "two", 10, true);
+        recorder.close();
+
+        Path segment = LlmTrafficLog.segments(directory).get(0);
+        try (var channel = Files.newByteChannel(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(segment) - 3);
+        }
+
+        List<LlmTrafficLog.Entry> entries = LlmTrafficLog.read(segment);
+        assertEquals(1, entries.size());
+        assertEquals("one", entries.get(0).text());
+    }
+
+    @Test
+    void replaysByPromptIgnoringDates() throws IOException {
+        LlmTrafficRecorder recorder = recorder();
+        recorder.record(provider("gemini"), "Goal: garden\nStart: 2026-03-01T09:15:02.123", "garden plan", 500, true);
+        recorder.record(provider("gemini"), "Goal: website\nStart: 2026-03-01T09:16:40.5", "website plan", 500, true);
+        recorder.record(provider("gemini"), "Goal: outage", "timeout", 500, false);
+        recorder.close();
+
+        ReplayLlmProvider replay = replay(LlmProperties.ReplayMatch.PROMPT);
+        assertEquals("website plan", replay.complete("Goal: website\nStart: 2026-10-19T17:00:00.9", 100, 0.5));
+        assertEquals("garden plan", replay.complete("Goal: garden\nStart: 2026-10-20T08:00:00", 100, 0.5));
+        assertThrows(RuntimeException.class, () -> replay.complete("Goal: outage", 100, 0.5));
+        assertEquals(0, replay.getMisses());
+
+        // Unknown prompts get the recordings in recorded order
+        assertEquals("garden plan", replay.complete("Goal: something else", 100, 0.5));
+        assertEquals(1, replay.getMisses());
+    }
+
+    @Test
+    void replayedCallsAreNotRecordedAgain() throws IOException {
+        LlmTrafficRecorder recorder = recorder();
+        recorder.record(provider("gemini"), "prompt", "text", 5, true);
+        recorder.close();
+
+        ReplayLlmProvider replay = replay(LlmProperties.ReplayMatch.SEQUENTIAL);
+        recorder.record(replay, "prompt", replay.complete("prompt", 100, 0.5), 0, true);
+        recorder.close();
+
+        assertEquals(1, LlmTrafficLog.readAll(directory).size());
+    }
+
+    private LlmTrafficRecorder recorder() {
+        LlmProperties properties = new LlmProperties();
+        properties.getRecording().setEnabled(true);
+        properties.getRecording().setDirectory(directory.toString());
+        return new LlmTrafficRecorder(properties);
+    }
+
+    private ReplayLlmProvider replay(LlmProperties.ReplayMatch match) {
+        LlmProperties.Provider settings = new LlmProperties.Provider();
+        settings.setName("replay");
+        settings.setType(LlmProperties.ProviderType.REPLAY);
+        settings.setReplayDirectory(directory.toString());
+        settings.setReplayLatencyScale(0.0);
+        settings.setReplayMatch(match);
+        return new ReplayLlmProvider(settings, new LlmProperties.Recording());
+    }
+
+    private LlmProvider provider(String name) {
+        LlmProperties.Provider settings = new LlmProperties.Provider();
+        settings.setName(name);
+        return new LlamaCppLlmProvider(settings);
+    }
+}
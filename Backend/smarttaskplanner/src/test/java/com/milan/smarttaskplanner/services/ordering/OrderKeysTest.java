@@ -0,0 +1,80 @@
+package com.milan.smarttaskplanner.services.ordering;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderKeysTest {
+
+    @Test
+    void firstKeyIsTheMiddleOfTheRange() {
+        assertEquals("V", OrderKeys.between(null, null));
+    }
+
+    @Test
+    void keysLieStrictlyBetweenTheirNeighbours() {
+        assertBetween("V", "W", OrderKeys.between("V", "W"));
+        assertBetween("V", "V1", OrderKeys.between("V", "V1"));
+        assertBetween("", "01", OrderKeys.between(null, "01"));
+        assertBetween("zz", null, OrderKeys.between("zz", null));
+        assertBetween("A", "B", OrderKeys.between("A", "B"));
+    }
+
+    @Test
+    void repeatedInsertsIntoOneGapGrowSlowly() {
+        String lower = "A";
+        String upper = "B";
+        for (int i = 0; i < 60; i++) {
+            String key = OrderKeys.between(lower, upper);
+            assertBetween(lower, upper, key);
+            upper = key;
+        }
+        // About one digit per six halvings of the gap
+        assertTrue(upper.length() <= 14, upper);
+    }
+
+    @Test
+    void randomInsertsKeepTheListSorted() {
+        Random random = new Random(7);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            int position = random.nextInt(keys.size() + 1);
+            String key = OrderKeys.between(position > 0 ? keys.get(position - 1) : null,
+                    position < keys.size() ? keys.get(position) : null);
+            keys.add(position, key);
+        }
+        for (int i = 1; i < keys.size(); i++) {
+            assertTrue(keys.get(i - 1).compareTo(keys.get(i)) < 0, keys.get(i - 1) + " >= " + keys.get(i));
+        }
+    }
+
+    @Test
+    void evenlySpacedKeysAreSortedAndShort() {
+        String[] keys = OrderKeys.evenlySpaced(5000);
+        for (int i = 1; i < keys.length; i++) {
+            assertTrue(keys[i - 1].compareTo(keys[i]) < 0);
+        }
+        assertTrue(keys[keys.length - 1].length() <= 4);
+        // A gap between rebalanced keys takes several inserts before keys get longer
+        assertTrue(OrderKeys.between(keys[0], keys[1]).length() <= 4);
+    }
+
+    @Test
+    void rejectsKeysOutOfOrder() {
+        assertThrows(IllegalArgumentException.class, () -> OrderKeys.between("W", "V"));
+        assertThrows(IllegalArgumentException.class, () -> OrderKeys.between("V", "V"));
+        assertThrows(IllegalArgumentException.class, () -> OrderKeys.between("V0", null));
+    }
+
+    private static void assertBetween(String lower, String upper, String key) {
+        assertTrue(lower == null || lower.compareTo(key) < 0, lower + " >= " + key);
+        assertTrue(upper == null || key.compareTo(upper) < 0, key + " >= " + upper);
+        assertTrue(key.charAt(key.length() - 1) != '0', key);
+    }
+}
@@ -0,0 +1,90 @@
+package com.milan.smarttaskplanner.services.overload;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void rejectsRequestsOverTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2);
+
+        AdaptiveConcurrencyLimiter.Permit first = limiter.tryAcquire();
+        assertNotNull(first);
+        assertNotNull(limiter.tryAcquire());
+        assertNull(limiter.tryAcquire());
+
+        first.release(false);
+        first.release(false);
+        assertEquals(1, limiter.getInFlight());
+        assertNotNull(limiter.tryAcquire());
+    }
+
+    @Test
+    void unsampledReleasesLeaveTheLimitAlone() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2);
+        AdaptiveConcurrencyLimiter.Permit first = limiter.tryAcquire();
+        AdaptiveConcurrencyLimiter.Permit second = limiter.tryAcquire();
+
+        first.releaseUnsampled();
+        second.releaseUnsampled();
+        first.release(true);
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void growsWhileLatencyStaysFlatUnderLoad() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(FAST, limiter.getLimit(), false);
+        }
+        assertTrue(limiter.getLimit() > 20, "limit " + limiter.getLimit());
+    }
+
+    @Test
+    void doesNotGrowWhenTheLimitIsNotApproached() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(FAST, 2, false);
+        }
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void shrinksWhenLatencyRises() {
+        AdaptiveConcurrencyLimiter limiter = limiter(40);
+        for (int i = 0; i < 200; i++) {
+            limiter.onSample(FAST, 20, false);
+        }
+        int before = limiter.getLimit();
+        for (int i = 0; i < 10; i++) {
+            limiter.onSample(SLOW, limiter.getLimit(), false);
+        }
+        assertTrue(limiter.getLimit() < before, before + " -> " + limiter.getLimit());
+    }
+
+    @Test
+    void backsOffOnFailuresDownToTheMinimum() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20);
+        limiter.onSample(FAST, 20, true);
+        assertEquals(18, limiter.getLimit());
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(FAST, 20, true);
+        }
+        assertEquals(2, limiter.getLimit());
+    }
+
+    private static AdaptiveConcurrencyLimiter limiter(int initialLimit) {
+        return new AdaptiveConcurrencyLimiter("test", initialLimit, 2, 100, 0.2, 600, 1.5, 0.9);
+    }
+}
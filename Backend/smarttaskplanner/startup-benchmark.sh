@@ -0,0 +1,91 @@
+#!/usr/bin/env bash
+# Startup benchmark for the Docker image: time from `docker run` to the first successful
+# GET /api/goals, and the resident set size of the JVM right after that request.
+#
+#   ./startup-benchmark.sh [runs]        (default 5 runs per variant)
+#
+# Variants, all on the same image against a fresh PostgreSQL container:
+#   plain    - java -jar, no CDS archive, no AOT
+#   aot      - AOT-generated bean definitions only
+#   cds-aot  - the image entrypoint (CDS archive + AOT)
+# Prints one line per run and the median per variant. Needs docker and curl.
+set -euo pipefail
+
+RUNS=${1:-5}
+IMAGE=${IMAGE:-smarttaskplanner:bench}
+NETWORK=stp-bench
+DB=stp-bench-db
+APP=stp-bench-app
+PORT=${PORT:-18080}
+JAR=smarttaskplanner-0.0.1-SNAPSHOT.jar
+
+cleanup() {
+  docker rm -f "$APP" "$DB" >/dev/null 2>&1 || true
+  docker network rm "$NETWORK" >/dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+now_ms() { date +%s%3N; }
+
+cd "$(dirname "$0")"
+docker build -q -t "$IMAGE" . >/dev/null
+
+cleanup
+docker network create "$NETWORK" >/dev/null
+docker run -d --name "$DB" --network "$NETWORK" \
+  -e POSTGRES_USER=postgres -e POSTGRES_PASSWORD=postgres -e POSTGRES_DB=smartDB \
+  postgres:16-alpine >/dev/null
+until docker exec "$DB" pg_isready -U postgres -d smartDB >/dev/null 2>&1; do sleep 0.5; done
+
+run_app() {
+  local entrypoint=("$@")
+  docker run -d --name "$APP" --network "$NETWORK" -p "$PORT:8080" \
+    -e SPRING_DATASOURCE_URL="jdbc:postgresql://$DB:5432/smartDB?stringtype=unspecified" \
+    -e GEMINI_API_KEY=benchmark \
+    --entrypoint java "$IMAGE" "${entrypoint[@]}" >/dev/null
+}
+
+measure() {
+  local variant=$1; shift
+  local start elapsed rss
+  start=$(now_ms)
+  run_app "$@"
+  until curl -fs -o /dev/null "http://localhost:$PORT/api/goals"; do
+    if [ -z "$(docker ps -q -f name="^$APP$")" ]; then
+      echo "$variant: container exited" >&2; docker logs "$APP" | tail -20 >&2; exit 1
+    fi
+    sleep 0.05
+  done
+  elapsed=$(( $(now_ms) - start ))
+  rss=$(docker exec "$APP" sh -c 'grep VmRSS /proc/1/status' | awk '{print $2}')
+  docker rm -f "$APP" >/dev/null
+  echo "$elapsed $(( rss / 1024 ))"
+}
+
+median() { sort -n | awk '{a[NR]=$1} END {print a[int((NR+1)/2)]}'; }
+
+# One untimed start creates the schema so every measured run sees the same database
+measure warmup -Dspring.aot.enabled=true -jar "$JAR" >/dev/null
+
+printf '%-8s %4s %10s %8s\n' variant run ttfr_ms rss_mb
+for variant in plain aot cds-aot; do
+  case $variant in
+    plain)   args=(-jar "$JAR") ;;
+    aot)     args=(-Dspring.aot.enabled=true -jar "$JAR") ;;
+    cds-aot) args=(-XX:SharedArchiveFile=application.jsa -XX:MaxRAMPercentage=75 -Dspring.aot.enabled=true -jar "$JAR") ;;
+  esac
+  : > "/tmp/$variant.bench"
+  for run in $(seq 1 "$RUNS"); do
+    read -r ms mb < <(measure "$variant" "${args[@]}")
+    printf '%-8s %4d %10d %8d\n' "$variant" "$run" "$ms" "$mb"
+    echo "$ms $mb" >> "/tmp/$variant.bench"
+  done
+done
+
+echo
+printf '%-8s %16s %15s\n' variant median_ttfr_ms median_rss_mb
+for variant in plain aot cds-aot; do
+  printf '%-8s %16d %15d\n' "$variant" \
+    "$(cut -d' ' -f1 "/tmp/$variant.bench" | median)" \
+    "$(cut -d' ' -f2 "/tmp/$variant.bench" | median)"
+done